@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 final class HttpClient implements HttpResponseCode, Serializable {
     private final String httpProxyHost;
@@ -20,6 +21,7 @@ final class HttpClient implements HttpResponseCode, Serializable {
     private final int httpConnectionTimeout;
     private final int httpReadTimeout;
     private final boolean prettyDebug;
+    private final Set<String> skippedJSONFields;
 
     private static final Logger logger = Logger.getLogger();
     private static final long serialVersionUID = -8016974810651763053L;
@@ -29,7 +31,7 @@ final class HttpClient implements HttpResponseCode, Serializable {
     HttpClient(String httpProxyHost, int httpProxyPort, String httpProxyUser, String httpProxyPassword,
                boolean httpProxySocks, int httpRetryCount, int httpRetryIntervalSeconds,
                int httpConnectionTimeout, int httpReadTimeout, boolean prettyDebug,
-               boolean gzipEnabled) {
+               boolean gzipEnabled, Set<String> skippedJSONFields) {
         this.httpProxyHost = httpProxyHost;
         this.httpProxyPort = httpProxyPort;
         this.httpProxyUser = httpProxyUser;
@@ -40,6 +42,7 @@ final class HttpClient implements HttpResponseCode, Serializable {
         this.httpConnectionTimeout = httpConnectionTimeout;
         this.httpReadTimeout = httpReadTimeout;
         this.prettyDebug = prettyDebug;
+        this.skippedJSONFields = skippedJSONFields;
         requestHeaders.put("X-Twitter-Client-Version", Version.getVersion());
         requestHeaders.put("X-Twitter-Client-URL", "https://twitter4j.org/en/twitter4j-" + Version.getVersion() + ".xml");
         requestHeaders.put("X-Twitter-Client", "Twitter4J");
@@ -152,7 +155,7 @@ final class HttpClient implements HttpResponseCode, Serializable {
                         os.flush();
                         os.close();
                     }
-                    res = new HttpResponse(con, prettyDebug);
+                    res = new HttpResponse(con, prettyDebug, skippedJSONFields);
                     responseCode = con.getResponseCode();
                     if (logger.isDebugEnabled()) {
                         logger.debug("Response: ");
@@ -329,12 +332,12 @@ final class HttpClient implements HttpResponseCode, Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         HttpClient that = (HttpClient) o;
-        return httpProxyPort == that.httpProxyPort && httpProxySocks == that.httpProxySocks && httpRetryCount == that.httpRetryCount && httpRetryIntervalSeconds == that.httpRetryIntervalSeconds && httpConnectionTimeout == that.httpConnectionTimeout && httpReadTimeout == that.httpReadTimeout && prettyDebug == that.prettyDebug && Objects.equals(httpProxyHost, that.httpProxyHost) && Objects.equals(httpProxyUser, that.httpProxyUser) && Objects.equals(httpProxyPassword, that.httpProxyPassword) && Objects.equals(requestHeaders, that.requestHeaders);
+        return httpProxyPort == that.httpProxyPort && httpProxySocks == that.httpProxySocks && httpRetryCount == that.httpRetryCount && httpRetryIntervalSeconds == that.httpRetryIntervalSeconds && httpConnectionTimeout == that.httpConnectionTimeout && httpReadTimeout == that.httpReadTimeout && prettyDebug == that.prettyDebug && Objects.equals(skippedJSONFields, that.skippedJSONFields) && Objects.equals(httpProxyHost, that.httpProxyHost) && Objects.equals(httpProxyUser, that.httpProxyUser) && Objects.equals(httpProxyPassword, that.httpProxyPassword) && Objects.equals(requestHeaders, that.requestHeaders);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(httpProxyHost, httpProxyPort, httpProxyUser, httpProxyPassword, httpProxySocks, httpRetryCount, httpRetryIntervalSeconds, httpConnectionTimeout, httpReadTimeout, prettyDebug, requestHeaders);
+        return Objects.hash(httpProxyHost, httpProxyPort, httpProxyUser, httpProxyPassword, httpProxySocks, httpRetryCount, httpRetryIntervalSeconds, httpConnectionTimeout, httpReadTimeout, prettyDebug, skippedJSONFields, requestHeaders);
     }
 
     @Override
@@ -350,6 +353,7 @@ final class HttpClient implements HttpResponseCode, Serializable {
                 ", httpConnectionTimeout=" + httpConnectionTimeout +
                 ", httpReadTimeout=" + httpReadTimeout +
                 ", prettyDebug=" + prettyDebug +
+                ", skippedJSONFields=" + skippedJSONFields +
                 ", requestHeaders=" + requestHeaders +
                 '}';
     }
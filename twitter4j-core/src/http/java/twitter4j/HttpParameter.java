@@ -22,7 +22,6 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -39,6 +38,9 @@ final class HttpParameter implements Comparable<HttpParameter>, java.io.Serializ
     private JSONObject jsonObject = null;
     private File file = null;
     private InputStream fileBody = null;
+    // percent-encoded name and value, computed on demand. parameters are immutable and often reused (e.g. implicit parameters)
+    private transient String encodedName = null;
+    private transient String encodedValue = null;
 
     public HttpParameter(String name, String value) {
         this.name = name;
@@ -248,12 +250,62 @@ final class HttpParameter implements Comparable<HttpParameter>, java.io.Serializ
             if (j != 0) {
                 buf.append("&");
             }
-            buf.append(encode(httpParams[j].name))
-                    .append("=").append(encode(httpParams[j].value));
+            httpParams[j].appendEncoded(buf, false);
         }
         return buf.toString();
     }
 
+    /**
+     * @return percent-encoded name
+     */
+    String getEncodedName() {
+        String encoded = encodedName;
+        if (encoded == null) {
+            encodedName = encoded = encode(name);
+        }
+        return encoded;
+    }
+
+    /**
+     * @return percent-encoded value
+     */
+    String getEncodedValue() {
+        String encoded = encodedValue;
+        if (encoded == null) {
+            encodedValue = encoded = encode(value);
+        }
+        return encoded;
+    }
+
+    /**
+     * Appends "name=value" in percent-encoded form.
+     *
+     * @param buf   buffer to append to
+     * @param twice true to encode the pair once more, as the OAuth signature base string requires
+     */
+    void appendEncoded(StringBuilder buf, boolean twice) {
+        if (twice) {
+            appendEncodedTwice(buf, getEncodedName());
+            buf.append("%3D");
+            appendEncodedTwice(buf, getEncodedValue());
+        } else {
+            buf.append(getEncodedName()).append('=').append(getEncodedValue());
+        }
+    }
+
+    /**
+     * Encoded strings consist of unreserved characters and "%XX" only, so encoding them again just escapes '%'.
+     */
+    private static void appendEncodedTwice(StringBuilder buf, String encoded) {
+        int start = 0;
+        int percent;
+        while ((percent = encoded.indexOf('%', start)) != -1) {
+            buf.append(encoded, start, percent).append("%25");
+            start = percent + 1;
+        }
+        buf.append(encoded, start, encoded.length());
+    }
+
     /**
      * @param value string to be encoded
      * @return encoded string
@@ -262,29 +314,64 @@ final class HttpParameter implements Comparable<HttpParameter>, java.io.Serializ
      * @see <a href="http://tools.ietf.org/html/rfc3986#section-2.1">RFC 3986 - Uniform Resource Identifier (URI): Generic Syntax - 2.1. Percent-Encoding</a>
      */
     public static String encode(String value) {
-        String encoded;
-        try {
-            encoded = URLEncoder.encode(value, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (!isUnreserved(value.charAt(i))) {
+                StringBuilder buf = new StringBuilder(length + 16);
+                buf.append(value, 0, i);
+                appendEncoded(buf, value.substring(i), false);
+                return buf.toString();
+            }
         }
-        StringBuilder buf = new StringBuilder(encoded.length());
-        char focus;
-        for (int i = 0; i < encoded.length(); i++) {
-            focus = encoded.charAt(i);
-            if (focus == '*') {
-                buf.append("%2A");
-            } else if (focus == '+') {
-                buf.append("%20");
-            } else if (focus == '%' && (i + 1) < encoded.length()
-                    && encoded.charAt(i + 1) == '7' && encoded.charAt(i + 2) == 'E') {
-                buf.append('~');
-                i += 2;
+        // nothing to be escaped
+        return value;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Appends the percent-encoded value to the buffer without intermediate Strings.
+     *
+     * @param buf   buffer to append to
+     * @param value string to be encoded
+     * @param twice true to encode the encoded value once more, as the OAuth signature base string requires
+     * @see <a href="http://tools.ietf.org/html/rfc3986#section-2.1">RFC 3986 - Uniform Resource Identifier (URI): Generic Syntax - 2.1. Percent-Encoding</a>
+     */
+    static void appendEncoded(StringBuilder buf, String value, boolean twice) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                buf.append(c);
+            } else if (c < 0x80) {
+                appendEscaped(buf, c, twice);
+            } else if (c < 0x800) {
+                appendEscaped(buf, 0xC0 | (c >> 6), twice);
+                appendEscaped(buf, 0x80 | (c & 0x3F), twice);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEscaped(buf, 0xF0 | (codePoint >> 18), twice);
+                appendEscaped(buf, 0x80 | ((codePoint >> 12) & 0x3F), twice);
+                appendEscaped(buf, 0x80 | ((codePoint >> 6) & 0x3F), twice);
+                appendEscaped(buf, 0x80 | (codePoint & 0x3F), twice);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate is replaced with '?' as URLEncoder does
+                appendEscaped(buf, '?', twice);
             } else {
-                buf.append(focus);
+                appendEscaped(buf, 0xE0 | (c >> 12), twice);
+                appendEscaped(buf, 0x80 | ((c >> 6) & 0x3F), twice);
+                appendEscaped(buf, 0x80 | (c & 0x3F), twice);
             }
         }
-        return buf.toString();
+    }
+
+    private static void appendEscaped(StringBuilder buf, int b, boolean twice) {
+        buf.append(twice ? "%25" : "%").append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
     }
 
     /**
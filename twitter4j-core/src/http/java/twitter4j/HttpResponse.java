@@ -19,8 +19,10 @@ package twitter4j;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A data class representing HTTP Response
@@ -31,10 +33,12 @@ class HttpResponse {
     private static final Logger logger = Logger.getLogger();
     private final boolean prettyDebug;
     private HttpURLConnection con;
+    private Set<String> skippedJSONFields = Collections.emptySet();
 
-    HttpResponse(HttpURLConnection con, boolean prettyDebug) throws IOException {
+    HttpResponse(HttpURLConnection con, boolean prettyDebug, Set<String> skippedJSONFields) throws IOException {
         this.con = con;
         this.prettyDebug = prettyDebug;
+        this.skippedJSONFields = skippedJSONFields;
         try {
             this.statusCode = con.getResponseCode();
         } catch (IOException e) {
@@ -80,6 +84,13 @@ class HttpResponse {
         return con.getHeaderFields();
     }
 
+    /**
+     * @return names of the JSON members to be skipped by the parser
+     */
+    Set<String> getSkippedJSONFields() {
+        return skippedJSONFields;
+    }
+
     /**
      * Returns the response stream.<br>
      * This method cannot be called after calling asString() or asDcoument()<br>
@@ -156,7 +167,7 @@ class HttpResponse {
     JSONObject asJSONObject() throws TwitterException {
         if (json == null) {
             try {
-                json = new JSONObject(asString());
+                json = new JSONObject(new JSONTokener(asString(), skippedJSONFields));
                 if (prettyDebug) {
                     logger.debug(json.toString(1));
                 } else {
@@ -188,7 +199,7 @@ class HttpResponse {
     JSONArray asJSONArray() throws TwitterException {
         if (jsonArray == null) {
             try {
-                jsonArray = new JSONArray(asString());
+                jsonArray = new JSONArray(new JSONTokener(asString(), skippedJSONFields));
                 if (prettyDebug) {
                     logger.debug(jsonArray.toString(1));
                 } else {
@@ -208,6 +219,56 @@ class HttpResponse {
         return jsonArray;
     }
 
+    /**
+     * Returns the response body as twitter4j.JSONArray, parsing it while the body is being received.<br>
+     * Each element is passed to the listener as soon as it is complete, so that binding overlaps with the transfer.<br>
+     * Disconnects the internal HttpURLConnection silently.
+     *
+     * @param listener receives elements in order
+     * @return response body as twitter4j.JSONArray
+     * @throws TwitterException when the response body is not an array of JSON Objects
+     */
+    JSONArray asJSONArray(JSONArrayReader.ObjectListener listener) throws TwitterException {
+        if (jsonArray != null || responseAsString != null || is == null) {
+            // already consumed
+            JSONArray array = asJSONArray();
+            try {
+                for (int i = 0; i < array.length(); i++) {
+                    listener.onObject(array.getJSONObject(i));
+                }
+            } catch (JSONException jsone) {
+                throw new TwitterException(jsone.getMessage(), jsone);
+            }
+            return array;
+        }
+        InputStream stream = null;
+        try {
+            stream = asStream();
+            JSONArrayReader reader = JSONArrayReader.read(new InputStreamReader(stream, StandardCharsets.UTF_8), listener, skippedJSONFields);
+            streamConsumed = true;
+            responseAsString = reader.getBody();
+            jsonArray = reader.getArray();
+            if (prettyDebug) {
+                logger.debug(jsonArray.toString(1));
+            } else {
+                logger.debug(responseAsString);
+            }
+            return jsonArray;
+        } catch (IOException ioe) {
+            throw new TwitterException(ioe.getMessage(), ioe);
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone.getMessage(), jsone);
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignore) {
+                }
+            }
+            disconnectForcibly();
+        }
+    }
+
     @SuppressWarnings("unused")
     Reader asReader() {
         return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+import twitter4j.v1.ConnectionLifeCycleListener;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.RawStreamListener;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
+import twitter4j.v1.StatusListener;
+import twitter4j.v1.TwitterStream;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * Publisher opening a connection for each subscriber, and reading from it only as fast as the subscriber requests.<br>
+ * Each subscriber gets its own connection, with the configuration and credentials of the given stream and without its
+ * listeners. Messages are read from the connection only as fast as the subscriber requests them, so that a slow
+ * subscriber holds back the server through TCP flow control instead of messages piling up in memory. Errors are
+ * recovered from by reconnecting; the subscriber is completed, or signalled the latest error, when the connection is
+ * given up. Cancelling the subscription closes the connection.<br>
+ * Requires Java 9 or later, and is packaged in the Java 9 section of the multi-release jar. TwitterStream itself does
+ * not refer to this class, so that the rest of the library keeps running on Java 8.
+ * <pre>{@code
+ * Flow.Publisher<Status> publisher = StreamPublisher.statuses(twitter.v1().stream(), FilterQuery.ofTrack("java"));
+ * }</pre>
+ *
+ * @param <T> type of the items
+ * @since Twitter4J 4.1.3
+ */
+public final class StreamPublisher<T> implements Flow.Publisher<T> {
+    private static final Logger logger = Logger.getLogger();
+
+    private final TwitterStreamImpl stream;
+    @Nullable
+    private final FilterQuery query;
+    private final boolean messages;
+
+    private StreamPublisher(TwitterStreamImpl stream, @Nullable FilterQuery query, boolean messages) {
+        this.stream = stream;
+        this.query = query;
+        this.messages = messages;
+    }
+
+    /**
+     * @param stream stream providing the configuration and credentials
+     * @param query  filter predicates, or null to sample public statuses
+     * @return publisher of statuses
+     */
+    public static Flow.Publisher<Status> statuses(TwitterStream stream, @Nullable FilterQuery query) {
+        return new StreamPublisher<>((TwitterStreamImpl) stream, query, false);
+    }
+
+    /**
+     * @param stream stream providing the configuration and credentials
+     * @param query  filter predicates, or null to sample public statuses
+     * @return publisher of the raw JSON of every message, such as statuses, deletion notices and limit notices
+     */
+    public static Flow.Publisher<String> messages(TwitterStream stream, @Nullable FilterQuery query) {
+        return new StreamPublisher<>((TwitterStreamImpl) stream, query, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        StreamSubscription<?> subscription = messages
+                ? new MessageSubscription((Flow.Subscriber<? super String>) subscriber)
+                : new StatusSubscription((Flow.Subscriber<? super Status>) subscriber);
+        subscriber.onSubscribe(subscription);
+        TwitterStreamImpl connection = (messages
+                ? stream.withListeners(Collections.emptyList(),
+                Collections.singletonList((RawStreamListener) subscription))
+                : stream.withListeners(Collections.singletonList((StatusListener) subscription),
+                Collections.emptyList()))
+                .withConnectionLifeCycleListener(subscription);
+        if (subscription.connect(connection)) {
+            if (query == null) {
+                connection.sample();
+            } else {
+                connection.filter(query);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamPublisher{" +
+                "query=" + query +
+                ", messages=" + messages +
+                '}';
+    }
+
+    /**
+     * Subscription delivering on the dispatcher thread of its connection, which waits while there is no demand.
+     *
+     * @param <T> type of the items
+     */
+    abstract static class StreamSubscription<T> implements Flow.Subscription, ConnectionLifeCycleListener,
+            DemandDrivenListener {
+        private final Flow.Subscriber<? super T> subscriber;
+        // guards demand, cancelled and connection, and makes the dispatcher wait for demand
+        private final Object lock = new Object();
+        private long demand;
+        private boolean cancelled;
+        private TwitterStreamImpl connection;
+        // guards the signals to the subscriber, so that they are serial
+        private final Object signalLock = new Object();
+        private boolean done;
+        // written by the dispatcher, read by the consumer thread cleaning up
+        private volatile Exception lastException;
+
+        StreamSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * @param connection connection to be shut down on cancellation
+         * @return false if the subscription is already cancelled
+         */
+        boolean connect(TwitterStreamImpl connection) {
+            synchronized (lock) {
+                this.connection = connection;
+                return !cancelled;
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                terminate(new IllegalArgumentException("non-positive request: " + n));
+                return;
+            }
+            synchronized (lock) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            TwitterStreamImpl connection;
+            synchronized (lock) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                connection = this.connection;
+                lock.notifyAll();
+            }
+            if (connection != null) {
+                connection.shutdown();
+            }
+        }
+
+        /**
+         * Waits for demand on the dispatcher thread, then delivers the item.
+         */
+        void emit(T item) {
+            synchronized (lock) {
+                try {
+                    while (demand == 0 && !cancelled) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            }
+            synchronized (signalLock) {
+                if (!done) {
+                    subscriber.onNext(item);
+                }
+            }
+        }
+
+        private void terminate(@Nullable Throwable error) {
+            synchronized (signalLock) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (error == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(error);
+                }
+            }
+        }
+
+        /**
+         * Errors are recovered from by reconnecting. The latest one is signalled if the connection is given up.
+         */
+        public void onException(Exception ex) {
+            logger.debug("Exception on the stream: ", ex.getMessage());
+            lastException = ex;
+        }
+
+        @Override
+        public void onConnect() {
+        }
+
+        @Override
+        public void onDisconnect() {
+        }
+
+        @Override
+        public void onCleanUp() {
+            boolean cancelled;
+            synchronized (lock) {
+                cancelled = this.cancelled;
+            }
+            if (!cancelled) {
+                terminate(lastException);
+            }
+        }
+    }
+
+    /**
+     * Subscription to statuses, ignoring other messages
+     */
+    static final class StatusSubscription extends StreamSubscription<Status> implements StatusListener {
+        StatusSubscription(Flow.Subscriber<? super Status> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        public void onStatus(Status status) {
+            emit(status);
+        }
+
+        @Override
+        public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        }
+
+        @Override
+        public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+        }
+
+        @Override
+        public void onScrubGeo(long userId, long upToStatusId) {
+        }
+
+        @Override
+        public void onStallWarning(StallWarning warning) {
+        }
+    }
+
+    /**
+     * Subscription to every raw message
+     */
+    static final class MessageSubscription extends StreamSubscription<String> implements RawStreamListener {
+        MessageSubscription(Flow.Subscriber<? super String> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        public void onMessage(String rawString) {
+            emit(rawString);
+        }
+    }
+}
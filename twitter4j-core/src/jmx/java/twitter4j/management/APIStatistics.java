@@ -15,9 +15,11 @@
  */
 package twitter4j.management;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Container for all InvocationStatisticsCalculators in a given API (like Twitter)
@@ -27,6 +29,7 @@ import java.util.Map;
 public class APIStatistics implements APIStatisticsMBean {
     private final InvocationStatisticsCalculator API_STATS_CALCULATOR;
     private final Map<String, InvocationStatisticsCalculator> METHOD_STATS_MAP;
+    private final Map<String, EndpointHealth> ENDPOINT_HEALTH_MAP;
     private final int HISTORY_SIZE;
 
     /**
@@ -35,6 +38,7 @@ public class APIStatistics implements APIStatisticsMBean {
     public APIStatistics(int historySize) {
         API_STATS_CALCULATOR = new InvocationStatisticsCalculator("API", historySize);
         METHOD_STATS_MAP = new HashMap<>(100);
+        ENDPOINT_HEALTH_MAP = new TreeMap<>();
         HISTORY_SIZE = historySize;
     }
 
@@ -65,6 +69,22 @@ public class APIStatistics implements APIStatisticsMBean {
         return METHOD_STATS_MAP.values();
     }
 
+    /**
+     * Registers circuit breaker / concurrency limiter state of an endpoint family.<br>
+     * An endpoint registered later replaces the one registered with the same name.
+     *
+     * @param endpointHealth endpoint health
+     * @since Twitter4J 4.1.3
+     */
+    public synchronized void registerEndpointHealth(EndpointHealth endpointHealth) {
+        ENDPOINT_HEALTH_MAP.put(endpointHealth.getName(), endpointHealth);
+    }
+
+    @Override
+    public synchronized Iterable<? extends EndpointHealth> getEndpointHealth() {
+        return new ArrayList<>(ENDPOINT_HEALTH_MAP.values());
+    }
+
     @Override
     public synchronized void reset() {
         API_STATS_CALCULATOR.reset();
@@ -15,6 +15,7 @@
  */
 package twitter4j.management;
 
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -40,4 +41,12 @@ public interface APIStatisticsMBean extends InvocationStatistics {
      * @return InvocationStatistics
      */
     Iterable<? extends InvocationStatistics> getInvocationStatistics();
+
+    /**
+     * @return circuit breaker and concurrency limiter state of each endpoint family, none by default
+     * @since Twitter4J 4.1.3
+     */
+    default Iterable<? extends EndpointHealth> getEndpointHealth() {
+        return Collections.emptyList();
+    }
 }
@@ -38,6 +38,19 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
                     "The average amount of time spent invoking this method in milliseconds"};
     private final CompositeType METHOD_STATS_TYPE;
 
+    private static final String[] HEALTH_ITEM_NAMES = {"endpoint", "circuitState", "failureRate", "concurrencyLimit", "inFlight", "rejectedCount"};
+    private static final OpenType<?>[] HEALTH_ITEM_TYPES =
+            {SimpleType.STRING, SimpleType.STRING, SimpleType.INTEGER, SimpleType.INTEGER, SimpleType.INTEGER, SimpleType.LONG};
+    private static final String[] HEALTH_ITEM_DESCRIPTIONS =
+            {"The endpoint family",
+                    "The circuit breaker state",
+                    "The failure rate of recent calls in percent",
+                    "The current concurrency limit",
+                    "The number of requests in flight",
+                    "The number of requests rejected by the circuit breaker or the concurrency limiter"};
+    private final CompositeType ENDPOINT_HEALTH_TYPE;
+    private final TabularType ENDPOINT_HEALTH_TABLE_TYPE;
+
     private final APIStatisticsMBean API_STATISTICS;
     private final TabularType API_STATISTICS_TYPE;
 
@@ -57,6 +70,14 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
                     "list of methods",
                     METHOD_STATS_TYPE,
                     index);
+
+            ENDPOINT_HEALTH_TYPE =
+                    new CompositeType("endpoint health", "endpoint health",
+                            HEALTH_ITEM_NAMES, HEALTH_ITEM_DESCRIPTIONS, HEALTH_ITEM_TYPES);
+            ENDPOINT_HEALTH_TABLE_TYPE = new TabularType("endpoint health",
+                    "list of endpoint families",
+                    ENDPOINT_HEALTH_TYPE,
+                    new String[]{"endpoint"});
         } catch (OpenDataException e) {
             throw new RuntimeException(e);
         }
@@ -65,7 +86,7 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
     @Override
     public MBeanInfo getMBeanInfo() {
         OpenMBeanInfoSupport info;
-        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[5];
+        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[6];
         OpenMBeanConstructorInfoSupport[] constructors = new OpenMBeanConstructorInfoSupport[1];
         OpenMBeanOperationInfoSupport[] operations = new OpenMBeanOperationInfoSupport[1];
         MBeanNotificationInfo[] notifications = new MBeanNotificationInfo[0];
@@ -96,6 +117,11 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
                         "Table of statisics for all API methods",
                         API_STATISTICS_TYPE, true, false, false);
 
+        attributes[attrIdx++] =
+                new OpenMBeanAttributeInfoSupport("endpointHealthTable",
+                        "Table of circuit breaker and concurrency limiter state for all endpoint families",
+                        ENDPOINT_HEALTH_TABLE_TYPE, true, false, false);
+
         constructors[0] = new OpenMBeanConstructorInfoSupport(
                 "APIStatisticsOpenMBean",
                 "Constructs an APIStatisticsOpenMBean instance",
@@ -143,6 +169,34 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
         return apiStatisticsTable;
     }
 
+    /**
+     * @return TabularDataSupport
+     * @since Twitter4J 4.1.3
+     */
+    public synchronized TabularDataSupport getEndpointHealth() {
+        TabularDataSupport endpointHealthTable = new TabularDataSupport(ENDPOINT_HEALTH_TABLE_TYPE);
+
+        for (EndpointHealth health : API_STATISTICS.getEndpointHealth()) {
+            Object[] itemValues = {health.getName(),
+                    health.getCircuitState(),
+                    health.getFailureRate(),
+                    health.getConcurrencyLimit(),
+                    health.getInFlight(),
+                    health.getRejectedCount()};
+
+            try {
+                CompositeData result = new CompositeDataSupport(ENDPOINT_HEALTH_TYPE,
+                        HEALTH_ITEM_NAMES,
+                        itemValues);
+                endpointHealthTable.put(result);
+            } catch (OpenDataException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        return endpointHealthTable;
+    }
+
     /**
      * reset statistics
      */
@@ -156,6 +210,8 @@ public class APIStatisticsOpenMBean implements DynamicMBean {
         switch (attribute) {
             case "statisticsTable":
                 return getStatistics();
+            case "endpointHealthTable":
+                return getEndpointHealth();
             case "callCount":
                 return API_STATISTICS.getCallCount();
             case "errorCount":
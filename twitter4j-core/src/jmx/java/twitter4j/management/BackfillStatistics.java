@@ -0,0 +1,65 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+
+/**
+ * Gaps filled over REST after reconnections of a backfilled filter stream
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface BackfillStatistics {
+    /**
+     * return the number of reconnections a gap was filled for
+     * @return fill count
+     */
+    long getFillCount();
+
+    /**
+     * return the number of REST requests of the fills that failed
+     * @return failure count
+     */
+    long getFailureCount();
+
+    /**
+     * return the number of statuses missed by the stream and delivered from REST, over all fills
+     * @return backfilled status count
+     */
+    long getBackfilledStatusCount();
+
+    /**
+     * return the number of statuses missed by the stream and delivered from REST by the latest fill
+     * @return gap size
+     */
+    long getLastGapSize();
+
+    /**
+     * return the time between the disconnection and the reconnection preceding the latest fill
+     * @return outage in milliseconds, or -1 if no gap has been filled yet
+     */
+    long getLastOutageMillis();
+
+    /**
+     * return the time between the reconnection and the delivery of the latest fill
+     * @return fill latency in milliseconds, or -1 if no gap has been filled yet
+     */
+    long getLastFillLatencyMillis();
+
+    /**
+     * return the number of statuses dropped because they had already been delivered
+     * @return duplicate count
+     */
+    long getDuplicateCount();
+}
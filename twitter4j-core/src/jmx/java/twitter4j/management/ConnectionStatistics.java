@@ -0,0 +1,70 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+/**
+ * Connections, reconnections and uptime of a stream
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface ConnectionStatistics {
+    /**
+     * return whether the stream is connected
+     * @return true if connected
+     */
+    boolean isConnected();
+
+    /**
+     * return the number of connections established
+     * @return connect count
+     */
+    int getConnectCount();
+
+    /**
+     * return the number of reconnections attempted after the connection failed or was closed
+     * @return reconnect attempt count
+     */
+    int getReconnectAttemptCount();
+
+    /**
+     * return the number of times the reconnect strategy gave up
+     * @return give up count
+     */
+    int getGiveUpCount();
+
+    /**
+     * return the time since the current connection was established
+     * @return uptime in milliseconds, or 0 if not connected
+     */
+    long getUptimeMillis();
+
+    /**
+     * return the time the stream has been connected, over all connections
+     * @return total uptime in milliseconds
+     */
+    long getTotalUptimeMillis();
+
+    /**
+     * return the time the stream has been disconnected between the first connection attempt and now, or its shutdown
+     * @return total disconnected time in milliseconds
+     */
+    long getTotalDisconnectedMillis();
+
+    /**
+     * return the latest delay before reconnecting
+     * @return delay in milliseconds, or -1 if the stream has not reconnected yet
+     */
+    long getLastReconnectDelayMillis();
+}
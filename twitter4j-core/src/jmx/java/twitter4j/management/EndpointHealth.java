@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+
+/**
+ * Circuit breaker and concurrency limiter state of an endpoint family (like "search" or "statuses")
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface EndpointHealth {
+    /**
+     * return endpoint family name
+     * @return name
+     */
+    String getName();
+
+    /**
+     * return circuit breaker state
+     * @return CLOSED, OPEN, HALF_OPEN, or DISABLED when the circuit breaker is not enabled
+     */
+    String getCircuitState();
+
+    /**
+     * return failure rate over the recent calls
+     * @return failure rate in percent
+     */
+    int getFailureRate();
+
+    /**
+     * return current concurrency limit
+     * @return concurrency limit, or -1 when adaptive concurrency limiting is not enabled
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * return the number of requests currently in flight
+     * @return in flight requests
+     */
+    int getInFlight();
+
+    /**
+     * return the number of requests rejected without calling the API
+     * @return rejected count
+     */
+    long getRejectedCount();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+
+/**
+ * Throughput and lag of a connection of a sharded filter stream
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface FilterShardStatistics {
+    /**
+     * return the index of the shard
+     * @return shard index
+     */
+    int getShard();
+
+    /**
+     * return the filter predicates of the shard
+     * @return filter query
+     */
+    String getQuery();
+
+    /**
+     * return the number of statuses received by the shard
+     * @return status count
+     */
+    long getStatusCount();
+
+    /**
+     * return the number of statuses dropped because another shard delivered them first
+     * @return duplicate count
+     */
+    long getDuplicateCount();
+
+    /**
+     * return the number of statuses received per second, measured over the last complete second
+     * @return throughput
+     */
+    double getStatusesPerSecond();
+
+    /**
+     * return the time between the creation of the latest status and its receipt
+     * @return lag in milliseconds, or -1 if no status has been received yet
+     */
+    long getLagMillis();
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+
+/**
+ * Threads and pending events of the dispatchers delivering stream messages to the listeners
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface StreamDispatcherStatistics {
+    /**
+     * return the number of live dispatcher threads, of the shared pools and of the streams dispatching on a thread of
+     * their own
+     * @return thread count
+     */
+    int getThreadCount();
+
+    /**
+     * return the maximum number of threads of each shared pool
+     * @return pool size
+     */
+    int getMaximumPoolSize();
+
+    /**
+     * return the number of messages read and waiting to be dispatched, over all streams
+     * @return pending event count
+     */
+    long getPendingEventCount();
+
+    /**
+     * return the number of messages dispatched, over all streams
+     * @return dispatched event count
+     */
+    long getDispatchedEventCount();
+}
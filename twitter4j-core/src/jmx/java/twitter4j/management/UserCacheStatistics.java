@@ -0,0 +1,53 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.management;
+
+/**
+ * Hit and miss counts of the user cache, which shares User instances across statuses by the same author
+ *
+ * @since Twitter4J 4.1.3
+ */
+public interface UserCacheStatistics {
+    /**
+     * return the number of users served from the cache
+     * @return hit count
+     */
+    long getHitCount();
+
+    /**
+     * return the number of users bound from JSON because the cache didn't hold an identical version
+     * @return miss count
+     */
+    long getMissCount();
+
+    /**
+     * return the ratio of hits to lookups
+     * @return hit ratio between 0 and 1, or 0 if no lookup happened yet
+     */
+    double getHitRatio();
+
+    /**
+     * return the number of users currently cached
+     * @return size
+     */
+    int getSize();
+
+    /**
+     * return the maximum number of users cached
+     * @return capacity
+     */
+    int getCapacity();
+}
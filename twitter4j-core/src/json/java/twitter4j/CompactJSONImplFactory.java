@@ -0,0 +1,124 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+import twitter4j.v1.ResponseList;
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+/**
+ * Creates statuses and users with a small in-heap footprint, see {@link CompactStatusJSONImpl}.
+ * Other objects are bound the same way as {@link JSONImplFactory} does.
+ *
+ * @since Twitter4J 4.1.3
+ */
+class CompactJSONImplFactory extends JSONImplFactory {
+    private static final long serialVersionUID = -4317645931306813170L;
+
+    CompactJSONImplFactory(boolean jsonStoreEnabled, @Nullable UserCache userCache) {
+        this(jsonStoreEnabled, userCache, 0);
+    }
+
+    CompactJSONImplFactory(boolean jsonStoreEnabled, @Nullable UserCache userCache, int parallelBindingThreshold) {
+        super(jsonStoreEnabled, userCache, parallelBindingThreshold);
+    }
+
+    @Override
+    public Status createStatus(JSONObject json) throws TwitterException {
+        return new CompactStatusJSONImpl(json, userCache);
+    }
+
+    @Override
+    public User createUser(JSONObject json) throws TwitterException {
+        return new CompactUserJSONImpl(json);
+    }
+
+    @Override
+    public Status createStatus(HttpResponse res) throws TwitterException {
+        Status status = new CompactStatusJSONImpl(res, userCache);
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(status, res.asJSONObject());
+        }
+        return status;
+    }
+
+    @Override
+    public ResponseList<Status> createStatusList(HttpResponse res) throws TwitterException {
+        if (parallelBindingThreshold > 0) {
+            // bound with createStatus(JSONObject) of this factory
+            return super.createStatusList(res);
+        }
+        ResponseList<Status> statuses = new ResponseListImpl<>(res);
+        // bind statuses while the rest of the response is still being received
+        JSONArray list = res.asJSONArray(json -> {
+            Status status = new CompactStatusJSONImpl(json, userCache);
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(status, json);
+            }
+            statuses.add(status);
+        });
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(statuses, list);
+        }
+        return statuses;
+    }
+
+    @Override
+    public User createUser(HttpResponse res) throws TwitterException {
+        User user = new CompactUserJSONImpl(res);
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(user, res.asJSONObject());
+        }
+        return user;
+    }
+
+    @Override
+    public ResponseList<User> createUserList(HttpResponse res) throws TwitterException {
+        if (parallelBindingThreshold > 0) {
+            // bound with createUser(JSONObject) of this factory
+            return super.createUserList(res);
+        }
+        ResponseList<User> users = new ResponseListImpl<>(res);
+        // bind users while the rest of the response is still being received
+        JSONArray list = res.asJSONArray(json -> {
+            User user = new CompactUserJSONImpl(json);
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(user, json);
+            }
+            users.add(user);
+        });
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(users, list);
+        }
+        return users;
+    }
+
+    @Override
+    public ResponseList<User> createUserListFromJSONArray(HttpResponse res) throws TwitterException {
+        return createUserList(res);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactJSONImplFactory{" +
+                "jsonStoreEnabled=" + jsonStoreEnabled +
+                ", userCache=" + userCache +
+                ", parallelBindingThreshold=" + parallelBindingThreshold +
+                '}';
+    }
+}
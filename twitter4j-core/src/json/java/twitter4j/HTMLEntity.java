@@ -22,72 +22,169 @@ import twitter4j.v1.URLEntity;
 import twitter4j.v1.UserMentionEntity;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+/**
+ * Escapes and unescapes the character entity references of HTML 4.<br>
+ * Input is scanned once: references are looked up by their chars in place, without substrings or maps.
+ */
 final class HTMLEntity {
 
     static String escape(String original) {
-        StringBuilder buf = new StringBuilder(original);
-        escape(buf);
+        int index = indexOfEscapable(original, 0);
+        if (index == -1) {
+            return original;
+        }
+        StringBuilder buf = new StringBuilder(original.length() + 16);
+        escape(original, index, buf);
         return buf.toString();
     }
 
     static void escape(StringBuilder original) {
-        int index = 0;
-        String escaped;
-        while (index < original.length()) {
-            escaped = entityEscapeMap.get(original.substring(index, index + 1));
-            if (escaped != null) {
-                original.replace(index, index + 1, escaped);
-                index += escaped.length();
+        int index = indexOfEscapable(original, 0);
+        if (index == -1) {
+            return;
+        }
+        StringBuilder buf = new StringBuilder(original.length() + 16);
+        escape(original, index, buf);
+        original.setLength(0);
+        original.append(buf);
+    }
+
+    private static int indexOfEscapable(CharSequence original, int from) {
+        for (int index = from; index < original.length(); index++) {
+            if (Arrays.binarySearch(escapableChars, original.charAt(index)) >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static void escape(CharSequence original, int index, StringBuilder buf) {
+        buf.append(original, 0, index);
+        for (; index < original.length(); index++) {
+            char c = original.charAt(index);
+            int escapable = Arrays.binarySearch(escapableChars, c);
+            if (escapable >= 0) {
+                buf.append(escapedForms[escapable]);
             } else {
-                index++;
+                buf.append(c);
             }
         }
     }
 
     static String unescape(String original) {
-        String returnValue = null;
-        if (original != null) {
-            StringBuilder buf = new StringBuilder(original);
-            unescape(buf);
-            returnValue = buf.toString();
+        if (original == null) {
+            return null;
+        }
+        int index = original.indexOf('&');
+        if (index == -1) {
+            return original;
         }
-        return returnValue;
+        char[] chars = original.toCharArray();
+        return new String(chars, 0, unescape(chars, index));
     }
 
     static void unescape(StringBuilder original) {
-        int index = 0;
-        int semicolonIndex;
-        String escaped;
-        String entity;
-        while (index < original.length()) {
-            index = original.indexOf("&", index);
-            if (-1 == index) {
-                break;
-            }
-            semicolonIndex = original.indexOf(";", index);
-            if (-1 != semicolonIndex) {
-                escaped = original.substring(index, semicolonIndex + 1);
-                entity = escapeEntityMap.get(escaped);
-                if (entity != null) {
-                    original.replace(index, semicolonIndex + 1, entity);
-                }
-                index++;
+        int index = original.indexOf("&");
+        if (index == -1) {
+            return;
+        }
+        char[] chars = new char[original.length()];
+        original.getChars(0, chars.length, chars, 0);
+        int length = unescape(chars, index);
+        original.setLength(0);
+        original.append(chars, 0, length);
+    }
+
+    /**
+     * Unescapes the chars in place. As the text only shrinks, the unescaped chars never overtake the chars to read.
+     *
+     * @param chars text
+     * @param index position of the first ampersand
+     * @return length of the unescaped text
+     */
+    private static int unescape(char[] chars, int index) {
+        int length = index;
+        while (index < chars.length) {
+            char c = chars[index];
+            int slot = c == '&' ? referenceAt(chars, index) : -1;
+            if (slot != -1) {
+                chars[length++] = replacements[slot];
+                index += references[slot].length();
             } else {
-                break;
+                chars[length++] = c;
+                index++;
             }
         }
+        return length;
     }
 
     /**
+     * @param chars text
+     * @param index position of an ampersand
+     * @return slot of the reference starting at the position, or -1 if there is no known reference
+     */
+    private static int referenceAt(char[] chars, int index) {
+        int limit = Math.min(chars.length, index + maxReferenceLength);
+        int hash = '&';
+        for (int end = index + 1; end < limit; end++) {
+            char c = chars[end];
+            hash = 31 * hash + c;
+            if (c == ';') {
+                return lookup(chars, index, end + 1, hash);
+            }
+        }
+        // no semicolon, or too far to end a known reference
+        return -1;
+    }
+
+    private static int lookup(char[] chars, int from, int to, int hash) {
+        int mask = references.length - 1;
+        for (int slot = spread(hash) & mask; references[slot] != null; slot = (slot + 1) & mask) {
+            String reference = references[slot];
+            if (reference.length() == to - from && regionMatches(reference, chars, from)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(String reference, char[] chars, int from) {
+        for (int i = 0; i < reference.length(); i++) {
+            if (reference.charAt(i) != chars[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Unescapes the text and slides the indices of the entities from the twitter code point based indices of the
+     * escaped text to Java char indices of the unescaped text.<br>
+     * Entities are slid while the text is scanned, in whichever order they are given.
+     *
      * @author Yusuke Yamamoto - yusuke at mac.com
      * @author Philip Hachey - philip dot hachey at gmail dot com
      */
     static String unescapeAndSlideEntityIncdices(String text, UserMentionEntity[] userMentionEntities,
                                                  URLEntity[] urlEntities, HashtagEntity[] hashtagEntities,
                                                  MediaEntity[] mediaEntities) {
+        int index = 0;
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (c == '&' || Character.isSurrogate(c)) {
+                break;
+            }
+            index++;
+        }
+        if (index == text.length()) {
+            // nothing to unescape, and code point indices are char indices
+            return text;
+        }
 
         int entityIndexesLength = 0;
         entityIndexesLength += userMentionEntities == null ? 0 : userMentionEntities.length;
@@ -116,15 +213,15 @@ final class HTMLEntity {
             System.arraycopy(mediaEntities, 0, entityIndexes, copyStartIndex, mediaEntities.length);
         }
 
-        Arrays.sort(entityIndexes);
-        boolean handlingStart = true;
-        int entityIndex = 0;
-
-        int delta = 0;
-        int semicolonIndex;
-        String escaped;
-        String entity;
-        StringBuilder unescaped = new StringBuilder(text.length());
+        // start and end of each entity, replaced with the slid index as the scan reaches them. entities are updated
+        // after the scan as a slid index may equal an index yet to be reached
+        int[] indices = new int[entityIndexes.length * 2];
+        boolean[] reached = new boolean[indices.length];
+        for (int i = 0; i < entityIndexes.length; i++) {
+            indices[i * 2] = entityIndexes[i].getStart();
+            indices[i * 2 + 1] = entityIndexes[i].getEnd();
+        }
+        int nextIndex = nextIndex(indices, reached, -1);
 
         /*
          * Slide indices of twitter entities not only when replacing character
@@ -132,57 +229,80 @@ final class HTMLEntity {
          * indexes with Java standard character indexes. See: HTMLEntityTest.
          * testUnescapeAndSlideEntityIncdicesWithSurrogateCodePoints
          */
-        int textCodePointLength = text.codePointCount(0, text.length());
-        int codePoint;
-        for (int index = 0, twitterIndex = 0; index < text.length(); index +=
-                Character.charCount(codePoint), twitterIndex++) {
-            codePoint = text.codePointAt(index);
-            if (codePoint == '&') {
-                semicolonIndex = text.indexOf(";", index);
-                if (-1 != semicolonIndex) {
-                    escaped = text.substring(index, semicolonIndex + 1);
-                    entity = escapeEntityMap.get(escaped);
-                    if (entity != null) {
-                        unescaped.append(entity);
-                        index = semicolonIndex;
-                        twitterIndex = text.codePointCount(0, semicolonIndex);
-                        delta = 1 - escaped.length();
-                    } else {
-                        unescaped.appendCodePoint(codePoint);
-                    }
-                } else {
-                    unescaped.appendCodePoint(codePoint);
-                }
-            } else {
-                unescaped.appendCodePoint(codePoint);
+        // unescaped in place, see unescape(char[], int)
+        char[] chars = text.toCharArray();
+        int length = 0;
+        int twitterIndex = 0;
+        index = 0;
+        while (index < chars.length) {
+            if (twitterIndex >= nextIndex) {
+                // indices within a reference are passed over
+                nextIndex = slide(indices, reached, twitterIndex, length);
             }
-            if (entityIndex < entityIndexes.length) {
-                if (handlingStart) {
-                    if (entityIndexes[entityIndex].getStart() == (delta + twitterIndex)) {
-                        entityIndexes[entityIndex]
-                                .setStart(unescaped.length() - Character.charCount(text.codePointAt(index)));
-                        handlingStart = false;
-                    }
-                } else if (entityIndexes[entityIndex].getEnd() == (delta + twitterIndex)) {
-                    entityIndexes[entityIndex]
-                            .setEnd(unescaped.length() - Character.charCount(text.codePointAt(index)));
-                    entityIndex++;
-                    handlingStart = true;
-                }
+            char c = chars[index];
+            int slot = c == '&' ? referenceAt(chars, index) : -1;
+            if (slot != -1) {
+                chars[length++] = replacements[slot];
+                // references consist of ASCII chars
+                twitterIndex += references[slot].length();
+                index += references[slot].length();
+                continue;
+            }
+            chars[length++] = c;
+            index++;
+            if (Character.isHighSurrogate(c) && index < chars.length && Character.isLowSurrogate(chars[index])) {
+                chars[length++] = chars[index++];
+            }
+            twitterIndex++;
+        }
+        if (twitterIndex >= nextIndex) {
+            slide(indices, reached, twitterIndex, length);
+        }
+
+        for (int i = 0; i < entityIndexes.length; i++) {
+            if (reached[i * 2]) {
+                entityIndexes[i].setStart(indices[i * 2]);
+            }
+            if (reached[i * 2 + 1]) {
+                entityIndexes[i].setEnd(indices[i * 2 + 1]);
             }
-            delta = 0;
         }
-        if (entityIndex < entityIndexes.length) {
-            if (entityIndexes[entityIndex].getEnd() == textCodePointLength) {
-                entityIndexes[entityIndex].setEnd(unescaped.length());
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * @return the next index to slide
+     */
+    private static int slide(int[] indices, boolean[] reached, int twitterIndex, int index) {
+        for (int i = 0; i < indices.length; i++) {
+            if (!reached[i] && indices[i] == twitterIndex) {
+                indices[i] = index;
+                reached[i] = true;
             }
         }
+        return nextIndex(indices, reached, twitterIndex);
+    }
 
-        return unescaped.toString();
+    /**
+     * @return the smallest index yet to be reached beyond the twitter index
+     */
+    private static int nextIndex(int[] indices, boolean[] reached, int twitterIndex) {
+        int next = Integer.MAX_VALUE;
+        for (int i = 0; i < indices.length; i++) {
+            if (!reached[i] && indices[i] > twitterIndex && indices[i] < next) {
+                next = indices[i];
+            }
+        }
+        return next;
     }
 
-    private static final Map<String, String> entityEscapeMap = new HashMap<>();
-    private static final Map<String, String> escapeEntityMap = new HashMap<>();
+    // named and numeric references with their chars, in open addressing by hash
+    private static final String[] references;
+    private static final char[] replacements;
+    private static final int maxReferenceLength;
+    // escapable chars in ascending order with their named references
+    private static final char[] escapableChars;
+    private static final String[] escapedForms;
 
     static {
         String[][] entities =
@@ -465,10 +585,30 @@ final class HTMLEntity {
                         , {"&rsaquo;", "&#8250;"/* single right-pointing angle quotation mark */, "\u203A"}
 /* rsaquo is proposed but not yet ISO standardized */
                         , {"&euro;", "&#8364;" /* euro sign */, "\u20AC"}};
+        references = new String[Integer.highestOneBit(entities.length * 2 * 2 - 1) << 1];
+        replacements = new char[references.length];
+        int maxLength = 0;
         for (String[] entity : entities) {
-            entityEscapeMap.put(entity[2], entity[0]);
-            escapeEntityMap.put(entity[0], entity[2]);
-            escapeEntityMap.put(entity[1], entity[2]);
+            for (int i = 0; i < 2; i++) {
+                int mask = references.length - 1;
+                int slot = spread(entity[i].hashCode()) & mask;
+                while (references[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                references[slot] = entity[i];
+                replacements[slot] = entity[2].charAt(0);
+                maxLength = Math.max(maxLength, entity[i].length());
+            }
+        }
+        maxReferenceLength = maxLength;
+
+        String[][] sorted = entities.clone();
+        Arrays.sort(sorted, (a, b) -> Character.compare(a[2].charAt(0), b[2].charAt(0)));
+        escapableChars = new char[sorted.length];
+        escapedForms = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            escapableChars[i] = sorted[i][2].charAt(0);
+            escapedForms[i] = sorted[i][0];
         }
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Set;
+
+/**
+ * Reads a JSON array from a character stream and parses each element as soon as its last character has been received,
+ * so that parsing and binding overlap with the network transfer.<br>
+ * Element boundaries are found by tracking nesting and string literals only. Anything that doesn't look like a plain
+ * array is handed to {@link JSONArray#JSONArray(String)} once the input is exhausted, so that errors and lenient input
+ * are handled exactly as before.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class JSONArrayReader {
+    /**
+     * Receives array elements in order, as they are parsed.
+     */
+    interface ObjectListener {
+        /**
+         * @param object array element
+         * @throws TwitterException when the element cannot be bound
+         */
+        void onObject(JSONObject object) throws TwitterException;
+    }
+
+    private static final int START = 0;
+    private static final int BEFORE_ELEMENT = 1;
+    private static final int IN_ELEMENT = 2;
+    private static final int END = 3;
+    private static final int NOT_ARRAY = 4;
+
+    private final ObjectListener listener;
+    private final Set<String> skippedNames;
+    private final StringBuilder body = new StringBuilder();
+    private final JSONArray array = new JSONArray();
+    private int state = START;
+    private int elementStart;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    private JSONArray result;
+
+    private JSONArrayReader(ObjectListener listener, Set<String> skippedNames) {
+        this.listener = listener;
+        this.skippedNames = skippedNames;
+    }
+
+    /**
+     * @param reader   character stream to read from. Not closed by this method.
+     * @param listener receives JSONObject elements. Elements of other types result in JSONException.
+     * @param skippedNames names of the members to be skipped, see {@link JSONTokener#JSONTokener(String, Set)}
+     * @return reader holding the parsed array and the whole input
+     * @throws IOException   when the stream cannot be read
+     * @throws JSONException    when the input is not an array of objects
+     * @throws TwitterException when the listener fails to bind an element
+     */
+    static JSONArrayReader read(Reader reader, ObjectListener listener, Set<String> skippedNames) throws IOException, TwitterException {
+        JSONArrayReader arrayReader = new JSONArrayReader(listener, skippedNames);
+        char[] buf = new char[8192];
+        int n;
+        while ((n = reader.read(buf)) != -1) {
+            arrayReader.scan(buf, n);
+        }
+        arrayReader.finish();
+        return arrayReader;
+    }
+
+    /**
+     * @return parsed array
+     */
+    JSONArray getArray() {
+        return result;
+    }
+
+    /**
+     * @return the whole input
+     */
+    String getBody() {
+        return body.toString();
+    }
+
+    private void scan(char[] buf, int length) throws TwitterException {
+        int offset = body.length();
+        body.append(buf, 0, length);
+        for (int i = 0; i < length; i++) {
+            char c = buf[i];
+            switch (state) {
+                case START:
+                    if (c == '[') {
+                        state = BEFORE_ELEMENT;
+                    } else if (!isWhitespace(c) && c != '\uFEFF') {
+                        state = NOT_ARRAY;
+                    }
+                    break;
+                case BEFORE_ELEMENT:
+                    if (c == ']') {
+                        state = END;
+                    } else if (!isWhitespace(c)) {
+                        state = IN_ELEMENT;
+                        elementStart = offset + i;
+                        depth = 0;
+                        inString = false;
+                        escaped = false;
+                        scanElement(c, offset + i);
+                    }
+                    break;
+                case IN_ELEMENT:
+                    scanElement(c, offset + i);
+                    break;
+                case END:
+                case NOT_ARRAY:
+                default:
+                    // the rest is examined by JSONArray(String), if needed
+                    return;
+            }
+        }
+    }
+
+    private void scanElement(char c, int index) throws TwitterException {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+        switch (c) {
+            case '"':
+                inString = true;
+                break;
+            case '{':
+            case '[':
+                depth++;
+                break;
+            case '}':
+                depth--;
+                break;
+            case ']':
+                if (depth == 0) {
+                    element(index);
+                    state = END;
+                } else {
+                    depth--;
+                }
+                break;
+            case ',':
+                if (depth == 0) {
+                    element(index);
+                    state = BEFORE_ELEMENT;
+                }
+                break;
+            default:
+        }
+    }
+
+    private void element(int end) throws TwitterException {
+        Object value = new JSONTokener(body.substring(elementStart, end), skippedNames).nextValue();
+        if (!(value instanceof JSONObject)) {
+            throw JSON.typeMismatch(array.length(), value, "JSONObject");
+        }
+        array.put(value);
+        listener.onObject((JSONObject) value);
+    }
+
+    private void finish() throws TwitterException {
+        if (state == END) {
+            result = array;
+        } else if (array.length() == 0) {
+            // not a plain array, or truncated before the first element. let the lenient parser decide
+            result = new JSONArray(new JSONTokener(body.toString(), skippedNames));
+            for (int i = 0; i < result.length(); i++) {
+                listener.onObject(result.getJSONObject(i));
+            }
+        } else {
+            throw new JSONException("Unterminated array at character " + body.length());
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
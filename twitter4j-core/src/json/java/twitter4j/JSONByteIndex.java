@@ -0,0 +1,452 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Offsets of the members of a JSON object held as UTF-8 bytes.<br>
+ * The index is built by walking the {@link JSONStructuralIndex structural characters} of the object, values are
+ * decoded on request. Nested objects are indexed on request as well, sharing the same bytes and structural index.<br>
+ * Strict JSON is expected. Input that {@link JSONTokener} would accept leniently, such as comments or unquoted names,
+ * is rejected with {@link JSONException}.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class JSONByteIndex {
+    private final byte[] raw;
+    private final JSONStructuralIndex structurals;
+    // structural index of the opening brace
+    private final int opening;
+    private final int start;
+    private final int end;
+    // name start, name end, value start, value end and structural index of the value of each member. names exclude
+    // the quotes
+    private int[] offsets = new int[5 * 16];
+    private int size;
+
+    private JSONByteIndex(JSONStructuralIndex structurals, int opening) {
+        this.raw = structurals.raw;
+        this.structurals = structurals;
+        this.opening = opening;
+        this.start = structurals.position(opening);
+        this.end = structurals.position(structurals.partner(opening)) + 1;
+    }
+
+    /**
+     * @param raw UTF-8 encoded JSON object
+     * @return index of the object
+     * @throws JSONException when the input is not a JSON object
+     */
+    static JSONByteIndex of(byte[] raw) throws JSONException {
+        int start = skipWhitespace(raw, skipBOM(raw), raw.length);
+        int end = trimWhitespace(raw, start, raw.length);
+        if (start == end || raw[start] != '{') {
+            throw new JSONException("A JSONObject text must begin with '{' at character " + start);
+        }
+        JSONByteIndex index = new JSONByteIndex(JSONStructuralIndex.of(raw, start, end), 0);
+        if (index.end != end) {
+            throw new JSONException("Unexpected character after the JSONObject at character " + index.end);
+        }
+        index.scan();
+        return index;
+    }
+
+    /**
+     * Finds the elements of a JSON array.
+     *
+     * @param raw UTF-8 encoded JSON array
+     * @return start and end offsets of each element
+     * @throws JSONException when the input is not a JSON array
+     */
+    static int[] elements(byte[] raw) throws JSONException {
+        int[] elements = elements(arrayOf(raw));
+        int[] offsets = new int[elements.length / 3 * 2];
+        for (int i = 0; i < elements.length / 3; i++) {
+            offsets[i * 2] = elements[i * 3];
+            offsets[i * 2 + 1] = elements[i * 3 + 1];
+        }
+        return offsets;
+    }
+
+    /**
+     * Indexes the elements of a JSON array of objects.<br>
+     * Each index holds a copy of the bytes of its element and of the part of the structural index covering them, so
+     * that the rest of the array can be collected.
+     *
+     * @param raw UTF-8 encoded JSON array of objects
+     * @return index of each element
+     * @throws JSONException when the input is not a JSON array of objects
+     */
+    static JSONByteIndex[] objects(byte[] raw) throws JSONException {
+        JSONStructuralIndex structurals = arrayOf(raw);
+        int[] elements = elements(structurals);
+        JSONByteIndex[] objects = new JSONByteIndex[elements.length / 3];
+        for (int i = 0; i < objects.length; i++) {
+            if (raw[elements[i * 3]] != '{') {
+                throw new JSONException("JSONArray[" + i + "] is not a JSONObject.");
+            }
+            objects[i] = new JSONByteIndex(structurals.copyOf(elements[i * 3 + 2]), 0);
+            objects[i].scan();
+        }
+        return objects;
+    }
+
+    private static JSONStructuralIndex arrayOf(byte[] raw) throws JSONException {
+        int start = skipWhitespace(raw, skipBOM(raw), raw.length);
+        int end = trimWhitespace(raw, start, raw.length);
+        if (start == end || raw[start] != '[') {
+            throw new JSONException("A JSONArray text must start with '[' at character " + start);
+        }
+        JSONStructuralIndex structurals = JSONStructuralIndex.of(raw, start, end);
+        int closing = structurals.position(structurals.partner(0));
+        if (closing + 1 != end) {
+            throw new JSONException("Unexpected character after the JSONArray at character " + (closing + 1));
+        }
+        return structurals;
+    }
+
+    /**
+     * @return start, end and structural index of each element of the array starting at the first structural character
+     */
+    private static int[] elements(JSONStructuralIndex structurals) throws JSONException {
+        byte[] raw = structurals.raw;
+        int close = structurals.partner(0);
+        int end = structurals.position(close);
+        int[] elements = new int[3 * 16];
+        int count = 0;
+        int pos = skipWhitespace(raw, structurals.position(0) + 1, end);
+        if (pos == end) {
+            return new int[0];
+        }
+        int i = 1;
+        while (true) {
+            int next = next(structurals, i, pos);
+            if (count * 3 == elements.length) {
+                elements = Arrays.copyOf(elements, elements.length * 2);
+            }
+            elements[count * 3] = pos;
+            elements[count * 3 + 1] = valueEnd(structurals, i, next, pos);
+            elements[count * 3 + 2] = i;
+            count++;
+            i = next;
+            if (i == close) {
+                return Arrays.copyOf(elements, count * 3);
+            }
+            if (structurals.at(i) != ',') {
+                throw new JSONException("Expected a ',' or ']' at character " + structurals.position(i));
+            }
+            pos = skipWhitespace(raw, structurals.position(i) + 1, end);
+            i++;
+        }
+    }
+
+    private void scan() throws JSONException {
+        int close = structurals.partner(opening);
+        int pos = skipWhitespace(raw, start + 1, end);
+        if (pos == end - 1) {
+            return;
+        }
+        int i = opening + 1;
+        while (true) {
+            if (structurals.at(i) != '"' || structurals.position(i) != pos) {
+                throw new JSONException("Expected a name at character " + pos);
+            }
+            if (structurals.at(i + 1) != ':') {
+                throw new JSONException("Expected ':' after a name at character " + structurals.position(i + 1));
+            }
+            int colon = structurals.position(i + 1);
+            int nameEnd = trimWhitespace(raw, pos + 1, colon);
+            if (nameEnd == pos + 1 || raw[nameEnd - 1] != '"') {
+                throw new JSONException("Expected ':' after a name at character " + nameEnd);
+            }
+            int valueStart = skipWhitespace(raw, colon + 1, end);
+            i += 2;
+            int next = next(structurals, i, valueStart);
+            if (size * 5 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[size * 5] = pos + 1;
+            offsets[size * 5 + 1] = nameEnd - 1;
+            offsets[size * 5 + 2] = valueStart;
+            offsets[size * 5 + 3] = valueEnd(structurals, i, next, valueStart);
+            offsets[size * 5 + 4] = i;
+            size++;
+            i = next;
+            if (i == close) {
+                return;
+            }
+            if (structurals.at(i) != ',') {
+                throw new JSONException("Expected a ',' or '}' at character " + structurals.position(i));
+            }
+            pos = skipWhitespace(raw, structurals.position(i) + 1, end);
+            i++;
+        }
+    }
+
+    /**
+     * @param i          index of the first structural character at or after the value
+     * @param valueStart start of the value
+     * @return index of the first structural character after the value
+     */
+    private static int next(JSONStructuralIndex structurals, int i, int valueStart) {
+        switch (structurals.raw[valueStart]) {
+            case '"':
+                return i + 1;
+            case '{':
+            case '[':
+                return structurals.partner(i) + 1;
+            default:
+                // literals contain no structural characters
+                return i;
+        }
+    }
+
+    /**
+     * @return end of the value, verified to be followed by nothing but whitespace up to the next structural character
+     */
+    private static int valueEnd(JSONStructuralIndex structurals, int i, int next, int valueStart) throws JSONException {
+        byte[] raw = structurals.raw;
+        int delimiter = structurals.position(next);
+        switch (raw[valueStart]) {
+            case '"':
+                int stringEnd = trimWhitespace(raw, valueStart + 1, delimiter);
+                if (stringEnd == valueStart + 1 || raw[stringEnd - 1] != '"') {
+                    throw new JSONException("Expected a ',' or a closing bracket at character " + stringEnd);
+                }
+                return stringEnd;
+            case '{':
+            case '[':
+                int containerEnd = structurals.position(structurals.partner(i)) + 1;
+                if (skipWhitespace(raw, containerEnd, delimiter) != delimiter) {
+                    throw new JSONException("Expected a ',' or a closing bracket at character " + containerEnd);
+                }
+                return containerEnd;
+            default:
+                int literalEnd = trimWhitespace(raw, valueStart, delimiter);
+                if (literalEnd == valueStart) {
+                    throw new JSONException("Expected literal value at character " + valueStart);
+                }
+                for (int pos = valueStart; pos < literalEnd; pos++) {
+                    if (isWhitespace(raw[pos])) {
+                        throw new JSONException("Expected a ',' or a closing bracket at character " + pos);
+                    }
+                }
+                return literalEnd;
+        }
+    }
+
+    /**
+     * @return number of members
+     */
+    int length() {
+        return size;
+    }
+
+    /**
+     * @param name member name
+     * @return true if the member is absent or null
+     */
+    boolean isNull(String name) {
+        int i = indexOf(name);
+        if (i == -1) {
+            return true;
+        }
+        int valueStart = offsets[i * 5 + 2];
+        return offsets[i * 5 + 3] - valueStart == 4 && raw[valueStart] == 'n';
+    }
+
+    /**
+     * @param name member name
+     * @return decoded value, {@link JSONObject#NULL} for null, or null if absent
+     */
+    @Nullable
+    Object opt(String name) throws JSONException {
+        int i = indexOf(name);
+        if (i == -1) {
+            return null;
+        }
+        int valueStart = offsets[i * 5 + 2];
+        int valueEnd = offsets[i * 5 + 3];
+        if (raw[valueStart] == '"' && isPlainString(valueStart + 1, valueEnd - 1)) {
+            return new String(raw, valueStart + 1, valueEnd - valueStart - 2, StandardCharsets.UTF_8);
+        }
+        return new JSONTokener(new String(raw, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8)).nextValue();
+    }
+
+    /**
+     * Returns the member the same way as {@link ParseUtil#getRawString(String, JSONObject)} does. Strings without
+     * escapes and integers are read straight from the bytes.
+     *
+     * @param name member name
+     * @return the value as a string, or null if absent, null or not convertible
+     */
+    @Nullable
+    String getRawString(String name) {
+        int i = indexOf(name);
+        if (i == -1) {
+            return null;
+        }
+        int valueStart = offsets[i * 5 + 2];
+        int valueEnd = offsets[i * 5 + 3];
+        if (raw[valueStart] == '"' && isPlainString(valueStart + 1, valueEnd - 1)) {
+            return new String(raw, valueStart + 1, valueEnd - valueStart - 2, StandardCharsets.UTF_8);
+        }
+        if (isLong(valueStart, valueEnd)) {
+            // decoded as Long, whose string form is the same
+            return new String(raw, valueStart, valueEnd - valueStart, StandardCharsets.US_ASCII);
+        }
+        try {
+            return ParseUtil.getRawString(name, member(name));
+        } catch (JSONException jsone) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the bytes are an integer literal in canonical form, short enough to fit in a long
+     */
+    private boolean isLong(int from, int to) {
+        int digits = raw[from] == '-' ? from + 1 : from;
+        if (digits == to || to - digits > 18 || (raw[digits] == '0' && to - from > 1)) {
+            return false;
+        }
+        for (int i = digits; i < to; i++) {
+            if (raw[i] < '0' || raw[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a JSONObject holding just one member, so that {@link ParseUtil} can be applied to it.
+     *
+     * @param name member name
+     * @return JSONObject holding the member, or an empty JSONObject if absent
+     */
+    JSONObject member(String name) throws JSONException {
+        JSONObject json = new JSONObject();
+        Object value = opt(name);
+        if (value != null) {
+            json.put(name, value);
+        }
+        return json;
+    }
+
+    /**
+     * @param name member name
+     * @return index of the nested object, or null if the member is absent or not an object
+     */
+    @Nullable
+    JSONByteIndex getObject(String name) throws JSONException {
+        int i = indexOf(name);
+        if (i == -1 || raw[offsets[i * 5 + 2]] != '{') {
+            return null;
+        }
+        JSONByteIndex index = new JSONByteIndex(structurals, offsets[i * 5 + 4]);
+        index.scan();
+        return index;
+    }
+
+    /**
+     * @return the object parsed into a JSONObject
+     */
+    JSONObject toJSONObject() throws JSONException {
+        return new JSONObject(toString());
+    }
+
+    private int indexOf(String name) {
+        int length = name.length();
+        for (int i = 0; i < size; i++) {
+            int nameStart = offsets[i * 5];
+            int nameEnd = offsets[i * 5 + 1];
+            if (nameEnd - nameStart == length && matches(name, nameStart)) {
+                return i;
+            }
+            if (nameEnd - nameStart > length && !isASCII(nameStart, nameEnd)
+                    && name.equals(new JSONTokener(new String(raw, nameStart - 1, nameEnd - nameStart + 2, StandardCharsets.UTF_8)).nextValue())) {
+                // escaped or non-ASCII name
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(String name, int nameStart) {
+        for (int j = 0; j < name.length(); j++) {
+            if (raw[nameStart + j] != name.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPlainString(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (raw[i] == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the bytes are ASCII characters other than backslash, each encoding one char
+     */
+    private boolean isASCII(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (raw[i] == '\\' || raw[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipBOM(byte[] raw) {
+        return raw.length >= 3 && raw[0] == (byte) 0xEF && raw[1] == (byte) 0xBB && raw[2] == (byte) 0xBF ? 3 : 0;
+    }
+
+    private static int skipWhitespace(byte[] raw, int pos, int end) {
+        while (pos < end && isWhitespace(raw[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int trimWhitespace(byte[] raw, int start, int end) {
+        while (end > start && isWhitespace(raw[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * @return the object as JSON text
+     */
+    @Override
+    public String toString() {
+        return new String(raw, start, end - start, StandardCharsets.UTF_8);
+    }
+}
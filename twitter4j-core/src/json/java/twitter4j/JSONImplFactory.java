@@ -16,8 +16,10 @@
  */
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -27,15 +29,61 @@ import java.util.Objects;
  */
 class JSONImplFactory implements ObjectFactory {
     private static final long serialVersionUID = -1853541456182663343L;
-    private final boolean jsonStoreEnabled;
+    final boolean jsonStoreEnabled;
+    @Nullable
+    final UserCache userCache;
+    final int parallelBindingThreshold;
 
     public JSONImplFactory(boolean jsonStoreEnabled) {
+        this(jsonStoreEnabled, null);
+    }
+
+    /**
+     * @param jsonStoreEnabled register the raw JSON of the created objects
+     * @param userCache        cache sharing the users across statuses, or null
+     */
+    JSONImplFactory(boolean jsonStoreEnabled, @Nullable UserCache userCache) {
+        this(jsonStoreEnabled, userCache, 0);
+    }
+
+    /**
+     * @param jsonStoreEnabled         register the raw JSON of the created objects
+     * @param userCache                cache sharing the users across statuses, or null
+     * @param parallelBindingThreshold minimum number of statuses or users in a list bound in parallel, 0 to disable
+     */
+    JSONImplFactory(boolean jsonStoreEnabled, @Nullable UserCache userCache, int parallelBindingThreshold) {
         this.jsonStoreEnabled = jsonStoreEnabled;
+        this.userCache = userCache;
+        this.parallelBindingThreshold = parallelBindingThreshold;
+    }
+
+    /**
+     * Binds the elements of a list response with {@link ParallelBinder}.<br>
+     * Unlike binding while the response is being received, the whole response is parsed first.
+     *
+     * @param array   parsed array of JSON objects
+     * @param list    list created from the response, holding the rate limit status
+     * @param json    raw JSON form of the list
+     * @param binding binds an element
+     * @return list
+     */
+    <T, L extends List<T>> L bindInParallel(JSONArray array, L list, Object json, ParallelBinder.Binding<T> binding) throws TwitterException {
+        ParallelBinder.bind(array, list, element -> {
+            T t = binding.bind(element);
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(t, element);
+            }
+            return t;
+        }, parallelBindingThreshold);
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(list, json);
+        }
+        return list;
     }
 
     @Override
     public Status createStatus(JSONObject json) throws TwitterException {
-        return new StatusJSONImpl(json);
+        return new StatusJSONImpl(json, userCache);
     }
 
     @Override
@@ -56,12 +104,21 @@ class JSONImplFactory implements ObjectFactory {
 
     @Override
     public Status createStatus(HttpResponse res) throws TwitterException {
-        return new StatusJSONImpl(res, jsonStoreEnabled);
+        return new StatusJSONImpl(res, jsonStoreEnabled, userCache);
     }
 
     @Override
     public ResponseList<Status> createStatusList(HttpResponse res) throws TwitterException {
-        return StatusJSONImpl.createStatusList(res, jsonStoreEnabled);
+        if (parallelBindingThreshold > 0) {
+            JSONArray statuses = res.asJSONArray();
+            return bindInParallel(statuses, new ResponseListImpl<>(statuses.length(), res), statuses, this::createStatus);
+        }
+        return StatusJSONImpl.createStatusList(res, jsonStoreEnabled, userCache);
+    }
+
+    @Override
+    public Status createStreamStatus(String rawJSON) throws TwitterException {
+        return null;
     }
 
     /**
@@ -121,18 +178,26 @@ class JSONImplFactory implements ObjectFactory {
 
     @Override
     public ResponseList<User> createUserList(HttpResponse res) throws TwitterException {
+        if (parallelBindingThreshold > 0) {
+            JSONArray users = res.asJSONArray();
+            return bindInParallel(users, new ResponseListImpl<>(users.length(), res), users, this::createUser);
+        }
         return UserJSONImpl.createUserList(res, jsonStoreEnabled);
     }
 
     @Override
     public ResponseList<User> createUserListFromJSONArray(HttpResponse res) throws TwitterException {
-        return UserJSONImpl.createUserList(res.asJSONArray(), res, jsonStoreEnabled);
+        return createUserList(res);
     }
 
     @Override
     public ResponseList<User> createUserListFromJSONArray_Users(HttpResponse res) throws TwitterException {
         try {
-            return UserJSONImpl.createUserList(res.asJSONObject().getJSONArray("users"), res, jsonStoreEnabled);
+            JSONArray users = res.asJSONObject().getJSONArray("users");
+            if (parallelBindingThreshold > 0) {
+                return bindInParallel(users, new ResponseListImpl<>(users.length(), res), users, this::createUser);
+            }
+            return UserJSONImpl.createUserList(users, res, jsonStoreEnabled);
         } catch (JSONException jsone) {
             throw new TwitterException(jsone);
         }
@@ -141,7 +206,7 @@ class JSONImplFactory implements ObjectFactory {
     @Override
     public QueryResult createQueryResult(HttpResponse res, Query query) throws TwitterException {
         try {
-            return new QueryResultJSONImpl(res, jsonStoreEnabled);
+            return new QueryResultJSONImpl(res, jsonStoreEnabled, userCache);
         } catch (TwitterException te) {
             if (404 == te.getStatusCode()) {
                 return new QueryResultJSONImpl(query);
@@ -158,6 +223,16 @@ class JSONImplFactory implements ObjectFactory {
 
     @Override
     public PagableResponseList<User> createPagableUserList(HttpResponse res) throws TwitterException {
+        if (parallelBindingThreshold > 0) {
+            try {
+                JSONObject json = res.asJSONObject();
+                JSONArray users = json.getJSONArray("users");
+                return bindInParallel(users, new PagableResponseListImpl<>(users.length(), json, res), json,
+                        this::createUser);
+            } catch (JSONException jsone) {
+                throw new TwitterException(jsone);
+            }
+        }
         return UserJSONImpl.createPagableUserList(res, jsonStoreEnabled);
     }
 
@@ -302,6 +377,8 @@ class JSONImplFactory implements ObjectFactory {
     public String toString() {
         return "JSONImplFactory{" +
                 "jsonStoreEnabled=" + jsonStoreEnabled +
+                ", userCache=" + userCache +
+                ", parallelBindingThreshold=" + parallelBindingThreshold +
                 '}';
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Canonical instances of the member names Twitter API responses use.<br>
+ * The tokener looks names up directly in its input, so that well known names are neither allocated per member nor
+ * duplicated in the heap, and lookups with constants from the binders succeed on the identity check.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class JSONKeys {
+    private static final String[] KNOWN_KEYS = {
+            "_type", "access_token", "additional_media_info", "allow_dms_from", "always_use_https", "as_of",
+            "aspect_ratio", "attachment", "attributes", "author_name", "author_url", "bitrate", "blocking",
+            "bounding_box", "cache_age", "call_to_actions", "can_dm", "check_after_secs", "code", "completed_in",
+            "connections", "contained_within", "content_type", "contributors", "contributors_enabled", "coordinates",
+            "count", "country", "countryCode", "country_code", "created_at", "created_timestamp", "crop",
+            "current_user_retweet", "default_profile", "default_profile_image", "delete", "description",
+            "direct_message", "disconnect", "discoverable_by_email", "display", "display_text_range", "display_url",
+            "duration_millis", "email", "embeddable", "enabled", "end_time", "entities", "errors", "event", "events",
+            "expanded", "expanded_url", "expires_in", "ext_alt_text", "extended_entities", "extended_tweet",
+            "favorite_count", "favorited", "favorites", "favourites_count", "filter_level", "fit", "focus_rects",
+            "follow_request_sent", "followed_by", "followers", "followers_count", "following", "friends",
+            "friends_count", "full_name", "full_text", "geo_enabled", "geocode", "geometry", "h",
+            "has_extended_profile", "hashtags", "html", "id", "id_str", "ids", "image", "image_type",
+            "in_reply_to_screen_name", "in_reply_to_status_id", "in_reply_to_status_id_str", "in_reply_to_user_id",
+            "in_reply_to_user_id_str", "indices", "is_quote_status", "is_translation_enabled", "is_translator",
+            "label", "lang", "language", "large", "limit", "listed_count", "lists", "locale", "location", "locations",
+            "max_id", "media", "media_id", "media_key", "media_url", "media_url_https", "medium", "member_count",
+            "message", "message_create", "message_data", "metadata", "mode", "monetizable", "muting", "name",
+            "needs_phone_verification", "next_cursor", "next_results", "notifications_enabled", "oauth_token",
+            "oauth_token_secret", "options", "original_info", "parentid", "percent_full", "pinned_tweet_ids", "place",
+            "placeType", "place_ids", "place_type", "places", "position", "possibly_sensitive", "previous_cursor",
+            "processing_info", "profile_background_color", "profile_background_image_url",
+            "profile_background_image_url_https", "profile_background_tile", "profile_banner_url",
+            "profile_image_url", "profile_image_url_https", "profile_link_color", "profile_location",
+            "profile_sidebar_border_color", "profile_sidebar_fill_color", "profile_text_color",
+            "profile_use_background_image", "progress_percent", "protected", "provider_name", "provider_url", "q",
+            "query", "quick_reply", "quick_reply_response", "quote_count", "quoted_status", "quoted_status_id",
+            "quoted_status_id_str", "quoted_status_permalink", "recipient_id", "refresh_url", "relationship",
+            "remaining", "reply_count", "reset", "resize", "resources", "result", "result_type", "retweet_count",
+            "retweeted", "retweeted_status", "scopes", "screen_name", "scrub_geo", "search_metadata", "sender",
+            "sender_id", "show_all_inline_media", "since_id", "size", "sizes", "sleep_time", "slug", "small",
+            "source", "source_screen_name", "source_status_id", "source_status_id_str", "source_user_id",
+            "source_user_id_str", "start_time", "state", "status", "status_id_str", "statuses", "statuses_count",
+            "street_address", "subscriber_count", "suspended", "symbols", "target", "target_object", "text", "thumb",
+            "time_zone", "timestamp_ms", "title", "token_type", "track", "translator_type", "trend_location",
+            "trends", "truncated", "tweet_volume", "type", "tzinfo_name", "unit", "unwound", "up_to_status_id",
+            "updates", "uri", "url", "url_type", "urls", "user", "user_id", "user_mentions", "users", "utc_offset",
+            "variants", "verified", "version", "video_info", "w", "want_retweets", "warning", "width",
+            "withheld_copyright", "withheld_in_countries", "withheld_scope", "woeid", "x", "y"
+    };
+
+    private static final String[] TABLE;
+    private static final int MASK;
+
+    static {
+        // keep the load factor at or below 0.25 so that probes are short
+        TABLE = new String[Integer.highestOneBit(KNOWN_KEYS.length * 4 - 1) << 1];
+        MASK = TABLE.length - 1;
+        for (String key : KNOWN_KEYS) {
+            int slot = spread(key.hashCode()) & MASK;
+            while (TABLE[slot] != null) {
+                slot = (slot + 1) & MASK;
+            }
+            TABLE[slot] = key;
+        }
+    }
+
+    private JSONKeys() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param in    input
+     * @param start start index, inclusive
+     * @param end   end index, exclusive
+     * @return canonical instance, or null if the name is not a well known one
+     */
+    static String lookup(String in, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + in.charAt(i);
+        }
+        int length = end - start;
+        for (int slot = spread(h) & MASK; ; slot = (slot + 1) & MASK) {
+            String candidate = TABLE[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.hashCode() == h && candidate.length() == length && in.regionMatches(start, candidate, 0, length)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
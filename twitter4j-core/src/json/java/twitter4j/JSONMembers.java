@@ -0,0 +1,329 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered String keyed map backing {@link JSONObject}.<br>
+ * Keys and values are kept in parallel arrays, so a member costs two references instead of a LinkedHashMap entry.
+ * Small objects are searched linearly, comparing canonical keys by identity first. Larger objects add an open
+ * addressing index of array positions.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class JSONMembers extends AbstractMap<String, Object> {
+    private static final int DEFAULT_CAPACITY = 8;
+    // objects up to this size are searched linearly
+    private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    /**
+     * position + 1 of each key, 0 for empty slots. null while the object is small
+     */
+    private int[] index;
+    private int modCount;
+
+    JSONMembers() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    JSONMembers(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) != -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int i = indexOf((String) key);
+        return i == -1 ? null : values[i];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int i = indexOf(key);
+        if (i != -1) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+        if (size == keys.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (index != null) {
+                index = null;
+                buildIndex();
+            }
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+        if (index != null) {
+            addToIndex(size - 1);
+        } else if (size > LINEAR_SCAN_THRESHOLD) {
+            buildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int i = indexOf((String) key);
+        if (i == -1) {
+            return null;
+        }
+        Object old = values[i];
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+
+    String keyAt(int i) {
+        return keys[i];
+    }
+
+    Object valueAt(int i) {
+        return values[i];
+    }
+
+    private int indexOf(String key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int position = index[slot];
+            if (position == 0) {
+                return -1;
+            }
+            if (keys[position - 1].equals(key)) {
+                return position - 1;
+            }
+        }
+    }
+
+    private void removeAt(int i) {
+        int moved = size - i - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(values, i + 1, values, i, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        index = null;
+        if (size > LINEAR_SCAN_THRESHOLD) {
+            buildIndex();
+        }
+    }
+
+    private void buildIndex() {
+        // keep the load factor at or below 0.5
+        index = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        for (int i = 0; i < size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int position) {
+        int mask = index.length - 1;
+        int slot = hash(keys[position]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new MemberIterator<String>() {
+                    @Override
+                    String element(int i) {
+                        return keys[i];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                int before = size;
+                JSONMembers.this.remove(o);
+                return size != before;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new MemberIterator<Map.Entry<String, Object>>() {
+                    @Override
+                    Map.Entry<String, Object> element(int i) {
+                        return new Member(i);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private final class Member implements Map.Entry<String, Object> {
+        private final int i;
+
+        Member(int i) {
+            this.i = i;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[i];
+        }
+
+        @Override
+        public Object getValue() {
+            return values[i];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+            return getKey().equals(that.getKey()) && (getValue() == null ? that.getValue() == null : getValue().equals(that.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private abstract class MemberIterator<E> implements Iterator<E> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        abstract E element(int i);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public E next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return element(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
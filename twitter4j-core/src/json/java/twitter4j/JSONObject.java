@@ -110,13 +110,13 @@ class JSONObject {
         }
     };
 
-    private final LinkedHashMap<String, Object> nameValuePairs;
+    private final JSONMembers nameValuePairs;
 
     /**
      * Creates a {@code JSONObject} with no name/value mappings.
      */
     public JSONObject() {
-        nameValuePairs = new LinkedHashMap<>();
+        nameValuePairs = new JSONMembers();
     }
 
     /**
@@ -206,6 +206,22 @@ class JSONObject {
         return nameValuePairs.size();
     }
 
+    /**
+     * @param i position of the member, in the order added
+     * @return name of the member
+     */
+    String nameAt(int i) {
+        return nameValuePairs.keyAt(i);
+    }
+
+    /**
+     * @param i position of the member, in the order added
+     * @return value of the member
+     */
+    Object valueAt(int i) {
+        return nameValuePairs.valueAt(i);
+    }
+
     /**
      * Maps {@code name} to {@code value}, clobbering any existing name/value
      * mapping with the same name.
@@ -829,8 +845,8 @@ class JSONObject {
 
     void writeTo(JSONStringer stringer) throws JSONException {
         stringer.object();
-        for (Map.Entry<String, Object> entry : nameValuePairs.entrySet()) {
-            stringer.key(entry.getKey()).value(entry.getValue());
+        for (int i = 0; i < nameValuePairs.size(); i++) {
+            stringer.key(nameValuePairs.keyAt(i)).value(nameValuePairs.valueAt(i));
         }
         stringer.endObject();
     }
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Positions of the structural characters of UTF-8 encoded JSON: braces, brackets, colons and commas outside string
+ * literals, and the opening quote of each string literal.<br>
+ * The bytes are classified 64 at a time without branching on their values, in the manner of simdjson: every 8 bytes
+ * are compared at once as a long, quotes escaped by an odd run of backslashes are masked out by carry propagation,
+ * and the interiors of strings are found by a prefix XOR of the remaining quotes. Brackets are then matched, so that
+ * a nested value is skipped in constant time.<br>
+ * Only the nesting is validated here. What lies between the structural characters is checked by the navigating code,
+ * see {@link JSONByteIndex}.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class JSONStructuralIndex {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+    private static final long QUOTES = '"' * ONES;
+    private static final long BACKSLASHES = '\\' * ONES;
+    private static final long COLONS = ':' * ONES;
+    private static final long COMMAS = ',' * ONES;
+    // '[', ']', '{' and '}' differ in the bits 0x26 only. so do 'Y', '_', 'y' and DEL, which don't appear outside
+    // string literals in valid JSON and are rejected by the navigating code
+    private static final long BRACKETS = '[' * ONES;
+    private static final long BRACKET_BITS = 0xD9 * ONES;
+
+    final byte[] raw;
+    private final int[] positions;
+    // index of the matching bracket of each bracket, -1 for colons, commas and quotes
+    private final int[] partners;
+    private final int count;
+
+    private JSONStructuralIndex(byte[] raw, int[] positions, int[] partners, int count) {
+        this.raw = raw;
+        this.positions = positions;
+        this.partners = partners;
+        this.count = count;
+    }
+
+    /**
+     * @param raw   UTF-8 encoded JSON
+     * @param start start of the text
+     * @param end   end of the text
+     * @return structural index of the text
+     * @throws JSONException when a string literal is not terminated or brackets don't match
+     */
+    static JSONStructuralIndex of(byte[] raw, int start, int end) throws JSONException {
+        int[] positions = new int[Math.max(16, (end - start) >>> 3)];
+        int count = 0;
+        ByteBuffer words = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        long escapedCarry = 0;
+        long inStringCarry = 0;
+        for (int block = start; block < end; block += 64) {
+            ByteBuffer source = words;
+            int offset = block;
+            if (end - block < 64) {
+                // pad the last block with spaces
+                byte[] tail = new byte[64];
+                Arrays.fill(tail, (byte) ' ');
+                System.arraycopy(raw, block, tail, 0, end - block);
+                source = ByteBuffer.wrap(tail).order(ByteOrder.LITTLE_ENDIAN);
+                offset = 0;
+            }
+            long quotes = 0;
+            long backslashes = 0;
+            long operators = 0;
+            for (int i = 0; i < 8; i++) {
+                long word = source.getLong(offset + i * 8);
+                quotes |= movemask(equal(word, QUOTES)) << (i * 8);
+                backslashes |= movemask(equal(word, BACKSLASHES)) << (i * 8);
+                // high bit clear in each byte equal to any of the operators
+                long notOperator = notEqual(word & BRACKET_BITS, BRACKETS & BRACKET_BITS)
+                        & notEqual(word, COLONS) & notEqual(word, COMMAS);
+                operators |= movemask(~(notOperator | LOW_BITS)) << (i * 8);
+            }
+
+            long escaped;
+            if (backslashes == 0) {
+                escaped = escapedCarry;
+                escapedCarry = 0;
+            } else {
+                long escapeAndTerminal = escapeAndTerminal(backslashes & ~escapedCarry);
+                escaped = escapeAndTerminal ^ (backslashes | escapedCarry);
+                escapedCarry = (escapeAndTerminal & backslashes) >>> 63;
+            }
+            quotes &= ~escaped;
+            long inString = prefixXor(quotes) ^ inStringCarry;
+            inStringCarry = inString >> 63;
+            long structurals = (operators & ~inString) | (quotes & inString);
+
+            int bits = Long.bitCount(structurals);
+            if (count + bits > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length + (positions.length >> 1), count + bits));
+            }
+            while (structurals != 0) {
+                positions[count++] = block + Long.numberOfTrailingZeros(structurals);
+                structurals &= structurals - 1;
+            }
+        }
+        if (inStringCarry != 0) {
+            throw new JSONException("Unterminated string at character " + end);
+        }
+        return new JSONStructuralIndex(raw, positions, match(raw, positions, count), count);
+    }
+
+    /**
+     * @param opening index of an opening bracket
+     * @return structural index of the object or array starting at the bracket, over a copy of its bytes
+     */
+    JSONStructuralIndex copyOf(int opening) {
+        int closing = partners[opening];
+        int offset = positions[opening];
+        int count = closing - opening + 1;
+        int[] positions = new int[count];
+        int[] partners = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = this.positions[opening + i] - offset;
+            int partner = this.partners[opening + i];
+            partners[i] = partner == -1 ? -1 : partner - opening;
+        }
+        return new JSONStructuralIndex(Arrays.copyOfRange(raw, offset, this.positions[closing] + 1), positions,
+                partners, count);
+    }
+
+    /**
+     * @return high bit set in each byte of word equal to the corresponding byte of pattern, no other bits set
+     */
+    static long equal(long word, long pattern) {
+        return ~(notEqual(word, pattern) | LOW_BITS);
+    }
+
+    /**
+     * @return high bit set in each byte of word different from the corresponding byte of pattern, other bits undefined
+     */
+    private static long notEqual(long word, long pattern) {
+        long x = word ^ pattern;
+        // the sum carries into the high bit if any low bit is set
+        return ((x & LOW_BITS) + LOW_BITS) | x;
+    }
+
+    /**
+     * @param highBits long with no bits set but the high bit of each byte
+     * @return high bits of the 8 bytes gathered into the lowest 8 bits
+     */
+    static long movemask(long highBits) {
+        return (highBits >>> 7) * 0x0102040810204080L >>> 56;
+    }
+
+    /**
+     * @param backslashes backslashes that are not escaped themselves
+     * @return bits of the characters escaped by odd runs of backslashes, and of the escaping backslashes
+     */
+    private static long escapeAndTerminal(long backslashes) {
+        // the borrow of the subtraction runs through each run of backslashes, so that the bit after a run tells
+        // whether the run ends at an odd distance from its start
+        return (((backslashes << 1) | ODD_BITS) - backslashes) ^ ODD_BITS;
+    }
+
+    /**
+     * @return each bit set to the parity of the bits up to and including it
+     */
+    static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    private static int[] match(byte[] raw, int[] positions, int count) throws JSONException {
+        int[] partners = new int[count];
+        int[] stack = new int[16];
+        int depth = 0;
+        for (int i = 0; i < count; i++) {
+            byte b = raw[positions[i]];
+            if (b == '{' || b == '[') {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = i;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0 || raw[positions[stack[depth - 1]]] != b - 2) {
+                    throw new JSONException("Unexpected '" + (char) b + "' at character " + positions[i]);
+                }
+                int opening = stack[--depth];
+                partners[opening] = i;
+                partners[i] = opening;
+            } else {
+                partners[i] = -1;
+            }
+        }
+        if (depth != 0) {
+            byte b = raw[positions[stack[depth - 1]]];
+            throw new JSONException((b == '{' ? "Unterminated object" : "Unterminated array")
+                    + " at character " + positions[stack[depth - 1]]);
+        }
+        return partners;
+    }
+
+    /**
+     * @return number of structural characters
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @param i index of a structural character
+     * @return position of the character in the bytes
+     */
+    int position(int i) {
+        return positions[i];
+    }
+
+    /**
+     * @param i index of a structural character
+     * @return the character, or 0 if i is out of range
+     */
+    byte at(int i) {
+        return i < count ? raw[positions[i]] : 0;
+    }
+
+    /**
+     * @param i index of a bracket
+     * @return index of the matching bracket
+     */
+    int partner(int i) {
+        return partners[i];
+    }
+}
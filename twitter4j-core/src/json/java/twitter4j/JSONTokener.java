@@ -23,6 +23,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Parses a JSON (<a href="http://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>)
@@ -78,17 +80,33 @@ class JSONTokener {
      */
     private int pos;
 
+    /**
+     * Names of the members to be skipped without building their values, at any depth.
+     */
+    private final Set<String> skippedNames;
+
     /**
      * @param in JSON encoded string. Null is not permitted and will yield a
      *           tokener that throws {@code NullPointerExceptions} when methods are
      *           called.
      */
     public JSONTokener(String in) {
+        this(in, Collections.emptySet());
+    }
+
+    /**
+     * @param in           JSON encoded string
+     * @param skippedNames names of the members to be skipped at any depth. Their values are scanned over but
+     *                     not built, and the members are absent from the resulting objects.
+     * @since Twitter4J 4.1.3
+     */
+    JSONTokener(String in, Set<String> skippedNames) {
         // consume an optional byte order mark (BOM) if it exists
         if (in != null && in.startsWith("\ufeff")) {
             in = in.substring(1);
         }
         this.in = in;
+        this.skippedNames = skippedNames;
     }
 
     public JSONTokener(Reader input) {
@@ -102,6 +120,7 @@ class JSONTokener {
             }
             in = s.toString();
             pos = 0;
+            skippedNames = Collections.emptySet();
         } catch (IOException e) {
             throw new JSONException("Error reading JSON data", e);
         }
@@ -234,9 +253,8 @@ class JSONTokener {
             int c = in.charAt(pos++);
             if (c == quote) {
                 if (builder == null) {
-                    // a new string avoids leaking memory
-                    //noinspection RedundantStringConstructorCall
-                    return new String(in.substring(start, pos - 1));
+                    // substring() copies the characters since Java 7u6, the input is not retained
+                    return in.substring(start, pos - 1);
                 } else {
                     builder.append(in, start, pos - 1);
                     return builder.toString();
@@ -259,6 +277,29 @@ class JSONTokener {
         throw syntaxError("Unterminated string");
     }
 
+    /**
+     * Reads a member name. Well known names are returned as canonical instances without allocation.
+     * The opening quote should have already been read.
+     */
+    private String nextName() throws JSONException {
+        int start = pos;
+        for (int i = start; i < in.length(); i++) {
+            char c = in.charAt(i);
+            if (c == '"') {
+                String name = JSONKeys.lookup(in, start, i);
+                if (name == null) {
+                    name = in.substring(start, i);
+                }
+                pos = i + 1;
+                return name;
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        return nextString('"');
+    }
+
     /**
      * Unescapes the character identified by the character or characters that
      * immediately follow a backslash. The backslash '\' should have already
@@ -390,7 +431,16 @@ class JSONTokener {
         }
 
         while (true) {
-            Object name = nextValue();
+            Object name;
+            int c = nextCleanInternal();
+            if (c == '"') {
+                name = nextName();
+            } else {
+                if (c != -1) {
+                    pos--;
+                }
+                name = nextValue();
+            }
             if (!(name instanceof String)) {
                 if (name == null) {
                     throw syntaxError("Names cannot be null");
@@ -413,7 +463,11 @@ class JSONTokener {
                 pos++;
             }
 
-            result.put((String) name, nextValue());
+            if (!skippedNames.isEmpty() && skippedNames.contains(name)) {
+                skipValue();
+            } else {
+                result.put((String) name, nextValue());
+            }
 
             switch (nextCleanInternal()) {
                 case '}':
@@ -427,6 +481,71 @@ class JSONTokener {
         }
     }
 
+    /**
+     * Advances the position over the next value without building it.
+     */
+    private void skipValue() throws JSONException {
+        int c = nextCleanInternal();
+        switch (c) {
+            case -1:
+                throw syntaxError("End of input");
+            case '\'':
+            case '"':
+                skipString((char) c);
+                return;
+            case '{':
+            case '[':
+                int depth = 1;
+                while (depth > 0) {
+                    c = nextCleanInternal();
+                    switch (c) {
+                        case -1:
+                            throw syntaxError("Unterminated value");
+                        case '\'':
+                        case '"':
+                            skipString((char) c);
+                            break;
+                        case '{':
+                        case '[':
+                            depth++;
+                            break;
+                        case '}':
+                        case ']':
+                            depth--;
+                            break;
+                        default:
+                    }
+                }
+                return;
+            default:
+                // literal
+                pos--;
+                int start = pos;
+                for (; pos < in.length(); pos++) {
+                    c = in.charAt(pos);
+                    if (c == '\r' || c == '\n' || "{}[]/\\:,=;# \t\f".indexOf(c) != -1) {
+                        break;
+                    }
+                }
+                if (pos == start) {
+                    throw syntaxError("Expected literal value");
+                }
+        }
+    }
+
+    private void skipString(char quote) throws JSONException {
+        while (pos < in.length()) {
+            char c = in.charAt(pos++);
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\') {
+                pos++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
     /**
      * Reads a sequence of values and the trailing closing brace ']' of an
      * array. The opening brace '[' should have already been read. Note that
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.ResponseList;
+import twitter4j.v1.Status;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates statuses that keep the raw UTF-8 JSON and decode members on first access, see {@link LazyStatusJSONImpl}.
+ * Other objects are bound the same way as {@link JSONImplFactory} does.
+ *
+ * @since Twitter4J 4.1.3
+ */
+class LazyJSONImplFactory extends JSONImplFactory {
+    private static final long serialVersionUID = 2716337580616003452L;
+
+    LazyJSONImplFactory(boolean jsonStoreEnabled) {
+        this(jsonStoreEnabled, 0);
+    }
+
+    /**
+     * @param jsonStoreEnabled         register the raw JSON of the created objects
+     * @param parallelBindingThreshold minimum number of users in a list bound in parallel, 0 to disable. statuses are
+     *                                 indexed rather than bound, and are not worth binding in parallel
+     */
+    LazyJSONImplFactory(boolean jsonStoreEnabled, int parallelBindingThreshold) {
+        super(jsonStoreEnabled, null, parallelBindingThreshold);
+    }
+
+    @Override
+    public Status createStatus(HttpResponse res) throws TwitterException {
+        String body = asString(res);
+        try {
+            Status status = new LazyStatusJSONImpl(res, JSONByteIndex.of(body.getBytes(StandardCharsets.UTF_8)));
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(status, body);
+            }
+            return status;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone.getMessage() + ":" + body, jsone);
+        }
+    }
+
+    @Override
+    public ResponseList<Status> createStatusList(HttpResponse res) throws TwitterException {
+        String body = asString(res);
+        try {
+            // each status keeps its own bytes, so that the rest of the response can be collected
+            JSONByteIndex[] elements = JSONByteIndex.objects(body.getBytes(StandardCharsets.UTF_8));
+            ResponseList<Status> statuses = new ResponseListImpl<>(elements.length, res);
+            for (JSONByteIndex element : elements) {
+                Status status = new LazyStatusJSONImpl(element);
+                if (jsonStoreEnabled) {
+                    TwitterObjectFactory.registerJSONObject(status, element);
+                }
+                statuses.add(status);
+            }
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(statuses, body);
+            }
+            return statuses;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
+    @Override
+    public Status createStreamStatus(String rawJSON) throws TwitterException {
+        try {
+            JSONByteIndex index = JSONByteIndex.of(rawJSON.getBytes(StandardCharsets.UTF_8));
+            // same condition as JSONObjectType.determine()
+            if (!index.isNull("sender") || index.isNull("text")) {
+                return null;
+            }
+            Status status = new LazyStatusJSONImpl(index);
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(status, rawJSON);
+            }
+            return status;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
+    private static String asString(HttpResponse res) throws TwitterException {
+        String body = res.asString();
+        if (body == null) {
+            throw new TwitterException("Empty response");
+        }
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyJSONImplFactory{" +
+                "jsonStoreEnabled=" + jsonStoreEnabled +
+                ", parallelBindingThreshold=" + parallelBindingThreshold +
+                '}';
+    }
+}
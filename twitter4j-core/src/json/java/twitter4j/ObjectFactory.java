@@ -16,6 +16,7 @@
  */
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.*;
 
 import java.util.Map;
@@ -37,6 +38,17 @@ interface ObjectFactory extends java.io.Serializable {
 
     ResponseList<Status> createStatusList(HttpResponse res) throws TwitterException;
 
+    /**
+     * Binds a stream message without parsing it into a JSONObject, if supported by this factory.
+     *
+     * @param rawJSON stream message
+     * @return the status, or null if the message is not a status or is to be parsed into a JSONObject first
+     * @throws TwitterException when the message is not a JSON object
+     * @since Twitter4J 4.1.3
+     */
+    @Nullable
+    Status createStreamStatus(String rawJSON) throws TwitterException;
+
     Trends createTrends(HttpResponse res) throws TwitterException;
 
     User createUser(HttpResponse res) throws TwitterException;
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Binds the elements of a parsed JSON array on the common fork-join pool.<br>
+ * The array is split in halves until slices are small enough to be bound by one task. Each element is written to its
+ * own position, so the order of the array is preserved. Bindings run concurrently and must not share mutable state
+ * other than thread-safe caches; elements of a parsed array are separate object graphs.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class ParallelBinder {
+    // elements bound by one task. binding a status takes some 10 microseconds, which outweighs forking a task
+    private static final int SLICE_SIZE = 8;
+
+    private ParallelBinder() {
+        throw new AssertionError("not intended to be instantiated.");
+    }
+
+    /**
+     * @param <T> element type
+     */
+    interface Binding<T> {
+        T bind(JSONObject json) throws TwitterException;
+    }
+
+    /**
+     * Binds the elements to the list, in parallel when there are at least as many elements as the threshold.
+     *
+     * @param array     parsed array of JSON objects
+     * @param list      list to add the elements to, in the order of the array
+     * @param binding   binds an element
+     * @param threshold minimum number of elements bound in parallel
+     * @param <T>       element type
+     * @param <L>       list type
+     * @return list
+     * @throws TwitterException when an element is not a JSON object or fails to be bound
+     */
+    static <T, L extends List<T>> L bind(JSONArray array, L list, Binding<T> binding, int threshold) throws TwitterException {
+        int length = array.length();
+        if (length < threshold || length <= SLICE_SIZE) {
+            try {
+                for (int i = 0; i < length; i++) {
+                    list.add(binding.bind(array.getJSONObject(i)));
+                }
+            } catch (JSONException jsone) {
+                throw new TwitterException(jsone);
+            }
+            return list;
+        }
+        Object[] bound = new Object[length];
+        AtomicReference<TwitterException> failure = new AtomicReference<>();
+        ForkJoinPool.commonPool().invoke(new Slice(array, binding, bound, 0, length, failure));
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        for (Object element : bound) {
+            @SuppressWarnings("unchecked")
+            T t = (T) element;
+            list.add(t);
+        }
+        return list;
+    }
+
+    private static final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 6081537916637227046L;
+        private final JSONArray array;
+        private final Binding<?> binding;
+        private final Object[] bound;
+        private final int start;
+        private final int end;
+        private final AtomicReference<TwitterException> failure;
+
+        private Slice(JSONArray array, Binding<?> binding, Object[] bound, int start, int end,
+                      AtomicReference<TwitterException> failure) {
+            this.array = array;
+            this.binding = binding;
+            this.bound = bound;
+            this.start = start;
+            this.end = end;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > SLICE_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Slice(array, binding, bound, start, middle, failure),
+                        new Slice(array, binding, bound, middle, end, failure));
+                return;
+            }
+            try {
+                // the rest is dropped once an element has failed
+                for (int i = start; i < end && failure.get() == null; i++) {
+                    bound[i] = binding.bind(array.getJSONObject(i));
+                }
+            } catch (JSONException jsone) {
+                failure.compareAndSet(null, new TwitterException(jsone));
+            } catch (TwitterException te) {
+                failure.compareAndSet(null, te);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker.<br>
+ * Opens when the failure rate of the last {@code windowSize} calls reaches the threshold, rejects calls while open,
+ * and lets a few probe calls through once {@code openDurationMillis} has elapsed. The circuit closes again when all
+ * probes succeed, and re-opens on the first failing probe.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class CircuitBreaker {
+    static final long REJECTED = -1;
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    // ring buffer of recent outcomes, true means failure
+    private final boolean[] window;
+    private int windowIndex = 0;
+    private int windowCount = 0;
+    private int failureCount = 0;
+
+    private State state = State.CLOSED;
+    // incremented on every state change, so that results of calls permitted in a former state are told apart
+    private long generation = 0;
+    private long openedAt;
+    private int probesInFlight = 0;
+    private int probesSucceeded = 0;
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, long openDurationMillis, int halfOpenProbes) {
+        this(failureRateThreshold, windowSize, minimumCalls, openDurationMillis, halfOpenProbes, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, long openDurationMillis, int halfOpenProbes,
+                   LongSupplier clock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+    }
+
+    /**
+     * @return permit to be passed to {@link #onResult(long, boolean)} once the call completes, or {@link #REJECTED}
+     */
+    synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openDurationMillis) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+            probesInFlight = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probesSucceeded >= halfOpenProbes) {
+                return REJECTED;
+            }
+            probesInFlight++;
+        }
+        return generation;
+    }
+
+    /**
+     * @param permit  permit returned by {@link #tryAcquire()}
+     * @param failure true if the call failed
+     */
+    synchronized void onResult(long permit, boolean failure) {
+        if (permit != generation) {
+            // the call was permitted before the circuit changed state, and says nothing about the current one
+            return;
+        }
+        switch (state) {
+            case HALF_OPEN:
+                probesInFlight--;
+                if (failure) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transition(State.CLOSED);
+                    clearWindow();
+                }
+                break;
+            case CLOSED:
+                record(failure);
+                if (windowCount >= minimumCalls && failureCount * 100 >= failureRateThreshold * windowCount) {
+                    open();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return failure rate of the recorded calls in percent
+     */
+    synchronized int getFailureRate() {
+        return windowCount == 0 ? 0 : failureCount * 100 / windowCount;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                failureCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = clock.getAsLong();
+    }
+
+    private void transition(State state) {
+        this.state = state;
+        generation++;
+    }
+
+    private void clearWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failureCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "state=" + getState() +
+                ", failureRate=" + getFailureRate() +
+                '}';
+    }
+}
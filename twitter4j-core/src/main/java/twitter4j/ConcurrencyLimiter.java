@@ -0,0 +1,88 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * AIMD (additive increase / multiplicative decrease) concurrency limiter.<br>
+ * The limit grows by one per round trip of successful calls while the limit is actually in use, and shrinks by
+ * {@code backoffRatio} on each failed, slow or throttled call. Calls beyond the limit are rejected immediately
+ * instead of queueing behind a degraded endpoint.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class ConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight = 0;
+
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return true if the call is permitted. Every permitted call must be followed by {@link #release(boolean)} or {@link #cancel()}.
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param overloaded true if the call failed, timed out or was throttled
+     */
+    synchronized void release(boolean overloaded) {
+        if (overloaded) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // only grow when the limit is the bottleneck, otherwise it would grow without bound on a light load
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        inFlight--;
+    }
+
+    /**
+     * releases a permit without adjusting the limit
+     */
+    synchronized void cancel() {
+        inFlight--;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+                "limit=" + getLimit() +
+                ", inFlight=" + getInFlight() +
+                '}';
+    }
+}
@@ -19,9 +19,14 @@ package twitter4j;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -59,6 +64,7 @@ class Configuration<T2 extends Configuration> {
     String oAuth2TokenType;
     String oAuth2AccessToken;
     String oAuth2Scope;
+    OAuth2TokenStore oAuth2TokenStore;
     String oAuthRequestTokenURL = "https://api.twitter.com/oauth/request_token";
     String oAuthAuthorizationURL = "https://api.twitter.com/oauth/authorize";
     String oAuthAccessTokenURL = "https://api.twitter.com/oauth/access_token";
@@ -78,10 +84,26 @@ class Configuration<T2 extends Configuration> {
     boolean includeExtAltTextEnabled = true;
     boolean tweetModeExtended = true;
     boolean jsonStoreEnabled = false;
+    Set<String> skippedJSONFields = Collections.emptySet();
+    boolean lazyStatusEnabled = false;
+    boolean compactStatusEnabled = false;
+    int userCacheSize = 0;
+    int parallelBindingThreshold = 0;
 
     boolean mbeanEnabled = false;
 
+    boolean circuitBreakerEnabled = false;
+    int circuitBreakerFailureRateThreshold = 50;
+    int circuitBreakerSlowCallDurationThreshold = 10000;
+    int circuitBreakerWaitDurationInOpenState = 30000;
+    boolean adaptiveConcurrencyLimitEnabled = false;
+    int maxConcurrentRequests = 100;
+
     boolean stallWarningsEnabled = true;
+    boolean streamVirtualThreadsEnabled = false;
+    @Nullable
+    Executor streamDispatcher = null;
+    int streamDrainTimeout = 5000;
 
     boolean applicationOnlyAuthEnabled = false;
 
@@ -95,18 +117,19 @@ class Configuration<T2 extends Configuration> {
     HttpClient http;
 
     ObjectFactory factory;
+    EndpointGuard endpointGuard;
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Configuration<?> that = (Configuration<?>) o;
-        return httpProxySocks == that.httpProxySocks && httpProxyPort == that.httpProxyPort && httpConnectionTimeout == that.httpConnectionTimeout && httpReadTimeout == that.httpReadTimeout && prettyDebug == that.prettyDebug && gzipEnabled == that.gzipEnabled && httpStreamingReadTimeout == that.httpStreamingReadTimeout && httpRetryCount == that.httpRetryCount && httpRetryIntervalSeconds == that.httpRetryIntervalSeconds && contributingTo == that.contributingTo && includeEntitiesEnabled == that.includeEntitiesEnabled && trimUserEnabled == that.trimUserEnabled && includeExtAltTextEnabled == that.includeExtAltTextEnabled && tweetModeExtended == that.tweetModeExtended && jsonStoreEnabled == that.jsonStoreEnabled && mbeanEnabled == that.mbeanEnabled && stallWarningsEnabled == that.stallWarningsEnabled && applicationOnlyAuthEnabled == that.applicationOnlyAuthEnabled && Objects.equals(rateLimitStatusListeners, that.rateLimitStatusListeners) && Objects.equals(rateLimitReachedListeners, that.rateLimitReachedListeners) && Objects.equals(user, that.user) && Objects.equals(password, that.password) && Objects.equals(httpProxyHost, that.httpProxyHost) && Objects.equals(httpProxyUser, that.httpProxyUser) && Objects.equals(httpProxyPassword, that.httpProxyPassword) && Objects.equals(oAuthConsumerKey, that.oAuthConsumerKey) && Objects.equals(oAuthConsumerSecret, that.oAuthConsumerSecret) && Objects.equals(oAuthAccessToken, that.oAuthAccessToken) && Objects.equals(oAuthAccessTokenSecret, that.oAuthAccessTokenSecret) && Objects.equals(oAuthRealm, that.oAuthRealm) && Objects.equals(oAuth2TokenType, that.oAuth2TokenType) && Objects.equals(oAuth2AccessToken, that.oAuth2AccessToken) && Objects.equals(oAuth2Scope, that.oAuth2Scope) && Objects.equals(oAuthRequestTokenURL, that.oAuthRequestTokenURL) && Objects.equals(oAuthAuthorizationURL, that.oAuthAuthorizationURL) && Objects.equals(oAuthAccessTokenURL, that.oAuthAccessTokenURL) && Objects.equals(oAuthAuthenticationURL, that.oAuthAuthenticationURL) && Objects.equals(oAuthInvalidateTokenURL, that.oAuthInvalidateTokenURL) && Objects.equals(oAuth2TokenURL, that.oAuth2TokenURL) && Objects.equals(oAuth2InvalidateTokenURL, that.oAuth2InvalidateTokenURL) && Objects.equals(restBaseURL, that.restBaseURL) && Objects.equals(streamBaseURL, that.streamBaseURL) && Objects.equals(uploadBaseURL, that.uploadBaseURL) && Objects.equals(streamThreadName, that.streamThreadName) && Objects.equals(auth, that.auth) && Objects.equals(http, that.http) && Objects.equals(factory, that.factory);
+        return httpProxySocks == that.httpProxySocks && httpProxyPort == that.httpProxyPort && httpConnectionTimeout == that.httpConnectionTimeout && httpReadTimeout == that.httpReadTimeout && prettyDebug == that.prettyDebug && gzipEnabled == that.gzipEnabled && httpStreamingReadTimeout == that.httpStreamingReadTimeout && httpRetryCount == that.httpRetryCount && httpRetryIntervalSeconds == that.httpRetryIntervalSeconds && contributingTo == that.contributingTo && includeEntitiesEnabled == that.includeEntitiesEnabled && trimUserEnabled == that.trimUserEnabled && includeExtAltTextEnabled == that.includeExtAltTextEnabled && tweetModeExtended == that.tweetModeExtended && jsonStoreEnabled == that.jsonStoreEnabled && Objects.equals(skippedJSONFields, that.skippedJSONFields) && lazyStatusEnabled == that.lazyStatusEnabled && compactStatusEnabled == that.compactStatusEnabled && userCacheSize == that.userCacheSize && parallelBindingThreshold == that.parallelBindingThreshold && mbeanEnabled == that.mbeanEnabled && circuitBreakerEnabled == that.circuitBreakerEnabled && circuitBreakerFailureRateThreshold == that.circuitBreakerFailureRateThreshold && circuitBreakerSlowCallDurationThreshold == that.circuitBreakerSlowCallDurationThreshold && circuitBreakerWaitDurationInOpenState == that.circuitBreakerWaitDurationInOpenState && adaptiveConcurrencyLimitEnabled == that.adaptiveConcurrencyLimitEnabled && maxConcurrentRequests == that.maxConcurrentRequests && stallWarningsEnabled == that.stallWarningsEnabled && streamVirtualThreadsEnabled == that.streamVirtualThreadsEnabled && Objects.equals(streamDispatcher, that.streamDispatcher) && streamDrainTimeout == that.streamDrainTimeout && applicationOnlyAuthEnabled == that.applicationOnlyAuthEnabled && Objects.equals(rateLimitStatusListeners, that.rateLimitStatusListeners) && Objects.equals(rateLimitReachedListeners, that.rateLimitReachedListeners) && Objects.equals(user, that.user) && Objects.equals(password, that.password) && Objects.equals(httpProxyHost, that.httpProxyHost) && Objects.equals(httpProxyUser, that.httpProxyUser) && Objects.equals(httpProxyPassword, that.httpProxyPassword) && Objects.equals(oAuthConsumerKey, that.oAuthConsumerKey) && Objects.equals(oAuthConsumerSecret, that.oAuthConsumerSecret) && Objects.equals(oAuthAccessToken, that.oAuthAccessToken) && Objects.equals(oAuthAccessTokenSecret, that.oAuthAccessTokenSecret) && Objects.equals(oAuthRealm, that.oAuthRealm) && Objects.equals(oAuth2TokenType, that.oAuth2TokenType) && Objects.equals(oAuth2AccessToken, that.oAuth2AccessToken) && Objects.equals(oAuth2Scope, that.oAuth2Scope) && Objects.equals(oAuth2TokenStore, that.oAuth2TokenStore) && Objects.equals(oAuthRequestTokenURL, that.oAuthRequestTokenURL) && Objects.equals(oAuthAuthorizationURL, that.oAuthAuthorizationURL) && Objects.equals(oAuthAccessTokenURL, that.oAuthAccessTokenURL) && Objects.equals(oAuthAuthenticationURL, that.oAuthAuthenticationURL) && Objects.equals(oAuthInvalidateTokenURL, that.oAuthInvalidateTokenURL) && Objects.equals(oAuth2TokenURL, that.oAuth2TokenURL) && Objects.equals(oAuth2InvalidateTokenURL, that.oAuth2InvalidateTokenURL) && Objects.equals(restBaseURL, that.restBaseURL) && Objects.equals(streamBaseURL, that.streamBaseURL) && Objects.equals(uploadBaseURL, that.uploadBaseURL) && Objects.equals(streamThreadName, that.streamThreadName) && Objects.equals(auth, that.auth) && Objects.equals(http, that.http) && Objects.equals(factory, that.factory);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(rateLimitStatusListeners, rateLimitReachedListeners, user, password, httpProxyHost, httpProxyUser, httpProxyPassword, httpProxySocks, httpProxyPort, httpConnectionTimeout, httpReadTimeout, prettyDebug, gzipEnabled, httpStreamingReadTimeout, httpRetryCount, httpRetryIntervalSeconds, oAuthConsumerKey, oAuthConsumerSecret, oAuthAccessToken, oAuthAccessTokenSecret, oAuthRealm, oAuth2TokenType, oAuth2AccessToken, oAuth2Scope, oAuthRequestTokenURL, oAuthAuthorizationURL, oAuthAccessTokenURL, oAuthAuthenticationURL, oAuthInvalidateTokenURL, oAuth2TokenURL, oAuth2InvalidateTokenURL, restBaseURL, streamBaseURL, uploadBaseURL, contributingTo, includeEntitiesEnabled, trimUserEnabled, includeExtAltTextEnabled, tweetModeExtended, jsonStoreEnabled, mbeanEnabled, stallWarningsEnabled, applicationOnlyAuthEnabled, streamThreadName, auth, http, factory);
+        return Objects.hash(rateLimitStatusListeners, rateLimitReachedListeners, user, password, httpProxyHost, httpProxyUser, httpProxyPassword, httpProxySocks, httpProxyPort, httpConnectionTimeout, httpReadTimeout, prettyDebug, gzipEnabled, httpStreamingReadTimeout, httpRetryCount, httpRetryIntervalSeconds, oAuthConsumerKey, oAuthConsumerSecret, oAuthAccessToken, oAuthAccessTokenSecret, oAuthRealm, oAuth2TokenType, oAuth2AccessToken, oAuth2Scope, oAuth2TokenStore, oAuthRequestTokenURL, oAuthAuthorizationURL, oAuthAccessTokenURL, oAuthAuthenticationURL, oAuthInvalidateTokenURL, oAuth2TokenURL, oAuth2InvalidateTokenURL, restBaseURL, streamBaseURL, uploadBaseURL, contributingTo, includeEntitiesEnabled, trimUserEnabled, includeExtAltTextEnabled, tweetModeExtended, jsonStoreEnabled, skippedJSONFields, lazyStatusEnabled, compactStatusEnabled, userCacheSize, parallelBindingThreshold, mbeanEnabled, circuitBreakerEnabled, circuitBreakerFailureRateThreshold, circuitBreakerSlowCallDurationThreshold, circuitBreakerWaitDurationInOpenState, adaptiveConcurrencyLimitEnabled, maxConcurrentRequests, stallWarningsEnabled, streamVirtualThreadsEnabled, streamDispatcher, streamDrainTimeout, applicationOnlyAuthEnabled, streamThreadName, auth, http, factory);
     }
 
     @Override
@@ -133,6 +156,7 @@ class Configuration<T2 extends Configuration> {
                 ", oAuth2TokenType='" + oAuth2TokenType + '\'' +
                 ", oAuth2AccessToken='" + mask(oAuth2AccessToken) + '\'' +
                 ", oAuth2Scope='" + oAuth2Scope + '\'' +
+                ", oAuth2TokenStore=" + oAuth2TokenStore +
                 ", oAuthRequestTokenURL='" + oAuthRequestTokenURL + '\'' +
                 ", oAuthAuthorizationURL='" + oAuthAuthorizationURL + '\'' +
                 ", oAuthAccessTokenURL='" + oAuthAccessTokenURL + '\'' +
@@ -149,8 +173,22 @@ class Configuration<T2 extends Configuration> {
                 ", includeExtAltTextEnabled=" + includeExtAltTextEnabled +
                 ", tweetModeExtended=" + tweetModeExtended +
                 ", jsonStoreEnabled=" + jsonStoreEnabled +
+                ", skippedJSONFields=" + skippedJSONFields +
+                ", lazyStatusEnabled=" + lazyStatusEnabled +
+                ", compactStatusEnabled=" + compactStatusEnabled +
+                ", userCacheSize=" + userCacheSize +
+                ", parallelBindingThreshold=" + parallelBindingThreshold +
                 ", mbeanEnabled=" + mbeanEnabled +
+                ", circuitBreakerEnabled=" + circuitBreakerEnabled +
+                ", circuitBreakerFailureRateThreshold=" + circuitBreakerFailureRateThreshold +
+                ", circuitBreakerSlowCallDurationThreshold=" + circuitBreakerSlowCallDurationThreshold +
+                ", circuitBreakerWaitDurationInOpenState=" + circuitBreakerWaitDurationInOpenState +
+                ", adaptiveConcurrencyLimitEnabled=" + adaptiveConcurrencyLimitEnabled +
+                ", maxConcurrentRequests=" + maxConcurrentRequests +
                 ", stallWarningsEnabled=" + stallWarningsEnabled +
+                ", streamVirtualThreadsEnabled=" + streamVirtualThreadsEnabled +
+                ", streamDispatcher=" + streamDispatcher +
+                ", streamDrainTimeout=" + streamDrainTimeout +
                 ", applicationOnlyAuthEnabled=" + applicationOnlyAuthEnabled +
                 ", streamThreadName='" + streamThreadName + '\'' +
                 '}';
@@ -352,6 +390,16 @@ class Configuration<T2 extends Configuration> {
         return (T2) this;
     }
 
+    /**
+     * @param oAuth2TokenStore store to share OAuth2 Bearer tokens, see {@link OAuth2TokenStore#inMemory()} and {@link OAuth2TokenStore#file(java.io.File)}
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 oAuth2TokenStore(OAuth2TokenStore oAuth2TokenStore) {
+        this.oAuth2TokenStore = oAuth2TokenStore;
+        return (T2) this;
+    }
+
     /**
      * @param contributingTo contributing to user id
      * @return this instance
@@ -406,6 +454,77 @@ class Configuration<T2 extends Configuration> {
         return (T2) this;
     }
 
+    /**
+     * Skips JSON members with the given names, at any depth, while parsing responses and stream messages.<br>
+     * Skipped members are neither parsed nor retained, so their getters return default values and they are absent from
+     * the raw JSON. e.g. "profile_background_color", "profile_link_color", "place"
+     *
+     * @param names member names to be skipped
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 skippedJSONFields(String... names) {
+        this.skippedJSONFields = names.length == 0 ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+        return (T2) this;
+    }
+
+    /**
+     * Returns statuses that keep the raw JSON and decode each member on first access, from timelines, single status
+     * endpoints and status streams.<br>
+     * Suitable when most statuses are dropped after looking at a few members such as id or lang. Skipped JSON fields
+     * don't apply to lazy statuses.
+     *
+     * @param enabled lazy status enabled
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 lazyStatusEnabled(boolean enabled) {
+        this.lazyStatusEnabled = enabled;
+        return (T2) this;
+    }
+
+    /**
+     * Returns statuses and users with a small in-heap footprint, for applications retaining large numbers of them.
+     * Ignored when lazy status is enabled.
+     *
+     * @param enabled compact status enabled
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 compactStatusEnabled(boolean enabled) {
+        this.compactStatusEnabled = enabled;
+        return (T2) this;
+    }
+
+    /**
+     * Shares one User instance across the statuses by the same author in timelines, search results and streams, as
+     * long as the author's JSON is identical. Hit and miss counts are exposed through JMX when mbean is enabled.
+     * Doesn't apply to lazy statuses.
+     *
+     * @param userCacheSize maximum number of cached users, 0 to disable
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 userCacheSize(int userCacheSize) {
+        this.userCacheSize = userCacheSize;
+        return (T2) this;
+    }
+
+    /**
+     * Binds the statuses and users of large list responses, such as timelines and user lookups, in parallel on the
+     * common fork-join pool. The order of the list is preserved. List responses are then parsed as a whole before
+     * binding, rather than bound while being received.
+     *
+     * @param threshold minimum number of elements bound in parallel, 0 to disable
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 parallelBindingThreshold(int threshold) {
+        this.parallelBindingThreshold = threshold;
+        return (T2) this;
+    }
+
     /**
      * @param enabled mbean enabled
      * @return this instance
@@ -415,6 +534,110 @@ class Configuration<T2 extends Configuration> {
         return (T2) this;
     }
 
+    /**
+     * Enables a circuit breaker per endpoint family (like "search" or "statuses").<br>
+     * Once the failure rate of recent calls to an endpoint family reaches the threshold, calls to the family fail fast with
+     * TwitterException until the wait duration elapses and a few probe calls succeed.
+     *
+     * @param enabled circuit breaker enabled
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 circuitBreakerEnabled(boolean enabled) {
+        this.circuitBreakerEnabled = enabled;
+        return (T2) this;
+    }
+
+    /**
+     * @param failureRateThreshold failure rate in percent that opens the circuit
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 circuitBreakerFailureRateThreshold(int failureRateThreshold) {
+        this.circuitBreakerFailureRateThreshold = failureRateThreshold;
+        return (T2) this;
+    }
+
+    /**
+     * @param slowCallDurationThreshold duration in milliseconds above which a call is regarded as failed
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 circuitBreakerSlowCallDurationThreshold(int slowCallDurationThreshold) {
+        this.circuitBreakerSlowCallDurationThreshold = slowCallDurationThreshold;
+        return (T2) this;
+    }
+
+    /**
+     * @param waitDurationInOpenState duration in milliseconds to wait before probing an open circuit
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 circuitBreakerWaitDurationInOpenState(int waitDurationInOpenState) {
+        this.circuitBreakerWaitDurationInOpenState = waitDurationInOpenState;
+        return (T2) this;
+    }
+
+    /**
+     * Enables an AIMD concurrency limiter per endpoint family.<br>
+     * Requests beyond the current limit fail fast with TwitterException instead of queueing behind a degraded endpoint.
+     *
+     * @param enabled adaptive concurrency limit enabled
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 adaptiveConcurrencyLimitEnabled(boolean enabled) {
+        this.adaptiveConcurrencyLimitEnabled = enabled;
+        return (T2) this;
+    }
+
+    /**
+     * @param maxConcurrentRequests upper bound of the adaptive concurrency limit per endpoint family
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 maxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return (T2) this;
+    }
+
+    /**
+     * Runs the threads reading and dispatching streams as virtual threads when running on Java 21 or later, so that
+     * streams blocked reading do not hold a platform thread each. Platform threads are used on earlier versions.
+     *
+     * @param enabled virtual threads enabled
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 streamVirtualThreadsEnabled(boolean enabled) {
+        this.streamVirtualThreadsEnabled = enabled;
+        return (T2) this;
+    }
+
+    /**
+     * Dispatches stream messages to the listeners on the given executor. Messages of each stream are still delivered
+     * one at a time and in order. Defaults to a bounded pool shared by all streams.
+     *
+     * @param executor executor, or null for the shared pool
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 streamDispatcher(@Nullable Executor executor) {
+        this.streamDispatcher = executor;
+        return (T2) this;
+    }
+
+    /**
+     * @param streamDrainTimeout maximum time in milliseconds to wait for the messages read to be dispatched, when a
+     *                           stream disconnects or shuts down
+     * @return this instance
+     * @since Twitter4J 4.1.3
+     */
+    public T2 streamDrainTimeout(int streamDrainTimeout) {
+        this.streamDrainTimeout = streamDrainTimeout;
+        return (T2) this;
+    }
+
     /**
      * Registers a lambda action for account associated rate limits
      *
@@ -442,12 +665,30 @@ class Configuration<T2 extends Configuration> {
     }
 
     T2 buildConfiguration() {
-        factory = new JSONImplFactory(this.jsonStoreEnabled);
+        UserCache userCache = null;
+        if (userCacheSize > 0 && !lazyStatusEnabled) {
+            userCache = new UserCache(userCacheSize, compactStatusEnabled);
+            if (mbeanEnabled) {
+                TwitterAPIMonitor.getInstance().userCacheCreated(userCache);
+            }
+        }
+        if (lazyStatusEnabled) {
+            factory = new LazyJSONImplFactory(this.jsonStoreEnabled, parallelBindingThreshold);
+        } else if (compactStatusEnabled) {
+            factory = new CompactJSONImplFactory(this.jsonStoreEnabled, userCache, parallelBindingThreshold);
+        } else {
+            factory = new JSONImplFactory(this.jsonStoreEnabled, userCache, parallelBindingThreshold);
+        }
         http = new HttpClient(httpProxyHost
                 , httpProxyPort, httpProxyUser, httpProxyPassword, httpProxySocks, httpRetryCount
                 , httpRetryIntervalSeconds, httpConnectionTimeout, httpReadTimeout, prettyDebug
                 ,
-                gzipEnabled);
+                gzipEnabled, skippedJSONFields);
+        if (circuitBreakerEnabled || adaptiveConcurrencyLimitEnabled) {
+            endpointGuard = new EndpointGuard(circuitBreakerEnabled, circuitBreakerFailureRateThreshold,
+                    circuitBreakerSlowCallDurationThreshold, circuitBreakerWaitDurationInOpenState,
+                    adaptiveConcurrencyLimitEnabled, maxConcurrentRequests, mbeanEnabled);
+        }
         String consumerKey = this.oAuthConsumerKey;
         String consumerSecret = this.oAuthConsumerSecret;
 
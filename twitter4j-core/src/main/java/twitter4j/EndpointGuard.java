@@ -0,0 +1,230 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+import twitter4j.management.EndpointHealth;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds a circuit breaker and a concurrency limiter per endpoint family, so that a degraded endpoint (like search)
+ * fails fast instead of piling up threads waiting out read timeouts and starving healthy endpoints.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class EndpointGuard implements Serializable {
+    private static final long serialVersionUID = -2361495817026463421L;
+    private static final Logger logger = Logger.getLogger();
+    // same "method" part of a Twitter REST API url as TwitterAPIMonitor
+    private static final Pattern pattern =
+            Pattern.compile("https?://[^/]+/[0-9.]*/([a-zA-Z_.]*).*");
+
+    private static final int WINDOW_SIZE = 50;
+    private static final int MINIMUM_CALLS = 10;
+    private static final int HALF_OPEN_PROBES = 3;
+    private static final int INITIAL_CONCURRENCY_LIMIT = 20;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final boolean circuitBreakerEnabled;
+    private final int failureRateThreshold;
+    private final int slowCallDurationThreshold;
+    private final int waitDurationInOpenState;
+    private final boolean adaptiveConcurrencyLimitEnabled;
+    private final int maxConcurrentRequests;
+    private final boolean mbeanEnabled;
+
+    private transient ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    EndpointGuard(boolean circuitBreakerEnabled, int failureRateThreshold, int slowCallDurationThreshold,
+                  int waitDurationInOpenState, boolean adaptiveConcurrencyLimitEnabled, int maxConcurrentRequests,
+                  boolean mbeanEnabled) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationThreshold = slowCallDurationThreshold;
+        this.waitDurationInOpenState = waitDurationInOpenState;
+        this.adaptiveConcurrencyLimitEnabled = adaptiveConcurrencyLimitEnabled;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.mbeanEnabled = mbeanEnabled;
+    }
+
+    /**
+     * Acquires a permit for the endpoint family of the specified url.
+     *
+     * @param url url to be requested
+     * @return permit to be released once the call completes, or null if the url doesn't belong to a REST API endpoint
+     * @throws TwitterException when the circuit is open, or the concurrency limit is reached
+     */
+    @Nullable
+    Permit acquire(String url) throws TwitterException {
+        Matcher matcher = pattern.matcher(url);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(matcher.group(1), this::newEndpoint);
+        return endpoint.acquire();
+    }
+
+    private Endpoint newEndpoint(String name) {
+        Endpoint endpoint = new Endpoint(name,
+                circuitBreakerEnabled ? new CircuitBreaker(failureRateThreshold, WINDOW_SIZE, MINIMUM_CALLS, waitDurationInOpenState, HALF_OPEN_PROBES) : null,
+                adaptiveConcurrencyLimitEnabled ? new ConcurrencyLimiter(INITIAL_CONCURRENCY_LIMIT, 1, maxConcurrentRequests, BACKOFF_RATIO) : null);
+        if (mbeanEnabled) {
+            TwitterAPIMonitor.getInstance().endpointCreated(endpoint);
+        }
+        return endpoint;
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        endpoints = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointGuard{" +
+                "circuitBreakerEnabled=" + circuitBreakerEnabled +
+                ", failureRateThreshold=" + failureRateThreshold +
+                ", slowCallDurationThreshold=" + slowCallDurationThreshold +
+                ", waitDurationInOpenState=" + waitDurationInOpenState +
+                ", adaptiveConcurrencyLimitEnabled=" + adaptiveConcurrencyLimitEnabled +
+                ", maxConcurrentRequests=" + maxConcurrentRequests +
+                ", endpoints=" + endpoints.values() +
+                '}';
+    }
+
+    final class Endpoint implements EndpointHealth {
+        private final String name;
+        @Nullable
+        private final CircuitBreaker circuitBreaker;
+        @Nullable
+        private final ConcurrencyLimiter limiter;
+        private final AtomicLong rejectedCount = new AtomicLong();
+
+        Endpoint(String name, @Nullable CircuitBreaker circuitBreaker, @Nullable ConcurrencyLimiter limiter) {
+            this.name = name;
+            this.circuitBreaker = circuitBreaker;
+            this.limiter = limiter;
+        }
+
+        private Permit acquire() throws TwitterException {
+            if (limiter != null && !limiter.tryAcquire()) {
+                rejectedCount.incrementAndGet();
+                throw new TwitterException("Too many concurrent requests to " + name + " (limit: " + limiter.getLimit() + ")");
+            }
+            long permit = circuitBreaker != null ? circuitBreaker.tryAcquire() : 0;
+            if (permit == CircuitBreaker.REJECTED) {
+                if (limiter != null) {
+                    limiter.cancel();
+                }
+                rejectedCount.incrementAndGet();
+                throw new TwitterException("Circuit breaker for " + name + " is open");
+            }
+            return new Permit(this, permit);
+        }
+
+        private void release(long permit, long elapsedTime, @Nullable Throwable e) {
+            // client errors like 404 say nothing about the health of the endpoint
+            boolean failure = e instanceof TwitterException
+                    ? ((TwitterException) e).isCausedByNetworkIssue() || ((TwitterException) e).getStatusCode() >= 500
+                    : e != null;
+            failure |= elapsedTime >= slowCallDurationThreshold;
+            if (circuitBreaker != null) {
+                CircuitBreaker.State before = circuitBreaker.getState();
+                circuitBreaker.onResult(permit, failure);
+                CircuitBreaker.State after = circuitBreaker.getState();
+                if (before != after) {
+                    logger.warn("Circuit breaker for " + name + " is ", after.name());
+                }
+            }
+            if (limiter != null) {
+                limiter.release(failure || e instanceof TwitterException && ((TwitterException) e).exceededRateLimitation());
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getCircuitState() {
+            return circuitBreaker != null ? circuitBreaker.getState().name() : "DISABLED";
+        }
+
+        @Override
+        public int getFailureRate() {
+            return circuitBreaker != null ? circuitBreaker.getFailureRate() : 0;
+        }
+
+        @Override
+        public int getConcurrencyLimit() {
+            return limiter != null ? limiter.getLimit() : -1;
+        }
+
+        @Override
+        public int getInFlight() {
+            return limiter != null ? limiter.getInFlight() : 0;
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return rejectedCount.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint{" +
+                    "name='" + name + '\'' +
+                    ", circuitBreaker=" + circuitBreaker +
+                    ", limiter=" + limiter +
+                    ", rejectedCount=" + rejectedCount +
+                    '}';
+        }
+    }
+
+    /**
+     * Permit of a single call, tagged with the state of the circuit it was acquired in
+     */
+    static final class Permit {
+        private final Endpoint endpoint;
+        private final long permit;
+
+        private Permit(Endpoint endpoint, long permit) {
+            this.endpoint = endpoint;
+            this.permit = permit;
+        }
+
+        Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @param elapsedTime elapsed time in milliseconds
+         * @param e           exception or error thrown by the call, or null if the call succeeded
+         */
+        void release(long elapsedTime, @Nullable Throwable e) {
+            endpoint.release(permit, elapsedTime, e);
+        }
+    }
+}
@@ -3,13 +3,19 @@ package twitter4j;
 import twitter4j.v1.*;
 
 /*package*/ class EntitiesParseUtil {
+    // zero length arrays are immutable, hence shared by all the entities without any element
+    static final UserMentionEntity[] NO_USER_MENTIONS = new UserMentionEntity[0];
+    static final URLEntity[] NO_URLS = new URLEntity[0];
+    static final HashtagEntity[] NO_HASHTAGS = new HashtagEntity[0];
+    static final SymbolEntity[] NO_SYMBOLS = new SymbolEntity[0];
+    static final MediaEntity[] NO_MEDIA = new MediaEntity[0];
 
     /*package*/
     static UserMentionEntity[] getUserMentions(JSONObject entities) throws JSONException, TwitterException {
         if (!entities.isNull("user_mentions")) {
             JSONArray userMentionsArray = entities.getJSONArray("user_mentions");
             int len = userMentionsArray.length();
-            UserMentionEntity[] userMentionEntities = new UserMentionEntity[len];
+            UserMentionEntity[] userMentionEntities = len == 0 ? NO_USER_MENTIONS : new UserMentionEntity[len];
             for (int i = 0; i < len; i++) {
                 userMentionEntities[i] = new UserMentionEntityJSONImpl(userMentionsArray.getJSONObject(i));
             }
@@ -24,7 +30,7 @@ import twitter4j.v1.*;
         if (!entities.isNull("urls")) {
             JSONArray urlsArray = entities.getJSONArray("urls");
             int len = urlsArray.length();
-            URLEntity[] urlEntities = new URLEntity[len];
+            URLEntity[] urlEntities = len == 0 ? NO_URLS : new URLEntity[len];
             for (int i = 0; i < len; i++) {
                 urlEntities[i] = new URLEntityJSONImpl(urlsArray.getJSONObject(i));
             }
@@ -39,7 +45,7 @@ import twitter4j.v1.*;
         if (!entities.isNull("hashtags")) {
             JSONArray hashtagsArray = entities.getJSONArray("hashtags");
             int len = hashtagsArray.length();
-            HashtagEntity[] hashtagEntities = new HashtagEntity[len];
+            HashtagEntity[] hashtagEntities = len == 0 ? NO_HASHTAGS : new HashtagEntity[len];
             for (int i = 0; i < len; i++) {
                 hashtagEntities[i] = new HashtagEntityJSONImpl(hashtagsArray.getJSONObject(i));
             }
@@ -54,7 +60,7 @@ import twitter4j.v1.*;
         if (!entities.isNull("symbols")) {
             JSONArray symbolsArray = entities.getJSONArray("symbols");
             int len = symbolsArray.length();
-            SymbolEntity[] symbolEntities = new SymbolEntity[len];
+            SymbolEntity[] symbolEntities = len == 0 ? NO_SYMBOLS : new SymbolEntity[len];
             for (int i = 0; i < len; i++) {
                 // HashtagEntityJSONImpl also implements SymbolEntities
                 symbolEntities[i] = new HashtagEntityJSONImpl(symbolsArray.getJSONObject(i));
@@ -70,7 +76,7 @@ import twitter4j.v1.*;
         if (!entities.isNull("media")) {
             JSONArray mediaArray = entities.getJSONArray("media");
             int len = mediaArray.length();
-            MediaEntity[] mediaEntities = new MediaEntity[len];
+            MediaEntity[] mediaEntities = len == 0 ? NO_MEDIA : new MediaEntity[len];
             for (int i = 0; i < len; i++) {
                 mediaEntities[i] = new MediaEntityJSONImpl(mediaArray.getJSONObject(i));
             }
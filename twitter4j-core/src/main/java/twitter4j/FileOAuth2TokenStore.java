@@ -0,0 +1,165 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+
+/**
+ * Stores tokens in a properties file.<br>
+ * Updates are serialized across JVMs with a lock on a sibling ".lock" file, and the properties file is replaced
+ * atomically so that readers never see a partially written file. I/O errors are logged and treated as a cache miss.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class FileOAuth2TokenStore implements OAuth2TokenStore {
+    private static final Logger logger = Logger.getLogger();
+    // FileChannel.lock() is held on behalf of the whole JVM, threads need to be serialized separately
+    private static final Object JVM_LOCK = new Object();
+    private static final String TOKEN_TYPE = ".tokenType";
+    private static final String ACCESS_TOKEN = ".accessToken";
+
+    private final Path path;
+    private final Path lockPath;
+
+    FileOAuth2TokenStore(File file) {
+        this.path = file.getAbsoluteFile().toPath();
+        this.lockPath = path.resolveSibling(path.getFileName() + ".lock");
+    }
+
+    @Nullable
+    @Override
+    public OAuth2Token load(String consumerKey) {
+        try {
+            Properties props = read();
+            String tokenType = props.getProperty(consumerKey + TOKEN_TYPE);
+            String accessToken = props.getProperty(consumerKey + ACCESS_TOKEN);
+            if (tokenType != null && accessToken != null) {
+                return new OAuth2Token(tokenType, accessToken);
+            }
+        } catch (IOException ioe) {
+            logger.warn("Failed to read OAuth 2 Bearer Token from " + path, ioe);
+        }
+        return null;
+    }
+
+    @Override
+    public void store(String consumerKey, OAuth2Token token) {
+        update(props -> {
+            props.setProperty(consumerKey + TOKEN_TYPE, token.getTokenType());
+            props.setProperty(consumerKey + ACCESS_TOKEN, token.getAccessToken());
+            return true;
+        });
+    }
+
+    @Override
+    public void remove(String consumerKey, OAuth2Token token) {
+        update(props -> {
+            if (token.getAccessToken().equals(props.getProperty(consumerKey + ACCESS_TOKEN))) {
+                props.remove(consumerKey + TOKEN_TYPE);
+                props.remove(consumerKey + ACCESS_TOKEN);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private interface Update {
+        /**
+         * @return true if the properties have been modified
+         */
+        boolean apply(Properties props);
+    }
+
+    private void update(Update update) {
+        synchronized (JVM_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // released when the channel is closed
+                channel.lock();
+                Properties props = read();
+                if (update.apply(props)) {
+                    write(props);
+                }
+            } catch (IOException ioe) {
+                logger.warn("Failed to write OAuth 2 Bearer Token to " + path, ioe);
+            }
+        }
+    }
+
+    private Properties read() throws IOException {
+        Properties props = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream is = Files.newInputStream(path)) {
+                props.load(is);
+            }
+        }
+        return props;
+    }
+
+    private void write(Properties props) throws IOException {
+        Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignore) {
+                // non-POSIX file system
+            }
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                props.store(os, "Twitter4J OAuth 2 Bearer Tokens");
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FileOAuth2TokenStore that = (FileOAuth2TokenStore) o;
+        return path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FileOAuth2TokenStore{" +
+                "path=" + path +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @since Twitter4J 4.1.3
+ */
+final class InMemoryOAuth2TokenStore implements OAuth2TokenStore {
+    static final InMemoryOAuth2TokenStore SINGLETON = new InMemoryOAuth2TokenStore();
+
+    private final Map<String, OAuth2Token> tokens = new ConcurrentHashMap<>();
+
+    private InMemoryOAuth2TokenStore() {
+    }
+
+    @Nullable
+    @Override
+    public OAuth2Token load(String consumerKey) {
+        return tokens.get(consumerKey);
+    }
+
+    @Override
+    public void store(String consumerKey, OAuth2Token token) {
+        tokens.put(consumerKey, token);
+    }
+
+    @Override
+    public void remove(String consumerKey, OAuth2Token token) {
+        tokens.remove(consumerKey, token);
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryOAuth2TokenStore{" +
+                "size=" + tokens.size() +
+                '}';
+    }
+}
@@ -16,6 +16,8 @@
 
 package twitter4j;
 
+import java.util.function.Predicate;
+
 /**
  * @author Dan Checkoway - dcheckoway at gmail.com
  * @since Twitter4J 2.1.9
@@ -75,82 +77,156 @@ final class JSONObjectType {
         // This code originally lived in AbstractStreamImplementation.
         // I've moved it in here to expose it as a public encapsulation of
         // the object type determination logic.
-        if (!json.isNull("sender")) {
+        Type type = determine(json::isNull);
+        if (type != null) {
+            return type;
+        }
+        try {
+            return ofEvent(json.getString("event"));
+        } catch (JSONException jsone) {
+            try {
+                logger.warn("Failed to get event element: ", json.toString(2));
+            } catch (JSONException ignore) {
+            }
+        }
+        return Type.UNKNOWN;
+    }
+
+    /**
+     * Determines the type of an indexed object, in the same way as {@link #determine(JSONObject)}.
+     *
+     * @param index the object whose type should be determined
+     * @return the determined JSONObjectType
+     * @since Twitter4J 4.1.3
+     */
+    static Type determine(JSONByteIndex index) {
+        Type type = determine(index::isNull);
+        if (type != null) {
+            return type;
+        }
+        try {
+            return ofEvent(index.member("event").getString("event"));
+        } catch (JSONException jsone) {
+            logger.warn("Failed to get event element: ", index.toString());
+        }
+        return Type.UNKNOWN;
+    }
+
+    /**
+     * Guesses the type of a stream message from the name of its first member, without parsing it.<br>
+     * Notices are sent as objects holding a single member named after their type, while statuses and events start
+     * with other members. The guess is to be confirmed by {@link #determine(JSONByteIndex)}.
+     *
+     * @param line stream message
+     * @return DELETE, LIMIT, STALL_WARNING or SCRUB_GEO if the first member is named after one of them, UNKNOWN
+     * otherwise
+     * @since Twitter4J 4.1.3
+     */
+    static Type sniff(String line) {
+        int pos = skipWhitespace(line, 0);
+        if (pos == line.length() || line.charAt(pos) != '{') {
+            return Type.UNKNOWN;
+        }
+        pos = skipWhitespace(line, pos + 1);
+        if (pos == line.length() || line.charAt(pos) != '"') {
+            return Type.UNKNOWN;
+        }
+        pos++;
+        if (line.startsWith("delete\"", pos)) {
+            return Type.DELETE;
+        } else if (line.startsWith("limit\"", pos)) {
+            return Type.LIMIT;
+        } else if (line.startsWith("warning\"", pos)) {
+            return Type.STALL_WARNING;
+        } else if (line.startsWith("scrub_geo\"", pos)) {
+            return Type.SCRUB_GEO;
+        }
+        return Type.UNKNOWN;
+    }
+
+    private static int skipWhitespace(String line, int pos) {
+        while (pos < line.length() && line.charAt(pos) <= ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @param isNull tells whether a member is absent or null
+     * @return the determined type, or null if the object is an event
+     */
+    private static Type determine(Predicate<String> isNull) {
+        if (!isNull.test("sender")) {
             return Type.SENDER;
-        } else if (!json.isNull("text")) {
+        } else if (!isNull.test("text")) {
             return Type.STATUS;
-        } else if (!json.isNull("direct_message")) {
+        } else if (!isNull.test("direct_message")) {
             return Type.DIRECT_MESSAGE;
-        } else if (!json.isNull("delete")) {
+        } else if (!isNull.test("delete")) {
             return Type.DELETE;
-        } else if (!json.isNull("limit")) {
+        } else if (!isNull.test("limit")) {
             return Type.LIMIT;
-        } else if (!json.isNull("warning")) {
+        } else if (!isNull.test("warning")) {
             return Type.STALL_WARNING;
-        } else if (!json.isNull("scrub_geo")) {
+        } else if (!isNull.test("scrub_geo")) {
             return Type.SCRUB_GEO;
-        } else if (!json.isNull("friends")) {
+        } else if (!isNull.test("friends")) {
             return Type.FRIENDS;
-        } else if (!json.isNull("event")) {
-            String event;
-            try {
-                event = json.getString("event");
-                if ("favorite".equals(event)) {
-                    return Type.FAVORITE;
-                } else if ("unfavorite".equals(event)) {
-                    return Type.UNFAVORITE;
-                } else if ("follow".equals(event)) {
-                    return Type.FOLLOW;
-                } else if ("unfollow".equals(event)) {
-                    return Type.UNFOLLOW;
-                } else if (event.startsWith("list")) {
-                    switch (event) {
-                        case "list_member_added":
-                            return Type.USER_LIST_MEMBER_ADDED;
-                        case "list_member_removed":
-                            return Type.USER_LIST_MEMBER_DELETED;
-                        case "list_user_subscribed":
-                            return Type.USER_LIST_SUBSCRIBED;
-                        case "list_user_unsubscribed":
-                            return Type.USER_LIST_UNSUBSCRIBED;
-                        case "list_created":
-                            return Type.USER_LIST_CREATED;
-                        case "list_updated":
-                            return Type.USER_LIST_UPDATED;
-                        case "list_destroyed":
-                            return Type.USER_LIST_DESTROYED;
-                    }
-                } else if ("user_update".equals(event)) {
-                    return Type.USER_UPDATE;
-                } else if ("user_delete".equals(event)) {
-                    return Type.USER_DELETE;
-                } else if ("user_suspend".equals(event)) {
-                    return Type.USER_SUSPEND;
-                } else if ("block".equals(event)) {
-                    return Type.BLOCK;
-                } else if ("unblock".equals(event)) {
-                    return Type.UNBLOCK;
-                } else if ("retweeted_retweet".equals(event)) {
-                    return Type.RETWEETED_RETWEET;
-                } else if ("favorited_retweet".equals(event)) {
-                    return Type.FAVORITED_RETWEET;
-                } else if ("quoted_tweet".equals(event)) {
-                    return Type.QUOTED_TWEET;
-                } else if ("mute".equals(event)) {
-                    return Type.MUTE;
-                } else if ("unmute".equals(event)) {
-                    return Type.UNMUTE;
-                }
+        } else if (!isNull.test("event")) {
+            return null;
+        } else if (!isNull.test("disconnect")) {
+            return Type.DISCONNECTION;
+        }
+        return Type.UNKNOWN;
+    }
 
-            } catch (JSONException jsone) {
-                try {
-                    logger.warn("Failed to get event element: ", json.toString(2));
-                } catch (JSONException ignore) {
-                }
+    private static Type ofEvent(String event) {
+        if ("favorite".equals(event)) {
+            return Type.FAVORITE;
+        } else if ("unfavorite".equals(event)) {
+            return Type.UNFAVORITE;
+        } else if ("follow".equals(event)) {
+            return Type.FOLLOW;
+        } else if ("unfollow".equals(event)) {
+            return Type.UNFOLLOW;
+        } else if (event.startsWith("list")) {
+            switch (event) {
+                case "list_member_added":
+                    return Type.USER_LIST_MEMBER_ADDED;
+                case "list_member_removed":
+                    return Type.USER_LIST_MEMBER_DELETED;
+                case "list_user_subscribed":
+                    return Type.USER_LIST_SUBSCRIBED;
+                case "list_user_unsubscribed":
+                    return Type.USER_LIST_UNSUBSCRIBED;
+                case "list_created":
+                    return Type.USER_LIST_CREATED;
+                case "list_updated":
+                    return Type.USER_LIST_UPDATED;
+                case "list_destroyed":
+                    return Type.USER_LIST_DESTROYED;
             }
-        } else if (!json.isNull("disconnect")) {
-            return Type.DISCONNECTION;
+        } else if ("user_update".equals(event)) {
+            return Type.USER_UPDATE;
+        } else if ("user_delete".equals(event)) {
+            return Type.USER_DELETE;
+        } else if ("user_suspend".equals(event)) {
+            return Type.USER_SUSPEND;
+        } else if ("block".equals(event)) {
+            return Type.BLOCK;
+        } else if ("unblock".equals(event)) {
+            return Type.UNBLOCK;
+        } else if ("retweeted_retweet".equals(event)) {
+            return Type.RETWEETED_RETWEET;
+        } else if ("favorited_retweet".equals(event)) {
+            return Type.FAVORITED_RETWEET;
+        } else if ("quoted_tweet".equals(event)) {
+            return Type.QUOTED_TWEET;
+        } else if ("mute".equals(event)) {
+            return Type.MUTE;
+        } else if ("unmute".equals(event)) {
+            return Type.UNMUTE;
         }
         return Type.UNKNOWN;
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,8 @@
 
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Objects;
@@ -40,7 +42,12 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
     /**
      * token
      */
-    private OAuth2Token token;
+    private volatile OAuth2Token token;
+    /**
+     * tokenStore
+     */
+    @Nullable
+    private final transient OAuth2TokenStore tokenStore;
     /**
      * oAuth2Scope
      */
@@ -69,6 +76,10 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
         if (conf.oAuth2TokenType != null && conf.oAuth2AccessToken != null) {
             token = new OAuth2Token(conf.oAuth2TokenType, conf.oAuth2AccessToken);
         }
+        tokenStore = conf.oAuth2TokenStore;
+        if (token == null && tokenStore != null) {
+            token = tokenStore.load(consumerKey);
+        }
     }
 
     /**
@@ -115,7 +126,9 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
 
 
     /**
-     * Obtains an OAuth 2 Bearer token.
+     * Obtains an OAuth 2 Bearer token.<br>
+     * When a token store is configured, the token loaded from the store or issued for another instance sharing it is
+     * returned as is, instead of throwing IllegalStateException.
      *
      * @return OAuth 2 Bearer token
      * @throws TwitterException      when Twitter service or network is unavailable, or connecting non-SSL endpoints.
@@ -123,22 +136,74 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
      * @see <a href="https://dev.twitter.com/docs/api/1.1/post/oauth2/token">POST oauth2/token | Twitter Developers</a>
      */
     public OAuth2Token getOAuth2Token() throws TwitterException {
+        if (tokenStore != null) {
+            OAuth2Token current = token;
+            return current != null ? current : refreshOAuth2Token(null);
+        }
         if (token != null) {
             throw new IllegalStateException("OAuth 2 Bearer Token is already available.");
         }
+        return requestOAuth2Token();
+    }
 
+    /**
+     * Returns a token issued by another instance sharing the token store, or obtains a new one.<br>
+     * Requests from concurrent callers are coalesced, so that the token is obtained only once. With a token store,
+     * callers are coalesced across all instances sharing the store and the consumer key.
+     *
+     * @param invalidated token rejected by Twitter, or null if no token has been used yet
+     * @return OAuth 2 Bearer token
+     * @throws TwitterException when Twitter service or network is unavailable, or connecting non-SSL endpoints.
+     * @since Twitter4J 4.1.3
+     */
+    public OAuth2Token refreshOAuth2Token(@Nullable OAuth2Token invalidated) throws TwitterException {
+        OAuth2Token current = token;
+        if (current != null && !current.equals(invalidated)) {
+            // already refreshed by another thread
+            return current;
+        }
+        if (tokenStore != null) {
+            OAuth2Token refreshed = OAuth2TokenRefresher.refresh(tokenStore, consumerKey, invalidated,
+                    this::issueOAuth2Token);
+            token = refreshed;
+            return refreshed;
+        }
+        synchronized (this) {
+            current = token;
+            if (current != null && !current.equals(invalidated)) {
+                return current;
+            }
+            token = null;
+            return requestOAuth2Token();
+        }
+    }
+
+    /**
+     * @return current token, or null if not available
+     */
+    @Nullable
+    OAuth2Token getCurrentOAuth2Token() {
+        return token;
+    }
+
+    private OAuth2Token requestOAuth2Token() throws TwitterException {
+        OAuth2Token newToken = issueOAuth2Token();
+        token = newToken;
+        return newToken;
+    }
+
+    private OAuth2Token issueOAuth2Token() throws TwitterException {
         HttpParameter[] params = new HttpParameter[oAuth2Scope == null ? 1 : 2];
         params[0] = new HttpParameter("grant_type", "client_credentials");
         if (oAuth2Scope != null) {
             params[1] = new HttpParameter("scope", oAuth2Scope);
         }
 
-        HttpResponse res = http.post(oAuth2TokenURL, params, this, null);
+        HttpResponse res = http.post(oAuth2TokenURL, params, basicAuthorization(), null);
         if (res.getStatusCode() != 200) {
             throw new TwitterException("Obtaining OAuth 2 Bearer Token failed.", res);
         }
-        token = new OAuth2Token(res);
-        return token;
+        return new OAuth2Token(res);
     }
 
     /**
@@ -156,40 +221,51 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
         params[0] = new HttpParameter("access_token", token.getAccessToken());
 
         OAuth2Token _token = token;
-        boolean succeed = false;
-
-        try {
-            token = null;
+        HttpResponse res = http.post(oAuth2InvalidateTokenURL, params, basicAuthorization(), null);
+        if (res.getStatusCode() != 200) {
+            throw new TwitterException("Invalidating OAuth 2 Bearer Token failed.", res);
+        }
+        token = null;
+        if (tokenStore != null) {
+            tokenStore.remove(consumerKey, _token);
+        }
+    }
 
-            HttpResponse res = http.post(oAuth2InvalidateTokenURL, params, this, null);
-            if (res.getStatusCode() != 200) {
-                throw new TwitterException("Invalidating OAuth 2 Bearer Token failed.", res);
+    /**
+     * @return authorization used for oauth2/token and oauth2/invalidate_token, which require the consumer credentials
+     */
+    private Authorization basicAuthorization() {
+        return new Authorization() {
+            @Override
+            public String getAuthorizationHeader(HttpRequest req) {
+                return basicAuthorizationHeader();
             }
 
-            succeed = true;
-
-        } finally {
-            if (!succeed) {
-                token = _token;
+            @Override
+            public boolean isEnabled() {
+                return true;
             }
+        };
+    }
+
+    private String basicAuthorizationHeader() {
+        String credentials;
+        try {
+            credentials =
+                    URLEncoder.encode(consumerKey, "UTF-8")
+                            + ":"
+                            + URLEncoder.encode(consumerSecret, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
         }
+        return "Basic " + BASE64Encoder.encode(credentials.getBytes());
     }
 
     @Override
     public String getAuthorizationHeader(HttpRequest req) {
+        OAuth2Token token = this.token;
         if (token == null) {
-            String credentials;
-            try {
-                credentials =
-                        URLEncoder.encode(consumerKey, "UTF-8")
-                                + ":"
-                                + URLEncoder.encode(consumerSecret, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            }
-
-            return "Basic " + BASE64Encoder.encode(credentials.getBytes());
-
+            return basicAuthorizationHeader();
         } else {
             return token.generateAuthorizationHeader();
         }
@@ -197,7 +273,7 @@ public class OAuth2Authorization implements Authorization, java.io.Serializable
 
     @Override
     public boolean isEnabled() {
-        return token != null;
+        return token != null || tokenStore != null;
     }
 
     @Override
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces refreshes of the tokens of a store, so that Twitter instances sharing the store and the consumer key
+ * request oauth2/token once at a time, and the others take the token it issues.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class OAuth2TokenRefresher {
+    // refreshes in flight, per token store and consumer key
+    private static final ConcurrentHashMap<Key, CompletableFuture<OAuth2Token>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private OAuth2TokenRefresher() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Requests a token
+     */
+    interface Issuer {
+        OAuth2Token issue() throws TwitterException;
+    }
+
+    /**
+     * Returns the token stored by another instance in the meantime, joins a refresh in flight for the same store and
+     * consumer key, or obtains a new token from the issuer and stores it.
+     *
+     * @param store       token store
+     * @param consumerKey consumer key
+     * @param invalidated token rejected by Twitter, or null if no token has been used yet
+     * @param issuer      requests a new token
+     * @return token other than the invalidated one
+     * @throws TwitterException when the issuer failed
+     */
+    static OAuth2Token refresh(OAuth2TokenStore store, String consumerKey, @Nullable OAuth2Token invalidated,
+                               Issuer issuer) throws TwitterException {
+        Key key = new Key(store, consumerKey);
+        while (true) {
+            CompletableFuture<OAuth2Token> flight = new CompletableFuture<>();
+            CompletableFuture<OAuth2Token> inFlight = IN_FLIGHT.putIfAbsent(key, flight);
+            if (inFlight != null) {
+                OAuth2Token token = await(inFlight);
+                if (!token.equals(invalidated)) {
+                    return token;
+                }
+                // the refresh in flight started before the token was invalidated
+                continue;
+            }
+            try {
+                if (invalidated != null) {
+                    store.remove(consumerKey, invalidated);
+                }
+                OAuth2Token token = store.load(consumerKey);
+                if (token == null || token.equals(invalidated)) {
+                    token = issuer.issue();
+                    store.store(consumerKey, token);
+                }
+                flight.complete(token);
+                return token;
+            } catch (TwitterException | RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                IN_FLIGHT.remove(key, flight);
+            }
+        }
+    }
+
+    private static OAuth2Token await(CompletableFuture<OAuth2Token> flight) throws TwitterException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TwitterException("Interrupted while waiting for OAuth 2 Bearer Token.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TwitterException) {
+                throw (TwitterException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TwitterException("Obtaining OAuth 2 Bearer Token failed.", cause);
+        }
+    }
+
+    private static final class Key {
+        private final OAuth2TokenStore store;
+        private final String consumerKey;
+
+        Key(OAuth2TokenStore store, String consumerKey) {
+            this.store = store;
+            this.consumerKey = consumerKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return store.equals(key.store) && consumerKey.equals(key.consumerKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(store, consumerKey);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * Stores OAuth 2 Bearer tokens keyed by consumer key, so that Twitter instances (and JVMs sharing a file) reuse an
+ * issued token instead of calling oauth2/token on start up.<br>
+ * Implementations must be thread safe.
+ *
+ * @see <a href="https://dev.twitter.com/docs/auth/application-only-auth">Application-only authentication</a>
+ * @since Twitter4J 4.1.3
+ */
+public interface OAuth2TokenStore {
+    /**
+     * @param consumerKey consumer key
+     * @return stored token, or null if not available
+     */
+    @Nullable
+    OAuth2Token load(String consumerKey);
+
+    /**
+     * @param consumerKey consumer key
+     * @param token       token to be stored
+     */
+    void store(String consumerKey, OAuth2Token token);
+
+    /**
+     * Removes the token only if the stored token equals to the specified one, so that a token refreshed by another
+     * instance in the meantime is kept.
+     *
+     * @param consumerKey consumer key
+     * @param token       token known to be invalidated
+     */
+    void remove(String consumerKey, OAuth2Token token);
+
+    /**
+     * @return token store shared by all Twitter instances in this JVM
+     */
+    static OAuth2TokenStore inMemory() {
+        return InMemoryOAuth2TokenStore.SINGLETON;
+    }
+
+    /**
+     * @param file properties file to store tokens. The file is created with owner only permissions where supported.
+     * @return token store backed by the specified file, shareable across JVMs
+     */
+    static OAuth2TokenStore file(File file) {
+        return new FileOAuth2TokenStore(file);
+    }
+}
@@ -34,6 +34,7 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
 
     private static final String HMAC_SHA1 = "HmacSHA1";
     private static final HttpParameter OAUTH_SIGNATURE_METHOD = new HttpParameter("oauth_signature_method", "HMAC-SHA1");
+    private static final HttpParameter OAUTH_VERSION = new HttpParameter("oauth_version", "1.0");
     private static final Logger logger = Logger.getLogger();
     /**
      * consumer key
@@ -47,6 +48,14 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
      * realm
      */
     private final String realm;
+    /**
+     * precomputed oauth_consumer_key parameter
+     */
+    private transient HttpParameter consumerKeyParam;
+    /**
+     * precomputed key for requests without token
+     */
+    private transient SecretKeySpec consumerSecretKeySpec;
     /**
      * oauth token
      */
@@ -293,61 +302,110 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
         if (null == params) {
             params = new HttpParameter[0];
         }
-        List<HttpParameter> oauthHeaderParams = new ArrayList<>(5);
-        oauthHeaderParams.add(new HttpParameter("oauth_consumer_key", consumerKey));
-        oauthHeaderParams.add(OAUTH_SIGNATURE_METHOD);
-        oauthHeaderParams.add(new HttpParameter("oauth_timestamp", timestamp));
-        oauthHeaderParams.add(new HttpParameter("oauth_nonce", nonce));
-        oauthHeaderParams.add(new HttpParameter("oauth_version", "1.0"));
-        if (otoken != null) {
-            oauthHeaderParams.add(new HttpParameter("oauth_token", otoken.getToken()));
+        HttpParameter consumerKeyParam = getConsumerKeyParameter();
+        HttpParameter timestampParam = new HttpParameter("oauth_timestamp", timestamp);
+        HttpParameter nonceParam = new HttpParameter("oauth_nonce", nonce);
+        HttpParameter tokenParam = otoken != null ? new HttpParameter("oauth_token", otoken.getToken()) : null;
+
+        HttpParameter[] queryParams = parseGetParameters(url);
+        boolean signParams = !HttpParameter.containsFile(params);
+        HttpParameter[] signatureBaseParams = new HttpParameter[6 + (signParams ? params.length : 0) + queryParams.length];
+        int count = 0;
+        signatureBaseParams[count++] = consumerKeyParam;
+        signatureBaseParams[count++] = OAUTH_SIGNATURE_METHOD;
+        signatureBaseParams[count++] = timestampParam;
+        signatureBaseParams[count++] = nonceParam;
+        signatureBaseParams[count++] = OAUTH_VERSION;
+        if (tokenParam != null) {
+            signatureBaseParams[count++] = tokenParam;
         }
-        List<HttpParameter> signatureBaseParams = new ArrayList<>(oauthHeaderParams.size() + params.length);
-        signatureBaseParams.addAll(oauthHeaderParams);
-        if (!HttpParameter.containsFile(params)) {
-            signatureBaseParams.addAll(toParamList(params));
+        if (signParams) {
+            for (HttpParameter param : params) {
+                if (!param.isFile() && !param.isJson()) {
+                    signatureBaseParams[count++] = param;
+                }
+            }
         }
-        parseGetParameters(url, signatureBaseParams);
-        StringBuilder base = new StringBuilder(method).append("&")
-                .append(HttpParameter.encode(constructRequestURL(url))).append("&");
-        base.append(HttpParameter.encode(normalizeRequestParameters(signatureBaseParams)));
-        String oauthBaseString = base.toString();
-        logger.debug("OAuth base string: ", oauthBaseString);
-        String signature = generateSignature(oauthBaseString, otoken);
+        for (HttpParameter param : queryParams) {
+            signatureBaseParams[count++] = param;
+        }
+        Arrays.sort(signatureBaseParams, 0, count);
+
+        Signer signer = SIGNER.get();
+        StringBuilder base = signer.buffer();
+        base.append(method).append('&');
+        HttpParameter.appendEncoded(base, constructRequestURL(url), false);
+        base.append('&');
+        for (int i = 0; i < count; i++) {
+            if (i != 0) {
+                base.append("%26");
+            }
+            signatureBaseParams[i].appendEncoded(base, true);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("OAuth base string: ", base.toString());
+        }
+        String signature = BASE64Encoder.encode(signer.sign(getSecretKeySpec(otoken), base));
         logger.debug("OAuth signature: ", signature);
 
-        oauthHeaderParams.add(new HttpParameter("oauth_signature", signature));
-
+        StringBuilder header = signer.buffer();
+        header.append("OAuth ");
+        appendHeaderParameter(header, consumerKeyParam).append(',');
+        appendHeaderParameter(header, OAUTH_SIGNATURE_METHOD).append(',');
+        appendHeaderParameter(header, timestampParam).append(',');
+        appendHeaderParameter(header, nonceParam).append(',');
+        appendHeaderParameter(header, OAUTH_VERSION).append(',');
+        if (tokenParam != null) {
+            appendHeaderParameter(header, tokenParam).append(',');
+        }
+        header.append("oauth_signature=\"");
+        HttpParameter.appendEncoded(header, signature, false);
+        header.append('"');
         // http://oauth.net/core/1.0/#rfc.section.9.1.1
         if (realm != null) {
-            oauthHeaderParams.add(new HttpParameter("realm", realm));
+            header.append(",realm=\"");
+            HttpParameter.appendEncoded(header, realm, false);
+            header.append('"');
         }
-        return "OAuth " + encodeParameters(oauthHeaderParams, ",", true);
+        return header.toString();
     }
 
-    private void parseGetParameters(String url, List<HttpParameter> signatureBaseParams) {
+    private static StringBuilder appendHeaderParameter(StringBuilder header, HttpParameter param) {
+        header.append(param.getEncodedName()).append("=\"").append(param.getEncodedValue());
+        return header.append('"');
+    }
+
+    private HttpParameter getConsumerKeyParameter() {
+        HttpParameter param = consumerKeyParam;
+        if (param == null) {
+            consumerKeyParam = param = new HttpParameter("oauth_consumer_key", consumerKey);
+        }
+        return param;
+    }
+
+    private static final HttpParameter[] NO_PARAMETERS = new HttpParameter[0];
+
+    private static HttpParameter[] parseGetParameters(String url) {
         int queryStart = url.indexOf("?");
-        if (-1 != queryStart) {
-            String[] queryStrs = url.substring(queryStart + 1).split("&");
-            try {
-                for (String query : queryStrs) {
-                    String[] split = query.split("=");
-                    if (split.length == 2) {
-                        signatureBaseParams.add(
-                                new HttpParameter(URLDecoder.decode(split[0],
-                                        "UTF-8"), URLDecoder.decode(split[1], "UTF-8"))
-                        );
-                    } else {
-                        signatureBaseParams.add(
-                                new HttpParameter(URLDecoder.decode(split[0], "UTF-8"), "")
-                        );
-                    }
+        if (-1 == queryStart) {
+            return NO_PARAMETERS;
+        }
+        String[] queryStrs = url.substring(queryStart + 1).split("&");
+        HttpParameter[] params = new HttpParameter[queryStrs.length];
+        try {
+            for (int i = 0; i < queryStrs.length; i++) {
+                String[] split = queryStrs[i].split("=");
+                if (split.length == 2) {
+                    params[i] = new HttpParameter(URLDecoder.decode(split[0],
+                            "UTF-8"), URLDecoder.decode(split[1], "UTF-8"));
+                } else {
+                    params[i] = new HttpParameter(URLDecoder.decode(split[0], "UTF-8"), "");
                 }
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
             }
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
         }
-
+        return params;
     }
 
     private static final Random RAND = new Random();
@@ -371,31 +429,100 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
      * @see <a href="http://oauth.net/core/1.0a/#rfc.section.9.2.1">OAuth Core - 9.2.1.  Generating Signature</a>
      */
     /*package*/ String generateSignature(String data, OAuthToken token) {
-        byte[] byteHMAC;
-        try {
-            Mac mac = Mac.getInstance(HMAC_SHA1);
-            SecretKeySpec spec;
-            if (null == token) {
+        return BASE64Encoder.encode(SIGNER.get().sign(getSecretKeySpec(token), data.getBytes()));
+    }
+
+    private SecretKeySpec getSecretKeySpec(OAuthToken token) {
+        SecretKeySpec spec;
+        if (null == token) {
+            spec = consumerSecretKeySpec;
+            if (null == spec) {
                 String oauthSignature = HttpParameter.encode(consumerSecret) + "&";
                 spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-            } else {
-                spec = token.getSecretKeySpec();
-                if (null == spec) {
-                    String oauthSignature = HttpParameter.encode(consumerSecret) + "&" + HttpParameter.encode(token.getTokenSecret());
-                    spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-                    token.setSecretKeySpec(spec);
+                consumerSecretKeySpec = spec;
+            }
+        } else {
+            spec = token.getSecretKeySpec();
+            if (null == spec) {
+                String oauthSignature = HttpParameter.encode(consumerSecret) + "&" + HttpParameter.encode(token.getTokenSecret());
+                spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
+                token.setSecretKeySpec(spec);
+            }
+        }
+        return spec;
+    }
+
+    private static final ThreadLocal<Signer> SIGNER = ThreadLocal.withInitial(Signer::new);
+
+    /**
+     * Thread confined HMAC-SHA1 Mac and buffers, so that signing doesn't look up the provider, allocate a Mac, nor
+     * re-initialize it with the same key on every request.
+     */
+    private static final class Signer {
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+        private final Mac mac;
+        private SecretKeySpec key = null;
+        private StringBuilder buf = new StringBuilder(512);
+        private byte[] bytes = new byte[512];
+
+        Signer() {
+            try {
+                mac = Mac.getInstance(HMAC_SHA1);
+            } catch (NoSuchAlgorithmException nsae) {
+                logger.error("Failed to get HmacSHA1 \"Message Authentication Code\" (MAC)", nsae);
+                throw new AssertionError(nsae);
+            }
+        }
+
+        /**
+         * @return cleared buffer, valid until the next call on this thread
+         */
+        StringBuilder buffer() {
+            if (buf.capacity() > MAX_RETAINED_CAPACITY) {
+                buf = new StringBuilder(512);
+            }
+            buf.setLength(0);
+            return buf;
+        }
+
+        /**
+         * @param spec key
+         * @param data ASCII only data, such as signature base string
+         * @return signature
+         */
+        byte[] sign(SecretKeySpec spec, CharSequence data) {
+            int length = data.length();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) data.charAt(i);
+            }
+            init(spec);
+            mac.update(bytes, 0, length);
+            byte[] signature = mac.doFinal();
+            if (bytes.length > MAX_RETAINED_CAPACITY) {
+                bytes = new byte[512];
+            }
+            return signature;
+        }
+
+        byte[] sign(SecretKeySpec spec, byte[] data) {
+            init(spec);
+            return mac.doFinal(data);
+        }
+
+        private void init(SecretKeySpec spec) {
+            if (spec != key) {
+                try {
+                    mac.init(spec);
+                } catch (InvalidKeyException ike) {
+                    logger.error("Failed initialize \"Message Authentication Code\" (MAC)", ike);
+                    throw new AssertionError(ike);
                 }
+                key = spec;
             }
-            mac.init(spec);
-            byteHMAC = mac.doFinal(data.getBytes());
-        } catch (InvalidKeyException ike) {
-            logger.error("Failed initialize \"Message Authentication Code\" (MAC)", ike);
-            throw new AssertionError(ike);
-        } catch (NoSuchAlgorithmException nsae) {
-            logger.error("Failed to get HmacSHA1 \"Message Authentication Code\" (MAC)", nsae);
-            throw new AssertionError(nsae);
         }
-        return BASE64Encoder.encode(byteHMAC);
     }
 
     /**
@@ -418,18 +545,9 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
      * @see <a href="http://oauth.net/core/1.0#rfc.section.9.1.1">OAuth Core - 9.1.1.  Normalize Request Parameters</a>
      */
     static String normalizeRequestParameters(HttpParameter[] params) {
-        return normalizeRequestParameters(toParamList(params));
-    }
-
-    private static String normalizeRequestParameters(List<HttpParameter> params) {
-        Collections.sort(params);
-        return encodeParameters(params);
-    }
-
-    private static List<HttpParameter> toParamList(HttpParameter[] params) {
-        List<HttpParameter> paramList = new ArrayList<>(params.length);
-        paramList.addAll(Arrays.asList(params));
-        return paramList;
+        HttpParameter[] sorted = params.clone();
+        Arrays.sort(sorted);
+        return encodeParameters(Arrays.asList(sorted));
     }
 
     /**
@@ -452,11 +570,11 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable {
                     }
                     buf.append(splitter);
                 }
-                buf.append(HttpParameter.encode(param.getName())).append("=");
+                buf.append(param.getEncodedName()).append("=");
                 if (quot) {
                     buf.append("\"");
                 }
-                buf.append(HttpParameter.encode(param.getValue()));
+                buf.append(param.getEncodedValue());
             }
         }
         if (buf.length() != 0) {
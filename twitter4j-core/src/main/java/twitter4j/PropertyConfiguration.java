@@ -55,6 +55,7 @@ final class PropertyConfiguration {
     private static final String OAUTH2_TOKEN_TYPE = "oauth2.tokenType";
     private static final String OAUTH2_ACCESS_TOKEN = "oauth2.accessToken";
     private static final String OAUTH2_SCOPE = "oauth2.scope";
+    private static final String OAUTH2_TOKEN_STORE_FILE = "oauth2.tokenStoreFile";
 
     private static final String OAUTH_REQUEST_TOKEN_URL = "oauth.requestTokenURL";
     private static final String OAUTH_AUTHORIZATION_URL = "oauth.authorizationURL";
@@ -72,9 +73,22 @@ final class PropertyConfiguration {
     private static final String INCLUDE_EXT_ALT_TEXT = "includeExtAltText";
     private static final String TWEET_MODE_EXTENDED = "tweetModeExtended";
     private static final String JSON_STORE_ENABLED = "jsonStoreEnabled";
+    private static final String SKIPPED_JSON_FIELDS = "skippedJSONFields";
+    private static final String LAZY_STATUS_ENABLED = "lazyStatusEnabled";
+    private static final String COMPACT_STATUS_ENABLED = "compactStatusEnabled";
+    private static final String USER_CACHE_SIZE = "userCacheSize";
+    private static final String PARALLEL_BINDING_THRESHOLD = "parallelBindingThreshold";
     private static final String MBEAN_ENABLED = "mbeanEnabled";
     private static final String STREAM_STALL_WARNINGS_ENABLED = "stream.enableStallWarnings";
+    private static final String STREAM_VIRTUAL_THREADS_ENABLED = "stream.virtualThreadsEnabled";
+    private static final String STREAM_DRAIN_TIMEOUT = "stream.drainTimeout";
     private static final String APPLICATION_ONLY_AUTH_ENABLED = "enableApplicationOnlyAuth";
+    private static final String CIRCUIT_BREAKER_ENABLED = "circuitBreaker.enabled";
+    private static final String CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD = "circuitBreaker.failureRateThreshold";
+    private static final String CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD = "circuitBreaker.slowCallDurationThreshold";
+    private static final String CIRCUIT_BREAKER_WAIT_DURATION_IN_OPEN_STATE = "circuitBreaker.waitDurationInOpenState";
+    private static final String ADAPTIVE_CONCURRENCY_LIMIT_ENABLED = "adaptiveConcurrencyLimit.enabled";
+    private static final String ADAPTIVE_CONCURRENCY_LIMIT_MAX_CONCURRENT_REQUESTS = "adaptiveConcurrencyLimit.maxConcurrentRequests";
 
     static void load(Configuration conf, Properties props) {
         setFieldsWithPrefix(conf, props);
@@ -220,6 +234,9 @@ final class PropertyConfiguration {
         if (notNull(props, OAUTH2_SCOPE)) {
             conf.oAuth2Scope = getString(props, OAUTH2_SCOPE);
         }
+        if (notNull(props, OAUTH2_TOKEN_STORE_FILE)) {
+            conf.oAuth2TokenStore = OAuth2TokenStore.file(new File(getString(props, OAUTH2_TOKEN_STORE_FILE)));
+        }
         if (notNull(props, STREAM_THREAD_NAME)) {
             conf.streamThreadName = getString(props, STREAM_THREAD_NAME);
         }
@@ -269,15 +286,54 @@ final class PropertyConfiguration {
         if (notNull(props, JSON_STORE_ENABLED)) {
             conf.jsonStoreEnabled = getBoolean(props, JSON_STORE_ENABLED);
         }
+        if (notNull(props, SKIPPED_JSON_FIELDS)) {
+            conf.skippedJSONFields(getString(props, SKIPPED_JSON_FIELDS).trim().split("\\s*,\\s*"));
+        }
+        if (notNull(props, LAZY_STATUS_ENABLED)) {
+            conf.lazyStatusEnabled = getBoolean(props, LAZY_STATUS_ENABLED);
+        }
+        if (notNull(props, COMPACT_STATUS_ENABLED)) {
+            conf.compactStatusEnabled = getBoolean(props, COMPACT_STATUS_ENABLED);
+        }
+        if (notNull(props, USER_CACHE_SIZE)) {
+            conf.userCacheSize = getIntProperty(props, USER_CACHE_SIZE);
+        }
+        if (notNull(props, PARALLEL_BINDING_THRESHOLD)) {
+            conf.parallelBindingThreshold = getIntProperty(props, PARALLEL_BINDING_THRESHOLD);
+        }
         if (notNull(props, MBEAN_ENABLED)) {
             conf.mbeanEnabled = getBoolean(props, MBEAN_ENABLED);
         }
         if (notNull(props, STREAM_STALL_WARNINGS_ENABLED)) {
             conf.stallWarningsEnabled = getBoolean(props, STREAM_STALL_WARNINGS_ENABLED);
         }
+        if (notNull(props, STREAM_VIRTUAL_THREADS_ENABLED)) {
+            conf.streamVirtualThreadsEnabled = getBoolean(props, STREAM_VIRTUAL_THREADS_ENABLED);
+        }
+        if (notNull(props, STREAM_DRAIN_TIMEOUT)) {
+            conf.streamDrainTimeout = getIntProperty(props, STREAM_DRAIN_TIMEOUT);
+        }
         if (notNull(props, APPLICATION_ONLY_AUTH_ENABLED)) {
             conf.applicationOnlyAuthEnabled = getBoolean(props, APPLICATION_ONLY_AUTH_ENABLED);
         }
+        if (notNull(props, CIRCUIT_BREAKER_ENABLED)) {
+            conf.circuitBreakerEnabled = getBoolean(props, CIRCUIT_BREAKER_ENABLED);
+        }
+        if (notNull(props, CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD)) {
+            conf.circuitBreakerFailureRateThreshold(getIntProperty(props, CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD));
+        }
+        if (notNull(props, CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD)) {
+            conf.circuitBreakerSlowCallDurationThreshold(getIntProperty(props, CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD));
+        }
+        if (notNull(props, CIRCUIT_BREAKER_WAIT_DURATION_IN_OPEN_STATE)) {
+            conf.circuitBreakerWaitDurationInOpenState(getIntProperty(props, CIRCUIT_BREAKER_WAIT_DURATION_IN_OPEN_STATE));
+        }
+        if (notNull(props, ADAPTIVE_CONCURRENCY_LIMIT_ENABLED)) {
+            conf.adaptiveConcurrencyLimitEnabled = getBoolean(props, ADAPTIVE_CONCURRENCY_LIMIT_ENABLED);
+        }
+        if (notNull(props, ADAPTIVE_CONCURRENCY_LIMIT_MAX_CONCURRENT_REQUESTS)) {
+            conf.maxConcurrentRequests(getIntProperty(props, ADAPTIVE_CONCURRENCY_LIMIT_MAX_CONCURRENT_REQUESTS));
+        }
     }
 
     private static boolean getBoolean(Properties props, String name) {
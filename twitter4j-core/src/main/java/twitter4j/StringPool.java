@@ -0,0 +1,67 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Lossy, fixed size table deduplicating frequently repeated strings such as profile colors, image URLs, sources
+ * and language codes.<br>
+ * A string replaces whatever occupied its slot, so the table never grows and rarely seen strings are simply not
+ * deduplicated. Slots are read and written without synchronization, which is safe as Strings are immutable.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StringPool {
+    /**
+     * pool shared by compact statuses and users of every thread.<br>
+     * Lossy on purpose: threads racing for a slot may overwrite each other's strings, which only costs a missed
+     * deduplication. A thread never sees a partially constructed String, as its members are final.
+     */
+    static final StringPool SHARED = new StringPool(1 << 12);
+
+    private final String[] table;
+    private final int mask;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    StringPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        table = new String[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @param str string to be deduplicated
+     * @return an equal string already in the pool, or str
+     */
+    @Nullable
+    String dedup(@Nullable String str) {
+        if (str == null) {
+            return null;
+        }
+        int h = str.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        String pooled = table[slot];
+        if (pooled != null && pooled.equals(str)) {
+            return pooled;
+        }
+        table[slot] = str;
+        return str;
+    }
+}
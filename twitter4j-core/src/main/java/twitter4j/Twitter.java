@@ -73,6 +73,7 @@ public interface Twitter extends java.io.Serializable {
 
         final List<StreamListener> streamListeners = new ArrayList<>();
         final List<RawStreamListener> rawStreamListeners = new ArrayList<>();
+        ReconnectStrategy reconnectStrategy = BackoffReconnectStrategy.newBuilder().build();
 
         /**
          * @param listener listener
@@ -103,6 +104,17 @@ public interface Twitter extends java.io.Serializable {
         }
 
 
+        /**
+         * @param reconnectStrategy decides how long streams wait before reconnecting, and when they give up. Defaults
+         *                          to {@link BackoffReconnectStrategy} with jitter.
+         * @return this instance
+         * @since Twitter4J 4.1.3
+         */
+        public Twitter.TwitterBuilder reconnectStrategy(@NotNull ReconnectStrategy reconnectStrategy) {
+            this.reconnectStrategy = reconnectStrategy;
+            return this;
+        }
+
         /**
          * @param onStatus listener
          * @return this instance
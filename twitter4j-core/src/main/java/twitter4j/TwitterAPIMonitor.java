@@ -18,9 +18,17 @@ package twitter4j;
 import twitter4j.management.APIStatistics;
 import twitter4j.management.APIStatisticsMBean;
 import twitter4j.management.APIStatisticsOpenMBean;
+import twitter4j.management.EndpointHealth;
+import twitter4j.management.StreamDispatcherStatistics;
+import twitter4j.management.UserCacheStatistics;
 
 import javax.management.*;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +51,8 @@ public class TwitterAPIMonitor {
 
     private static final APIStatistics STATISTICS = new APIStatistics(100);
 
+    private static final UserCaches USER_CACHES = new UserCaches();
+
 
     static {
         try {
@@ -84,4 +94,115 @@ public class TwitterAPIMonitor {
             STATISTICS.methodCalled(method, elapsedTime, success);
         }
     }
+
+    /**
+     * @return threads and pending events of the stream dispatchers
+     * @since Twitter4J 4.1.3
+     */
+    public StreamDispatcherStatistics getStreamDispatcherStatistics() {
+        return StreamDispatcher.STATISTICS;
+    }
+
+    void endpointCreated(EndpointHealth endpointHealth) {
+        STATISTICS.registerEndpointHealth(endpointHealth);
+    }
+
+    /**
+     * @return hit and miss counts summed over the user caches in use, of instances configured with mbeanEnabled
+     * @since Twitter4J 4.1.3
+     */
+    public UserCacheStatistics getUserCacheStatistics() {
+        return USER_CACHES;
+    }
+
+    void userCacheCreated(UserCacheStatistics statistics) {
+        // one MBean for all caches, which are weakly referenced so that they are released with their instances
+        if (USER_CACHES.add(statistics)) {
+            try {
+                MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+                ObjectName oName = new ObjectName("twitter4j.mbean:type=UserCache");
+                mbs.registerMBean(new StandardMBean(USER_CACHES, UserCacheStatistics.class), oName);
+            } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException |
+                     MalformedObjectNameException e) {
+                logger.error(e.getMessage());
+            }
+        }
+    }
+
+    void streamDispatcherCreated(StreamDispatcherStatistics statistics) {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName oName = new ObjectName("twitter4j.mbean:type=StreamDispatcher");
+            mbs.registerMBean(new StandardMBean(statistics, StreamDispatcherStatistics.class), oName);
+        } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException |
+                 MalformedObjectNameException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    private static final class UserCaches implements UserCacheStatistics {
+        private final Set<UserCacheStatistics> caches = Collections.newSetFromMap(new WeakHashMap<>());
+        private boolean registered;
+
+        /**
+         * @return true if this is the first cache, and the MBean needs to be registered
+         */
+        synchronized boolean add(UserCacheStatistics cache) {
+            caches.add(cache);
+            boolean first = !registered;
+            registered = true;
+            return first;
+        }
+
+        private synchronized List<UserCacheStatistics> caches() {
+            return new ArrayList<>(caches);
+        }
+
+        @Override
+        public long getHitCount() {
+            long hits = 0;
+            for (UserCacheStatistics cache : caches()) {
+                hits += cache.getHitCount();
+            }
+            return hits;
+        }
+
+        @Override
+        public long getMissCount() {
+            long misses = 0;
+            for (UserCacheStatistics cache : caches()) {
+                misses += cache.getMissCount();
+            }
+            return misses;
+        }
+
+        @Override
+        public double getHitRatio() {
+            long hits = 0;
+            long lookups = 0;
+            for (UserCacheStatistics cache : caches()) {
+                hits += cache.getHitCount();
+                lookups += cache.getHitCount() + cache.getMissCount();
+            }
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public int getSize() {
+            int size = 0;
+            for (UserCacheStatistics cache : caches()) {
+                size += cache.getSize();
+            }
+            return size;
+        }
+
+        @Override
+        public int getCapacity() {
+            int capacity = 0;
+            for (UserCacheStatistics cache : caches()) {
+                capacity += cache.getCapacity();
+            }
+            return capacity;
+        }
+    }
 }
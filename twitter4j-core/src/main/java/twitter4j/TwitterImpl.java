@@ -18,6 +18,7 @@
 package twitter4j;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.*;
 
 import java.io.IOException;
@@ -27,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static twitter4j.HttpResponseCode.*;
@@ -48,6 +50,7 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
     private final ObjectFactory factory;
     private final String restBaseURL;
     private final boolean mbeanEnabled;
+    private final EndpointGuard endpointGuard;
     private final String uploadBaseURL;
     private final String streamBaseURL;
     private final String streamThreadName;
@@ -55,6 +58,13 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
     private transient List<StreamListener> streamListeners;
     private transient List<RawStreamListener> rawStreamListeners;
     private final boolean stallWarningsEnabled;
+    private final boolean streamVirtualThreadsEnabled;
+    // not serialized, falls back to the shared pool
+    @Nullable
+    private transient Executor streamDispatcher;
+    private final int streamDrainTimeout;
+    // not serialized, falls back to the default strategy
+    private transient ReconnectStrategy reconnectStrategy;
     private final boolean prettyDebug;
     private final boolean jsonStoreEnabled;
 
@@ -77,6 +87,7 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
         this.http = conf.http;
         this.auth = conf.auth;
         this.mbeanEnabled = conf.mbeanEnabled;
+        this.endpointGuard = conf.endpointGuard;
 
 
         //noinspection unchecked
@@ -120,17 +131,22 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
         streamThreadName = conf.streamThreadName;
         jsonStoreEnabled = conf.jsonStoreEnabled;
         prettyDebug = conf.prettyDebug;
+        streamVirtualThreadsEnabled = conf.streamVirtualThreadsEnabled;
+        streamDispatcher = conf.streamDispatcher;
+        streamDrainTimeout = conf.streamDrainTimeout;
         if (conf instanceof TwitterBuilder) {
             TwitterBuilder builder = (TwitterBuilder) conf;
             connectionLifeCycleListeners = builder.connectionLifeCycleListeners;
             streamListeners = builder.streamListeners;
             rawStreamListeners = builder.rawStreamListeners;
             stallWarningsEnabled = builder.stallWarningsEnabled;
+            reconnectStrategy = builder.reconnectStrategy;
         } else {
             connectionLifeCycleListeners = new ArrayList<>();
             streamListeners = new ArrayList<>();
             rawStreamListeners = new ArrayList<>();
             stallWarningsEnabled = false;
+            reconnectStrategy = BackoffReconnectStrategy.newBuilder().build();
         }
         this.IMPLICIT_PARAMS = params.toArray(new HttpParameter[0]);
         this.IMPLICIT_PARAMS_STR = implicitParamsStr;
@@ -138,9 +154,10 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
     }
 
     void initTransients() {
-        twitterV1 = new TwitterV1Impl(http, factory, restBaseURL, streamBaseURL, uploadBaseURL, auth, mbeanEnabled, IMPLICIT_PARAMS,
+        twitterV1 = new TwitterV1Impl(http, factory, restBaseURL, streamBaseURL, uploadBaseURL, auth, mbeanEnabled, endpointGuard, IMPLICIT_PARAMS,
                 IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners, streamThreadName, connectionLifeCycleListeners,
-                streamListeners, rawStreamListeners, jsonStoreEnabled, prettyDebug, stallWarningsEnabled);
+                streamListeners, rawStreamListeners, jsonStoreEnabled, prettyDebug, stallWarningsEnabled,
+                streamVirtualThreadsEnabled, streamDispatcher, streamDrainTimeout, reconnectStrategy);
     }
 
     @Override
@@ -186,7 +203,7 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         TwitterImpl twitter = (TwitterImpl) o;
-        return mbeanEnabled == twitter.mbeanEnabled && stallWarningsEnabled == twitter.stallWarningsEnabled && prettyDebug == twitter.prettyDebug && jsonStoreEnabled == twitter.jsonStoreEnabled && Objects.equals(http, twitter.http) && Objects.equals(IMPLICIT_PARAMS_STR, twitter.IMPLICIT_PARAMS_STR) && Arrays.equals(IMPLICIT_PARAMS, twitter.IMPLICIT_PARAMS) && Objects.equals(factory, twitter.factory) && Objects.equals(restBaseURL, twitter.restBaseURL) && Objects.equals(uploadBaseURL, twitter.uploadBaseURL) && Objects.equals(streamBaseURL, twitter.streamBaseURL) && Objects.equals(streamThreadName, twitter.streamThreadName) && Objects.equals(connectionLifeCycleListeners, twitter.connectionLifeCycleListeners) && Objects.equals(streamListeners, twitter.streamListeners) && Objects.equals(rawStreamListeners, twitter.rawStreamListeners) && Objects.equals(rateLimitStatusListeners, twitter.rateLimitStatusListeners) && Objects.equals(rateLimitReachedListeners, twitter.rateLimitReachedListeners) && Objects.equals(twitterV1, twitter.twitterV1) && auth.equals(twitter.auth);
+        return mbeanEnabled == twitter.mbeanEnabled && stallWarningsEnabled == twitter.stallWarningsEnabled && streamVirtualThreadsEnabled == twitter.streamVirtualThreadsEnabled && Objects.equals(streamDispatcher, twitter.streamDispatcher) && streamDrainTimeout == twitter.streamDrainTimeout && prettyDebug == twitter.prettyDebug && jsonStoreEnabled == twitter.jsonStoreEnabled && Objects.equals(http, twitter.http) && Objects.equals(IMPLICIT_PARAMS_STR, twitter.IMPLICIT_PARAMS_STR) && Arrays.equals(IMPLICIT_PARAMS, twitter.IMPLICIT_PARAMS) && Objects.equals(factory, twitter.factory) && Objects.equals(restBaseURL, twitter.restBaseURL) && Objects.equals(uploadBaseURL, twitter.uploadBaseURL) && Objects.equals(streamBaseURL, twitter.streamBaseURL) && Objects.equals(streamThreadName, twitter.streamThreadName) && Objects.equals(connectionLifeCycleListeners, twitter.connectionLifeCycleListeners) && Objects.equals(streamListeners, twitter.streamListeners) && Objects.equals(rawStreamListeners, twitter.rawStreamListeners) && Objects.equals(rateLimitStatusListeners, twitter.rateLimitStatusListeners) && Objects.equals(rateLimitReachedListeners, twitter.rateLimitReachedListeners) && Objects.equals(twitterV1, twitter.twitterV1) && auth.equals(twitter.auth);
     }
 
     @Override
@@ -203,6 +220,7 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
                 ", factory=" + factory +
                 ", restBaseURL='" + restBaseURL + '\'' +
                 ", mbeanEnabled=" + mbeanEnabled +
+                ", endpointGuard=" + endpointGuard +
                 ", uploadBaseURL='" + uploadBaseURL + '\'' +
                 ", streamBaseURL='" + streamBaseURL + '\'' +
                 ", streamThreadName='" + streamThreadName + '\'' +
@@ -210,6 +228,10 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
                 ", streamListeners=" + streamListeners +
                 ", rawStreamListeners=" + rawStreamListeners +
                 ", stallWarningsEnabled=" + stallWarningsEnabled +
+                ", streamVirtualThreadsEnabled=" + streamVirtualThreadsEnabled +
+                ", streamDispatcher=" + streamDispatcher +
+                ", streamDrainTimeout=" + streamDrainTimeout +
+                ", reconnectStrategy=" + reconnectStrategy +
                 ", prettyDebug=" + prettyDebug +
                 ", jsonStoreEnabled=" + jsonStoreEnabled +
                 ", rateLimitStatusListeners=" + rateLimitStatusListeners +
@@ -228,6 +250,7 @@ class TwitterImpl implements Twitter, HttpResponseListener, Serializable {
         connectionLifeCycleListeners = new ArrayList<>();
         streamListeners = new ArrayList<>();
         rawStreamListeners = new ArrayList<>();
+        reconnectStrategy = BackoffReconnectStrategy.newBuilder().build();
 
         initTransients();
     }
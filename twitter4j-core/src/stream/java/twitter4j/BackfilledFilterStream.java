@@ -0,0 +1,713 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import twitter4j.management.BackfillStatistics;
+import twitter4j.v1.ConnectionLifeCycleListener;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.Paging;
+import twitter4j.v1.Query;
+import twitter4j.v1.QueryResult;
+import twitter4j.v1.RateLimitStatus;
+import twitter4j.v1.ResponseList;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
+import twitter4j.v1.StatusListener;
+import twitter4j.v1.TwitterV1;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filter stream filling the gaps left by reconnections over REST.<br>
+ * The id of the latest delivered status is tracked. When the connection is established again, statuses posted since
+ * then are fetched in parallel, by search for the track keywords and from the user timelines of the follow ids, paging
+ * back with max_id. Statuses received meanwhile are held back, so that the listeners receive the gap and the live
+ * statuses merged in id order, each status once as long as its id is still in the de-duplication window.<br>
+ * The REST endpoints only approximate the stream: search does not return every status, replies to and retweets of
+ * followed users are not fetched, and locations are not backfilled. Each fill is bounded by the number of pages
+ * fetched per query and by a budget of requests per endpoint, which also shrinks to the remaining rate limit reported by
+ * the responses. User timelines of the follow ids whose statuses were seen most recently are fetched first, so that a
+ * large follow set does not exhaust the rate limit of user_timeline. At most maxPending statuses are held back; beyond
+ * that the oldest ones are delivered before the fill completes.
+ * <pre>{@code
+ * BackfilledFilterStream stream = BackfilledFilterStream.newBuilder(FilterQuery.ofTrack(keywords))
+ *         .connection(twitter)
+ *         .listener(listener)
+ *         .build();
+ * stream.start();
+ * }</pre>
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class BackfilledFilterStream implements StatusListener, ConnectionLifeCycleListener, Flushable,
+        BackfillStatistics {
+    private static final Logger logger = Logger.getLogger();
+    // limits of search/tweets
+    static final int MAX_QUERY_LENGTH = 500;
+    private static final int SEARCH_COUNT = 100;
+    private static final int TIMELINE_COUNT = 200;
+
+    private final FilterQuery query;
+    private final TwitterV1 rest;
+    private final TwitterStreamImpl stream;
+    private final List<StatusListener> listeners;
+    private final int maxPages;
+    private final int maxRequests;
+    private final int maxPending;
+    private final ExecutorService executor;
+
+    // guarded by itself, which also serializes calls to the listeners
+    private final StatusIdWindow seen;
+    private long lastId;
+    private long disconnectedAt;
+    private int fills;
+    private long fillStartedAt;
+    private long fillOutageMillis;
+    // statuses held back while filling, and the ids of those received live
+    private final TreeMap<Long, Status> pending = new TreeMap<>();
+    private final Set<Long> liveIds = new HashSet<>();
+    // backfilled statuses delivered by the current fills
+    private long fillGap;
+    // follow ids and the id of the latest status of each delivered
+    private final Set<Long> followIds = new HashSet<>();
+    private final Map<Long, Long> lastSeenByFollowId = new HashMap<>();
+
+    private final LongAdder fillCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder backfilledStatusCount = new LongAdder();
+    private final LongAdder duplicateCount = new LongAdder();
+    private volatile long lastGapSize;
+    private volatile long lastOutageMillis = -1;
+    private volatile long lastFillLatencyMillis = -1;
+
+    private BackfilledFilterStream(Builder builder) {
+        this.query = builder.query;
+        this.listeners = new ArrayList<>(builder.listeners);
+        this.maxPages = builder.maxPages;
+        this.maxRequests = builder.maxRequests;
+        this.maxPending = builder.maxPending;
+        if (query.follow != null) {
+            for (long userId : query.follow) {
+                followIds.add(userId);
+            }
+        }
+        this.seen = new StatusIdWindow(builder.deduplicationWindowMillis, builder.deduplicationCapacity);
+        this.rest = builder.connection.v1();
+        this.stream = ((TwitterStreamImpl) rest.stream())
+                .withListeners(Collections.singletonList(this), Collections.emptyList())
+                .withConnectionLifeCycleListener(this);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(builder.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "Twitter4J Backfill[" + threads.incrementAndGet() + "]");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param query filter predicates
+     * @return builder
+     */
+    public static Builder newBuilder(@NotNull FilterQuery query) {
+        return new Builder(query);
+    }
+
+    /**
+     * Connects the stream.
+     */
+    public void start() {
+        stream.filter(query);
+    }
+
+    /**
+     * Disconnects the stream and stops filling.
+     */
+    public void shutdown() {
+        stream.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void onStatus(Status status) {
+        synchronized (seen) {
+            if (fills > 0) {
+                pending.put(status.getId(), status);
+                liveIds.add(status.getId());
+                trimPending();
+            } else {
+                deliver(status);
+            }
+        }
+    }
+
+    /**
+     * @return true if the status was delivered, false if it was a duplicate
+     */
+    private boolean deliver(Status status) {
+        long id = status.getId();
+        if (id > 0 && !seen.add(id, System.currentTimeMillis())) {
+            duplicateCount.increment();
+            return false;
+        }
+        lastId = Math.max(lastId, id);
+        if (status.getUser() != null && followIds.contains(status.getUser().getId())) {
+            lastSeenByFollowId.merge(status.getUser().getId(), id, Math::max);
+        }
+        for (StatusListener listener : listeners) {
+            listener.onStatus(status);
+        }
+        return true;
+    }
+
+    /**
+     * Delivers the oldest held back statuses beyond maxPending.
+     */
+    private void trimPending() {
+        while (pending.size() > maxPending) {
+            Map.Entry<Long, Status> oldest = pending.pollFirstEntry();
+            if (deliver(oldest.getValue()) && !liveIds.contains(oldest.getKey())) {
+                fillGap++;
+            }
+            liveIds.remove(oldest.getKey());
+        }
+    }
+
+    @Override
+    public void onDisconnect() {
+        synchronized (seen) {
+            if (disconnectedAt == 0) {
+                disconnectedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    @Override
+    public void onConnect() {
+        long sinceId;
+        synchronized (seen) {
+            if (disconnectedAt == 0) {
+                // first connection
+                return;
+            }
+            long outage = System.currentTimeMillis() - disconnectedAt;
+            disconnectedAt = 0;
+            sinceId = lastId;
+            if (sinceId == 0) {
+                return;
+            }
+            if (fills == 0) {
+                fillOutageMillis = outage;
+            }
+        }
+        fill(sinceId, fetches(sinceId));
+    }
+
+    @Override
+    public void onCleanUp() {
+    }
+
+    /**
+     * Runs the fetches in parallel and delivers their statuses newer than sinceId once all have completed.
+     *
+     * @param sinceId id of the latest status delivered before the gap
+     * @param fetches fetches of the gap
+     * @return completion of the fill
+     */
+    CompletableFuture<Void> fill(long sinceId, List<Callable<List<Status>>> fetches) {
+        synchronized (seen) {
+            if (fills++ == 0) {
+                fillStartedAt = System.currentTimeMillis();
+            }
+        }
+        List<CompletableFuture<List<Status>>> results = new ArrayList<>(fetches.size());
+        for (Callable<List<Status>> fetch : fetches) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetch.call();
+                } catch (Exception e) {
+                    logger.warn("Failed to backfill: " + e.getMessage());
+                    failureCount.increment();
+                    onException(e);
+                    return Collections.emptyList();
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            synchronized (seen) {
+                for (CompletableFuture<List<Status>> result : results) {
+                    for (Status status : result.join()) {
+                        if (status.getId() > sinceId) {
+                            pending.putIfAbsent(status.getId(), status);
+                        }
+                    }
+                }
+                if (--fills > 0) {
+                    trimPending();
+                    return;
+                }
+                long gap = fillGap;
+                for (Map.Entry<Long, Status> entry : pending.entrySet()) {
+                    if (deliver(entry.getValue()) && !liveIds.contains(entry.getKey())) {
+                        gap++;
+                    }
+                }
+                pending.clear();
+                liveIds.clear();
+                fillGap = 0;
+                fillCount.increment();
+                backfilledStatusCount.add(gap);
+                lastGapSize = gap;
+                lastOutageMillis = fillOutageMillis;
+                lastFillLatencyMillis = System.currentTimeMillis() - fillStartedAt;
+            }
+        });
+    }
+
+    /**
+     * @param sinceId id of the latest status delivered before the gap
+     * @return searches for the track keywords and user timelines of the follow ids, within the request budgets
+     */
+    private List<Callable<List<Status>>> fetches(long sinceId) {
+        List<Callable<List<Status>>> fetches = new ArrayList<>();
+        if (query.track != null) {
+            Budget budget = new Budget(maxRequests);
+            for (String q : searchQueries(query.track)) {
+                fetches.add(() -> fetchPages(sinceId, maxPages, budget, maxId -> {
+                    Query search = Query.of(q).sinceId(sinceId).count(SEARCH_COUNT).resultType(Query.ResultType.recent);
+                    QueryResult result = rest.search().search(maxId == -1 ? search : search.maxId(maxId));
+                    budget.update(result.getRateLimitStatus());
+                    return result.getTweets();
+                }));
+            }
+        }
+        if (query.follow != null) {
+            Budget budget = new Budget(maxRequests);
+            for (long userId : followIdsByRecency(maxRequests)) {
+                fetches.add(() -> fetchPages(sinceId, maxPages, budget, maxId -> {
+                    Paging paging = Paging.ofSinceId(sinceId).count(TIMELINE_COUNT);
+                    ResponseList<Status> result = rest.timelines()
+                            .getUserTimeline(userId, maxId == -1 ? paging : paging.maxId(maxId));
+                    budget.update(result.getRateLimitStatus());
+                    return result;
+                }));
+            }
+        }
+        return fetches;
+    }
+
+    /**
+     * @param limit maximum number of ids
+     * @return follow ids, those whose statuses were seen most recently first and those never seen last
+     */
+    List<Long> followIdsByRecency(int limit) {
+        List<Long> userIds = new ArrayList<>(followIds.size());
+        synchronized (seen) {
+            for (long userId : query.follow) {
+                userIds.add(userId);
+            }
+            // stable, so that the ids never seen keep the order of the query
+            userIds.sort(Comparator.comparing((Long userId) -> lastSeenByFollowId.getOrDefault(userId, 0L))
+                    .reversed());
+        }
+        return userIds.size() > limit ? new ArrayList<>(userIds.subList(0, limit)) : userIds;
+    }
+
+    /**
+     * Number of requests left to an endpoint during a fill, shared by its fetches.
+     */
+    static final class Budget {
+        private final AtomicInteger requests;
+
+        /**
+         * @param requests maximum number of requests
+         */
+        Budget(int requests) {
+            this.requests = new AtomicInteger(requests);
+        }
+
+        /**
+         * @return true if a request can be made
+         */
+        boolean acquire() {
+            return requests.getAndUpdate(left -> Math.max(0, left - 1)) > 0;
+        }
+
+        /**
+         * Shrinks the budget to the remaining rate limit of the endpoint.
+         *
+         * @param rateLimitStatus rate limit status of a response, or null
+         */
+        void update(@Nullable RateLimitStatus rateLimitStatus) {
+            if (rateLimitStatus != null) {
+                requests.accumulateAndGet(Math.max(0, rateLimitStatus.getRemaining()), Math::min);
+            }
+        }
+
+        /**
+         * Leaves no request, as the rate limit of the endpoint is exceeded.
+         */
+        void exhaust() {
+            requests.set(0);
+        }
+
+        /**
+         * @return number of requests left
+         */
+        int remaining() {
+            return requests.get();
+        }
+    }
+
+    /**
+     * Page of statuses older than max_id
+     */
+    interface Page {
+        /**
+         * @param maxId max_id, or -1 for the latest page
+         * @return statuses of the page, newest first
+         * @throws TwitterException when the request fails
+         */
+        List<Status> fetch(long maxId) throws TwitterException;
+    }
+
+    /**
+     * Pages back with max_id until a page is empty or reaches sinceId, or the budget runs out.
+     *
+     * @param sinceId  id of the latest status delivered before the gap
+     * @param maxPages maximum number of pages fetched
+     * @param budget   requests left to the endpoint
+     * @param page     page
+     * @return statuses newer than sinceId
+     * @throws TwitterException when a request fails
+     */
+    static List<Status> fetchPages(long sinceId, int maxPages, Budget budget, Page page) throws TwitterException {
+        List<Status> statuses = new ArrayList<>();
+        long maxId = -1;
+        for (int i = 0; i < maxPages && budget.acquire(); i++) {
+            List<Status> result;
+            try {
+                result = page.fetch(maxId);
+            } catch (TwitterException e) {
+                if (e.exceededRateLimitation()) {
+                    budget.exhaust();
+                }
+                throw e;
+            }
+            long oldest = Long.MAX_VALUE;
+            for (Status status : result) {
+                oldest = Math.min(oldest, status.getId());
+                if (status.getId() > sinceId) {
+                    statuses.add(status);
+                }
+            }
+            if (result.isEmpty() || oldest - 1 <= sinceId) {
+                break;
+            }
+            maxId = oldest - 1;
+        }
+        return statuses;
+    }
+
+    /**
+     * Joins single keywords with OR up to the length limit of search queries. Phrases, whose words are matched in any
+     * order by the stream, are searched on their own.
+     *
+     * @param track track keywords
+     * @return search queries
+     */
+    static List<String> searchQueries(String[] track) {
+        List<String> queries = new ArrayList<>();
+        StringBuilder keywords = new StringBuilder();
+        for (String term : track) {
+            String keyword = term.trim();
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            if (keyword.contains(" ")) {
+                queries.add(keyword);
+                continue;
+            }
+            if (keywords.length() > 0 && keywords.length() + " OR ".length() + keyword.length() > MAX_QUERY_LENGTH) {
+                queries.add(keywords.toString());
+                keywords.setLength(0);
+            }
+            if (keywords.length() > 0) {
+                keywords.append(" OR ");
+            }
+            keywords.append(keyword);
+        }
+        if (keywords.length() > 0) {
+            queries.add(keywords.toString());
+        }
+        return queries;
+    }
+
+    @Override
+    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                listener.onDeletionNotice(statusDeletionNotice);
+            }
+        }
+    }
+
+    @Override
+    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                listener.onTrackLimitationNotice(numberOfLimitedStatuses);
+            }
+        }
+    }
+
+    @Override
+    public void onScrubGeo(long userId, long upToStatusId) {
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                listener.onScrubGeo(userId, upToStatusId);
+            }
+        }
+    }
+
+    @Override
+    public void onStallWarning(StallWarning warning) {
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                listener.onStallWarning(warning);
+            }
+        }
+    }
+
+    @Override
+    public void onException(Exception ex) {
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                listener.onException(ex);
+            }
+        }
+    }
+
+    /**
+     * Flushes the listeners that hold statuses back, such as BatchingStatusListener, as the stream shuts down.
+     *
+     * @throws IOException when a listener fails to flush, after the others are flushed
+     */
+    @Override
+    public void flush() throws IOException {
+        IOException failure = null;
+        synchronized (seen) {
+            for (StatusListener listener : listeners) {
+                if (listener instanceof Flushable) {
+                    try {
+                        ((Flushable) listener).flush();
+                    } catch (IOException e) {
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public long getFillCount() {
+        return fillCount.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    @Override
+    public long getBackfilledStatusCount() {
+        return backfilledStatusCount.sum();
+    }
+
+    @Override
+    public long getLastGapSize() {
+        return lastGapSize;
+    }
+
+    @Override
+    public long getLastOutageMillis() {
+        return lastOutageMillis;
+    }
+
+    @Override
+    public long getLastFillLatencyMillis() {
+        return lastFillLatencyMillis;
+    }
+
+    @Override
+    public long getDuplicateCount() {
+        return duplicateCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BackfilledFilterStream{" +
+                "query=" + query +
+                ", fillCount=" + getFillCount() +
+                ", failureCount=" + getFailureCount() +
+                ", backfilledStatusCount=" + getBackfilledStatusCount() +
+                ", lastGapSize=" + lastGapSize +
+                ", lastOutageMillis=" + lastOutageMillis +
+                ", lastFillLatencyMillis=" + lastFillLatencyMillis +
+                ", duplicateCount=" + getDuplicateCount() +
+                '}';
+    }
+
+    /**
+     * Builder of backfilled filter streams
+     */
+    public static final class Builder {
+        private final FilterQuery query;
+        private Twitter connection;
+        private final List<StatusListener> listeners = new ArrayList<>();
+        private int parallelism = 4;
+        private int maxPages = 5;
+        private int maxRequests = 100;
+        private int maxPending = 10_000;
+        private long deduplicationWindowMillis = 60_000;
+        private int deduplicationCapacity = 100_000;
+
+        private Builder(FilterQuery query) {
+            this.query = query;
+        }
+
+        /**
+         * @param twitter Twitter instance providing credentials and configuration of the stream and REST requests
+         * @return this instance
+         */
+        public Builder connection(@NotNull Twitter twitter) {
+            this.connection = twitter;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of REST requests made at once. Defaults to 4.
+         * @return this instance
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param maxPages maximum number of pages fetched per search or user timeline. Defaults to 5.
+         * @return this instance
+         */
+        public Builder maxPages(int maxPages) {
+            if (maxPages < 1) {
+                throw new IllegalArgumentException("maxPages must be positive: " + maxPages);
+            }
+            this.maxPages = maxPages;
+            return this;
+        }
+
+        /**
+         * @param maxRequests maximum number of requests made to search and to user_timeline each per fill. User
+         *                    timelines of at most this number of follow ids are fetched. Defaults to 100.
+         * @return this instance
+         */
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("maxRequests must be positive: " + maxRequests);
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * @param maxPending maximum number of statuses held back while filling. Defaults to 10,000.
+         * @return this instance
+         */
+        public Builder maxPending(int maxPending) {
+            if (maxPending < 1) {
+                throw new IllegalArgumentException("maxPending must be positive: " + maxPending);
+            }
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * @param windowMillis time status ids are remembered for. Defaults to 60 seconds.
+         * @param capacity     maximum number of status ids remembered. Defaults to 100,000.
+         * @return this instance
+         */
+        public Builder deduplicationWindow(long windowMillis, int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive: " + capacity);
+            }
+            this.deduplicationWindowMillis = windowMillis;
+            this.deduplicationCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param listener listener of the statuses
+         * @return this instance
+         */
+        public Builder listener(@NotNull StatusListener listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * @return backfilled filter stream, not connected yet
+         * @throws IllegalStateException when no connection or no listener is added
+         */
+        public BackfilledFilterStream build() {
+            if (connection == null) {
+                throw new IllegalStateException("No connection is added.");
+            }
+            if (listeners.isEmpty()) {
+                throw new IllegalStateException("StatusListener is not set.");
+            }
+            return new BackfilledFilterStream(this);
+        }
+    }
+}
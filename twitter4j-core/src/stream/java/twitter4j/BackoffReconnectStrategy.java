@@ -0,0 +1,258 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.ReconnectStrategy;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static twitter4j.HttpResponseCode.FORBIDDEN;
+import static twitter4j.HttpResponseCode.NOT_ACCEPTABLE;
+import static twitter4j.HttpResponseCode.TOO_MANY_REQUESTS;
+
+/**
+ * Reconnect strategy backing off exponentially, with decorrelated jitter so that streams failing at the same time
+ * don't reconnect in lockstep.<br>
+ * Network errors back off from 250 milliseconds up to 16 seconds, HTTP errors from 10 seconds up to 240 seconds, and
+ * rate limiting (420 and 429) from 1 minute up to 15 minutes, as recommended by Twitter. Connections refused with 403
+ * or 406 are given up, as they are refused for the role of the account or for the parameters.<br>
+ * With jitter, each delay is drawn between the initial delay and three times the previous one, capped. Without, each
+ * delay doubles the previous one.<br>
+ * The reconnect budget, if any, is shared by the streams this instance is configured for, like the connection attempts
+ * Twitter counts per account.
+ * <pre>{@code
+ * Twitter twitter = Twitter.newBuilder()
+ *         .reconnectStrategy(BackoffReconnectStrategy.newBuilder()
+ *                 .immediateReconnectOnDisconnect(true)
+ *                 .budget(20, 3_600_000)
+ *                 .build())
+ *         .build();
+ * }</pre>
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class BackoffReconnectStrategy implements ReconnectStrategy {
+    private static final int ENHANCE_YOUR_CALM = 420;
+
+    private final long[] networkError;
+    private final long[] httpError;
+    private final Map<Integer, long[]> policies;
+    private final Set<Integer> givenUp;
+    private final boolean jitter;
+    private final boolean immediateReconnectOnDisconnect;
+    private final int budget;
+    private final long budgetWindowMillis;
+    // guarded by itself, times of the reconnections within the budget window
+    private final ArrayDeque<Long> reconnections = new ArrayDeque<>();
+
+    private BackoffReconnectStrategy(Builder builder) {
+        this.networkError = builder.networkError;
+        this.httpError = builder.httpError;
+        this.policies = new HashMap<>(builder.policies);
+        this.givenUp = new HashSet<>(builder.givenUp);
+        this.jitter = builder.jitter;
+        this.immediateReconnectOnDisconnect = builder.immediateReconnectOnDisconnect;
+        this.budget = builder.budget;
+        this.budgetWindowMillis = builder.budgetWindowMillis;
+    }
+
+    /**
+     * @return builder with the defaults
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public long nextDelayMillis(int statusCode, int attempt, long previousDelayMillis) {
+        if (givenUp.contains(statusCode) || !withinBudget()) {
+            return GIVE_UP;
+        }
+        if (statusCode == DISCONNECTED && attempt == 1 && immediateReconnectOnDisconnect) {
+            return 0;
+        }
+        long[] policy = policies.get(statusCode);
+        if (policy == null) {
+            policy = statusCode > DISCONNECTED ? httpError : networkError;
+        }
+        return delay(policy[0], policy[1], previousDelayMillis);
+    }
+
+    private long delay(long initial, long cap, long previous) {
+        if (previous < initial) {
+            return initial;
+        }
+        if (!jitter) {
+            return Math.min(previous * 2, cap);
+        }
+        long upper = Math.min(cap, previous * 3);
+        return upper <= initial ? initial : ThreadLocalRandom.current().nextLong(initial, upper + 1);
+    }
+
+    private boolean withinBudget() {
+        if (budget <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (reconnections) {
+            while (!reconnections.isEmpty() && reconnections.peekFirst() <= now - budgetWindowMillis) {
+                reconnections.pollFirst();
+            }
+            if (reconnections.size() >= budget) {
+                return false;
+            }
+            reconnections.addLast(now);
+            return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffReconnectStrategy{" +
+                "jitter=" + jitter +
+                ", immediateReconnectOnDisconnect=" + immediateReconnectOnDisconnect +
+                ", budget=" + budget +
+                ", budgetWindowMillis=" + budgetWindowMillis +
+                ", givenUp=" + givenUp +
+                '}';
+    }
+
+    /**
+     * Builder of BackoffReconnectStrategy
+     */
+    public static final class Builder {
+        /*
+         https://dev.twitter.com/docs/streaming-api/concepts#connecting
+         When a network error (TCP/IP level) is encountered, back off linearly. Perhaps start at 250 milliseconds, double, and cap at 16 seconds
+         When a HTTP error (> 200) is returned, back off exponentially.
+         Perhaps start with a 10 second wait, double on each subsequent failure, and finally cap the wait at 240 seconds. Consider sending an alert to a human operator after multiple HTTP errors, as there is probably a client configuration issue that is unlikely to be resolved without human intervention. There's not much point in polling any faster in the face of HTTP error codes and your client is may run afoul of a rate limit.
+         Back off exponentially for HTTP 420 errors. Start with a 1 minute wait and double each attempt.
+         */
+        private long[] networkError = {250, 16 * 1000};
+        private long[] httpError = {10 * 1000, 240 * 1000};
+        private final Map<Integer, long[]> policies = new HashMap<>();
+        private final Set<Integer> givenUp = new HashSet<>();
+        private boolean jitter = true;
+        private boolean immediateReconnectOnDisconnect = false;
+        private int budget;
+        private long budgetWindowMillis;
+
+        private Builder() {
+            policies.put(ENHANCE_YOUR_CALM, new long[]{60 * 1000, 15 * 60 * 1000});
+            policies.put(TOO_MANY_REQUESTS, new long[]{60 * 1000, 15 * 60 * 1000});
+            givenUp.add(FORBIDDEN);
+            givenUp.add(NOT_ACCEPTABLE);
+        }
+
+        /**
+         * @param initialMillis first delay after network errors. Defaults to 250 milliseconds.
+         * @param capMillis     maximum delay after network errors. Defaults to 16 seconds.
+         * @return this instance
+         */
+        public Builder networkError(long initialMillis, long capMillis) {
+            this.networkError = delays(initialMillis, capMillis);
+            return this;
+        }
+
+        /**
+         * @param initialMillis first delay after HTTP errors. Defaults to 10 seconds.
+         * @param capMillis     maximum delay after HTTP errors. Defaults to 240 seconds.
+         * @return this instance
+         */
+        public Builder httpError(long initialMillis, long capMillis) {
+            this.httpError = delays(initialMillis, capMillis);
+            return this;
+        }
+
+        /**
+         * @param statusCode    HTTP status code
+         * @param initialMillis first delay after the status code
+         * @param capMillis     maximum delay after the status code
+         * @return this instance
+         */
+        public Builder policy(int statusCode, long initialMillis, long capMillis) {
+            policies.put(statusCode, delays(initialMillis, capMillis));
+            givenUp.remove(statusCode);
+            return this;
+        }
+
+        /**
+         * @param statusCodes HTTP status codes to give up reconnecting on. Defaults to 403 and 406.
+         * @return this instance
+         */
+        public Builder giveUpOn(int... statusCodes) {
+            for (int statusCode : statusCodes) {
+                givenUp.add(statusCode);
+            }
+            return this;
+        }
+
+        /**
+         * @param jitter true to draw delays with decorrelated jitter. Defaults to true.
+         * @return this instance
+         */
+        public Builder jitter(boolean jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * @param immediate true to reconnect without waiting the first time the server closes an established stream.
+         *                  Defaults to false.
+         * @return this instance
+         */
+        public Builder immediateReconnectOnDisconnect(boolean immediate) {
+            this.immediateReconnectOnDisconnect = immediate;
+            return this;
+        }
+
+        /**
+         * Gives up once the streams reconnected the given number of times within the window.
+         *
+         * @param reconnections maximum number of reconnections within the window
+         * @param windowMillis  window in milliseconds
+         * @return this instance
+         */
+        public Builder budget(int reconnections, long windowMillis) {
+            if (reconnections < 1 || windowMillis < 1) {
+                throw new IllegalArgumentException("budget must be positive: " + reconnections + " in " + windowMillis);
+            }
+            this.budget = reconnections;
+            this.budgetWindowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * @return reconnect strategy
+         */
+        public BackoffReconnectStrategy build() {
+            return new BackoffReconnectStrategy(this);
+        }
+
+        private static long[] delays(long initialMillis, long capMillis) {
+            if (initialMillis < 0 || capMillis < initialMillis) {
+                throw new IllegalArgumentException("invalid delays: " + initialMillis + " up to " + capMillis);
+            }
+            return new long[]{initialMillis, capMillis};
+        }
+    }
+}
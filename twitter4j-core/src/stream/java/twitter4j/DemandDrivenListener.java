@@ -0,0 +1,27 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Stream listener blocking the dispatcher until its subscriber requests more messages.<br>
+ * Streams with such a listener hand each message over to the dispatcher without queueing it, so that reading from the
+ * connection waits as well, and the server is held back by TCP flow control.
+ *
+ * @since Twitter4J 4.1.3
+ */
+interface DemandDrivenListener {
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton finding all occurrences of a set of patterns in one pass over a text.<br>
+ * The transitions of each state are stored sorted in shared arrays and looked up by binary search, and the outputs of
+ * each state include those of its suffix states, so that matching allocates nothing.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class KeywordAutomaton {
+    // transitions of state s are at [transitionStart[s], transitionStart[s + 1])
+    private final int[] transitionStart;
+    private final char[] transitionChars;
+    private final int[] transitionTargets;
+    private final int[] failure;
+    // patterns ending at state s are at [outputStart[s], outputStart[s + 1])
+    private final int[] outputStart;
+    private final int[] outputs;
+
+    private KeywordAutomaton(int[] transitionStart, char[] transitionChars, int[] transitionTargets,
+                             int[] failure, int[] outputStart, int[] outputs) {
+        this.transitionStart = transitionStart;
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failure = failure;
+        this.outputStart = outputStart;
+        this.outputs = outputs;
+    }
+
+    /**
+     * @param patterns non-empty patterns, identified by their index
+     * @return automaton finding the patterns
+     */
+    static KeywordAutomaton of(List<String> patterns) {
+        // trie
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("empty pattern");
+            }
+            int state = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer next = children.get(state).get(pattern.charAt(j));
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(pattern.charAt(j), next);
+                    children.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(i);
+        }
+
+        // failure links and outputs, breadth first so that the failure state is complete when visited
+        int states = children.size();
+        int[] failure = new int[states];
+        List<List<Integer>> outputLists = new ArrayList<>(states);
+        for (int s = 0; s < states; s++) {
+            outputLists.add(new ArrayList<>(ends.get(s)));
+        }
+        Deque<Integer> queue = new ArrayDeque<>(children.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> child : children.get(state).entrySet()) {
+                int f = failure[state];
+                Integer next;
+                while ((next = children.get(f).get(child.getKey())) == null && f != 0) {
+                    f = failure[f];
+                }
+                int target = child.getValue();
+                failure[target] = next == null || next == target ? 0 : next;
+                outputLists.get(target).addAll(outputLists.get(failure[target]));
+                queue.add(target);
+            }
+        }
+
+        int[] transitionStart = new int[states + 1];
+        int[] outputStart = new int[states + 1];
+        for (int s = 0; s < states; s++) {
+            transitionStart[s + 1] = transitionStart[s] + children.get(s).size();
+            outputStart[s + 1] = outputStart[s] + outputLists.get(s).size();
+        }
+        char[] transitionChars = new char[transitionStart[states]];
+        int[] transitionTargets = new int[transitionStart[states]];
+        int[] outputs = new int[outputStart[states]];
+        for (int s = 0; s < states; s++) {
+            int t = transitionStart[s];
+            for (Map.Entry<Character, Integer> child : children.get(s).entrySet()) {
+                transitionChars[t] = child.getKey();
+                transitionTargets[t++] = child.getValue();
+            }
+            int o = outputStart[s];
+            for (int output : outputLists.get(s)) {
+                outputs[o++] = output;
+            }
+        }
+        return new KeywordAutomaton(transitionStart, transitionChars, transitionTargets, failure, outputStart,
+                outputs);
+    }
+
+    /**
+     * @param text    text
+     * @param length  length of the text
+     * @param onMatch called with the index of the pattern for each occurrence
+     */
+    void match(char[] text, int length, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            int next;
+            while ((next = next(state, c)) == -1 && state != 0) {
+                state = failure[state];
+            }
+            state = next == -1 ? 0 : next;
+            for (int o = outputStart[state]; o < outputStart[state + 1]; o++) {
+                onMatch.accept(outputs[o]);
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        int low = transitionStart[state];
+        int high = transitionStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = transitionChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return transitionTargets[mid];
+            }
+        }
+        return -1;
+    }
+}
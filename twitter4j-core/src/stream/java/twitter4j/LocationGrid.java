@@ -0,0 +1,144 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of bounding boxes over a grid of 1 degree cells.<br>
+ * Each cell lists the boxes overlapping it. Boxes spanning too many cells, and queries spanning too many cells, are
+ * checked one by one instead.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class LocationGrid {
+    private static final int COLUMNS = 360;
+    private static final int ROWS = 180;
+    private static final int MAX_BOX_CELLS = 4096;
+    private static final int MAX_QUERY_CELLS = 64;
+    private static final int[] EMPTY = new int[0];
+
+    // west, south, east, north of each box
+    private final double[] boxes;
+    private final int[][] cells = new int[COLUMNS * ROWS][];
+    private final int[] large;
+
+    /**
+     * @param boxes west, south, east and north of each box, in degrees
+     */
+    LocationGrid(double[] boxes) {
+        this.boxes = boxes;
+        int[] large = new int[0];
+        for (int box = 0; box < boxes.length / 4; box++) {
+            int west = column(boxes[box * 4]);
+            int south = row(boxes[box * 4 + 1]);
+            int east = column(boxes[box * 4 + 2]);
+            int north = row(boxes[box * 4 + 3]);
+            if ((long) (east - west + 1) * (north - south + 1) > MAX_BOX_CELLS) {
+                large = append(large, box);
+                continue;
+            }
+            for (int row = south; row <= north; row++) {
+                for (int column = west; column <= east; column++) {
+                    int cell = row * COLUMNS + column;
+                    cells[cell] = append(cells[cell] == null ? EMPTY : cells[cell], box);
+                }
+            }
+        }
+        this.large = large;
+    }
+
+    /**
+     * @param longitude longitude of the point
+     * @param latitude  latitude of the point
+     * @param onMatch   called with the index of each box containing the point
+     */
+    void query(double longitude, double latitude, IntConsumer onMatch) {
+        int[] candidates = cells[row(latitude) * COLUMNS + column(longitude)];
+        if (candidates != null) {
+            for (int box : candidates) {
+                if (intersects(box, longitude, latitude, longitude, latitude)) {
+                    onMatch.accept(box);
+                }
+            }
+        }
+        for (int box : large) {
+            if (intersects(box, longitude, latitude, longitude, latitude)) {
+                onMatch.accept(box);
+            }
+        }
+    }
+
+    /**
+     * @param west    west of the area
+     * @param south   south of the area
+     * @param east    east of the area
+     * @param north   north of the area
+     * @param onMatch called with the index of each box overlapping the area, possibly more than once
+     */
+    void query(double west, double south, double east, double north, IntConsumer onMatch) {
+        int westColumn = column(west);
+        int southRow = row(south);
+        int eastColumn = column(east);
+        int northRow = row(north);
+        if ((long) (eastColumn - westColumn + 1) * (northRow - southRow + 1) > MAX_QUERY_CELLS) {
+            for (int box = 0; box < boxes.length / 4; box++) {
+                if (intersects(box, west, south, east, north)) {
+                    onMatch.accept(box);
+                }
+            }
+            return;
+        }
+        for (int row = southRow; row <= northRow; row++) {
+            for (int column = westColumn; column <= eastColumn; column++) {
+                int[] candidates = cells[row * COLUMNS + column];
+                if (candidates != null) {
+                    for (int box : candidates) {
+                        if (intersects(box, west, south, east, north)) {
+                            onMatch.accept(box);
+                        }
+                    }
+                }
+            }
+        }
+        for (int box : large) {
+            if (intersects(box, west, south, east, north)) {
+                onMatch.accept(box);
+            }
+        }
+    }
+
+    private boolean intersects(int box, double west, double south, double east, double north) {
+        return boxes[box * 4] <= east && west <= boxes[box * 4 + 2]
+                && boxes[box * 4 + 1] <= north && south <= boxes[box * 4 + 3];
+    }
+
+    private static int column(double longitude) {
+        return Math.max(0, Math.min(COLUMNS - 1, (int) Math.floor(longitude) + 180));
+    }
+
+    private static int row(double latitude) {
+        return Math.max(0, Math.min(ROWS - 1, (int) Math.floor(latitude) + 90));
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] appended = Arrays.copyOf(array, array.length + 1);
+        appended[array.length] = value;
+        return appended;
+    }
+}
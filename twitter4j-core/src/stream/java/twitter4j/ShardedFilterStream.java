@@ -0,0 +1,423 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.NotNull;
+import twitter4j.management.FilterShardStatistics;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
+import twitter4j.v1.StatusListener;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filter stream whose track, follow and locations predicates are split across several connections, possibly with
+ * different credentials, and whose statuses are merged into one listener pipeline.<br>
+ * Listeners are called by one shard at a time. A status matched by more than one shard is delivered once, as long as
+ * its id is still in the de-duplication window, and so are deletion notices. Other notices are delivered from every
+ * shard.<br>
+ * Each shard keeps its connection alive with the usual back off. Twitter allows a limited number of connections per
+ * account: give each shard its own credentials where required.
+ * <pre>{@code
+ * ShardedFilterStream stream = ShardedFilterStream.newBuilder(FilterQuery.ofTrack(keywords))
+ *         .connection(twitter1).connection(twitter2)
+ *         .listener(listener)
+ *         .build();
+ * stream.start();
+ * }</pre>
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class ShardedFilterStream {
+    // per connection limits of statuses/filter
+    static final int MAX_TRACK = 400;
+    static final int MAX_FOLLOW = 5000;
+    static final int MAX_LOCATIONS = 25;
+    // milliseconds since the epoch of the first snowflake id
+    private static final long SNOWFLAKE_EPOCH = 1288834974657L;
+    // sequential ids ended below 3 * 10^10
+    private static final long FIRST_SNOWFLAKE_ID = 1L << 40;
+
+    final List<Shard> shards;
+    private final List<StatusListener> listeners;
+    // guarded by itself, which also serializes calls to the listeners
+    private final StatusIdWindow seen;
+
+    private ShardedFilterStream(Builder builder) {
+        this.listeners = new ArrayList<>(builder.listeners);
+        this.seen = new StatusIdWindow(builder.deduplicationWindowMillis, builder.deduplicationCapacity);
+        int count = builder.shards != 0 ? builder.shards : Math.max(builder.connections.size(), shardsFor(builder.query));
+        List<FilterQuery> queries = split(builder.query, count);
+        List<Shard> shards = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            TwitterStreamImpl connection = (TwitterStreamImpl) builder.connections
+                    .get(i % builder.connections.size()).v1().stream();
+            shards.add(new Shard(i, queries.get(i), connection));
+        }
+        this.shards = Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * @param query filter predicates to be split across the shards
+     * @return builder
+     */
+    public static Builder newBuilder(@NotNull FilterQuery query) {
+        return new Builder(query);
+    }
+
+    /**
+     * Connects every shard.
+     */
+    public void start() {
+        shards.forEach(shard -> shard.stream.filter(shard.query));
+    }
+
+    /**
+     * Disconnects every shard.
+     */
+    public void shutdown() {
+        shards.forEach(shard -> shard.stream.shutdown());
+    }
+
+    /**
+     * @return statistics of each shard
+     */
+    public List<FilterShardStatistics> getStatistics() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * @param query filter predicates
+     * @return number of connections needed to stay within the per connection limits
+     */
+    static int shardsFor(FilterQuery query) {
+        int shards = 1;
+        shards = Math.max(shards, ceilDiv(query.track == null ? 0 : query.track.length, MAX_TRACK));
+        shards = Math.max(shards, ceilDiv(query.follow == null ? 0 : query.follow.length, MAX_FOLLOW));
+        // locations are pairs of south west and north east corners
+        return Math.max(shards, ceilDiv(query.locations == null ? 0 : query.locations.length / 2, MAX_LOCATIONS));
+    }
+
+    private static int ceilDiv(int x, int y) {
+        return (x + y - 1) / y;
+    }
+
+    /**
+     * Deals the track, follow and locations predicates round robin. Other parameters are copied to every shard.
+     *
+     * @param query  filter predicates
+     * @param shards number of shards
+     * @return queries of the shards, leaving out shards without predicates
+     */
+    static List<FilterQuery> split(FilterQuery query, int shards) {
+        List<FilterQuery> queries = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            String[] track = query.track == null ? new String[0] : new String[share(query.track.length, shards, i)];
+            for (int j = 0; j < track.length; j++) {
+                track[j] = query.track[i + j * shards];
+            }
+            long[] follow = query.follow == null ? new long[0] : new long[share(query.follow.length, shards, i)];
+            for (int j = 0; j < follow.length; j++) {
+                follow[j] = query.follow[i + j * shards];
+            }
+            // dealt by box, keeping both corners together
+            double[][] locations = query.locations == null ? new double[0][]
+                    : new double[share(query.locations.length / 2, shards, i) * 2][];
+            for (int j = 0; j < locations.length; j += 2) {
+                locations[j] = query.locations[(i + j / 2 * shards) * 2];
+                locations[j + 1] = query.locations[(i + j / 2 * shards) * 2 + 1];
+            }
+            if (track.length + follow.length + locations.length > 0) {
+                queries.add(query.track(track).follow(follow).locations(locations));
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * @return number of elements dealt to the shard
+     */
+    private static int share(int length, int shards, int shard) {
+        return (length - shard + shards - 1) / shards;
+    }
+
+    /**
+     * @param id status id
+     * @return creation time encoded in the id in milliseconds, or -1 if the id predates snowflake ids
+     */
+    static long createdAt(long id) {
+        return id < FIRST_SNOWFLAKE_ID ? -1 : (id >> 22) + SNOWFLAKE_EPOCH;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedFilterStream{" +
+                "shards=" + shards +
+                ", listeners=" + listeners +
+                '}';
+    }
+
+    /**
+     * Connection of a sharded filter stream, forwarding to the merged pipeline.
+     */
+    final class Shard implements StatusListener, Flushable, FilterShardStatistics {
+        private final int index;
+        final FilterQuery query;
+        final TwitterStreamImpl stream;
+        private final LongAdder statusCount = new LongAdder();
+        private final LongAdder duplicateCount = new LongAdder();
+        private volatile double statusesPerSecond;
+        private volatile long lagMillis = -1;
+        // written by the dispatcher thread of the shard only
+        private long secondStart;
+        private long secondCount;
+
+        Shard(int index, FilterQuery query, TwitterStreamImpl connection) {
+            this.index = index;
+            this.query = query;
+            this.stream = connection.withListeners(Collections.singletonList(this), Collections.emptyList());
+        }
+
+        @Override
+        public void onStatus(Status status) {
+            long now = System.currentTimeMillis();
+            statusCount.increment();
+            long createdAt = createdAt(status.getId());
+            lagMillis = createdAt == -1 ? -1 : now - createdAt;
+            if (now - secondStart >= 1000) {
+                statusesPerSecond = secondStart == 0 ? 0 : secondCount * 1000d / (now - secondStart);
+                secondStart = now;
+                secondCount = 0;
+            }
+            secondCount++;
+            synchronized (seen) {
+                if (status.getId() > 0 && !seen.add(status.getId(), now)) {
+                    duplicateCount.increment();
+                    return;
+                }
+                for (StatusListener listener : listeners) {
+                    listener.onStatus(status);
+                }
+            }
+        }
+
+        @Override
+        public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+            synchronized (seen) {
+                // negated not to collide with status ids
+                long statusId = statusDeletionNotice.getStatusId();
+                if (statusId > 0 && !seen.add(-statusId, System.currentTimeMillis())) {
+                    return;
+                }
+                for (StatusListener listener : listeners) {
+                    listener.onDeletionNotice(statusDeletionNotice);
+                }
+            }
+        }
+
+        @Override
+        public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+            synchronized (seen) {
+                for (StatusListener listener : listeners) {
+                    listener.onTrackLimitationNotice(numberOfLimitedStatuses);
+                }
+            }
+        }
+
+        @Override
+        public void onScrubGeo(long userId, long upToStatusId) {
+            synchronized (seen) {
+                for (StatusListener listener : listeners) {
+                    listener.onScrubGeo(userId, upToStatusId);
+                }
+            }
+        }
+
+        @Override
+        public void onStallWarning(StallWarning warning) {
+            synchronized (seen) {
+                for (StatusListener listener : listeners) {
+                    listener.onStallWarning(warning);
+                }
+            }
+        }
+
+        @Override
+        public void onException(Exception ex) {
+            synchronized (seen) {
+                for (StatusListener listener : listeners) {
+                    listener.onException(ex);
+                }
+            }
+        }
+
+        /**
+         * Flushes the merged listeners that hold statuses back, as the stream of the shard shuts down.
+         *
+         * @throws IOException when a listener fails to flush, after the others are flushed
+         */
+        @Override
+        public void flush() throws IOException {
+            IOException failure = null;
+            synchronized (seen) {
+                for (StatusListener listener : listeners) {
+                    if (listener instanceof Flushable) {
+                        try {
+                            ((Flushable) listener).flush();
+                        } catch (IOException e) {
+                            if (failure == null) {
+                                failure = e;
+                            } else {
+                                failure.addSuppressed(e);
+                            }
+                        }
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public int getShard() {
+            return index;
+        }
+
+        @Override
+        public String getQuery() {
+            return query.toString();
+        }
+
+        @Override
+        public long getStatusCount() {
+            return statusCount.sum();
+        }
+
+        @Override
+        public long getDuplicateCount() {
+            return duplicateCount.sum();
+        }
+
+        @Override
+        public double getStatusesPerSecond() {
+            return statusesPerSecond;
+        }
+
+        @Override
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Shard{" +
+                    "index=" + index +
+                    ", query=" + query +
+                    ", statusCount=" + getStatusCount() +
+                    ", duplicateCount=" + getDuplicateCount() +
+                    ", statusesPerSecond=" + statusesPerSecond +
+                    ", lagMillis=" + lagMillis +
+                    '}';
+        }
+    }
+
+    /**
+     * Builder of sharded filter streams
+     */
+    public static final class Builder {
+        private final FilterQuery query;
+        private final List<Twitter> connections = new ArrayList<>();
+        private final List<StatusListener> listeners = new ArrayList<>();
+        private int shards;
+        private long deduplicationWindowMillis = 60_000;
+        private int deduplicationCapacity = 100_000;
+
+        private Builder(FilterQuery query) {
+            this.query = query;
+        }
+
+        /**
+         * Adds a Twitter instance providing credentials and configuration. Shards are assigned to the instances round
+         * robin.
+         *
+         * @param twitter Twitter instance
+         * @return this instance
+         */
+        public Builder connection(@NotNull Twitter twitter) {
+            connections.add(twitter);
+            return this;
+        }
+
+        /**
+         * @param shards number of shards. Defaults to the number of connections, or to the number needed to stay within
+         *               the per connection limits of 400 keywords, 5,000 user ids and 25 bounding boxes if greater.
+         * @return this instance
+         */
+        public Builder shards(int shards) {
+            if (shards < 1) {
+                throw new IllegalArgumentException("shards must be positive: " + shards);
+            }
+            this.shards = shards;
+            return this;
+        }
+
+        /**
+         * @param windowMillis time status ids are remembered for. Defaults to 60 seconds.
+         * @param capacity     maximum number of status ids remembered. Defaults to 100,000.
+         * @return this instance
+         */
+        public Builder deduplicationWindow(long windowMillis, int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive: " + capacity);
+            }
+            this.deduplicationWindowMillis = windowMillis;
+            this.deduplicationCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param listener listener of the merged statuses
+         * @return this instance
+         */
+        public Builder listener(@NotNull StatusListener listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * @return sharded filter stream, not connected yet
+         * @throws IllegalStateException when no connection or no listener is added
+         */
+        public ShardedFilterStream build() {
+            if (connections.isEmpty()) {
+                throw new IllegalStateException("No connection is added.");
+            }
+            if (listeners.isEmpty()) {
+                throw new IllegalStateException("StatusListener is not set.");
+            }
+            return new ShardedFilterStream(this);
+        }
+    }
+}
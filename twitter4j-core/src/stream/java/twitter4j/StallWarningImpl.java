@@ -52,6 +52,12 @@ final class StallWarningImpl implements StallWarning, Serializable {
 
     }
 
+    StallWarningImpl(String code, String message, int percentFull) {
+        this.code = code;
+        this.message = message;
+        this.percentFull = percentFull;
+    }
+
     @Override
     public String getCode() {
         return code;
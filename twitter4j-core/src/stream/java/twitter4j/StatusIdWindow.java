@@ -0,0 +1,126 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Set of the ids seen within a time window, bounded in size.<br>
+ * Ids are kept in an open addressing table of primitive longs, and in a ring in the order they were added, so that
+ * expired and overflowing ids are removed from the oldest without scanning the table.<br>
+ * Not thread safe.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StatusIdWindow {
+    private final long windowMillis;
+    private final int capacity;
+    // 0 marks an empty slot
+    private final long[] table;
+    private final int mask;
+    private final long[] ringIds;
+    private final long[] ringTimes;
+    private int head;
+    private int size;
+
+    /**
+     * @param windowMillis time ids are kept for
+     * @param capacity     maximum number of ids kept
+     */
+    StatusIdWindow(long windowMillis, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        // load factor at most 0.5
+        table = new long[Integer.highestOneBit(capacity) << 2];
+        mask = table.length - 1;
+        ringIds = new long[capacity];
+        ringTimes = new long[capacity];
+    }
+
+    /**
+     * @param id  non-zero id
+     * @param now current time in milliseconds
+     * @return true if the id was not seen within the window
+     */
+    boolean add(long id, long now) {
+        while (size > 0 && ringTimes[head] <= now - windowMillis) {
+            removeOldest();
+        }
+        if (contains(id)) {
+            return false;
+        }
+        if (size == capacity) {
+            removeOldest();
+        }
+        int slot = slotOf(id);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+        int tail = (head + size) % capacity;
+        ringIds[tail] = id;
+        ringTimes[tail] = now;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return number of ids kept
+     */
+    int size() {
+        return size;
+    }
+
+    private int slotOf(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private boolean contains(long id) {
+        for (int slot = slotOf(id); table[slot] != 0; slot = (slot + 1) & mask) {
+            if (table[slot] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeOldest() {
+        remove(ringIds[head]);
+        head = (head + 1) % capacity;
+        size--;
+    }
+
+    private void remove(long id) {
+        int slot = slotOf(id);
+        while (table[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        // shift the following entries back, so that no probe sequence is broken by the gap
+        int gap = slot;
+        for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = slotOf(table[i]);
+            // move unless the home slot lies cyclically in (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = table[i];
+                gap = i;
+            }
+        }
+        table[gap] = 0;
+    }
+}
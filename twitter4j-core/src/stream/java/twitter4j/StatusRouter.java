@@ -0,0 +1,661 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.NotNull;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.GeoLocation;
+import twitter4j.v1.HashtagEntity;
+import twitter4j.v1.Place;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
+import twitter4j.v1.StatusListener;
+import twitter4j.v1.URLEntity;
+import twitter4j.v1.UserMentionEntity;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Status listener routing the statuses of one filter stream to subscribers by their own track, follow and locations
+ * predicates.<br>
+ * The keywords of every subscriber are compiled into one automaton and the bounding boxes into one grid index, so that
+ * each status is matched once regardless of the number of subscribers. A status is delivered once to each listener
+ * with at least one matching rule. Notices are delivered to every listener.<br>
+ * Matching follows the documented semantics of statuses/filter: keywords are case insensitive, the words of a phrase
+ * may appear in any order, hashtags, mentions and the components of urls are matched by their entities, points are
+ * tested against the boxes, and places for overlap.
+ * <pre>{@code
+ * StatusRouter router = StatusRouter.newBuilder()
+ *         .subscribe(FilterQuery.ofTrack("java", "kotlin"), jvmListener)
+ *         .subscribe(FilterQuery.ofLocations(new double[][]{{-122.75, 36.8}, {-121.75, 37.8}}), bayAreaListener)
+ *         .build();
+ * twitter.v1().stream().addListener(router).filter(router.getQuery());
+ * }</pre>
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class StatusRouter implements StatusListener, Flushable {
+    private static final int[] NONE = new int[0];
+
+    private final List<Route> routes;
+    private final FilterQuery query;
+    private final StatusListener[] listeners;
+    // listener of each route
+    private final int[] routeListener;
+
+    private final KeywordAutomaton automaton;
+    // words of each phrase, and phrases containing each word
+    private final int[][] phraseWords;
+    private final int[][] wordPhrases;
+    private final int[][] phraseRoutes;
+
+    private final LocationGrid grid;
+    private final int[][] boxRoutes;
+
+    private final Map<Long, int[]> followRoutes = new HashMap<>();
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private StatusRouter(Builder builder) {
+        List<Route> routes = new ArrayList<>(builder.routes);
+        this.routes = Collections.unmodifiableList(routes);
+        Map<StatusListener, Integer> listeners = new IdentityHashMap<>();
+        List<StatusListener> distinctListeners = new ArrayList<>();
+        routeListener = new int[routes.size()];
+
+        Map<String, Integer> words = new LinkedHashMap<>();
+        Map<String, Integer> phrases = new LinkedHashMap<>();
+        List<int[]> phraseWords = new ArrayList<>();
+        List<List<Integer>> phraseRoutes = new ArrayList<>();
+        List<Double> boxes = new ArrayList<>();
+        List<int[]> boxRoutes = new ArrayList<>();
+        Map<Long, List<Integer>> followRoutes = new HashMap<>();
+        Set<String> track = new LinkedHashSet<>();
+        Set<Long> follow = new LinkedHashSet<>();
+        List<double[]> locations = new ArrayList<>();
+
+        for (int r = 0; r < routes.size(); r++) {
+            Route route = routes.get(r);
+            Integer listener = listeners.get(route.listener);
+            if (listener == null) {
+                listener = distinctListeners.size();
+                listeners.put(route.listener, listener);
+                distinctListeners.add(route.listener);
+            }
+            routeListener[r] = listener;
+
+            if (route.query.track != null) {
+                for (String phrase : route.query.track) {
+                    String folded = fold(phrase).trim();
+                    if (folded.isEmpty()) {
+                        continue;
+                    }
+                    track.add(phrase.trim());
+                    Integer p = phrases.get(folded);
+                    if (p == null) {
+                        p = phrases.size();
+                        phrases.put(folded, p);
+                        phraseWords.add(Arrays.stream(folded.split("\\s+")).distinct()
+                                .mapToInt(word -> words.computeIfAbsent(word, w -> words.size())).toArray());
+                        phraseRoutes.add(new ArrayList<>());
+                    }
+                    if (!phraseRoutes.get(p).contains(r)) {
+                        phraseRoutes.get(p).add(r);
+                    }
+                }
+            }
+            if (route.query.follow != null) {
+                for (long userId : route.query.follow) {
+                    follow.add(userId);
+                    List<Integer> list = followRoutes.computeIfAbsent(userId, id -> new ArrayList<>());
+                    if (!list.contains(r)) {
+                        list.add(r);
+                    }
+                }
+            }
+            if (route.query.locations != null) {
+                // south west and north east corners of each box, as longitude and latitude
+                for (int i = 0; i + 1 < route.query.locations.length; i += 2) {
+                    double[] southWest = route.query.locations[i];
+                    double[] northEast = route.query.locations[i + 1];
+                    boxes.addAll(Arrays.asList(southWest[0], southWest[1], northEast[0], northEast[1]));
+                    boxRoutes.add(new int[]{r});
+                    locations.add(southWest);
+                    locations.add(northEast);
+                }
+            }
+        }
+        this.listeners = distinctListeners.toArray(new StatusListener[0]);
+
+        // words are matched as whole tokens of the space separated text
+        List<String> patterns = new ArrayList<>(words.size());
+        for (String word : words.keySet()) {
+            patterns.add(" " + word + " ");
+        }
+        this.automaton = KeywordAutomaton.of(patterns);
+        this.phraseWords = phraseWords.toArray(new int[0][]);
+        List<List<Integer>> wordPhrases = new ArrayList<>();
+        for (int w = 0; w < words.size(); w++) {
+            wordPhrases.add(new ArrayList<>());
+        }
+        for (int p = 0; p < this.phraseWords.length; p++) {
+            for (int w : this.phraseWords[p]) {
+                wordPhrases.get(w).add(p);
+            }
+        }
+        this.wordPhrases = toArrays(wordPhrases);
+        this.phraseRoutes = toArrays(phraseRoutes);
+
+        double[] boxArray = new double[boxes.size()];
+        for (int i = 0; i < boxArray.length; i++) {
+            boxArray[i] = boxes.get(i);
+        }
+        this.grid = new LocationGrid(boxArray);
+        this.boxRoutes = boxRoutes.toArray(new int[0][]);
+
+        followRoutes.forEach((userId, list) -> this.followRoutes.put(userId,
+                list.stream().mapToInt(Integer::intValue).toArray()));
+
+        this.query = FilterQuery.ofTrack(track.toArray(new String[0]))
+                .follow(follow.stream().mapToLong(Long::longValue).toArray())
+                .locations(locations.toArray(new double[0][]));
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    /**
+     * @return builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * @return union of the predicates of every route, to filter the stream with
+     */
+    public FilterQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * @return routes in the order they were subscribed
+     */
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public void onStatus(Status status) {
+        int[] matched = match(status);
+        for (int r : matched) {
+            routes.get(r).matchCount.increment();
+        }
+        // once per listener, in the order of subscription
+        boolean[] delivered = new boolean[listeners.length];
+        for (int r : matched) {
+            int listener = routeListener[r];
+            if (!delivered[listener]) {
+                delivered[listener] = true;
+                listeners[listener].onStatus(status);
+            }
+        }
+    }
+
+    /**
+     * @param status status
+     * @return indices of the routes matching the status, in ascending order
+     */
+    int[] match(Status status) {
+        Scratch s = scratch.get();
+        s.begin(wordPhrases.length, phraseWords.length, routes.size());
+        s.length = 0;
+        s.append(' ');
+        for (Status part = status; part != null; part = part.getRetweetedStatus()) {
+            tokenize(part, s);
+            if (part.getQuotedStatus() != null) {
+                tokenize(part.getQuotedStatus(), s);
+            }
+            matchUser(part, s);
+            matchLocation(part, s);
+        }
+        if (s.length > 1) {
+            automaton.match(s.text, s.length, word -> {
+                // the automaton reports a word once per occurrence, the phrases count it once
+                if (s.wordStamp[word] == s.stamp) {
+                    return;
+                }
+                s.wordStamp[word] = s.stamp;
+                for (int p : wordPhrases[word]) {
+                    if (s.phraseStamp[p] != s.stamp) {
+                        s.phraseStamp[p] = s.stamp;
+                        s.phraseCount[p] = 0;
+                    }
+                    if (++s.phraseCount[p] == phraseWords[p].length) {
+                        for (int r : phraseRoutes[p]) {
+                            s.matched(r);
+                        }
+                    }
+                }
+            });
+        }
+        int[] matched = Arrays.copyOf(s.matched, s.matchedCount);
+        Arrays.sort(matched);
+        return matched;
+    }
+
+    private void matchUser(Status status, Scratch s) {
+        if (followRoutes.isEmpty()) {
+            return;
+        }
+        if (status.getUser() != null) {
+            for (int r : followRoutes.getOrDefault(status.getUser().getId(), NONE)) {
+                s.matched(r);
+            }
+        }
+        for (int r : followRoutes.getOrDefault(status.getInReplyToUserId(), NONE)) {
+            s.matched(r);
+        }
+    }
+
+    private void matchLocation(Status status, Scratch s) {
+        if (boxRoutes.length == 0) {
+            return;
+        }
+        GeoLocation point = status.getGeoLocation();
+        if (point != null) {
+            grid.query(point.longitude, point.latitude, box -> s.matched(boxRoutes[box][0]));
+            return;
+        }
+        Place place = status.getPlace();
+        GeoLocation[][] coordinates = place == null ? null : place.getBoundingBoxCoordinates();
+        if (coordinates == null || coordinates.length == 0 || coordinates[0].length == 0) {
+            return;
+        }
+        double west = Double.MAX_VALUE, south = Double.MAX_VALUE;
+        double east = -Double.MAX_VALUE, north = -Double.MAX_VALUE;
+        for (GeoLocation corner : coordinates[0]) {
+            west = Math.min(west, corner.longitude);
+            south = Math.min(south, corner.latitude);
+            east = Math.max(east, corner.longitude);
+            north = Math.max(north, corner.latitude);
+        }
+        grid.query(west, south, east, north, box -> s.matched(boxRoutes[box][0]));
+    }
+
+    private void tokenize(Status status, Scratch s) {
+        if (phraseWords.length == 0) {
+            return;
+        }
+        if (status.getText() != null) {
+            appendTokens(status.getText(), s);
+        }
+        if (status.getHashtagEntities() != null) {
+            for (HashtagEntity hashtag : status.getHashtagEntities()) {
+                appendToken(hashtag.getText(), s);
+            }
+        }
+        if (status.getUserMentionEntities() != null) {
+            for (UserMentionEntity mention : status.getUserMentionEntities()) {
+                appendToken(mention.getScreenName(), s);
+            }
+        }
+        if (status.getURLEntities() != null) {
+            for (URLEntity url : status.getURLEntities()) {
+                appendURL(url.getExpandedURL(), s);
+                appendURL(url.getDisplayURL(), s);
+            }
+        }
+        if (status.getMediaEntities() != null) {
+            for (URLEntity media : status.getMediaEntities()) {
+                appendURL(media.getExpandedURL(), s);
+                appendURL(media.getDisplayURL(), s);
+            }
+        }
+    }
+
+    /**
+     * Appends each space separated token, and the token without the punctuation around it if any. Leading # and @
+     * are kept, the bare hashtags and screen names come from the entities.
+     */
+    static void appendTokens(String text, Scratch s) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isSpace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !isSpace(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+            s.append(text, start, i);
+            int from = start;
+            int to = i;
+            while (from < to && !Character.isLetterOrDigit(text.charAt(from)) && !isEntityPrefix(text.charAt(from))) {
+                from++;
+            }
+            while (to > from && !Character.isLetterOrDigit(text.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to && (from != start || to != i)) {
+                s.append(text, from, to);
+            }
+        }
+    }
+
+    private static void appendToken(String token, Scratch s) {
+        if (token != null && !token.isEmpty()) {
+            s.append(token, 0, token.length());
+        }
+    }
+
+    /**
+     * Appends the url without its scheme, also without a leading www., and each of its components.
+     */
+    static void appendURL(String url, Scratch s) {
+        if (url == null) {
+            return;
+        }
+        int start = url.indexOf("://");
+        start = start == -1 ? 0 : start + 3;
+        int end = url.length();
+        while (end > start && url.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+        s.append(url, start, end);
+        if (url.regionMatches(true, start, "www.", 0, 4) && start + 4 < end) {
+            s.append(url, start + 4, end);
+        }
+        int i = start;
+        while (i < end) {
+            while (i < end && !Character.isLetterOrDigit(url.charAt(i))) {
+                i++;
+            }
+            int from = i;
+            while (i < end && Character.isLetterOrDigit(url.charAt(i))) {
+                i++;
+            }
+            if (from < i) {
+                s.append(url, from, i);
+            }
+        }
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private static boolean isEntityPrefix(char c) {
+        return c == '#' || c == '@' || c == '＃' || c == '＠';
+    }
+
+    /**
+     * @param c character
+     * @return the character folded for case insensitive matching
+     */
+    static char fold(char c) {
+        if (c < 0x80) {
+            return 'A' <= c && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = isSpace(text.charAt(i)) ? ' ' : fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    @Override
+    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        for (StatusListener listener : listeners) {
+            listener.onDeletionNotice(statusDeletionNotice);
+        }
+    }
+
+    @Override
+    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+        for (StatusListener listener : listeners) {
+            listener.onTrackLimitationNotice(numberOfLimitedStatuses);
+        }
+    }
+
+    @Override
+    public void onScrubGeo(long userId, long upToStatusId) {
+        for (StatusListener listener : listeners) {
+            listener.onScrubGeo(userId, upToStatusId);
+        }
+    }
+
+    @Override
+    public void onStallWarning(StallWarning warning) {
+        for (StatusListener listener : listeners) {
+            listener.onStallWarning(warning);
+        }
+    }
+
+    @Override
+    public void onException(Exception ex) {
+        for (StatusListener listener : listeners) {
+            listener.onException(ex);
+        }
+    }
+
+    /**
+     * Flushes the listeners that hold statuses back, such as BatchingStatusListener, so that they are delivered when
+     * the stream shuts down.
+     *
+     * @throws IOException when a listener fails to flush, after the others are flushed
+     */
+    @Override
+    public void flush() throws IOException {
+        IOException failure = null;
+        for (StatusListener listener : listeners) {
+            if (listener instanceof Flushable) {
+                try {
+                    ((Flushable) listener).flush();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StatusRouter{" +
+                "routes=" + routes +
+                '}';
+    }
+
+    /**
+     * Per thread buffers of the matching, reset by bumping the stamp instead of clearing them.
+     */
+    static final class Scratch {
+        char[] text = new char[1024];
+        int length;
+        int stamp;
+        int[] wordStamp = new int[0];
+        int[] phraseStamp = new int[0];
+        int[] phraseCount = new int[0];
+        int[] routeStamp = new int[0];
+        int[] matched = new int[16];
+        int matchedCount;
+
+        void begin(int words, int phrases, int routes) {
+            if (wordStamp.length < words) {
+                wordStamp = new int[words];
+            }
+            if (phraseStamp.length < phrases) {
+                phraseStamp = new int[phrases];
+                phraseCount = new int[phrases];
+            }
+            if (routeStamp.length < routes) {
+                routeStamp = new int[routes];
+            }
+            if (++stamp == 0) {
+                Arrays.fill(wordStamp, 0);
+                Arrays.fill(phraseStamp, 0);
+                Arrays.fill(routeStamp, 0);
+                stamp = 1;
+            }
+            matchedCount = 0;
+        }
+
+        void matched(int route) {
+            if (routeStamp[route] != stamp) {
+                routeStamp[route] = stamp;
+                if (matchedCount == matched.length) {
+                    matched = Arrays.copyOf(matched, matchedCount * 2);
+                }
+                matched[matchedCount++] = route;
+            }
+        }
+
+        void append(char c) {
+            if (length == text.length) {
+                text = Arrays.copyOf(text, length * 2);
+            }
+            text[length++] = c;
+        }
+
+        /**
+         * Appends the folded characters, followed by a space.
+         */
+        void append(String token, int from, int to) {
+            if (length + (to - from) + 1 > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, length + (to - from) + 1));
+            }
+            for (int i = from; i < to; i++) {
+                text[length++] = fold(token.charAt(i));
+            }
+            text[length++] = ' ';
+        }
+    }
+
+    /**
+     * Rule of a subscriber, with the number of statuses it matched.
+     */
+    public static final class Route {
+        private final FilterQuery query;
+        private final StatusListener listener;
+        private final LongAdder matchCount = new LongAdder();
+
+        private Route(FilterQuery query, StatusListener listener) {
+            this.query = query;
+            this.listener = listener;
+        }
+
+        /**
+         * @return predicates of the route
+         */
+        public FilterQuery getQuery() {
+            return query;
+        }
+
+        /**
+         * @return listener of the route
+         */
+        public StatusListener getListener() {
+            return listener;
+        }
+
+        /**
+         * @return number of statuses matched by the route
+         */
+        public long getMatchCount() {
+            return matchCount.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Route{" +
+                    "query=" + query +
+                    ", listener=" + listener +
+                    ", matchCount=" + getMatchCount() +
+                    '}';
+        }
+    }
+
+    /**
+     * Builder of status routers
+     */
+    public static final class Builder {
+        private final List<Route> routes = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a route. The track, follow and locations predicates of the query are matched; other parameters are
+         * ignored. A listener subscribed with several queries receives each status once.
+         *
+         * @param query    predicates of the route
+         * @param listener listener of the statuses matching the query
+         * @return this instance
+         */
+        public Builder subscribe(@NotNull FilterQuery query, @NotNull StatusListener listener) {
+            routes.add(new Route(query, listener));
+            return this;
+        }
+
+        /**
+         * @return status router
+         * @throws IllegalStateException when no route is added
+         */
+        public StatusRouter build() {
+            if (routes.isEmpty()) {
+                throw new IllegalStateException("No route is added.");
+            }
+            return new StatusRouter(this);
+        }
+    }
+}
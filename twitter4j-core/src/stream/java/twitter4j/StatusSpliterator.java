@@ -0,0 +1,208 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.ReconnectStrategy;
+import twitter4j.v1.Status;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator reading and parsing statuses on the consuming thread, reconnecting with the same strategy as the
+ * listener based streams.<br>
+ * Splitting reads a batch of statuses and hands it off as an array, so that parallel streams parse on the thread
+ * splitting and process the batches on the others. Batches grow from {@value #INITIAL_BATCH} to {@value #MAX_BATCH}
+ * statuses.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StatusSpliterator implements Spliterator<Status>, Closeable {
+    private static final Logger logger = Logger.getLogger();
+    static final int INITIAL_BATCH = 128;
+    static final int MAX_BATCH = 4096;
+    private static final int CHARACTERISTICS = ORDERED | NONNULL;
+
+    /**
+     * Opens a connection
+     */
+    interface Connector {
+        StatusStreamBase connect() throws TwitterException;
+    }
+
+    private final Connector connector;
+    private final ReconnectStrategy reconnectStrategy;
+    private volatile boolean closed;
+    private volatile StatusStreamBase stream;
+    private long timeToSleep;
+    private int attempt;
+    private int batch = INITIAL_BATCH;
+
+    StatusSpliterator(Connector connector) {
+        this(connector, BackoffReconnectStrategy.newBuilder().build());
+    }
+
+    StatusSpliterator(Connector connector, ReconnectStrategy reconnectStrategy) {
+        this.connector = connector;
+        this.reconnectStrategy = reconnectStrategy;
+    }
+
+    /**
+     * @param connector         opens a connection
+     * @param reconnectStrategy reconnect strategy
+     * @return sequential stream of statuses, closing the connection when closed
+     */
+    static Stream<Status> stream(Connector connector, ReconnectStrategy reconnectStrategy) {
+        StatusSpliterator spliterator = new StatusSpliterator(connector, reconnectStrategy);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * @return next status, or null if closed
+     * @throws IllegalStateException when the reconnect strategy gives up
+     */
+    private Status next() {
+        while (!closed) {
+            try {
+                if (stream == null) {
+                    logger.info("Establishing connection.");
+                    stream = connector.connect();
+                    timeToSleep = 0;
+                    attempt = 0;
+                    if (closed) {
+                        break;
+                    }
+                }
+                Status status = stream.nextStatus();
+                if (status != null) {
+                    return status;
+                }
+            } catch (IllegalStateException ise) {
+                // closed by another thread in between
+                if (closed) {
+                    break;
+                }
+                throw ise;
+            } catch (TwitterException te) {
+                if (closed) {
+                    break;
+                }
+                logger.info(te.getMessage());
+                disconnect();
+                if (!backOff(te)) {
+                    break;
+                }
+            }
+        }
+        disconnect();
+        return null;
+    }
+
+    /**
+     * @return false if interrupted while waiting
+     * @throws IllegalStateException when the reconnect strategy gives up
+     */
+    private boolean backOff(TwitterException te) {
+        long delay = reconnectStrategy.nextDelayMillis(TwitterStreamImpl.reconnectStatusCode(te), ++attempt,
+                timeToSleep);
+        if (delay == ReconnectStrategy.GIVE_UP) {
+            closed = true;
+            throw new IllegalStateException(te.getMessage(), te);
+        }
+        logger.info("Waiting for " + delay + " milliseconds");
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+            return false;
+        }
+        timeToSleep = delay;
+        return true;
+    }
+
+    private void disconnect() {
+        StatusStreamBase stream = this.stream;
+        this.stream = null;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Status> action) {
+        Status status = next();
+        if (status == null) {
+            return false;
+        }
+        action.accept(status);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Status> trySplit() {
+        if (closed) {
+            return null;
+        }
+        Status[] statuses = new Status[batch];
+        int size = 0;
+        Status status;
+        while (size < statuses.length && (status = next()) != null) {
+            statuses[size++] = status;
+        }
+        if (size == 0) {
+            return null;
+        }
+        batch = Math.min(batch * 2, MAX_BATCH);
+        return Spliterators.spliterator(statuses, 0, size, CHARACTERISTICS | IMMUTABLE);
+    }
+
+    @Override
+    public long estimateSize() {
+        return closed ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * Closes the connection, ending the stream. May be called from another thread to release a blocked read.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        disconnect();
+    }
+
+    @Override
+    public String toString() {
+        return "StatusSpliterator{" +
+                "closed=" + closed +
+                ", batch=" + batch +
+                '}';
+    }
+}
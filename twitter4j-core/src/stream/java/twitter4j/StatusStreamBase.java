@@ -16,16 +16,21 @@
 
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.*;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -39,30 +44,56 @@ abstract class StatusStreamBase implements StatusStream {
     private final BufferedReader br;
     private final InputStream is;
     private HttpResponse response;
-    private final ExecutorService dispatcher = Executors.newFixedThreadPool(1);
+    private Set<String> skippedJSONFields = Collections.emptySet();
+    private final StreamDispatcher dispatcher;
     private final boolean jsonStoreEnabled;
     private final boolean prettyDebug;
     private final List<StreamListener> streamListeners;
     private final List<RawStreamListener> rawStreamListeners;
+    private final ObjectFactory factory;
 
     /*package*/
 
     StatusStreamBase(InputStream stream, List<StreamListener> streamListeners
-            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug) {
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory) {
+        this(stream, streamListeners, rawStreamListeners, jsonStoreEnabled, prettyDebug, factory,
+                StreamDispatcher.shared(false), Executors.defaultThreadFactory());
+    }
+
+    /*package*/
+
+    StatusStreamBase(InputStream stream, List<StreamListener> streamListeners
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory
+            , Executor dispatcherExecutor, ThreadFactory threadFactory) {
         this.is = stream;
         this.br = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
         this.streamListeners = streamListeners;
         this.rawStreamListeners = rawStreamListeners;
         this.jsonStoreEnabled = jsonStoreEnabled;
         this.prettyDebug = prettyDebug;
+        this.factory = factory;
+        this.dispatcher = isDemandDriven(streamListeners) || isDemandDriven(rawStreamListeners)
+                ? StreamDispatcher.handOff(threadFactory) : StreamDispatcher.queued(dispatcherExecutor);
     }
+
+    private static boolean isDemandDriven(List<? extends StreamListener> listeners) {
+        for (StreamListener listener : listeners) {
+            if (listener instanceof DemandDrivenListener) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /*package*/
 
     StatusStreamBase(HttpResponse response, List<StreamListener> streamListeners
-            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug) {
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory
+            , Executor dispatcherExecutor, ThreadFactory threadFactory) {
         this(response.asStream(), streamListeners
-                , rawStreamListeners, jsonStoreEnabled, prettyDebug);
+                , rawStreamListeners, jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         this.response = response;
+        this.skippedJSONFields = response.getSkippedJSONFields();
     }
 
     String parseLine(String line) {
@@ -86,145 +117,284 @@ abstract class StatusStreamBase implements StatusStream {
             String line = br.readLine();
             if (null == line) {
                 //invalidate this status stream
-                throw new IOException("the end of the stream has been reached");
+                throw new EOFException("the end of the stream has been reached");
             }
             dispatcher.execute(new StreamEvent(line) {
                 @Override
                 public void run() {
-                    try {
-                        rawStreamListeners.forEach(listener -> {
-                            try {
-                                onMessage(line, listener);
-                            } catch (Exception ex) {
-                                logger.warn(ex.getMessage());
-                            }
-                        });
-                        // SiteStreamsImpl will parse "forUser" attribute
-                        line = parseLine(line);
-                        if (line != null && line.length() > 0) {
-                            // parsing JSON is an expensive process and can be avoided when all listener are instanceof RawStreamListener
-                            if (jsonStoreEnabled) {
-                                TwitterObjectFactory.clearThreadLocalMap();
-                            }
-                            JSONObject json = new JSONObject(line);
-                            JSONObjectType.Type event = JSONObjectType.determine(json);
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("Received:", prettyDebug ? json.toString(1) : json.toString());
-                            }
-                            switch (event) {
-                                case SENDER:
-                                    onSender(json, listeners);
-                                    break;
-                                case STATUS:
-                                    onStatus(json, listeners);
-                                    break;
-                                case DIRECT_MESSAGE:
-                                    onDirectMessage(json, listeners);
-                                    break;
-                                case DELETE:
-                                    onDelete(json, listeners);
-                                    break;
-                                case LIMIT:
-                                    onLimit(json, listeners);
-                                    break;
-                                case STALL_WARNING:
-                                    onStallWarning(json, listeners);
-                                    break;
-                                case SCRUB_GEO:
-                                    onScrubGeo(json, listeners);
-                                    break;
-                                case FRIENDS:
-                                    onFriends(json, listeners);
-                                    break;
-                                case FAVORITE:
-                                    onFavorite(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case UNFAVORITE:
-                                    onUnfavorite(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case FOLLOW:
-                                    onFollow(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case UNFOLLOW:
-                                    onUnfollow(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case USER_LIST_MEMBER_ADDED:
-                                    onUserListMemberAddition(json.getJSONObject("target"), json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_MEMBER_DELETED:
-                                    onUserListMemberDeletion(json.getJSONObject("target"), json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_SUBSCRIBED:
-                                    onUserListSubscription(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_UNSUBSCRIBED:
-                                    onUserListUnsubscription(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_CREATED:
-                                    onUserListCreation(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_UPDATED:
-                                    onUserListUpdated(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_LIST_DESTROYED:
-                                    onUserListDestroyed(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case USER_UPDATE:
-                                    onUserUpdate(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case USER_DELETE:
-                                    onUserDeletion(json.getLong("target"), listeners);
-                                    break;
-                                case USER_SUSPEND:
-                                    onUserSuspension(json.getLong("target"), listeners);
-                                    break;
-                                case BLOCK:
-                                    onBlock(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case UNBLOCK:
-                                    onUnblock(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case RETWEETED_RETWEET:
-                                    onRetweetedRetweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case FAVORITED_RETWEET:
-                                    onFavoritedRetweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case QUOTED_TWEET:
-                                    onQuotedTweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
-                                    break;
-                                case DISCONNECTION:
-                                    onDisconnectionNotice(line, listeners);
-                                    break;
-                                case MUTE:
-                                    onMute(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case UNMUTE:
-                                    onUnmute(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
-                                    break;
-                                case UNKNOWN:
-                                default:
-                                    logger.warn("Received unknown event:", prettyDebug ? json.toString(1) : json.toString());
-                            }
-                        }
-                    } catch (Exception ex) {
-                        onException(ex, listeners);
-                    }
+                    dispatch(line, listeners, rawStreamListeners);
                 }
             });
 
         } catch (IOException ioe) {
-            try {
-                is.close();
-            } catch (IOException ignore) {
+            onReadFailure(ioe);
+        }
+    }
+
+    private void onReadFailure(IOException ioe) throws TwitterException {
+        try {
+            is.close();
+        } catch (IOException ignore) {
+        }
+        boolean isUnexpectedException = streamAlive;
+        streamAlive = false;
+        onClose();
+        if (isUnexpectedException) {
+            throw new TwitterException("Stream closed.", ioe);
+        }
+    }
+
+    /**
+     * Reads and parses messages on the calling thread until the next status, skipping the other messages without
+     * dispatching them.
+     *
+     * @return next status, or null if the stream was closed
+     * @throws TwitterException      when the end of the stream has been reached unexpectedly
+     * @throws IllegalStateException when the end of the stream had been reached
+     */
+    Status nextStatus() throws TwitterException {
+        if (!streamAlive) {
+            throw new IllegalStateException("Stream already closed.");
+        }
+        try {
+            while (true) {
+                String line = br.readLine();
+                if (null == line) {
+                    throw new EOFException("the end of the stream has been reached");
+                }
+                line = parseLine(line);
+                if (line == null || line.length() == 0) {
+                    continue;
+                }
+                try {
+                    Status status = factory.createStreamStatus(line);
+                    if (status != null) {
+                        return status;
+                    }
+                    // notices are skipped without being parsed
+                    if (JSONObjectType.sniff(line) != JSONObjectType.Type.UNKNOWN) {
+                        continue;
+                    }
+                    JSONObject json = new JSONObject(new JSONTokener(line, skippedJSONFields));
+                    if (JSONObjectType.determine(json) == JSONObjectType.Type.STATUS) {
+                        return asStatus(json, line);
+                    }
+                } catch (JSONException | TwitterException e) {
+                    logger.warn("Skipped malformed message: ", e.getMessage());
+                }
+            }
+        } catch (IOException ioe) {
+            onReadFailure(ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Dispatches a stream message to the listeners this stream was created with, on the calling thread.
+     *
+     * @param line stream message
+     */
+    void dispatch(String line) {
+        dispatch(line, streamListeners, rawStreamListeners);
+    }
+
+    /**
+     * Dispatches a stream message to the listeners on the calling thread.
+     *
+     * @param line               stream message
+     * @param listeners          stream listeners
+     * @param rawStreamListeners raw stream listeners
+     */
+    void dispatch(String line, List<StreamListener> listeners, List<RawStreamListener> rawStreamListeners) {
+        try {
+            for (RawStreamListener listener : rawStreamListeners) {
+                try {
+                    onMessage(line, listener);
+                } catch (Exception ex) {
+                    logger.warn(ex.getMessage());
+                }
             }
-            boolean isUnexpectedException = streamAlive;
-            streamAlive = false;
-            onClose();
-            if (isUnexpectedException) {
-                throw new TwitterException("Stream closed.", ioe);
+            // SiteStreamsImpl will parse "forUser" attribute
+            line = parseLine(line);
+            if (line != null && line.length() > 0) {
+                // parsing JSON is an expensive process and can be avoided when all listener are instanceof RawStreamListener
+                Status status = factory.createStreamStatus(line);
+                if (status != null) {
+                    logger.debug("Received:", line);
+                    onStatus(status, listeners);
+                    return;
+                }
+                if (handleNotice(line, listeners)) {
+                    return;
+                }
+                JSONObject json = new JSONObject(new JSONTokener(line, skippedJSONFields));
+                JSONObjectType.Type event = JSONObjectType.determine(json);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Received:", prettyDebug ? json.toString(1) : json.toString());
+                }
+                switch (event) {
+                    case SENDER:
+                        onSender(json, listeners);
+                        break;
+                    case STATUS:
+                        onStatus(json, listeners);
+                        break;
+                    case DIRECT_MESSAGE:
+                        onDirectMessage(json, listeners);
+                        break;
+                    case DELETE:
+                        onDelete(json, listeners);
+                        break;
+                    case LIMIT:
+                        onLimit(json, listeners);
+                        break;
+                    case STALL_WARNING:
+                        onStallWarning(json, listeners);
+                        break;
+                    case SCRUB_GEO:
+                        onScrubGeo(json, listeners);
+                        break;
+                    case FRIENDS:
+                        onFriends(json, listeners);
+                        break;
+                    case FAVORITE:
+                        onFavorite(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case UNFAVORITE:
+                        onUnfavorite(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case FOLLOW:
+                        onFollow(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case UNFOLLOW:
+                        onUnfollow(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case USER_LIST_MEMBER_ADDED:
+                        onUserListMemberAddition(json.getJSONObject("target"), json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_MEMBER_DELETED:
+                        onUserListMemberDeletion(json.getJSONObject("target"), json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_SUBSCRIBED:
+                        onUserListSubscription(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_UNSUBSCRIBED:
+                        onUserListUnsubscription(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_CREATED:
+                        onUserListCreation(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_UPDATED:
+                        onUserListUpdated(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_LIST_DESTROYED:
+                        onUserListDestroyed(json.getJSONObject("source"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case USER_UPDATE:
+                        onUserUpdate(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case USER_DELETE:
+                        onUserDeletion(json.getLong("target"), listeners);
+                        break;
+                    case USER_SUSPEND:
+                        onUserSuspension(json.getLong("target"), listeners);
+                        break;
+                    case BLOCK:
+                        onBlock(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case UNBLOCK:
+                        onUnblock(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case RETWEETED_RETWEET:
+                        onRetweetedRetweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case FAVORITED_RETWEET:
+                        onFavoritedRetweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case QUOTED_TWEET:
+                        onQuotedTweet(json.getJSONObject("source"), json.getJSONObject("target"), json.getJSONObject("target_object"), listeners);
+                        break;
+                    case DISCONNECTION:
+                        onDisconnectionNotice(line, listeners);
+                        break;
+                    case MUTE:
+                        onMute(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case UNMUTE:
+                        onUnmute(json.getJSONObject("source"), json.getJSONObject("target"), listeners);
+                        break;
+                    case UNKNOWN:
+                    default:
+                        logger.warn("Received unknown event:", prettyDebug ? json.toString(1) : json.toString());
+                }
             }
+        } catch (Exception ex) {
+            onException(ex, listeners);
+        }
+    }
+
+    /**
+     * Dispatches delete, limit, stall warning and scrub_geo notices, a large part of the traffic of sample streams,
+     * reading their few members from the raw line rather than from a JSONObject.
+     *
+     * @param line stream message
+     * @return true if the line was dispatched
+     */
+    private boolean handleNotice(String line, List<StreamListener> listeners) throws TwitterException, JSONException {
+        JSONObjectType.Type type = JSONObjectType.sniff(line);
+        if (type == JSONObjectType.Type.UNKNOWN) {
+            return false;
+        }
+        JSONByteIndex index = JSONByteIndex.of(line.getBytes(StandardCharsets.UTF_8));
+        if (JSONObjectType.determine(index) != type) {
+            return false;
+        }
+        // messages of unexpected shape are left to the JSONObject path, which reports them
+        switch (type) {
+            case DELETE:
+                JSONByteIndex deletionNotice = index.getObject("delete");
+                if (deletionNotice == null) {
+                    return false;
+                }
+                JSONByteIndex status = deletionNotice.getObject("status");
+                if (status == null) {
+                    if (deletionNotice.opt("status") != null) {
+                        return false;
+                    }
+                } else {
+                    onDelete(new StatusDeletionNoticeImpl(ParseUtil.getLong(status.getRawString("id")),
+                            ParseUtil.getLong(status.getRawString("user_id"))), listeners);
+                }
+                break;
+            case LIMIT:
+                JSONByteIndex limit = index.getObject("limit");
+                if (limit == null) {
+                    return false;
+                }
+                onLimit(ParseUtil.getInt(limit.getRawString("track")), listeners);
+                break;
+            case STALL_WARNING:
+                JSONByteIndex warning = index.getObject("warning");
+                if (warning == null) {
+                    return false;
+                }
+                onStallWarning(new StallWarningImpl(warning.getRawString("code"),
+                        warning.getRawString("message"),
+                        ParseUtil.getInt(warning.getRawString("percent_full"))), listeners);
+                break;
+            case SCRUB_GEO:
+                JSONByteIndex scrubGeo = index.getObject("scrub_geo");
+                if (scrubGeo == null) {
+                    return false;
+                }
+                onScrubGeo(ParseUtil.getLong(scrubGeo.getRawString("user_id")),
+                        ParseUtil.getLong(scrubGeo.getRawString("up_to_status_id")), listeners);
+                break;
+            default:
+                return false;
         }
+        logger.debug("Received:", line);
+        return true;
     }
 
     void onMessage(String rawString, RawStreamListener listener) throws TwitterException {
@@ -239,23 +409,47 @@ abstract class StatusStreamBase implements StatusStream {
         logger.warn("Unhandled event: onStatus");
     }
 
+    void onStatus(Status status, List<StreamListener> listeners) {
+        logger.warn("Unhandled event: onStatus");
+    }
+
     void onDirectMessage(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
         logger.warn("Unhandled event: onDirectMessage");
     }
 
     void onDelete(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
+        JSONObject deletionNotice = json.getJSONObject("delete");
+        if (deletionNotice.has("status")) {
+            onDelete(new StatusDeletionNoticeImpl(deletionNotice.getJSONObject("status")), listeners);
+        }
+    }
+
+    void onDelete(StatusDeletionNotice deletionNotice, List<StreamListener> listeners) {
         logger.warn("Unhandled event: onDelete");
     }
 
     void onLimit(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
+        onLimit(ParseUtil.getInt("track", json.getJSONObject("limit")), listeners);
+    }
+
+    void onLimit(int numberOfLimitedStatuses, List<StreamListener> listeners) {
         logger.warn("Unhandled event: onLimit");
     }
 
     void onStallWarning(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
+        onStallWarning(new StallWarningImpl(json), listeners);
+    }
+
+    void onStallWarning(StallWarning warning, List<StreamListener> listeners) {
         logger.warn("Unhandled event: onStallWarning");
     }
 
     void onScrubGeo(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
+        JSONObject scrubGeo = json.getJSONObject("scrub_geo");
+        onScrubGeo(ParseUtil.getLong("user_id", scrubGeo), ParseUtil.getLong("up_to_status_id", scrubGeo), listeners);
+    }
+
+    void onScrubGeo(long userId, long upToStatusId, List<StreamListener> listeners) {
         logger.warn("Unhandled event: onScrubGeo");
     }
 
@@ -355,6 +549,26 @@ abstract class StatusStreamBase implements StatusStream {
         logger.warn("Unhandled event: ", e.getMessage());
     }
 
+    /**
+     * Waits for the messages read so far to be dispatched, leaving the dispatcher open.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return false if messages were left undispatched
+     */
+    boolean awaitDispatched(long timeoutMillis) {
+        return dispatcher.awaitDrained(timeoutMillis);
+    }
+
+    /**
+     * Waits for the messages read so far to be dispatched, and releases the dispatcher.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return false if messages were left undispatched
+     */
+    boolean closeDispatcher(long timeoutMillis) {
+        return dispatcher.close(timeoutMillis);
+    }
+
     protected abstract void onClose();
 
     @Override
@@ -369,10 +583,23 @@ abstract class StatusStreamBase implements StatusStream {
     }
 
     Status asStatus(JSONObject json) throws TwitterException {
-        Status status = new StatusJSONImpl(json);
+        return asStatus(json, null);
+    }
+
+    /**
+     * @param json    status
+     * @param rawJSON line the status was parsed from, registered as the raw JSON form instead of serializing the
+     *                JSONObject unless members are skipped
+     * @return status
+     * @throws TwitterException when the status is malformed
+     */
+    Status asStatus(JSONObject json, @Nullable String rawJSON) throws TwitterException {
+        Status status = factory.createStatus(json);
 
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.registerJSONObject(status, json);
+            // skipped members are absent from the raw JSON form as well
+            TwitterObjectFactory.registerJSONObject(status,
+                    rawJSON != null && skippedJSONFields.isEmpty() ? rawJSON : json);
         }
         return status;
     }
@@ -405,7 +632,7 @@ abstract class StatusStreamBase implements StatusStream {
     }
 
     User asUser(JSONObject json) throws TwitterException {
-        User user = new UserJSONImpl(json);
+        User user = factory.createUser(json);
         if (jsonStoreEnabled) {
             TwitterObjectFactory.registerJSONObject(user, json);
         }
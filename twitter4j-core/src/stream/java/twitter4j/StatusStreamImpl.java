@@ -17,11 +17,18 @@
 package twitter4j;
 
 import twitter4j.v1.RawStreamListener;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
 import twitter4j.v1.StatusListener;
 import twitter4j.v1.StreamListener;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * StatusStream implementation. This class is NOT intended to be extended but left non-final for the ease of mock testing.
@@ -31,9 +38,23 @@ import java.util.List;
  */
 class StatusStreamImpl extends StatusStreamBase {
     StatusStreamImpl(HttpResponse response, List<StreamListener> streamListeners
-            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug) throws IOException {
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory) throws IOException {
+        this(response, streamListeners
+                , rawStreamListeners, jsonStoreEnabled, prettyDebug, factory, StreamDispatcher.shared(false),
+                Executors.defaultThreadFactory());
+    }
+
+    StatusStreamImpl(HttpResponse response, List<StreamListener> streamListeners
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory
+            , Executor dispatcherExecutor, ThreadFactory threadFactory) throws IOException {
         super(response, streamListeners
-                , rawStreamListeners, jsonStoreEnabled, prettyDebug);
+                , rawStreamListeners, jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
+    }
+
+    StatusStreamImpl(InputStream stream, List<StreamListener> streamListeners
+            , List<RawStreamListener> rawStreamListeners, boolean jsonStoreEnabled, boolean prettyDebug, ObjectFactory factory) {
+        super(stream, streamListeners
+                , rawStreamListeners, jsonStoreEnabled, prettyDebug, factory);
     }
 
     String line;
@@ -67,43 +88,42 @@ class StatusStreamImpl extends StatusStreamBase {
 
     @Override
     protected void onStatus(JSONObject json, List<StreamListener> listeners) throws TwitterException {
+        onStatus(asStatus(json, line), listeners);
+    }
+
+    @Override
+    void onStatus(Status status, List<StreamListener> listeners) {
         for (StreamListener listener : listeners) {
-            ((StatusListener) listener).onStatus(asStatus(json));
+            ((StatusListener) listener).onStatus(status);
         }
     }
 
     @Override
-    protected void onDelete(JSONObject json, List<StreamListener> listeners) throws JSONException {
-        JSONObject deletionNotice = json.getJSONObject("delete");
-        if (deletionNotice.has("status")) {
-            for (StreamListener listener : listeners) {
-                ((StatusListener) listener).onDeletionNotice(new StatusDeletionNoticeImpl(deletionNotice.getJSONObject("status")));
-            }
+    void onDelete(StatusDeletionNotice deletionNotice, List<StreamListener> listeners) {
+        for (StreamListener listener : listeners) {
+            ((StatusListener) listener).onDeletionNotice(deletionNotice);
         }
     }
 
     @Override
-    protected void onLimit(JSONObject json, List<StreamListener> listeners) throws JSONException {
+    void onLimit(int numberOfLimitedStatuses, List<StreamListener> listeners) {
         for (StreamListener listener : listeners) {
-            ((StatusListener) listener).onTrackLimitationNotice(ParseUtil.getInt("track", json.getJSONObject("limit")));
+            ((StatusListener) listener).onTrackLimitationNotice(numberOfLimitedStatuses);
         }
     }
 
     @Override
-    protected void onStallWarning(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
+    void onStallWarning(StallWarning warning, List<StreamListener> listeners) {
         for (StreamListener listener : listeners) {
-            ((StatusListener) listener).onStallWarning(new StallWarningImpl(json));
+            ((StatusListener) listener).onStallWarning(warning);
         }
     }
 
     @Override
-    protected void onScrubGeo(JSONObject json, List<StreamListener> listeners) throws TwitterException, JSONException {
-        JSONObject scrubGeo = json.getJSONObject("scrub_geo");
+    void onScrubGeo(long userId, long upToStatusId, List<StreamListener> listeners) {
         for (StreamListener listener : listeners) {
-            ((StatusListener) listener).onScrubGeo(ParseUtil.getLong("user_id", scrubGeo)
-                    , ParseUtil.getLong("up_to_status_id", scrubGeo));
+            ((StatusListener) listener).onScrubGeo(userId, upToStatusId);
         }
-
     }
 
     @Override
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.management.ConnectionStatistics;
+
+/**
+ * Connection statistics of a stream, updated by the thread consuming it.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StreamConnectionStatistics implements ConnectionStatistics {
+    private int connectCount;
+    private int reconnectAttemptCount;
+    private int giveUpCount;
+    private long totalUptime;
+    private long totalDisconnected;
+    // 0 while disconnected
+    private long connectedSince;
+    // 0 while connected or stopped
+    private long disconnectedSince;
+    private long lastReconnectDelay = -1;
+
+    /**
+     * the stream starts connecting
+     */
+    synchronized void started() {
+        if (connectedSince == 0 && disconnectedSince == 0) {
+            disconnectedSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * a connection has been established
+     */
+    synchronized void connected() {
+        long now = System.currentTimeMillis();
+        if (disconnectedSince != 0) {
+            totalDisconnected += now - disconnectedSince;
+            disconnectedSince = 0;
+        }
+        connectedSince = now;
+        connectCount++;
+    }
+
+    /**
+     * the connection failed or has been closed
+     */
+    synchronized void disconnected() {
+        long now = System.currentTimeMillis();
+        if (connectedSince != 0) {
+            totalUptime += now - connectedSince;
+            connectedSince = 0;
+            disconnectedSince = now;
+        }
+    }
+
+    /**
+     * @param delayMillis delay before reconnecting
+     */
+    synchronized void reconnecting(long delayMillis) {
+        reconnectAttemptCount++;
+        lastReconnectDelay = delayMillis;
+    }
+
+    /**
+     * the reconnect strategy gave up
+     */
+    synchronized void gaveUp() {
+        giveUpCount++;
+    }
+
+    /**
+     * the stream has been shut down
+     */
+    synchronized void stopped() {
+        disconnected();
+        if (disconnectedSince != 0) {
+            totalDisconnected += System.currentTimeMillis() - disconnectedSince;
+            disconnectedSince = 0;
+        }
+    }
+
+    @Override
+    public synchronized boolean isConnected() {
+        return connectedSince != 0;
+    }
+
+    @Override
+    public synchronized int getConnectCount() {
+        return connectCount;
+    }
+
+    @Override
+    public synchronized int getReconnectAttemptCount() {
+        return reconnectAttemptCount;
+    }
+
+    @Override
+    public synchronized int getGiveUpCount() {
+        return giveUpCount;
+    }
+
+    @Override
+    public synchronized long getUptimeMillis() {
+        return connectedSince == 0 ? 0 : System.currentTimeMillis() - connectedSince;
+    }
+
+    @Override
+    public synchronized long getTotalUptimeMillis() {
+        return totalUptime + getUptimeMillis();
+    }
+
+    @Override
+    public synchronized long getTotalDisconnectedMillis() {
+        return totalDisconnected + (disconnectedSince == 0 ? 0 : System.currentTimeMillis() - disconnectedSince);
+    }
+
+    @Override
+    public synchronized long getLastReconnectDelayMillis() {
+        return lastReconnectDelay;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StreamConnectionStatistics{" +
+                "connected=" + isConnected() +
+                ", connectCount=" + connectCount +
+                ", reconnectAttemptCount=" + reconnectAttemptCount +
+                ", giveUpCount=" + giveUpCount +
+                ", totalUptimeMillis=" + getTotalUptimeMillis() +
+                ", totalDisconnectedMillis=" + getTotalDisconnectedMillis() +
+                ", lastReconnectDelayMillis=" + lastReconnectDelay +
+                '}';
+    }
+}
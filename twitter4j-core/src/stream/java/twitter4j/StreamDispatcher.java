@@ -0,0 +1,369 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+import twitter4j.management.StreamDispatcherStatistics;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatcher of the messages of one stream, delivering them one at a time and in order.<br>
+ * Messages are queued per stream and drained by a bounded pool shared by all streams of the JVM, or by an executor
+ * given in the configuration, instead of a thread per stream. Streams with demand driven listeners block their
+ * dispatcher while there is no demand, and hand messages off to a thread of their own instead, not to hold shared
+ * threads.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StreamDispatcher implements Executor {
+    private static final Logger logger = Logger.getLogger();
+    // messages drained at a time, before yielding the shared thread to other streams
+    private static final int BATCH = 64;
+    static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final LongAdder PENDING = new LongAdder();
+    private static final LongAdder DISPATCHED = new LongAdder();
+    static final StreamDispatcherStatistics STATISTICS = new Statistics();
+
+    static {
+        TwitterAPIMonitor.getInstance().streamDispatcherCreated(STATISTICS);
+    }
+
+    private static volatile ThreadPoolExecutor platformPool;
+    private static volatile ThreadPoolExecutor virtualPool;
+
+    @Nullable
+    private final Executor executor;
+    @Nullable
+    private final HandOffExecutor dedicated;
+    // guards queue, running and handedOff, and signals drained
+    private final Object lock = new Object();
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private boolean running;
+    // messages given to the thread of its own and not yet dispatched
+    private int handedOff;
+
+    private StreamDispatcher(@Nullable Executor executor, @Nullable HandOffExecutor dedicated) {
+        this.executor = executor;
+        this.dedicated = dedicated;
+    }
+
+    /**
+     * @param executor executor draining the queue of the stream
+     * @return dispatcher delivering in order on the executor
+     */
+    static StreamDispatcher queued(Executor executor) {
+        return new StreamDispatcher(executor, null);
+    }
+
+    /**
+     * @param threadFactory thread factory
+     * @return dispatcher whose execute blocks until its thread takes the message
+     */
+    static StreamDispatcher handOff(ThreadFactory threadFactory) {
+        return new StreamDispatcher(null, new HandOffExecutor(counted(threadFactory)));
+    }
+
+    /**
+     * Executor of a single thread, taking messages only when the thread is free.
+     */
+    private static final class HandOffExecutor extends ThreadPoolExecutor {
+        private volatile Thread worker;
+
+        HandOffExecutor(ThreadFactory threadFactory) {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory,
+                    (task, executor) -> {
+                        try {
+                            // blocks while the thread waits for demand, but not once the dispatcher is closed
+                            while (!executor.getQueue().offer(task, 100, TimeUnit.MILLISECONDS)) {
+                                if (executor.isShutdown()) {
+                                    throw new RejectedExecutionException("Dispatcher is closed.");
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(e);
+                        }
+                    });
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            worker = thread;
+        }
+
+        /**
+         * Interrupts the thread, unlike shutdownNow which would also take the message offered by a blocked execute
+         * and drop it.
+         */
+        void interruptWorker() {
+            Thread thread = worker;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * @param virtual true for the pool of virtual threads
+     * @return pool shared by the streams of the JVM
+     */
+    static Executor shared(boolean virtual) {
+        ThreadPoolExecutor pool = virtual ? virtualPool : platformPool;
+        if (pool == null) {
+            synchronized (StreamDispatcher.class) {
+                pool = virtual ? virtualPool : platformPool;
+                if (pool == null) {
+                    pool = newPool(virtual);
+                    if (virtual) {
+                        virtualPool = pool;
+                    } else {
+                        platformPool = pool;
+                    }
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static ThreadPoolExecutor newPool(boolean virtual) {
+        ThreadFactory threadFactory = StreamThreads.factory(virtual);
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), counted(runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            thread.setName("Twitter4J Stream Dispatcher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory counted(ThreadFactory threadFactory) {
+        return runnable -> threadFactory.newThread(() -> {
+            THREAD_COUNT.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                THREAD_COUNT.decrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void execute(Runnable event) {
+        PENDING.increment();
+        if (dedicated != null) {
+            synchronized (lock) {
+                handedOff++;
+            }
+            try {
+                dedicated.execute(() -> {
+                    PENDING.decrement();
+                    try {
+                        run(event);
+                    } finally {
+                        handedOff();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                PENDING.decrement();
+                handedOff();
+                throw e;
+            }
+            return;
+        }
+        boolean start;
+        synchronized (lock) {
+            queue.add(event);
+            start = !running;
+            running = true;
+        }
+        if (start) {
+            schedule();
+        }
+    }
+
+    /**
+     * Submits a drain of the queue, or discards the queued messages if the executor rejects it.
+     */
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dispatcher rejected the stream messages: ", e.getMessage());
+            synchronized (lock) {
+                PENDING.add(-queue.size());
+                queue.clear();
+                running = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void drain() {
+        // false while this task is responsible for the queue
+        boolean released = false;
+        try {
+            while (true) {
+                for (int i = 0; i < BATCH; i++) {
+                    Runnable event;
+                    synchronized (lock) {
+                        event = queue.poll();
+                        if (event == null) {
+                            running = false;
+                            lock.notifyAll();
+                            released = true;
+                            return;
+                        }
+                    }
+                    PENDING.decrement();
+                    run(event);
+                }
+                try {
+                    // yields the thread to the other streams
+                    executor.execute(this::drain);
+                    released = true;
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // keeps draining on this thread
+                }
+            }
+        } finally {
+            if (!released) {
+                // an Error escaped a listener: the rest of the queue is left to another drain
+                boolean remaining;
+                synchronized (lock) {
+                    remaining = !queue.isEmpty();
+                    if (!remaining) {
+                        running = false;
+                        lock.notifyAll();
+                    }
+                }
+                if (remaining) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private void handedOff() {
+        synchronized (lock) {
+            if (--handedOff == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static void run(Runnable event) {
+        try {
+            event.run();
+        } catch (RuntimeException e) {
+            logger.warn(e.getMessage());
+        } finally {
+            DISPATCHED.increment();
+        }
+    }
+
+    /**
+     * Waits for the messages read so far to be dispatched, leaving the dispatcher open.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return false if messages were left undispatched
+     */
+    boolean awaitDrained(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            synchronized (lock) {
+                long remaining;
+                while ((running || handedOff > 0) && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    lock.wait(remaining);
+                }
+                return !running && handedOff == 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the messages read so far to be dispatched, then releases the thread of its own, if any.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return false if messages were left undispatched
+     */
+    boolean close(long timeoutMillis) {
+        try {
+            if (dedicated != null) {
+                dedicated.shutdown();
+                if (!dedicated.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    // releases a dispatcher waiting for demand
+                    dedicated.interruptWorker();
+                    return false;
+                }
+                return true;
+            }
+            return awaitDrained(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamDispatcher{" +
+                "executor=" + executor +
+                ", dedicated=" + dedicated +
+                '}';
+    }
+
+    private static final class Statistics implements StreamDispatcherStatistics {
+        @Override
+        public int getThreadCount() {
+            return THREAD_COUNT.get();
+        }
+
+        @Override
+        public int getMaximumPoolSize() {
+            return POOL_SIZE;
+        }
+
+        @Override
+        public long getPendingEventCount() {
+            return PENDING.sum();
+        }
+
+        @Override
+        public long getDispatchedEventCount() {
+            return DISPATCHED.sum();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.RawStreamListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends raw stream messages to memory-mapped segment files in a directory, to be replayed with
+ * {@link StreamReplayer}. Register it as a RawStreamListener:
+ * <pre>{@code Twitter.newBuilder().listener(StreamRecorder.open(directory))}</pre>
+ * Each record consists of the length of the message in bytes (int), the time of receipt in milliseconds (long) and
+ * the UTF-8 encoded message. The length is written last, so a record cut short by a crash reads as the end of the
+ * segment. A new segment is started when the next record doesn't fit. Segments are allocated at full size, and the
+ * space after the last record stays zero filled.<br>
+ * Every {@value #INDEX_INTERVAL} bytes, the time of receipt, id and position of the next status are appended to an
+ * index file next to the segment, so that replays can start from a point in time without reading the segments
+ * before it.<br>
+ * Keep-alive newlines are not recorded. I/O errors are logged and the message is dropped.<br>
+ * This class is thread safe.
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class StreamRecorder implements RawStreamListener, Closeable {
+    private static final Logger logger = Logger.getLogger();
+    static final String SEGMENT_SUFFIX = ".segment";
+    static final String INDEX_SUFFIX = ".index";
+    // length and time of receipt
+    static final int HEADER_SIZE = 12;
+    // time of receipt, status id and position
+    static final int INDEX_ENTRY_SIZE = 20;
+    static final int INDEX_INTERVAL = 64 * 1024;
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    private long sequence;
+    private MappedByteBuffer segment;
+    private FileChannel index;
+    private int nextIndexPosition;
+    private boolean closed;
+
+    private StreamRecorder(Path directory, int segmentSize, long sequence) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Opens a recorder with segments of 64 MiB.
+     *
+     * @param directory directory to store segments, created if missing
+     * @return recorder appending to a new segment
+     * @throws IOException when failed to create the directory or the segment
+     */
+    public static StreamRecorder open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory   directory to store segments, created if missing
+     * @param segmentSize size of segment files in bytes. Larger messages get a segment of their own.
+     * @return recorder appending to a new segment, numbered after the existing segments in the directory
+     * @throws IOException when failed to create the directory or the segment
+     */
+    public static StreamRecorder open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + HEADER_SIZE + ": " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        long sequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1)) + 1;
+        StreamRecorder recorder = new StreamRecorder(directory, segmentSize, sequence);
+        recorder.newSegment(segmentSize);
+        return recorder;
+    }
+
+    @Override
+    public synchronized void onMessage(String rawString) {
+        if (closed || rawString.isEmpty()) {
+            return;
+        }
+        try {
+            append(rawString, System.currentTimeMillis());
+        } catch (IOException ioe) {
+            logger.warn("Failed to record a message to " + directory, ioe);
+        }
+    }
+
+    @Override
+    public void onException(Exception ex) {
+    }
+
+    /*package*/ synchronized void append(String message, long timestamp) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        int start = segment.position();
+        if (segment.capacity() - start - HEADER_SIZE < bytes.length) {
+            newSegment(Math.max(segmentSize, HEADER_SIZE + bytes.length));
+            start = 0;
+        }
+        segment.position(start + HEADER_SIZE);
+        segment.put(bytes);
+        segment.putLong(start + 4, timestamp);
+        segment.putInt(start, bytes.length);
+        if (start >= nextIndexPosition) {
+            long statusId = statusId(message);
+            if (statusId != -1) {
+                indexEntry.clear();
+                indexEntry.putLong(timestamp).putLong(statusId).putInt(start).flip();
+                while (indexEntry.hasRemaining()) {
+                    index.write(indexEntry);
+                }
+                nextIndexPosition = start + INDEX_INTERVAL;
+            }
+        }
+    }
+
+    private void newSegment(int size) throws IOException {
+        closeSegment();
+        String name = String.format("%020d", sequence++);
+        try (FileChannel channel = FileChannel.open(directory.resolve(name + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        index = FileChannel.open(directory.resolve(name + INDEX_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        nextIndexPosition = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            // written back by the OS, forced on close only
+            index.close();
+            segment = null;
+        }
+    }
+
+    /**
+     * Flushes the current segment to the storage and stops recording.
+     *
+     * @throws IOException when failed to flush
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            segment.force();
+            closeSegment();
+        }
+    }
+
+    /**
+     * @param directory directory storing segments
+     * @return segment files in the order of recording
+     * @throws IOException when failed to list the directory
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static Path indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    /**
+     * @param message stream message
+     * @return id of the status, or -1 if the message is not a status
+     */
+    static long statusId(String message) {
+        if (JSONObjectType.sniff(message) != JSONObjectType.Type.UNKNOWN) {
+            return -1;
+        }
+        try {
+            JSONByteIndex json = JSONByteIndex.of(message.getBytes(StandardCharsets.UTF_8));
+            return JSONObjectType.determine(json) == JSONObjectType.Type.STATUS
+                    ? ParseUtil.getLong(json.getRawString("id")) : -1;
+        } catch (JSONException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamRecorder{" +
+                "directory=" + directory +
+                ", segmentSize=" + segmentSize +
+                '}';
+    }
+}
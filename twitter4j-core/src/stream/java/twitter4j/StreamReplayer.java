@@ -0,0 +1,196 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Replays messages recorded by {@link StreamRecorder} to the listeners of a Twitter instance, through the same
+ * dispatch as status streams use, e.g. to benchmark listeners offline:
+ * <pre>{@code StreamReplayer.of(directory).speed(10).replay(twitter)}</pre>
+ * Messages are dispatched on the calling thread, at the maximum speed unless specified otherwise.
+ *
+ * @since Twitter4J 4.1.3
+ */
+public final class StreamReplayer {
+    /**
+     * speed dispatching messages one after another without waiting
+     */
+    public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+
+    private final Path directory;
+    private double speed = MAXIMUM_SPEED;
+    private long fromTimestamp = Long.MIN_VALUE;
+    private long fromStatusId = -1;
+
+    private StreamReplayer(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param directory directory storing segments recorded by {@link StreamRecorder}
+     * @return replayer of the segments
+     */
+    public static StreamReplayer of(Path directory) {
+        return new StreamReplayer(directory);
+    }
+
+    /**
+     * @param speed 1 to replay messages at the pace they were received, 2 at twice the pace, and so on.
+     *              {@link #MAXIMUM_SPEED} not to wait between messages.
+     * @return this instance
+     */
+    public StreamReplayer speed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * @param timestamp time in milliseconds. Messages received earlier are skipped.
+     * @return this instance
+     */
+    public StreamReplayer fromTimestamp(long timestamp) {
+        this.fromTimestamp = timestamp;
+        return this;
+    }
+
+    /**
+     * @param statusId status id. Messages before the first status with the id or a greater id are skipped.
+     * @return this instance
+     */
+    public StreamReplayer fromStatusId(long statusId) {
+        this.fromStatusId = statusId;
+        return this;
+    }
+
+    /**
+     * Dispatches the recorded messages to the listeners registered to the Twitter instance. Returns early if the
+     * calling thread is interrupted.
+     *
+     * @param twitter Twitter instance providing listeners and configuration
+     * @return number of messages dispatched
+     * @throws IOException           when failed to read the segments
+     * @throws IllegalStateException when no listener is registered
+     */
+    public long replay(Twitter twitter) throws IOException {
+        StatusStreamImpl stream = ((TwitterStreamImpl) twitter.v1().stream()).offlineStream();
+        try {
+            return replay(stream::dispatch);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /*package*/ long replay(Consumer<String> dispatch) throws IOException {
+        List<Path> segments = StreamRecorder.segments(directory);
+        // start from the last indexed status received before the starting time. Timestamps follow the order of
+        // recording while status ids don't, so the status id is left to the scan below
+        int first = 0;
+        int firstPosition = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(StreamRecorder.indexOf(segments.get(i))));
+            while (entries.remaining() >= StreamRecorder.INDEX_ENTRY_SIZE) {
+                long timestamp = entries.getLong();
+                // status id
+                entries.getLong();
+                int position = entries.getInt();
+                if (timestamp < fromTimestamp) {
+                    first = i;
+                    firstPosition = position;
+                }
+            }
+        }
+
+        boolean skipping = fromTimestamp != Long.MIN_VALUE || fromStatusId != -1;
+        long count = 0;
+        long startTimestamp = 0;
+        long startNanos = 0;
+        byte[] bytes = new byte[8192];
+        for (int i = first; i < segments.size(); i++) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            int position = i == first ? firstPosition : 0;
+            while (segment.limit() - position >= StreamRecorder.HEADER_SIZE) {
+                int length = segment.getInt(position);
+                if (length <= 0 || segment.limit() - position - StreamRecorder.HEADER_SIZE < length) {
+                    // end of the segment, or a record cut short
+                    break;
+                }
+                long timestamp = segment.getLong(position + 4);
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                segment.position(position + StreamRecorder.HEADER_SIZE);
+                segment.get(bytes, 0, length);
+                position += StreamRecorder.HEADER_SIZE + length;
+                String line = new String(bytes, 0, length, StandardCharsets.UTF_8);
+                if (skipping) {
+                    if (timestamp < fromTimestamp
+                            || (fromStatusId != -1 && StreamRecorder.statusId(line) < fromStatusId)) {
+                        continue;
+                    }
+                    skipping = false;
+                }
+                if (speed != MAXIMUM_SPEED) {
+                    if (count == 0) {
+                        startTimestamp = timestamp;
+                        startNanos = System.nanoTime();
+                    } else {
+                        long wait = startNanos + (long) ((timestamp - startTimestamp) * 1_000_000 / speed)
+                                - System.nanoTime();
+                        if (wait > 0) {
+                            try {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return count;
+                            }
+                        }
+                    }
+                }
+                dispatch.accept(line);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamReplayer{" +
+                "directory=" + directory +
+                ", speed=" + speed +
+                ", fromTimestamp=" + fromTimestamp +
+                ", fromStatusId=" + fromStatusId +
+                '}';
+    }
+}
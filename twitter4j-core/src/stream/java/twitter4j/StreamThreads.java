@@ -0,0 +1,74 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the threads reading and dispatching streams.<br>
+ * Virtual threads are looked up reflectively, so that the library keeps running on Java 8 and uses them when running
+ * on Java 21 or later. A virtual thread blocked reading a stream does not hold a platform thread, which lets a JVM run
+ * hundreds of per-user or per-shard streams on a few carrier threads.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class StreamThreads {
+    private static final Logger logger = Logger.getLogger();
+    @Nullable
+    private static final ThreadFactory VIRTUAL = virtualThreadFactory();
+
+    private StreamThreads() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param virtual true to prefer virtual threads
+     * @return virtual thread factory if requested and available, otherwise the default thread factory
+     */
+    static ThreadFactory factory(boolean virtual) {
+        if (virtual) {
+            if (VIRTUAL != null) {
+                return VIRTUAL;
+            }
+            logger.info("Virtual threads require Java 21 or later. Using platform threads.");
+        }
+        return Executors.defaultThreadFactory();
+    }
+
+    /**
+     * @return true if virtual threads are available
+     */
+    static boolean isVirtualThreadAvailable() {
+        return VIRTUAL != null;
+    }
+
+    /**
+     * @return Thread.ofVirtual().factory(), or null before Java 21
+     */
+    @Nullable
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
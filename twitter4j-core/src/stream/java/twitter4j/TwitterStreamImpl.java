@@ -16,16 +16,23 @@
 package twitter4j;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import twitter4j.management.ConnectionStatistics;
 import twitter4j.v1.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.Flushable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
-import static twitter4j.HttpResponseCode.FORBIDDEN;
-import static twitter4j.HttpResponseCode.NOT_ACCEPTABLE;
 
 /**
  * A java representation of the <a href="https://dev.twitter.com/docs/streaming-api/methods">Streaming API: Methods</a><br>
@@ -46,17 +53,29 @@ class TwitterStreamImpl implements TwitterStream {
 
     private TwitterStreamConsumer handler = null;
 
+    private final boolean stallWarningsEnabled;
+    private final boolean virtualThreadsEnabled;
+    private final ThreadFactory threadFactory;
+    @Nullable
+    private final Executor streamDispatcher;
+    private final Executor dispatcherExecutor;
+    private final int drainTimeout;
+    private final ReconnectStrategy reconnectStrategy;
+    private final StreamConnectionStatistics statistics = new StreamConnectionStatistics();
     private final String stallWarningsGetParam;
     private final HttpParameter stallWarningsParam;
 
     private final HttpClient http;
     private final Authorization auth;
+    private final ObjectFactory factory;
 
     TwitterStreamImpl(String streamBaseURL, String streamThreadName,
                       List<ConnectionLifeCycleListener> connectionLifeCycleListeners,
                       List<StreamListener> streamListeners, List<RawStreamListener> rawStreamListeners,
                       boolean jsonStoreEnabled, boolean prettyDebug,
-                      boolean stallWarningsEnabled, HttpClient http, Authorization auth) {
+                      boolean stallWarningsEnabled, boolean virtualThreadsEnabled,
+                      @Nullable Executor streamDispatcher, int drainTimeout,
+                      ReconnectStrategy reconnectStrategy, HttpClient http, Authorization auth, ObjectFactory factory) {
         this.streamBaseURL = streamBaseURL;
         this.streamThreadName = streamThreadName;
         this.connectionLifeCycleListeners = connectionLifeCycleListeners;
@@ -64,6 +83,14 @@ class TwitterStreamImpl implements TwitterStream {
         this.rawStreamListeners = rawStreamListeners;
         this.jsonStoreEnabled = jsonStoreEnabled;
         this.prettyDebug = prettyDebug;
+        this.stallWarningsEnabled = stallWarningsEnabled;
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.threadFactory = StreamThreads.factory(virtualThreadsEnabled);
+        this.streamDispatcher = streamDispatcher;
+        this.dispatcherExecutor = streamDispatcher != null ? streamDispatcher
+                : StreamDispatcher.shared(virtualThreadsEnabled);
+        this.drainTimeout = drainTimeout;
+        this.reconnectStrategy = reconnectStrategy;
         this.stallWarningsGetParam = "stall_warnings=" + (stallWarningsEnabled ? "true" : "false");
         this.stallWarningsParam = new HttpParameter("stall_warnings", stallWarningsEnabled);
         this.http = http;
@@ -72,6 +99,7 @@ class TwitterStreamImpl implements TwitterStream {
         // see also - http://jira.twitter4j.org/browse/TFJ-556
         http.addDefaultRequestHeader("Connection", "close");
         this.auth = auth;
+        this.factory = factory;
     }
 
     /* Streaming API */
@@ -133,7 +161,7 @@ class TwitterStreamImpl implements TwitterStream {
             return new StatusStreamImpl(http.post(streamBaseURL + relativeUrl
                     , new HttpParameter[]{new HttpParameter("count", String.valueOf(count))
                             , stallWarningsParam}, auth, null), streamListeners, rawStreamListeners,
-                    jsonStoreEnabled, prettyDebug);
+                    jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -164,7 +192,7 @@ class TwitterStreamImpl implements TwitterStream {
         try {
             return new StatusStreamImpl(http.post(streamBaseURL + "statuses/retweet.json"
                     , new HttpParameter[]{stallWarningsParam}, auth, null), streamListeners, rawStreamListeners,
-                    jsonStoreEnabled, prettyDebug);
+                    jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -208,7 +236,7 @@ class TwitterStreamImpl implements TwitterStream {
         try {
             return new StatusStreamImpl(http.get(streamBaseURL + "statuses/sample.json?"
                     + stallWarningsGetParam, null, auth, null), streamListeners, rawStreamListeners,
-                    jsonStoreEnabled, prettyDebug);
+                    jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -228,7 +256,7 @@ class TwitterStreamImpl implements TwitterStream {
         try {
             return new StatusStreamImpl(http.get(streamBaseURL + "statuses/sample.json?"
                     + stallWarningsGetParam + "&language=" + language, null, auth, null), streamListeners, rawStreamListeners,
-                    jsonStoreEnabled, prettyDebug);
+                    jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -263,7 +291,7 @@ class TwitterStreamImpl implements TwitterStream {
             return new StatusStreamImpl(http.post(streamBaseURL
                             + "statuses/filter.json"
                     , getParameters(query, stallWarningsParam), auth, null), streamListeners, rawStreamListeners,
-                    jsonStoreEnabled, prettyDebug);
+                    jsonStoreEnabled, prettyDebug, factory, dispatcherExecutor, threadFactory);
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -321,6 +349,55 @@ class TwitterStreamImpl implements TwitterStream {
     }
 
 
+    /**
+     * @return stream that has no connection and dispatches the messages passed to
+     * {@link StatusStreamBase#dispatch(String)} to the listeners of this instance
+     * @since Twitter4J 4.1.3
+     */
+    StatusStreamImpl offlineStream() {
+        ensureStatusStreamListenerIsSet();
+        return new StatusStreamImpl(new ByteArrayInputStream(new byte[0]), streamListeners, rawStreamListeners,
+                jsonStoreEnabled, prettyDebug, factory);
+    }
+
+    @Override
+    public Stream<Status> statusStream(@Nullable FilterQuery query) {
+        auth.isEnabled();
+        return StatusSpliterator.stream(() -> (StatusStreamBase) (query == null ? getSampleStream()
+                : getFilterStream(query)), reconnectStrategy);
+    }
+
+    @Override
+    public ConnectionStatistics getConnectionStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @param streamListeners    stream listeners
+     * @param rawStreamListeners raw stream listeners
+     * @return stream with the same configuration and credentials as this instance, delivering to the listeners
+     * @since Twitter4J 4.1.3
+     */
+    TwitterStreamImpl withListeners(List<StreamListener> streamListeners, List<RawStreamListener> rawStreamListeners) {
+        return new TwitterStreamImpl(streamBaseURL, streamThreadName, connectionLifeCycleListeners, streamListeners,
+                rawStreamListeners, jsonStoreEnabled, prettyDebug, stallWarningsEnabled, virtualThreadsEnabled,
+                streamDispatcher, drainTimeout, reconnectStrategy, http, auth, factory);
+    }
+
+    /**
+     * @param listener connection life cycle listener to be added
+     * @return stream with the same configuration, credentials and listeners as this instance, also notifying the
+     * listener
+     * @since Twitter4J 4.1.3
+     */
+    TwitterStreamImpl withConnectionLifeCycleListener(ConnectionLifeCycleListener listener) {
+        List<ConnectionLifeCycleListener> listeners = new ArrayList<>(connectionLifeCycleListeners);
+        listeners.add(listener);
+        return new TwitterStreamImpl(streamBaseURL, streamThreadName, listeners, streamListeners,
+                rawStreamListeners, jsonStoreEnabled, prettyDebug, stallWarningsEnabled, virtualThreadsEnabled,
+                streamDispatcher, drainTimeout, reconnectStrategy, http, auth, factory);
+    }
+
     private synchronized void startHandler(TwitterStreamConsumer handler) {
         cleanUp();
         this.handler = handler;
@@ -336,48 +413,54 @@ class TwitterStreamImpl implements TwitterStream {
 
     @Override
     public synchronized void shutdown() {
+        if (handler != null) {
+            handler.drain();
+        }
         cleanUp();
     }
 
 
-    /*
-     https://dev.twitter.com/docs/streaming-api/concepts#connecting
-     When a network error (TCP/IP level) is encountered, back off linearly. Perhaps start at 250 milliseconds, double, and cap at 16 seconds
-     When a HTTP error (> 200) is returned, back off exponentially.
-     Perhaps start with a 10 second wait, double on each subsequent failure, and finally cap the wait at 240 seconds. Consider sending an alert to a human operator after multiple HTTP errors, as there is probably a client configuration issue that is unlikely to be resolved without human intervention. There's not much point in polling any faster in the face of HTTP error codes and your client is may run afoul of a rate limit.
-     */
-    private static final int TCP_ERROR_INITIAL_WAIT = 250;
-    private static final int TCP_ERROR_WAIT_CAP = 16 * 1000;
-
-    private static final int HTTP_ERROR_INITIAL_WAIT = 10 * 1000;
-    private static final int HTTP_ERROR_WAIT_CAP = 240 * 1000;
-
-    private static final int NO_WAIT = 0;
+    private static final AtomicInteger count = new AtomicInteger();
 
-    private static int count = 0;
+    /**
+     * @param te exception
+     * @return status code to give the reconnect strategy, {@link ReconnectStrategy#DISCONNECTED} if the server closed
+     * the stream
+     */
+    static int reconnectStatusCode(TwitterException te) {
+        return te.getCause() instanceof EOFException ? ReconnectStrategy.DISCONNECTED : te.getStatusCode();
+    }
 
     enum Mode {
         user, status
     }
 
-    abstract class TwitterStreamConsumer extends Thread {
-        private StatusStreamBase stream = null;
+    abstract class TwitterStreamConsumer implements Runnable {
+        private volatile StatusStreamBase stream = null;
         private final String NAME;
         private volatile boolean closed = false;
         private final Mode mode;
+        private final Thread thread;
 
         TwitterStreamConsumer(Mode mode) {
             super();
             this.mode = mode;
-            NAME = format("Twitter Stream consumer / %s [%s]", streamThreadName, ++count);
-            setName(NAME + "[initializing]");
+            NAME = format("Twitter Stream consumer / %s [%s]", streamThreadName, count.incrementAndGet());
+            thread = threadFactory.newThread(this);
+            thread.setName(NAME + "[initializing]");
+        }
+
+        void start() {
+            thread.start();
         }
 
 
         @Override
         public void run() {
-            int timeToSleep = NO_WAIT;
+            long timeToSleep = 0;
+            int attempt = 0;
             boolean connected = false;
+            statistics.started();
             while (!closed) {
                 try {
                     if (!closed && null == stream) {
@@ -386,6 +469,7 @@ class TwitterStreamImpl implements TwitterStream {
                         setStatus("[Establishing connection]");
                         stream = (StatusStreamBase) getStream();
                         connected = true;
+                        statistics.connected();
                         logger.info("Connection established.");
                         connectionLifeCycleListeners.forEach(e -> {
                             try {
@@ -396,7 +480,8 @@ class TwitterStreamImpl implements TwitterStream {
 
                         });
                         // connection established successfully
-                        timeToSleep = NO_WAIT;
+                        timeToSleep = 0;
+                        attempt = 0;
                         logger.info("Receiving status stream.");
                         setStatus("[Receiving stream]");
                         while (!closed) {
@@ -422,20 +507,31 @@ class TwitterStreamImpl implements TwitterStream {
                 } catch (TwitterException te) {
                     logger.info(te.getMessage());
                     if (!closed) {
-                        if (NO_WAIT == timeToSleep) {
-                            if (te.getStatusCode() == FORBIDDEN) {
-                                logger.warn("This account is not in required role. ", te.getMessage());
-                                closed = true;
-                                stream.onException(te);
-                                break;
-                            }
-                            if (te.getStatusCode() == NOT_ACCEPTABLE) {
-                                logger.warn("Parameter not accepted with the role. ", te.getMessage());
-                                closed = true;
-                                stream.onException(te);
-                                break;
-                            }
+                        attempt++;
+                        long delay = reconnectStrategy.nextDelayMillis(reconnectStatusCode(te), attempt, timeToSleep);
+                        if (delay == ReconnectStrategy.GIVE_UP) {
+                            logger.warn("Giving up reconnecting. ", te.getMessage());
+                            closed = true;
+                            statistics.gaveUp();
+                            streamListeners.forEach(listener -> {
+                                try {
+                                    listener.onException(te);
+                                } catch (Exception ex) {
+                                    logger.warn(ex.getMessage());
+                                }
+                            });
+                            rawStreamListeners.forEach(listener -> {
+                                try {
+                                    listener.onException(te);
+                                } catch (Exception ex) {
+                                    logger.warn(ex.getMessage());
+                                }
+                            });
+                            break;
+                        }
+                        if (attempt == 1) {
                             connected = false;
+                            statistics.disconnected();
                             connectionLifeCycleListeners.forEach(
                                     listener -> {
                                         try {
@@ -445,14 +541,6 @@ class TwitterStreamImpl implements TwitterStream {
                                         }
                                     }
                             );
-                            if (te.getStatusCode() > 200) {
-                                timeToSleep = HTTP_ERROR_INITIAL_WAIT;
-                            } else {
-                                timeToSleep = TCP_ERROR_INITIAL_WAIT;
-                            }
-                        }
-                        if (te.getStatusCode() > 200 && timeToSleep < HTTP_ERROR_INITIAL_WAIT) {
-                            timeToSleep = HTTP_ERROR_INITIAL_WAIT;
                         }
                         streamListeners.forEach(listener -> {
                             try {
@@ -461,23 +549,27 @@ class TwitterStreamImpl implements TwitterStream {
                                 logger.warn(ex.getMessage());
                             }
                         });
+                        statistics.reconnecting(delay);
                         // there was a problem establishing the connection, or the connection closed by peer
-                        if (!closed) {
+                        if (!closed && delay > 0) {
                             // wait for a moment not to overload Twitter API
-                            logger.info("Waiting for " + (timeToSleep) + " milliseconds");
-                            setStatus("[Waiting for " + (timeToSleep) + " milliseconds]");
+                            logger.info("Waiting for " + delay + " milliseconds");
+                            setStatus("[Waiting for " + delay + " milliseconds]");
                             try {
-                                Thread.sleep(timeToSleep);
+                                Thread.sleep(delay);
                             } catch (InterruptedException ignore) {
                             }
-                            timeToSleep = Math.min(timeToSleep * 2, (te.getStatusCode() > 200) ? HTTP_ERROR_WAIT_CAP : TCP_ERROR_WAIT_CAP);
                         }
+                        timeToSleep = delay;
+                        closeDispatcher();
                         stream = null;
                         logger.debug(te.getMessage());
                         connected = false;
                     }
                 }
             }
+            // delivers the messages read before the connection is closed
+            closeDispatcher();
             if (this.stream != null && connected) {
                 try {
                     this.stream.close();
@@ -495,6 +587,17 @@ class TwitterStreamImpl implements TwitterStream {
                     });
                 }
             }
+            statistics.stopped();
+            // deliver what listeners such as BatchingStatusListener hold back
+            streamListeners.forEach(listener -> {
+                if (listener instanceof Flushable) {
+                    try {
+                        ((Flushable) listener).flush();
+                    } catch (Exception ex) {
+                        logger.warn(ex.getMessage());
+                    }
+                }
+            });
             connectionLifeCycleListeners.forEach(listener -> {
                 try {
                     listener.onCleanUp();
@@ -518,9 +621,30 @@ class TwitterStreamImpl implements TwitterStream {
             }
         }
 
+        /**
+         * Stops reading, and waits for the messages already read to be delivered before the connection is closed.
+         */
+        void drain() {
+            closed = true;
+            StatusStreamBase current = stream;
+            if (current != null && !current.awaitDispatched(drainTimeout)) {
+                logger.warn("Messages were left undispatched after " + drainTimeout + " milliseconds.");
+            }
+        }
+
+        /**
+         * Waits for the messages read from the current connection to be delivered, so that they are delivered before
+         * the messages of the next connection and before the listeners are cleaned up.
+         */
+        private void closeDispatcher() {
+            if (stream != null && !stream.closeDispatcher(drainTimeout)) {
+                logger.warn("Messages were left undispatched after " + drainTimeout + " milliseconds.");
+            }
+        }
+
         private void setStatus(String message) {
             String actualMessage = NAME + message;
-            setName(actualMessage);
+            thread.setName(actualMessage);
             logger.debug(actualMessage);
         }
 
@@ -554,6 +678,10 @@ class TwitterStreamImpl implements TwitterStream {
                 ", handler=" + handler +
                 ", stallWarningsGetParam='" + stallWarningsGetParam + '\'' +
                 ", stallWarningsParam=" + stallWarningsParam +
+                ", virtualThreadsEnabled=" + virtualThreadsEnabled +
+                ", streamDispatcher=" + streamDispatcher +
+                ", drainTimeout=" + drainTimeout +
+                ", reconnectStrategy=" + reconnectStrategy +
                 ", http=" + http +
                 ", auth=" + auth +
                 '}';
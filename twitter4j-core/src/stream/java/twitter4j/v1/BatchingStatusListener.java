@@ -0,0 +1,231 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.v1;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status listener accumulating statuses and deletion notices into batches, for sinks writing in bulk.<br>
+ * A batch is flushed when it reaches the maximum number of statuses or bytes, when its oldest element is older than the
+ * maximum latency, and when the stream shuts down. Statuses are delivered first, then the deletion notices received
+ * within the same batch. Other notices are delivered immediately.<br>
+ * Batches are delivered one at a time, from the dispatcher thread or from the thread enforcing the latency. That
+ * thread is shared by all instances, so {@link #onBatch(List)} should not block for longer than the latency.<br>
+ * Once closed, the latency is no longer enforced and each element is delivered as soon as it is received.
+ * <pre>{@code
+ * BatchingStatusListener listener = new BatchingStatusListener(500, 0, 1000) {
+ *     @Override
+ *     public void onBatch(List<Status> statuses) {
+ *         database.insert(statuses);
+ *     }
+ * };
+ * }</pre>
+ *
+ * @since Twitter4J 4.1.3
+ */
+public abstract class BatchingStatusListener implements StatusListener, Flushable, Closeable {
+    private final int maxSize;
+    private final long maxBytes;
+    private final long maxLatencyMillis;
+
+    // guards the pending batch, and serializes the delivery of batches
+    private final Object lock = new Object();
+    private List<Status> statuses = new ArrayList<>();
+    private List<StatusDeletionNotice> deletionNotices = new ArrayList<>();
+    private long bytes;
+    // identifies the batch a scheduled flush was meant for
+    private long generation;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    /**
+     * @param maxSize          maximum number of statuses per batch
+     * @param maxBytes         maximum size of the statuses per batch as measured by {@link #sizeOf(Status)}, or 0
+     *                         for no limit
+     * @param maxLatencyMillis maximum time an element waits for its batch to be delivered, or 0 for no limit
+     */
+    protected BatchingStatusListener(int maxSize, long maxBytes, long maxLatencyMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    /**
+     * Called with each batch of statuses.
+     *
+     * @param statuses statuses in the order received
+     */
+    public abstract void onBatch(List<Status> statuses);
+
+    /**
+     * Called with the deletion notices of each batch, after its statuses.
+     *
+     * @param deletionNotices deletion notices in the order received
+     */
+    public void onDeletionBatch(List<StatusDeletionNotice> deletionNotices) {
+    }
+
+    /**
+     * Estimates the size of a status, counted against the maximum bytes per batch.<br>
+     * Defaults to the length of the text. Override to measure the form the sink writes, such as the raw JSON.
+     *
+     * @param status status
+     * @return size of the status
+     */
+    protected int sizeOf(Status status) {
+        return status.getText() == null ? 0 : status.getText().length();
+    }
+
+    @Override
+    public final void onStatus(Status status) {
+        synchronized (lock) {
+            started();
+            statuses.add(status);
+            if (maxBytes > 0) {
+                bytes += sizeOf(status);
+            }
+            if (closed || statuses.size() >= maxSize || (maxBytes > 0 && bytes >= maxBytes)) {
+                flushBatch();
+            }
+        }
+    }
+
+    @Override
+    public final void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        synchronized (lock) {
+            started();
+            deletionNotices.add(statusDeletionNotice);
+            if (closed || deletionNotices.size() >= maxSize) {
+                flushBatch();
+            }
+        }
+    }
+
+    @Override
+    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+    }
+
+    @Override
+    public void onScrubGeo(long userId, long upToStatusId) {
+    }
+
+    @Override
+    public void onStallWarning(StallWarning warning) {
+    }
+
+    @Override
+    public void onException(Exception ex) {
+    }
+
+    /**
+     * Schedules the flush of a new batch.
+     */
+    private void started() {
+        if (closed || maxLatencyMillis <= 0 || !statuses.isEmpty() || !deletionNotices.isEmpty()) {
+            return;
+        }
+        long batch = generation;
+        try {
+            scheduledFlush = Timer.INSTANCE.schedule(() -> {
+                try {
+                    synchronized (lock) {
+                        if (generation == batch) {
+                            flushBatch();
+                        }
+                    }
+                } catch (Exception e) {
+                    onException(e);
+                }
+            }, maxLatencyMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // not expected from the shared timer, the batch is then flushed by size, bytes or flush()
+            onException(e);
+        }
+    }
+
+    private void flushBatch() {
+        if (statuses.isEmpty() && deletionNotices.isEmpty()) {
+            return;
+        }
+        List<Status> batch = statuses;
+        List<StatusDeletionNotice> deletionBatch = deletionNotices;
+        statuses = new ArrayList<>(Math.min(batch.size(), maxSize));
+        deletionNotices = new ArrayList<>();
+        bytes = 0;
+        generation++;
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (!batch.isEmpty()) {
+            onBatch(Collections.unmodifiableList(batch));
+        }
+        if (!deletionBatch.isEmpty()) {
+            onDeletionBatch(Collections.unmodifiableList(deletionBatch));
+        }
+    }
+
+    /**
+     * Delivers the pending batch, if any.
+     */
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Delivers the pending batch, if any, and stops enforcing the latency. Elements received afterwards are delivered
+     * immediately.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            flushBatch();
+        }
+    }
+
+    /**
+     * Thread enforcing the latency of all instances, started on first use and stopped when idle.
+     */
+    private static final class Timer {
+        private static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "Twitter4J Batch Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            INSTANCE.setRemoveOnCancelPolicy(true);
+            INSTANCE.setKeepAliveTime(60, TimeUnit.SECONDS);
+            INSTANCE.allowCoreThreadTimeOut(true);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.v1;
+
+/**
+ * Decides how long a stream waits before reconnecting after a failure, or whether it gives up.<br>
+ * Called from the thread consuming the stream. Instances shared by several streams are called concurrently.
+ *
+ * @see <a href="https://developer.twitter.com/en/docs/twitter-api/v1/tweets/filter-realtime/guides/connecting">Connecting to a streaming endpoint</a>
+ * @since Twitter4J 4.1.3
+ */
+public interface ReconnectStrategy {
+    /**
+     * returned to give up reconnecting
+     */
+    long GIVE_UP = -1;
+
+    /**
+     * status code of a stream closed by the server after it was established
+     */
+    int DISCONNECTED = 200;
+
+    /**
+     * status code of network errors, such as connection failures and read timeouts
+     */
+    int NETWORK_ERROR = -1;
+
+    /**
+     * @param statusCode          HTTP status code the connection was refused with, {@link #DISCONNECTED} or
+     *                            {@link #NETWORK_ERROR}
+     * @param attempt             number of consecutive failures, 1 for the first failure after a connection
+     * @param previousDelayMillis delay before the previous attempt, 0 for the first failure
+     * @return time to wait in milliseconds before reconnecting, or {@link #GIVE_UP}
+     */
+    long nextDelayMillis(int statusCode, int attempt, long previousDelayMillis);
+}
@@ -15,6 +15,11 @@
  */
 package twitter4j.v1;
 
+import org.jetbrains.annotations.Nullable;
+import twitter4j.management.ConnectionStatistics;
+
+import java.util.stream.Stream;
+
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.2.0
@@ -85,6 +90,36 @@ public interface TwitterStream {
      */
     TwitterStream filter(final FilterQuery query);
 
+    /**
+     * Returns a stream of statuses read and parsed on the consuming thread, for batch oriented processing.<br>
+     * The stream opens its own connection on the first terminal operation, with the configuration and credentials of
+     * this instance and without its listeners, and skips messages other than statuses. Errors are recovered from by
+     * reconnecting as the configured {@link ReconnectStrategy} decides; the strategy giving up, by default on a
+     * connection refused for the account or the parameters, ends the stream with an {@link IllegalStateException}. The stream is infinite: bound it with operations such as
+     * {@link Stream#limit(long)}, and close it, preferably with try-with-resources, to close the connection.
+     * {@link Stream#iterator()} gives a blocking pull iterator. Parallel streams hand off statuses in batches read by
+     * the thread splitting the stream.
+     * <pre>{@code
+     * try (Stream<Status> statuses = twitterStream.statusStream(null)) {
+     *     statuses.limit(1_000_000).parallel().forEach(sink::write);
+     * }
+     * }</pre>
+     *
+     * @param query filter predicates, or null to sample public statuses
+     * @return stream of statuses
+     * @since Twitter4J 4.1.3
+     */
+    Stream<Status> statusStream(@Nullable FilterQuery query);
+
+    /**
+     * Returns the connections, reconnections and uptime of the streams started by this instance, such as
+     * {@link #sample()} or {@link #filter(FilterQuery)}.
+     *
+     * @return connection statistics
+     * @since Twitter4J 4.1.3
+     */
+    ConnectionStatistics getConnectionStatistics();
+
     /**
      * shutdown internal stream consuming thread
      *
@@ -94,7 +129,8 @@ public interface TwitterStream {
     void cleanUp();
 
     /**
-     * Shuts down internal dispatcher thread shared by all TwitterStream instances.<br>
+     * Shuts down the stream consuming thread. The messages already read are delivered to the listeners, waiting up to
+     * the configured drain timeout, before the connection life cycle listeners are cleaned up.<br>
      *
      * @since Twitter4J 2.1.9
      */
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class EndpointGuardTest {
+
+    @Test
+    void testCircuitBreaker() {
+        AtomicLong now = new AtomicLong(0);
+        CircuitBreaker breaker = new CircuitBreaker(50, 10, 4, 1000, 2, now::get);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // doesn't open below the minimum number of calls
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(acquire(breaker), true);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onResult(acquire(breaker), true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(100, breaker.getFailureRate());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        // half open after the wait duration, limited number of probes
+        now.set(1000);
+        long probe1 = acquire(breaker);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        long probe2 = acquire(breaker);
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.onResult(probe1, false);
+        breaker.onResult(probe2, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        now.set(2000);
+        breaker.onResult(acquire(breaker), false);
+        breaker.onResult(acquire(breaker), false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureRate());
+    }
+
+    @Test
+    void testCircuitBreakerStaleResults() {
+        AtomicLong now = new AtomicLong(0);
+        CircuitBreaker breaker = new CircuitBreaker(50, 10, 1, 1000, 2, now::get);
+        long slow = acquire(breaker);
+        breaker.onResult(acquire(breaker), true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.set(1000);
+        long probe = acquire(breaker);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // a call permitted while closed neither counts as a probe nor frees a probe slot
+        breaker.onResult(slow, false);
+        breaker.onResult(slow, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        acquire(breaker);
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.onResult(probe, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void testCircuitBreakerSlidingWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, 1000, 1);
+        // F S S S -> 25%
+        breaker.onResult(acquire(breaker), true);
+        breaker.onResult(acquire(breaker), false);
+        breaker.onResult(acquire(breaker), false);
+        breaker.onResult(acquire(breaker), false);
+        assertEquals(25, breaker.getFailureRate());
+        // the oldest failure slides out of the window: S S S F -> 25%
+        breaker.onResult(acquire(breaker), true);
+        assertEquals(25, breaker.getFailureRate());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // S S F F -> 50%
+        breaker.onResult(acquire(breaker), true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static long acquire(CircuitBreaker breaker) {
+        long permit = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, permit);
+        return permit;
+    }
+
+    @Test
+    void testConcurrencyLimiter() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 3, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        // additive increase while the limit is in use
+        limiter.release(false);
+        limiter.release(false);
+        assertEquals(2, limiter.getLimit());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            limiter.release(false);
+            limiter.release(false);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        // never grows beyond the max limit
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            limiter.release(false);
+            limiter.release(false);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        // multiplicative decrease
+        assertTrue(limiter.tryAcquire());
+        limiter.release(true);
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(true);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.cancel();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testEndpointGuard() throws Exception {
+        EndpointGuard guard = new EndpointGuard(true, 50, 10000, 60000, true, 100, false);
+        assertNull(guard.acquire("https://example.com/"));
+
+        TwitterException networkIssue = new TwitterException("timeout", new IOException("timeout"), -1);
+        for (int i = 0; i < 10; i++) {
+            EndpointGuard.Permit permit = guard.acquire("https://api.twitter.com/1.1/search/tweets.json?q=foo");
+            assertNotNull(permit);
+            assertEquals("search", permit.getEndpoint().getName());
+            permit.release(10, networkIssue);
+        }
+        try {
+            guard.acquire("https://api.twitter.com/1.1/search/tweets.json?q=foo");
+            fail("circuit should be open");
+        } catch (TwitterException expected) {
+            assertEquals(-1, expected.getStatusCode());
+        }
+
+        // other endpoint families are not affected
+        EndpointGuard.Permit permit = guard.acquire("https://api.twitter.com/1.1/statuses/show/1.json");
+        assertNotNull(permit);
+        EndpointGuard.Endpoint statuses = permit.getEndpoint();
+        assertEquals("CLOSED", statuses.getCircuitState());
+        assertEquals(1, statuses.getInFlight());
+        // client errors don't count as failures
+        permit.release(10, new TwitterException("{\"errors\":[{\"code\":144,\"message\":\"No status found with that ID.\"}]}", null, 404));
+        assertEquals(0, statuses.getFailureRate());
+        assertEquals(0, statuses.getInFlight());
+        assertEquals(0, statuses.getRejectedCount());
+
+        // unchecked exceptions are failures
+        EndpointGuard strict = new EndpointGuard(true, 50, 10000, 60000, true, 100, false);
+        for (int i = 0; i < 10; i++) {
+            strict.acquire("https://api.twitter.com/1.1/users/show.json").release(10, new IllegalStateException());
+        }
+        assertThrows(TwitterException.class, () -> strict.acquire("https://api.twitter.com/1.1/users/show.json"));
+
+        // so are errors
+        EndpointGuard errors = new EndpointGuard(true, 50, 10000, 60000, true, 100, false);
+        for (int i = 0; i < 10; i++) {
+            errors.acquire("https://api.twitter.com/1.1/users/show.json").release(10, new OutOfMemoryError());
+        }
+        assertThrows(TwitterException.class, () -> errors.acquire("https://api.twitter.com/1.1/users/show.json"));
+    }
+}
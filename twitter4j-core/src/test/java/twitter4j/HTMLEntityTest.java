@@ -25,6 +25,7 @@ import twitter4j.v1.URLEntity;
 import twitter4j.v1.UserMentionEntity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @Execution(ExecutionMode.CONCURRENT)
 class HTMLEntityTest {
@@ -267,4 +268,36 @@ class HTMLEntityTest {
         assertEquals("#🇧hutan", actualText.substring(bhutanHashtag.getStart(), bhutanHashtag.getEnd()));
         assertEquals("#Maldi🇻es", actualText.substring(maldivesHashtag.getStart(), maldivesHashtag.getEnd()));
     }
+
+    @Test
+    void testUnescapeAndSlideEntityIncdicesInAnyOrder() {
+        // @a &lt;&lt; #b 😀 #c
+        String textFromTwitterAPI = "@a &lt;&lt; #b \uD83D\uDE00 #c";
+        UserMentionEntityJSONImpl a = new UserMentionEntityJSONImpl(0, 2, "a", "a", 1);
+        HashtagEntityJSONImpl b = new HashtagEntityJSONImpl(12, 14, "b");
+        HashtagEntityJSONImpl c = new HashtagEntityJSONImpl(17, 19, "c");
+        // out of order, and a user mention after the hashtags
+        HashtagEntity[] hashtagEntities = {c, b};
+        UserMentionEntity[] userMentionEntities = {a};
+
+        String actualText = HTMLEntity.unescapeAndSlideEntityIncdices(textFromTwitterAPI, userMentionEntities,
+                null, hashtagEntities, null);
+
+        assertEquals("@a << #b \uD83D\uDE00 #c", actualText);
+        assertEquals("@a", actualText.substring(a.getStart(), a.getEnd()));
+        assertEquals("#b", actualText.substring(b.getStart(), b.getEnd()));
+        assertEquals("#c", actualText.substring(c.getStart(), c.getEnd()));
+    }
+
+    @Test
+    void testUnescapeWithoutReferences() {
+        String original = "no references";
+        assertSame(original, HTMLEntity.unescape(original));
+        assertEquals("no references & no semicolons", HTMLEntity.unescape("no references & no semicolons"));
+        assertSame(original, HTMLEntity.escape(original));
+        assertEquals("&amp;lt;", HTMLEntity.escape("&lt;"));
+        assertEquals("&lt;", HTMLEntity.unescape("&amp;lt;"));
+        assertEquals("&thetasym", HTMLEntity.unescape("&thetasym"));
+        assertEquals("\u03D1", HTMLEntity.unescape("&thetasym;"));
+    }
 }
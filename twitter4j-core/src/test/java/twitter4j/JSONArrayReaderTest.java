@@ -0,0 +1,168 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.ResponseList;
+import twitter4j.v1.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class JSONArrayReaderTest {
+
+    @Test
+    void testRead() throws Exception {
+        String json = "\uFEFF [ {\"a\":\"],}{[\\\"\"} , {\"b\":[1,{\"c\":[]}]},{}\n]\n";
+        List<JSONObject> elements = new ArrayList<>();
+        JSONArrayReader reader = JSONArrayReader.read(new StringReader(json), elements::add, Collections.emptySet());
+        assertEquals(3, elements.size());
+        assertEquals("],}{[\"", elements.get(0).getString("a"));
+        assertEquals(1, elements.get(1).getJSONArray("b").getInt(0));
+        assertEquals(0, elements.get(2).length());
+        assertEquals(new JSONArray(json).toString(), reader.getArray().toString());
+        assertEquals(json, reader.getBody());
+
+        elements.clear();
+        assertEquals(0, JSONArrayReader.read(new StringReader("[]"), elements::add, Collections.emptySet()).getArray().length());
+        assertEquals(0, elements.size());
+
+        // lenient input is handed to JSONArray(String)
+        assertEquals(1, JSONArrayReader.read(new StringReader("/* comment */[{}]"), elements::add, Collections.emptySet()).getArray().length());
+        assertEquals(1, elements.size());
+
+        assertThrows(JSONException.class, () -> JSONArrayReader.read(new StringReader("{\"errors\":[]}"), elements::add, Collections.emptySet()));
+        assertThrows(JSONException.class, () -> JSONArrayReader.read(new StringReader("[1,2]"), elements::add, Collections.emptySet()));
+        assertThrows(JSONException.class, () -> JSONArrayReader.read(new StringReader("[{},{\"a\":"), elements::add, Collections.emptySet()));
+    }
+
+    @Test
+    void testSkippedNames() throws Exception {
+        Set<String> skipped = new HashSet<>(Arrays.asList("place", "color", "quoted"));
+        String json = "[{\"id\":1,\"place\":{\"name\":\"}\\\"{\",\"box\":[[1,2],[3,4]]},\"user\":{\"color\":\"C0DEED\",\"id\":2}," +
+                "\"quoted\":\"[,\",\"lang\":\"en\"},{\"color\":-1.5e3,\"id\":3,\"place\":null}]";
+        List<JSONObject> elements = new ArrayList<>();
+        JSONArray array = JSONArrayReader.read(new StringReader(json), elements::add, skipped).getArray();
+        assertEquals(2, array.length());
+        JSONObject first = elements.get(0);
+        assertEquals(3, first.length());
+        assertEquals(1, first.getInt("id"));
+        assertEquals("en", first.getString("lang"));
+        assertFalse(first.has("place"));
+        assertFalse(first.getJSONObject("user").has("color"));
+        assertEquals(2, first.getJSONObject("user").getInt("id"));
+        assertEquals("{\"id\":3}", elements.get(1).toString());
+
+        // the lenient path skips the same members
+        assertEquals("[{\"id\":3}]", new JSONArray(new JSONTokener("[{\"id\":3,\"place\":{},\"quoted\":'single ] quoted'}]", skipped)).toString());
+        assertThrows(JSONException.class, () -> new JSONObject(new JSONTokener("{\"place\":{\"a\":[}", skipped)));
+    }
+
+    @Test
+    void testElementsAreDeliveredWhileReceiving() throws Exception {
+        String first = "[{\"id\":1,\"text\":\"first\"},";
+        String rest = "{\"id\":2,\"text\":\"second\"}]";
+        List<Integer> receivedWhenBound = new ArrayList<>();
+        SlowInputStream is = new SlowInputStream(first, rest);
+        HttpResponse res = new MockHttpResponse(is);
+        JSONArray array = res.asJSONArray(json -> receivedWhenBound.add(is.chunksRead));
+        assertEquals(2, array.length());
+        // the first element is bound before the second chunk arrives
+        assertEquals(1, (int) receivedWhenBound.get(0));
+        assertEquals(2, (int) receivedWhenBound.get(1));
+        // the body is still available
+        assertEquals(first + rest, res.asString());
+        assertSame(array, res.asJSONArray());
+    }
+
+    @Test
+    void testCreateStatusList() throws Exception {
+        HttpResponse res = new MockHttpResponse(new ByteArrayInputStream(
+                "[{\"id\":1,\"text\":\"first\"},{\"id\":2,\"text\":\"second\"}]".getBytes(StandardCharsets.UTF_8)));
+        ResponseList<Status> statuses = StatusJSONImpl.createStatusList(res, false);
+        assertEquals(2, statuses.size());
+        assertEquals(1L, statuses.get(0).getId());
+        assertEquals("second", statuses.get(1).getText());
+
+        res = new MockHttpResponse(new ByteArrayInputStream("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+        HttpResponse notArray = res;
+        assertThrows(TwitterException.class, () -> StatusJSONImpl.createStatusList(notArray, false));
+    }
+
+    private static class MockHttpResponse extends HttpResponse {
+        MockHttpResponse(InputStream is) {
+            super(false);
+            this.statusCode = 200;
+            this.is = is;
+        }
+
+        @Override
+        String getResponseHeader(String name) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns one chunk per read, as if each chunk was a separate network packet.
+     */
+    private static class SlowInputStream extends InputStream {
+        private final byte[][] chunks;
+        private int chunksRead = 0;
+        private int pos = 0;
+
+        SlowInputStream(String... chunks) {
+            this.chunks = new byte[chunks.length][];
+            for (int i = 0; i < chunks.length; i++) {
+                this.chunks[i] = chunks[i].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        public int read() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (chunksRead == chunks.length) {
+                return -1;
+            }
+            byte[] chunk = chunks[chunksRead];
+            int n = Math.min(len, chunk.length - pos);
+            System.arraycopy(chunk, pos, b, off, n);
+            pos += n;
+            if (pos == chunk.length) {
+                chunksRead++;
+                pos = 0;
+            }
+            return n;
+        }
+    }
+}
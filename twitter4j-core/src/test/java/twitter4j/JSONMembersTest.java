@@ -0,0 +1,90 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class JSONMembersTest {
+
+    @Test
+    void testBehavesLikeLinkedHashMap() {
+        JSONMembers members = new JSONMembers();
+        Map<String, Object> expected = new LinkedHashMap<>();
+        // grows past the linear scan threshold, then shrinks below it
+        for (int i = 0; i < 100; i++) {
+            assertNull(members.put("key" + i, i));
+            expected.put("key" + i, i);
+        }
+        assertEquals(1, members.put("key1", "one"));
+        expected.put("key1", "one");
+        assertEquals(expected, members);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(members.keySet()));
+
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(expected.remove("key" + i), members.remove("key" + i));
+        }
+        assertNull(members.remove("key0"));
+        assertEquals(expected, members);
+        for (int i = 1; i < 100; i += 2) {
+            assertEquals(expected.get("key" + i), members.get("key" + i));
+            assertTrue(members.containsKey("key" + i));
+        }
+        assertFalse(members.containsKey("key0"));
+
+        Iterator<String> keys = members.keySet().iterator();
+        while (keys.hasNext()) {
+            if (!keys.next().equals("key99")) {
+                keys.remove();
+            }
+        }
+        assertEquals(1, members.size());
+        assertEquals(99, members.get("key99"));
+        members.clear();
+        assertTrue(members.isEmpty());
+    }
+
+    @Test
+    void testJSONObject() {
+        JSONObject json = new JSONObject("{\"id\":1,\"text\":\"a\",\"user\":{\"id\":2,\"screen_name\":\"b\"},\"unknown_name\":true}");
+        List<String> names = new ArrayList<>();
+        json.keys().forEachRemaining(names::add);
+        assertEquals(4, names.size());
+        assertEquals("id", names.get(0));
+        assertEquals("unknown_name", names.get(3));
+        // well known names are canonical
+        assertSame("text", names.get(1));
+        Iterator<String> userNames = json.getJSONObject("user").keys();
+        assertSame("id", userNames.next());
+        assertSame("screen_name", userNames.next());
+        assertEquals("{\"id\":1,\"text\":\"a\",\"user\":{\"id\":2,\"screen_name\":\"b\"},\"unknown_name\":true}", json.toString());
+
+        // names with escapes
+        assertEquals("a\"b", new JSONObject("{\"a\\\"b\":1}").keys().next());
+        assertEquals("id", new JSONObject("{\"i\\u0064\":1}").keys().next());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compares full and projected parse throughput of timelines (JSON arrays) and stream messages (one status per line),
+ * including binding to StatusJSONImpl.<br>
+ * Run with: java -cp ... twitter4j.JSONProjectionBenchmark [iterations]
+ */
+public class JSONProjectionBenchmark {
+    // members an application reading id, text, user id/screen name, created_at, lang and entities doesn't need
+    static final Set<String> SKIPPED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "scopes", "place", "geo", "coordinates", "contributors", "withheld_in_countries",
+            "profile_background_color", "profile_background_image_url", "profile_background_image_url_https",
+            "profile_background_tile", "profile_banner_url", "profile_image_url", "profile_link_color",
+            "profile_sidebar_border_color", "profile_sidebar_fill_color", "profile_text_color",
+            "profile_use_background_image", "description", "location", "time_zone", "utc_offset")));
+    private static final int TIMELINE_SIZE = 200;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        String line = JSONObjectFootprintBenchmark.STATUS_JSON;
+        StringBuilder timeline = new StringBuilder("[");
+        for (int i = 0; i < TIMELINE_SIZE; i++) {
+            timeline.append(i == 0 ? "" : ",").append(line);
+        }
+        String array = timeline.append(']').toString();
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("round " + (round + 1));
+            report("timeline, full", timeline(array, Collections.emptySet(), iterations), iterations * TIMELINE_SIZE);
+            report("timeline, projected", timeline(array, SKIPPED, iterations), iterations * TIMELINE_SIZE);
+            report("stream, full", stream(line, Collections.emptySet(), iterations * TIMELINE_SIZE), iterations * TIMELINE_SIZE);
+            report("stream, projected", stream(line, SKIPPED, iterations * TIMELINE_SIZE), iterations * TIMELINE_SIZE);
+        }
+    }
+
+    private static long timeline(String array, Set<String> skipped, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = JSONArrayReader.read(new StringReader(array), json -> sink = new StatusJSONImpl(json), skipped);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long stream(String line, Set<String> skipped, int count) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = new StatusJSONImpl(new JSONObject(new JSONTokener(line, skipped)));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, long elapsed, int statuses) {
+        System.out.printf("  %-20s %8d ns/status %10.0f statuses/s%n", label, elapsed / statuses,
+                statuses * 1e9 / elapsed);
+    }
+}
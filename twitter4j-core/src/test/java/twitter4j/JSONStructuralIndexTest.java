@@ -0,0 +1,320 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests of {@link JSONStructuralIndex} and {@link JSONByteIndex} against a byte-by-byte scan and
+ * {@link JSONTokener}.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+class JSONStructuralIndexTest {
+    private static final String[] DOCUMENTS = {"/error.json", "/stallwarning.json", "/dao/direct_messages.json",
+            "/dao/suggestions.json", "/dao/trends-available.json", "/dao/3c6797665e2d42eb.json",
+            "/dao/trends/current.json", "/dao/trends/daily.json", "/dao/trends/daily-empty.json",
+            "/dao/trends/weekly.json", "/dao/statuses/friends/T4J_hudson.json", "/dao/statuses/home_timeline.json",
+            "/dao/statuses/retweet/6010814202.json", "/dao/statuses/retweet/2245071380.json",
+            "/dao/statuses/public_timeline.json", "/dao/statuses/followers/T4J_hudson.json",
+            "/dao/statuses/user_timeline/testiverse.json", "/dao/5a110d312052166f.json", "/dao/24696018620.json",
+            "/dao/user.json", "/dao/c3f37afa9efcf94b.json", "/dao/reverse-geocode.json"};
+    // one message per line
+    private static final String[] STREAMS = {"/streamingapi-testcase.json", "/streamingapi-event-testcase.json",
+            "/sitestream-testcase.json"};
+
+    @Test
+    void testWordOperations() {
+        long word = 0x7B5D2C3A22225C41L;
+        assertEquals(0b00001100, JSONStructuralIndex.movemask(JSONStructuralIndex.equal(word, '"' * 0x0101010101010101L)));
+        assertEquals(0b10000000, JSONStructuralIndex.movemask(JSONStructuralIndex.equal(word, '{' * 0x0101010101010101L)));
+        assertEquals(0, JSONStructuralIndex.movemask(JSONStructuralIndex.equal(word, '}' * 0x0101010101010101L)));
+        // bytes with the high bit set, as in multi-byte UTF-8 sequences, differing from '"' in the high bit only
+        assertEquals(0b10100001, JSONStructuralIndex.movemask(JSONStructuralIndex.equal(0x22A222A2FF7F8022L, '"' * 0x0101010101010101L)));
+        assertEquals(0b1111_1111, JSONStructuralIndex.movemask(JSONStructuralIndex.equal(0xC3C3C3C3C3C3C3C3L, 0xC3C3C3C3C3C3C3C3L)));
+        assertEquals(0xFFFF_FFFF_FFFF_FF8FL, JSONStructuralIndex.prefixXor(0b1001_0001L));
+        assertEquals(-1L, JSONStructuralIndex.prefixXor(1L));
+    }
+
+    @Test
+    void testStructuralsOfResources() throws Exception {
+        for (String text : texts()) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            JSONStructuralIndex structurals = JSONStructuralIndex.of(raw, 0, raw.length);
+            assertArrayEquals(scan(raw), positions(structurals));
+            for (int i = 0; i < structurals.size(); i++) {
+                byte b = structurals.at(i);
+                if (b == '{' || b == '[') {
+                    assertEquals(b + 2, structurals.at(structurals.partner(i)));
+                    assertEquals(i, structurals.partner(structurals.partner(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testResourcesMatchJSONTokener() throws Exception {
+        int objects = 0;
+        for (String text : texts()) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            Object expected = new JSONTokener(text).nextValue();
+            if (expected instanceof JSONObject) {
+                assertIndexEquals((JSONObject) expected, JSONByteIndex.of(raw));
+                objects++;
+            } else {
+                JSONArray array = (JSONArray) expected;
+                if (array.length() > 0 && array.get(0) instanceof JSONObject) {
+                    JSONByteIndex[] elements = JSONByteIndex.objects(raw);
+                    assertEquals(array.length(), elements.length);
+                    for (int i = 0; i < array.length(); i++) {
+                        assertIndexEquals(array.getJSONObject(i), elements[i]);
+                        assertEquals(array.getJSONObject(i).toString(), elements[i].toJSONObject().toString());
+                    }
+                }
+                int[] elements = JSONByteIndex.elements(raw);
+                assertEquals(array.length() * 2, elements.length);
+                for (int i = 0; i < array.length(); i++) {
+                    byte[] element = Arrays.copyOfRange(raw, elements[i * 2], elements[i * 2 + 1]);
+                    if (array.get(i) instanceof JSONObject) {
+                        assertIndexEquals(array.getJSONObject(i), JSONByteIndex.of(element));
+                        objects++;
+                    } else {
+                        assertEquals(array.get(i).toString(),
+                                new JSONTokener(new String(element, StandardCharsets.UTF_8)).nextValue().toString());
+                    }
+                }
+            }
+        }
+        assertTrue(objects > 100);
+    }
+
+    @Test
+    void testRandomDocuments() throws Exception {
+        Random random = new Random(39);
+        for (int n = 0; n < 500; n++) {
+            StringBuilder json = new StringBuilder();
+            appendObject(json, random, 0);
+            byte[] raw = json.toString().getBytes(StandardCharsets.UTF_8);
+            String message = json.toString();
+            assertArrayEquals(scan(raw), positions(JSONStructuralIndex.of(raw, 0, raw.length)), message);
+            assertIndexEquals(new JSONObject(message), JSONByteIndex.of(raw));
+        }
+    }
+
+    @Test
+    void testEscapesAcrossBlocks() throws Exception {
+        // runs of backslashes and escaped quotes ending at every offset around the block boundaries
+        for (int padding = 0; padding < 140; padding++) {
+            for (int backslashes = 1; backslashes <= 4; backslashes++) {
+                char[] pad = new char[padding];
+                Arrays.fill(pad, 'x');
+                char[] run = new char[backslashes];
+                Arrays.fill(run, '\\');
+                String value = new String(pad) + new String(run) + "\"{\":[";
+                String json = "{\"a\":" + JSONObject.quote(value) + ",\"b\":[1,{\"c\":\"\\\\\"}]}";
+                byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+                assertArrayEquals(scan(raw), positions(JSONStructuralIndex.of(raw, 0, raw.length)), json);
+                JSONByteIndex index = JSONByteIndex.of(raw);
+                assertEquals(value, index.opt("a"));
+                assertEquals("[1,{\"c\":\"\\\\\"}]", index.opt("b").toString());
+            }
+        }
+    }
+
+    @Test
+    void testMalformedInput() throws Exception {
+        for (String json : new String[]{"{\"a\":1 2}", "{\"a\":[}", "{\"a\":[1,2]]}", "{\"a\":1,}", "{\"a\" x:1}",
+                "{\"a\":\"b\" \"c\"}", "{\"a\":\"b\" c}", "{\"a\":{} 1}", "{\"a\"::1}", "{\"a\":}", "{,\"a\":1}",
+                "{\"a\":1}{}", "{\"a\":1 ,, \"b\":2}", "{\"a\\\"}", "}", "{\"a\":y}", "{\"a\":1_0}"}) {
+            assertThrows(JSONException.class, () -> JSONByteIndex.of(json.getBytes(StandardCharsets.UTF_8)), json);
+        }
+        for (String json : new String[]{"[1,]", "[1 2]", "[,1]", "[1]]", "[{}{}]", "[\"a\" 1]"}) {
+            assertThrows(JSONException.class, () -> JSONByteIndex.elements(json.getBytes(StandardCharsets.UTF_8)), json);
+        }
+        assertThrows(JSONException.class, () -> JSONByteIndex.objects("[{},1]".getBytes(StandardCharsets.UTF_8)));
+        // nested objects are validated when indexed
+        JSONByteIndex index = JSONByteIndex.of("{\"a\":{\"b\" 1},\"c\":2}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, index.opt("c"));
+        assertThrows(JSONException.class, () -> index.getObject("a"));
+
+        JSONByteIndex numbers = JSONByteIndex.of(("{\"a\":-0,\"b\":0,\"c\":1.50,\"d\":12345678901234567890,"
+                + "\"e\":null,\"f\":true}").getBytes(StandardCharsets.UTF_8));
+        JSONObject expected = new JSONObject(numbers.toString());
+        for (String name : new String[]{"a", "b", "c", "d", "e", "f", "g"}) {
+            assertEquals(ParseUtil.getRawString(name, expected), numbers.getRawString(name), name);
+        }
+
+        assertEquals(0, JSONByteIndex.of(" {  } ".getBytes(StandardCharsets.UTF_8)).length());
+        assertEquals(0, JSONByteIndex.elements("[ ]".getBytes(StandardCharsets.UTF_8)).length);
+        assertArrayEquals(new int[]{1, 2, 3, 8, 9, 11}, JSONByteIndex.elements("[1,\"a,]\",{} ]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertIndexEquals(JSONObject expected, JSONByteIndex index) throws JSONException {
+        assertNotNull(index);
+        assertEquals(expected.length(), index.length(), expected::toString);
+        for (String name : expected.keySet()) {
+            Object value = expected.get(name);
+            assertEquals(ParseUtil.getRawString(name, expected), index.getRawString(name), name);
+            if (value instanceof JSONObject) {
+                assertIndexEquals((JSONObject) value, index.getObject(name));
+            } else if (value instanceof JSONArray) {
+                assertEquals(value.toString(), String.valueOf(index.opt(name)), name);
+            } else {
+                assertEquals(value, index.opt(name), name);
+            }
+        }
+    }
+
+    private static void appendObject(StringBuilder json, Random random, int depth) {
+        json.append('{');
+        int members = random.nextInt(depth == 0 ? 8 : 4);
+        for (int i = 0; i < members; i++) {
+            appendWhitespace(json, random);
+            json.append(i == 0 ? "" : ",");
+            appendWhitespace(json, random);
+            json.append(JSONObject.quote("m" + i + randomString(random)));
+            appendWhitespace(json, random);
+            json.append(':');
+            appendWhitespace(json, random);
+            appendValue(json, random, depth);
+            appendWhitespace(json, random);
+        }
+        json.append('}');
+    }
+
+    private static void appendValue(StringBuilder json, Random random, int depth) {
+        switch (random.nextInt(depth < 4 ? 7 : 5)) {
+            case 0:
+                json.append(random.nextLong());
+                break;
+            case 1:
+                json.append(random.nextDouble());
+                break;
+            case 2:
+                json.append(random.nextBoolean() ? "true" : "null");
+                break;
+            case 3:
+            case 4:
+                json.append(JSONObject.quote(randomString(random)));
+                break;
+            case 5:
+                appendObject(json, random, depth + 1);
+                break;
+            default:
+                json.append('[');
+                int elements = random.nextInt(4);
+                for (int i = 0; i < elements; i++) {
+                    json.append(i == 0 ? "" : ",");
+                    appendWhitespace(json, random);
+                    appendValue(json, random, depth + 1);
+                }
+                json.append(']');
+        }
+    }
+
+    private static String randomString(Random random) {
+        String alphabet = "ab \"\\{}[],:\u00e9\u3042\ud83d\ude00\n\t/";
+        StringBuilder value = new StringBuilder();
+        int length = random.nextInt(80);
+        for (int i = 0; i < length; i++) {
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            if (Character.isSurrogate(c)) {
+                value.append("\ud83d\ude00");
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    private static void appendWhitespace(StringBuilder json, Random random) {
+        for (int i = random.nextInt(3); i > 0; i--) {
+            json.append(" \t\r\n".charAt(random.nextInt(4)));
+        }
+    }
+
+    private static int[] positions(JSONStructuralIndex structurals) {
+        int[] positions = new int[structurals.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = structurals.position(i);
+        }
+        return positions;
+    }
+
+    /**
+     * @return positions of the structural characters found byte by byte
+     */
+    private static int[] scan(byte[] raw) {
+        List<Integer> positions = new ArrayList<>();
+        boolean inString = false;
+        for (int i = 0; i < raw.length; i++) {
+            byte b = raw[i];
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                positions.add(i);
+                inString = true;
+            } else if (b == '{' || b == '}' || b == '[' || b == ']' || b == ':' || b == ',') {
+                positions.add(i);
+            }
+        }
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<String> texts() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String path : DOCUMENTS) {
+            texts.add(read(path));
+        }
+        for (String path : STREAMS) {
+            for (String line : read(path).split("\n")) {
+                if (!line.trim().isEmpty()) {
+                    texts.add(line);
+                }
+            }
+        }
+        return texts;
+    }
+
+    private static String read(String path) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                JSONStructuralIndexTest.class.getResourceAsStream(path), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                text.append(line).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
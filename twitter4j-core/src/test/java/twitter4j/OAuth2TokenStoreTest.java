@@ -0,0 +1,164 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class OAuth2TokenStoreTest {
+
+    @Test
+    void testInMemory() {
+        String consumerKey = "testInMemory";
+        OAuth2TokenStore store = OAuth2TokenStore.inMemory();
+        assertSame(store, OAuth2TokenStore.inMemory());
+        assertNull(store.load(consumerKey));
+
+        OAuth2Token token = new OAuth2Token("bearer", "token1");
+        store.store(consumerKey, token);
+        assertEquals(token, store.load(consumerKey));
+
+        // compare and remove
+        store.remove(consumerKey, new OAuth2Token("bearer", "token0"));
+        assertEquals(token, store.load(consumerKey));
+        store.remove(consumerKey, token);
+        assertNull(store.load(consumerKey));
+    }
+
+    @Test
+    void testFile() throws Exception {
+        File dir = Files.createTempDirectory("twitter4j").toFile();
+        File file = new File(dir, "oauth2.properties");
+        try {
+            OAuth2TokenStore store = OAuth2TokenStore.file(file);
+            assertNull(store.load("key1"));
+
+            OAuth2Token token1 = new OAuth2Token("bearer", "token1");
+            OAuth2Token token2 = new OAuth2Token("bearer", "token2");
+            store.store("key1", token1);
+            store.store("key2", token2);
+            // another store on the same file, as if in another JVM
+            OAuth2TokenStore another = OAuth2TokenStore.file(file);
+            assertEquals(store, another);
+            assertEquals(token1, another.load("key1"));
+            assertEquals(token2, another.load("key2"));
+
+            another.remove("key1", token2);
+            assertEquals(token1, store.load("key1"));
+            another.remove("key1", token1);
+            assertNull(store.load("key1"));
+            assertEquals(token2, store.load("key2"));
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    assertTrue(f.delete());
+                }
+            }
+            assertTrue(dir.delete());
+        }
+    }
+
+    @Test
+    void testAuthorizationUsesStore() throws Exception {
+        String consumerKey = "testAuthorizationUsesStore";
+        OAuth2TokenStore store = OAuth2TokenStore.inMemory();
+
+        OAuth2Authorization auth = OAuth2Authorization.newBuilder().oAuthConsumer(consumerKey, "secret")
+                .oAuth2TokenStore(store).build();
+        // a token will be obtained lazily
+        assertTrue(auth.isEnabled());
+        assertNull(auth.getCurrentOAuth2Token());
+        assertFalse(OAuth2Authorization.getInstance(consumerKey, "secret").isEnabled());
+
+        OAuth2Token stale = new OAuth2Token("bearer", "stale");
+        store.store(consumerKey, stale);
+        auth = OAuth2Authorization.newBuilder().oAuthConsumer(consumerKey, "secret")
+                .oAuth2TokenStore(store).build();
+        assertEquals(stale, auth.getCurrentOAuth2Token());
+        assertEquals("Bearer stale", auth.getAuthorizationHeader(null));
+
+        // another instance has already refreshed the token
+        OAuth2Token fresh = new OAuth2Token("bearer", "fresh");
+        store.store(consumerKey, fresh);
+        assertEquals(fresh, auth.refreshOAuth2Token(stale));
+        assertEquals(fresh, auth.getCurrentOAuth2Token());
+        // refreshing with an outdated token is no-op
+        assertEquals(fresh, auth.refreshOAuth2Token(stale));
+        // the token from the store is returned rather than rejected as already available
+        assertEquals(fresh, auth.getOAuth2Token());
+        store.remove(consumerKey, fresh);
+    }
+
+    @Test
+    void testSingleFlightRefresh() throws Exception {
+        String consumerKey = "testSingleFlightRefresh";
+        OAuth2TokenStore store = OAuth2TokenStore.inMemory();
+        OAuth2Token stale = new OAuth2Token("bearer", "stale");
+        OAuth2Token fresh = new OAuth2Token("bearer", "fresh");
+        store.store(consumerKey, stale);
+        AtomicInteger issued = new AtomicInteger();
+        CountDownLatch issuing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // instances sharing the store and the consumer key
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OAuth2Token>> refreshes = new ArrayList<>();
+            refreshes.add(pool.submit(() -> OAuth2TokenRefresher.refresh(store, consumerKey, stale, () -> {
+                issued.incrementAndGet();
+                issuing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new TwitterException("interrupted", e);
+                }
+                return fresh;
+            })));
+            assertTrue(issuing.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                refreshes.add(pool.submit(() -> OAuth2TokenRefresher.refresh(store, consumerKey, stale, () -> {
+                    issued.incrementAndGet();
+                    return new OAuth2Token("bearer", "duplicate");
+                })));
+            }
+            release.countDown();
+            for (Future<OAuth2Token> refresh : refreshes) {
+                assertEquals(fresh, refresh.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, issued.get());
+            assertEquals(fresh, store.load(consumerKey));
+        } finally {
+            pool.shutdownNow();
+            store.remove(consumerKey, fresh);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Measures OAuth 1.0a signature and Authorization header generation.<br>
+ * Run with: java -cp ... twitter4j.OAuthSignatureBenchmark [iterations]
+ */
+public class OAuthSignatureBenchmark {
+    private static final String BASE_STRING = "GET&http%3A%2F%2Fphotos.example.net%2Fphotos&file%3Dvacation.jpg%26oauth_consumer_key%3Ddpf43f3p2l4k3l03%26oauth_nonce%3Dkllo9940pd9333jh%26oauth_signature_method%3DHMAC-SHA1%26oauth_timestamp%3D1191242096%26oauth_token%3Dnnch734d00sl2jdk%26oauth_version%3D1.0%26size%3Doriginal";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        OAuthAuthorization oauth = OAuthAuthorization.getInstance("dpf43f3p2l4k3l03", "kd94hf93k423kf44");
+        AccessToken token = new AccessToken("nnch734d00sl2jdk", "pfkkdhi9sl3r4s00");
+        HttpParameter[] params = {new HttpParameter("status", "Hello Twitter4J! あいう #twitter4j"),
+                new HttpParameter("include_entities", "true"),
+                new HttpParameter("tweet_mode", "extended"),
+                new HttpParameter("include_ext_alt_text", "true")};
+        SecretKeySpec spec = new SecretKeySpec("kd94hf93k423kf44&pfkkdhi9sl3r4s00".getBytes(), "HmacSHA1");
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("round " + (round + 1));
+            long start = System.nanoTime();
+            int blackhole = 0;
+            for (int i = 0; i < iterations; i++) {
+                // what generateSignature used to do on every request
+                Mac mac = Mac.getInstance("HmacSHA1");
+                mac.init(spec);
+                blackhole += BASE64Encoder.encode(mac.doFinal(BASE_STRING.getBytes())).length();
+            }
+            report("Mac.getInstance per signature", start, iterations, blackhole);
+
+            start = System.nanoTime();
+            blackhole = 0;
+            for (int i = 0; i < iterations; i++) {
+                blackhole += oauth.generateSignature(BASE_STRING, token).length();
+            }
+            report("generateSignature", start, iterations, blackhole);
+
+            start = System.nanoTime();
+            blackhole = 0;
+            for (int i = 0; i < iterations; i++) {
+                blackhole += oauth.generateAuthorizationHeader("POST", "https://api.twitter.com/1.1/statuses/update.json?trim_user=true",
+                        params, "kllo9940pd9333jh", "1191242096", token).length();
+            }
+            report("generateAuthorizationHeader", start, iterations, blackhole);
+        }
+    }
+
+    private static void report(String name, long start, int iterations, int blackhole) {
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-32s %8d ns/op %10d ops/s (%d)%n", name, elapsed / iterations,
+                iterations * 1000000000L / elapsed, blackhole);
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import java.io.File;
+import java.net.URLEncoder;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -65,6 +66,39 @@ class PostParameterTest {
 
     }
 
+    @Test
+    void testAppendEncoded() throws Exception {
+        String[] values = {"", "abcABC123-._~", "% +&=*\n", "\u007F\u0080\u3001", "\uD83D\uDE00 emoji", "unpaired \uD83D surrogate", "http://example.com/?q=a b"};
+        for (String value : values) {
+            assertEquals(urlEncoderEncode(value), HttpParameter.encode(value));
+
+            StringBuilder buf = new StringBuilder();
+            HttpParameter.appendEncoded(buf, value, false);
+            assertEquals(urlEncoderEncode(value), buf.toString());
+
+            buf.setLength(0);
+            HttpParameter.appendEncoded(buf, value, true);
+            assertEquals(urlEncoderEncode(urlEncoderEncode(value)), buf.toString());
+
+            HttpParameter param = new HttpParameter(value, value);
+            buf.setLength(0);
+            param.appendEncoded(buf, false);
+            assertEquals(urlEncoderEncode(value) + "=" + urlEncoderEncode(value), buf.toString());
+            buf.setLength(0);
+            param.appendEncoded(buf, true);
+            assertEquals(urlEncoderEncode(urlEncoderEncode(value) + "=" + urlEncoderEncode(value)), buf.toString());
+        }
+        assertEquals("a=1&b=%E3%81%82%20%2A", HttpParameter.encodeParameters(new HttpParameter[]{
+                new HttpParameter("a", 1), new HttpParameter("b", "\u3042 *")}));
+    }
+
+    /**
+     * reference implementation: URLEncoder with the OAuth specific replacements
+     */
+    private static String urlEncoderEncode(String value) throws Exception {
+        return URLEncoder.encode(value, "UTF-8").replace("*", "%2A").replace("+", "%20").replace("%7E", "~");
+    }
+
     private void assertValidContentType(String expected, String fileName) {
         HttpParameter param = new HttpParameter("file", new File(fileName));
         assertEquals(expected, param.getContentType());
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the retained heap per Status and per User for each representation, binding the statuses of a sample
+ * timeline over and over.<br>
+ * Run with: java -Xmx1g -cp ... twitter4j.StatusFootprintChecker [count]
+ */
+public class StatusFootprintChecker {
+    // static, so that the bound objects stay reachable while measured
+    private static Object[] retained;
+
+    private interface Binder {
+        Object bind(String json) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        String timeline;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                StatusFootprintChecker.class.getResourceAsStream("/dao/statuses/home_timeline.json"), StandardCharsets.UTF_8))) {
+            timeline = reader.lines().collect(Collectors.joining("\n"));
+        }
+        JSONArray array = new JSONArray(timeline);
+        String[] statuses = new String[array.length()];
+        String[] users = new String[array.length()];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = array.getJSONObject(i).toString();
+            users[i] = array.getJSONObject(i).getJSONObject("user").toString();
+        }
+        ObjectFactory lazy = new LazyJSONImplFactory(false);
+        for (int round = 0; round < 3; round++) {
+            System.out.println("round " + (round + 1));
+            report("StatusJSONImpl", statuses, count, json -> new StatusJSONImpl(new JSONObject(json)));
+            report("CompactStatusJSONImpl", statuses, count, json -> new CompactStatusJSONImpl(new JSONObject(json)));
+            UserCache userCache = new UserCache(1024, false);
+            report("StatusJSONImpl, user cache", statuses, count, json -> new StatusJSONImpl(new JSONObject(json), userCache));
+            UserCache compactUsers = new UserCache(1024, true);
+            report("Compact, user cache", statuses, count, json -> new CompactStatusJSONImpl(new JSONObject(json), compactUsers));
+            report("LazyStatusJSONImpl", statuses, count, lazy::createStreamStatus);
+            report("LazyStatusJSONImpl, read", statuses, count, json -> {
+                Status status = lazy.createStreamStatus(json);
+                status.getText();
+                status.getUser().getScreenName();
+                return status;
+            });
+            report("UserJSONImpl", users, count, json -> new UserJSONImpl(new JSONObject(json)));
+            report("CompactUserJSONImpl", users, count, json -> new CompactUserJSONImpl(new JSONObject(json)));
+        }
+    }
+
+    private static void report(String label, String[] json, int count, Binder binder) throws Exception {
+        retained = null;
+        Object[] objects = new Object[count];
+        long before = usedHeap();
+        for (int i = 0; i < count; i++) {
+            objects[i] = binder.bind(json[i % json.length]);
+        }
+        retained = objects;
+        System.out.printf("  %-26s %8d bytes retained/object%n", label, (usedHeap() - before) / count);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -128,7 +128,7 @@ class MBeansTest {
 
         // sanity check to ensure metadata accurately describes dynamic attributes
         MBeanInfo info = openMBean.getMBeanInfo();
-        assertEquals(5, info.getAttributes().length);
+        assertEquals(6, info.getAttributes().length);
         assertEquals(1, info.getOperations().length);
 
         List<String> attrNames = new ArrayList<>();
@@ -138,7 +138,7 @@ class MBeansTest {
         }
         AttributeList attrList = openMBean.getAttributes(attrNames.toArray(new String[0]));
         assertNotNull(attrList);
-        assertEquals(5, attrList.size());
+        assertEquals(6, attrList.size());
 
         // check stats (empty case)
         Long callCount = (Long) openMBean.getAttribute("callCount");
@@ -181,6 +181,49 @@ class MBeansTest {
         assertEquals(100, ((Long) columnValues[2]).longValue());
         assertEquals(100, ((Long) columnValues[3]).longValue());
 
+        // check endpoint health table
+        table = (TabularData) openMBean.getAttribute("endpointHealthTable");
+        assertTrue(table.isEmpty());
+        stats.registerEndpointHealth(new EndpointHealth() {
+            @Override
+            public String getName() {
+                return "search";
+            }
+
+            @Override
+            public String getCircuitState() {
+                return "OPEN";
+            }
+
+            @Override
+            public int getFailureRate() {
+                return 60;
+            }
+
+            @Override
+            public int getConcurrencyLimit() {
+                return 12;
+            }
+
+            @Override
+            public int getInFlight() {
+                return 3;
+            }
+
+            @Override
+            public long getRejectedCount() {
+                return 42;
+            }
+        });
+        table = (TabularData) openMBean.getAttribute("endpointHealthTable");
+        data = table.get(new Object[]{"search"});
+        assertNotNull(data);
+        assertEquals("OPEN", data.get("circuitState"));
+        assertEquals(60, data.get("failureRate"));
+        assertEquals(12, data.get("concurrencyLimit"));
+        assertEquals(3, data.get("inFlight"));
+        assertEquals(42L, data.get("rejectedCount"));
+
         // check reset
         openMBean.invoke("reset", new Object[0], new String[0]);
         checkCalculator(stats, 0, 0, 0, 0);
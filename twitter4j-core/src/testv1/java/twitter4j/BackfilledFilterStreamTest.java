@@ -0,0 +1,238 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BackfilledFilterStreamTest {
+
+    @Test
+    void testSearchQueries() {
+        assertEquals(Arrays.asList("twitter api", "java OR kotlin"),
+                BackfilledFilterStream.searchQueries(new String[]{"java", "twitter api", " ", "kotlin"}));
+
+        String[] track = new String[200];
+        for (int i = 0; i < track.length; i++) {
+            track[i] = "keyword" + i;
+        }
+        List<String> queries = BackfilledFilterStream.searchQueries(track);
+        assertTrue(queries.size() > 1);
+        for (String query : queries) {
+            assertTrue(query.length() <= BackfilledFilterStream.MAX_QUERY_LENGTH);
+        }
+        assertEquals(Arrays.asList(track), queries.stream()
+                .flatMap(query -> Arrays.stream(query.split(" OR "))).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFetchPages() throws Exception {
+        // statuses 100 to 1, newest first, 10 per page
+        List<Long> maxIds = new ArrayList<>();
+        BackfilledFilterStream.Page page = maxId -> {
+            maxIds.add(maxId);
+            long from = maxId == -1 ? 100 : maxId;
+            return LongStream.iterate(from, id -> id - 1).limit(10).filter(id -> id > 0)
+                    .mapToObj(BackfilledFilterStreamTest::status).collect(Collectors.toList());
+        };
+        List<Status> statuses = BackfilledFilterStream.fetchPages(75, 5, new BackfilledFilterStream.Budget(100), page);
+        assertEquals(25, statuses.size());
+        assertEquals(100, statuses.get(0).getId());
+        assertEquals(76, statuses.get(24).getId());
+        assertEquals(Arrays.asList(-1L, 90L, 80L), maxIds);
+
+        // bounded by the number of pages
+        maxIds.clear();
+        assertEquals(20, BackfilledFilterStream.fetchPages(0, 2, new BackfilledFilterStream.Budget(100), page).size());
+        assertEquals(2, maxIds.size());
+
+        // bounded by the budget shared by the fetches
+        maxIds.clear();
+        BackfilledFilterStream.Budget budget = new BackfilledFilterStream.Budget(3);
+        assertEquals(20, BackfilledFilterStream.fetchPages(0, 2, budget, page).size());
+        assertEquals(10, BackfilledFilterStream.fetchPages(0, 2, budget, page).size());
+        assertTrue(BackfilledFilterStream.fetchPages(0, 2, budget, page).isEmpty());
+        assertEquals(3, maxIds.size());
+    }
+
+    @Test
+    void testBudgetFollowsRateLimit() throws Exception {
+        BackfilledFilterStream.Budget budget = new BackfilledFilterStream.Budget(100);
+        budget.update(null);
+        assertEquals(100, budget.remaining());
+        budget.update(new RateLimitStatusJSONImpl(new JSONObject("{\"limit\":900,\"remaining\":2,\"reset\":0}")));
+        assertEquals(2, budget.remaining());
+        budget.update(new RateLimitStatusJSONImpl(new JSONObject("{\"limit\":900,\"remaining\":10,\"reset\":0}")));
+        assertEquals(2, budget.remaining());
+
+        // stops paging once the rate limit is exceeded
+        List<Long> maxIds = new ArrayList<>();
+        BackfilledFilterStream.Page page = maxId -> {
+            maxIds.add(maxId);
+            throw new TwitterException("rate limited", null, 429);
+        };
+        assertThrows(TwitterException.class, () -> BackfilledFilterStream.fetchPages(0, 5, budget, page));
+        assertEquals(0, budget.remaining());
+        assertTrue(BackfilledFilterStream.fetchPages(0, 5, budget, page).isEmpty());
+        assertEquals(1, maxIds.size());
+    }
+
+    @Test
+    void testFollowIdsByRecency() {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build();
+        BackfilledFilterStream stream = BackfilledFilterStream.newBuilder(FilterQuery.ofFollow(10, 20, 30, 40))
+                .connection(twitter)
+                .listener(new StatusAdapter())
+                .build();
+        try {
+            stream.onStatus(status(1, 30));
+            stream.onStatus(status(2, 20));
+            stream.onStatus(status(3, 99));
+            assertEquals(Arrays.asList(20L, 30L, 10L, 40L), stream.followIdsByRecency(10));
+            assertEquals(Arrays.asList(20L, 30L), stream.followIdsByRecency(2));
+        } finally {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    void testPendingBounded() throws Exception {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build();
+        List<Long> received = new ArrayList<>();
+        BackfilledFilterStream stream = BackfilledFilterStream.newBuilder(FilterQuery.ofTrack("a"))
+                .connection(twitter)
+                .maxPending(2)
+                .listener(new StatusAdapter() {
+                    @Override
+                    public void onStatus(Status status) {
+                        received.add(status.getId());
+                    }
+                }).build();
+        try {
+            stream.onStatus(status(1));
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Void> fill = stream.fill(1, Collections.singletonList(() -> {
+                release.await();
+                return Arrays.asList(status(3), status(2));
+            }));
+            for (long id = 4; id <= 7; id++) {
+                stream.onStatus(status(id));
+            }
+            // the oldest held back statuses are delivered early
+            assertEquals(Arrays.asList(1L, 4L, 5L), received);
+            release.countDown();
+            fill.get(10, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList(1L, 4L, 5L, 2L, 3L, 6L, 7L), received);
+            assertEquals(2, stream.getLastGapSize());
+        } finally {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    void testFill() throws Exception {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build();
+        List<Long> received = new ArrayList<>();
+        List<Exception> exceptions = new ArrayList<>();
+        BackfilledFilterStream stream = BackfilledFilterStream.newBuilder(FilterQuery.ofTrack("a"))
+                .connection(twitter)
+                .listener(new StatusAdapter() {
+                    @Override
+                    public void onStatus(Status status) {
+                        received.add(status.getId());
+                    }
+
+                    @Override
+                    public void onException(Exception ex) {
+                        exceptions.add(ex);
+                    }
+                }).build();
+        try {
+            stream.onStatus(status(1));
+            stream.onDisconnect();
+
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Void> fill = stream.fill(1, Arrays.asList(
+                    () -> {
+                        release.await();
+                        return Arrays.asList(status(4), status(3), status(1));
+                    },
+                    () -> Arrays.asList(status(3), status(2)),
+                    () -> {
+                        throw new TwitterException("rate limited");
+                    }));
+            // held back while filling
+            stream.onStatus(status(6));
+            stream.onStatus(status(4));
+            assertEquals(Collections.singletonList(1L), received);
+            release.countDown();
+            fill.get(10, TimeUnit.SECONDS);
+
+            assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 6L), received);
+            assertEquals(1, exceptions.size());
+            assertEquals(1, stream.getFillCount());
+            assertEquals(1, stream.getFailureCount());
+            // 4 was received live
+            assertEquals(2, stream.getLastGapSize());
+            assertEquals(2, stream.getBackfilledStatusCount());
+            assertTrue(stream.getLastFillLatencyMillis() >= 0);
+
+            // delivered again by the stream
+            stream.onStatus(status(6));
+            stream.onStatus(status(7));
+            assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 6L, 7L), received);
+            assertEquals(1, stream.getDuplicateCount());
+        } finally {
+            stream.shutdown();
+        }
+    }
+
+    private static Status status(long id) {
+        return status(id, 1);
+    }
+
+    private static Status status(long id, long userId) {
+        try {
+            return new StatusJSONImpl(new JSONObject("{\"id\":" + id + ",\"text\":\"a\",\"user\":{\"id\":" + userId + "}}"));
+        } catch (TwitterException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
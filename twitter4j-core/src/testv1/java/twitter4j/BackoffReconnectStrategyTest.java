@@ -0,0 +1,156 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.ReconnectStrategy;
+
+import java.io.EOFException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static twitter4j.v1.ReconnectStrategy.DISCONNECTED;
+import static twitter4j.v1.ReconnectStrategy.GIVE_UP;
+import static twitter4j.v1.ReconnectStrategy.NETWORK_ERROR;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BackoffReconnectStrategyTest {
+
+    @Test
+    void testWithoutJitter() {
+        ReconnectStrategy strategy = BackoffReconnectStrategy.newBuilder().jitter(false).build();
+        // same back off as before the strategy was configurable
+        long delay = 0;
+        long[] expected = {250, 500, 1000, 2000, 4000, 8000, 16000, 16000};
+        for (int i = 0; i < expected.length; i++) {
+            delay = strategy.nextDelayMillis(NETWORK_ERROR, i + 1, delay);
+            assertEquals(expected[i], delay);
+        }
+        // HTTP errors start over from their own initial delay
+        assertEquals(10_000, strategy.nextDelayMillis(500, 1, 0));
+        assertEquals(10_000, strategy.nextDelayMillis(503, 2, 500));
+        assertEquals(240_000, strategy.nextDelayMillis(503, 9, 160_000));
+        assertEquals(250, strategy.nextDelayMillis(DISCONNECTED, 1, 0));
+    }
+
+    @Test
+    void testJitter() {
+        ReconnectStrategy strategy = BackoffReconnectStrategy.newBuilder().build();
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(10_000, strategy.nextDelayMillis(500, 1, 0));
+            long delay = strategy.nextDelayMillis(500, 2, 20_000);
+            assertTrue(delay >= 10_000 && delay <= 60_000, String.valueOf(delay));
+            delays.add(delay);
+            delay = strategy.nextDelayMillis(500, 3, 200_000);
+            assertTrue(delay >= 10_000 && delay <= 240_000, String.valueOf(delay));
+        }
+        // streams failing together don't reconnect together
+        assertTrue(delays.size() > 100);
+    }
+
+    @Test
+    void testPolicies() {
+        ReconnectStrategy strategy = BackoffReconnectStrategy.newBuilder().jitter(false).build();
+        assertEquals(60_000, strategy.nextDelayMillis(420, 1, 0));
+        assertEquals(120_000, strategy.nextDelayMillis(429, 2, 60_000));
+        assertEquals(900_000, strategy.nextDelayMillis(429, 6, 600_000));
+        assertEquals(GIVE_UP, strategy.nextDelayMillis(HttpResponseCode.FORBIDDEN, 1, 0));
+        assertEquals(GIVE_UP, strategy.nextDelayMillis(HttpResponseCode.NOT_ACCEPTABLE, 1, 0));
+
+        strategy = BackoffReconnectStrategy.newBuilder().jitter(false)
+                .policy(HttpResponseCode.FORBIDDEN, 1000, 2000)
+                .giveUpOn(HttpResponseCode.UNAUTHORIZED)
+                .networkError(100, 100)
+                .build();
+        assertEquals(1000, strategy.nextDelayMillis(HttpResponseCode.FORBIDDEN, 1, 0));
+        assertEquals(GIVE_UP, strategy.nextDelayMillis(HttpResponseCode.UNAUTHORIZED, 1, 0));
+        assertEquals(100, strategy.nextDelayMillis(NETWORK_ERROR, 3, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> BackoffReconnectStrategy.newBuilder().httpError(1000, 10));
+    }
+
+    @Test
+    void testImmediateReconnectOnDisconnect() {
+        ReconnectStrategy strategy = BackoffReconnectStrategy.newBuilder().jitter(false)
+                .immediateReconnectOnDisconnect(true).build();
+        assertEquals(0, strategy.nextDelayMillis(DISCONNECTED, 1, 0));
+        // backs off when reconnecting keeps failing
+        assertEquals(250, strategy.nextDelayMillis(DISCONNECTED, 2, 0));
+        assertEquals(250, strategy.nextDelayMillis(NETWORK_ERROR, 1, 0));
+
+        assertEquals(DISCONNECTED, TwitterStreamImpl.reconnectStatusCode(
+                new TwitterException("Stream closed.", new EOFException())));
+        assertEquals(NETWORK_ERROR, TwitterStreamImpl.reconnectStatusCode(new TwitterException("timed out")));
+    }
+
+    @Test
+    void testBudget() {
+        ReconnectStrategy strategy = BackoffReconnectStrategy.newBuilder().budget(3, 60_000).build();
+        assertNotEquals(GIVE_UP, strategy.nextDelayMillis(NETWORK_ERROR, 1, 0));
+        assertNotEquals(GIVE_UP, strategy.nextDelayMillis(500, 1, 0));
+        assertNotEquals(GIVE_UP, strategy.nextDelayMillis(DISCONNECTED, 1, 0));
+        // shared by the streams configured with the strategy
+        assertEquals(GIVE_UP, strategy.nextDelayMillis(NETWORK_ERROR, 1, 0));
+
+        ReconnectStrategy expiring = BackoffReconnectStrategy.newBuilder().budget(1, 1).build();
+        assertNotEquals(GIVE_UP, expiring.nextDelayMillis(NETWORK_ERROR, 1, 0));
+        long deadline = System.currentTimeMillis() + 10_000;
+        long delay;
+        while ((delay = expiring.nextDelayMillis(NETWORK_ERROR, 1, 0)) == GIVE_UP
+                && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertNotEquals(GIVE_UP, delay);
+    }
+
+    @Test
+    void testStatistics() throws Exception {
+        StreamConnectionStatistics statistics = new StreamConnectionStatistics();
+        assertFalse(statistics.isConnected());
+        assertEquals(-1, statistics.getLastReconnectDelayMillis());
+        statistics.started();
+        Thread.sleep(20);
+        statistics.connected();
+        assertTrue(statistics.isConnected());
+        assertTrue(statistics.getTotalDisconnectedMillis() >= 20);
+        Thread.sleep(20);
+        assertTrue(statistics.getUptimeMillis() >= 20);
+        statistics.disconnected();
+        statistics.reconnecting(250);
+        assertFalse(statistics.isConnected());
+        assertEquals(0, statistics.getUptimeMillis());
+        long uptime = statistics.getTotalUptimeMillis();
+        assertTrue(uptime >= 20);
+        statistics.connected();
+        statistics.gaveUp();
+        statistics.stopped();
+        assertFalse(statistics.isConnected());
+        assertEquals(2, statistics.getConnectCount());
+        assertEquals(1, statistics.getReconnectAttemptCount());
+        assertEquals(1, statistics.getGiveUpCount());
+        assertEquals(250, statistics.getLastReconnectDelayMillis());
+        // frozen once stopped
+        long disconnected = statistics.getTotalDisconnectedMillis();
+        Thread.sleep(20);
+        assertEquals(disconnected, statistics.getTotalDisconnectedMillis());
+        assertTrue(statistics.getTotalUptimeMillis() >= uptime);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.BatchingStatusListener;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.StatusListener;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the throughput of a sink written to one status at a time and in batches, from the stream message to the
+ * sink, with a write costing a fixed round trip plus the serialization of each status.<br>
+ * Run with: java -cp ... twitter4j.BatchingStatusListenerBenchmark [statuses] [round trip microseconds]
+ */
+public class BatchingStatusListenerBenchmark {
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long roundTripNanos = (args.length > 1 ? Long.parseLong(args[1]) : 50) * 1000;
+        String line = JSONObjectFootprintBenchmark.STATUS_JSON;
+        Sink writes = new Sink(roundTripNanos);
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("round " + (round + 1));
+            report("one at a time", run(line, count, new StatusAdapter() {
+                @Override
+                public void onStatus(Status status) {
+                    writes.write(Collections.singletonList(status));
+                }
+            }), count);
+            for (int size : new int[]{10, 100, 1000}) {
+                BatchingStatusListener batching = new BatchingStatusListener(size, 0, 1000) {
+                    @Override
+                    public void onBatch(List<Status> statuses) {
+                        writes.write(statuses);
+                    }
+                };
+                report("batches of " + size, run(line, count, batching), count);
+                batching.close();
+            }
+        }
+    }
+
+    private static long run(String line, int count, StatusListener listener) {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy")
+                .listener(listener).build();
+        StatusStreamImpl stream = ((TwitterStreamImpl) twitter.v1().stream()).offlineStream();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            stream.dispatch(line);
+        }
+        if (listener instanceof BatchingStatusListener) {
+            ((BatchingStatusListener) listener).flush();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Bulk writing sink, such as a database or a message bus
+     */
+    private static final class Sink {
+        private final long roundTripNanos;
+
+        Sink(long roundTripNanos) {
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        void write(List<Status> statuses) {
+            StringBuilder request = new StringBuilder();
+            for (Status status : statuses) {
+                request.append(status.getId()).append('\t').append(status.getUser().getScreenName()).append('\t')
+                        .append(status.getText()).append('\n');
+            }
+            long end = System.nanoTime() + roundTripNanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            sink = request;
+        }
+    }
+
+    private static void report(String label, long elapsed, int statuses) {
+        System.out.printf("  %-16s %8d ns/status %10.0f statuses/s%n", label, elapsed / statuses,
+                statuses * 1e9 / elapsed);
+    }
+}
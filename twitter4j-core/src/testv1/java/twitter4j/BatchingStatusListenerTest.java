@@ -0,0 +1,151 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.BatchingStatusListener;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusDeletionNotice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BatchingStatusListenerTest {
+
+    @Test
+    void testFlushBySize() throws Exception {
+        List<String> batches = new ArrayList<>();
+        BatchingStatusListener listener = new Recorder(3, 0, 0, batches);
+        for (int i = 1; i <= 7; i++) {
+            listener.onStatus(status(i, "a"));
+        }
+        listener.onDeletionNotice(new StatusDeletionNoticeImpl(7, 1));
+        assertEquals(Arrays.asList("[1, 2, 3]", "[4, 5, 6]"), batches);
+        listener.close();
+        assertEquals(Arrays.asList("[1, 2, 3]", "[4, 5, 6]", "[7]", "delete [7]"), batches);
+        // nothing left
+        listener.flush();
+        assertEquals(4, batches.size());
+    }
+
+    @Test
+    void testFlushByBytes() throws Exception {
+        List<String> batches = new ArrayList<>();
+        BatchingStatusListener listener = new Recorder(100, 10, 0, batches);
+        listener.onStatus(status(1, "12345"));
+        listener.onStatus(status(2, "1234"));
+        listener.onStatus(status(3, "12"));
+        listener.onStatus(status(4, "1"));
+        assertEquals(Arrays.asList("[1, 2, 3]"), batches);
+        listener.close();
+        assertEquals(Arrays.asList("[1, 2, 3]", "[4]"), batches);
+    }
+
+    @Test
+    void testFlushByLatency() throws Exception {
+        List<String> batches = new ArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(2);
+        BatchingStatusListener listener = new Recorder(100, 0, 50, batches) {
+            @Override
+            public void onBatch(List<Status> statuses) {
+                super.onBatch(statuses);
+                flushed.countDown();
+            }
+        };
+        long start = System.nanoTime();
+        listener.onStatus(status(1, "a"));
+        listener.onStatus(status(2, "a"));
+        // starts a new batch once the first is flushed
+        while (flushed.getCount() == 2) {
+            Thread.sleep(5);
+        }
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+        listener.onStatus(status(3, "a"));
+        assertTrue(flushed.await(10, TimeUnit.SECONDS));
+        synchronized (batches) {
+            assertEquals(Arrays.asList("[1, 2]", "[3]"), batches);
+        }
+        listener.close();
+    }
+
+    @Test
+    void testDeliveredImmediatelyOnceClosed() throws Exception {
+        List<String> batches = new ArrayList<>();
+        BatchingStatusListener listener = new Recorder(100, 0, 50, batches);
+        listener.onStatus(status(1, "a"));
+        listener.close();
+        // no longer schedules a flush, and does not throw
+        listener.onStatus(status(2, "a"));
+        listener.onDeletionNotice(new StatusDeletionNoticeImpl(2, 1));
+        synchronized (batches) {
+            assertEquals(Arrays.asList("[1]", "[2]", "delete [2]"), batches);
+        }
+    }
+
+    @Test
+    void testTimerShared() throws Exception {
+        List<BatchingStatusListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            BatchingStatusListener listener = new Recorder(100, 0, 60_000, new ArrayList<>());
+            listener.onStatus(status(i, "a"));
+            listeners.add(listener);
+        }
+        long timers = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("Twitter4J Batch Flusher")).count();
+        assertEquals(1, timers);
+        for (BatchingStatusListener listener : listeners) {
+            listener.close();
+        }
+    }
+
+    private static class Recorder extends BatchingStatusListener {
+        private final List<String> batches;
+
+        Recorder(int maxSize, long maxBytes, long maxLatencyMillis, List<String> batches) {
+            super(maxSize, maxBytes, maxLatencyMillis);
+            this.batches = batches;
+        }
+
+        @Override
+        public void onBatch(List<Status> statuses) {
+            synchronized (batches) {
+                batches.add(statuses.stream().map(Status::getId).collect(Collectors.toList()).toString());
+            }
+        }
+
+        @Override
+        public void onDeletionBatch(List<StatusDeletionNotice> deletionNotices) {
+            synchronized (batches) {
+                batches.add("delete " + deletionNotices.stream().map(StatusDeletionNotice::getStatusId)
+                        .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    private static Status status(long id, String text) throws TwitterException {
+        return new StatusJSONImpl(new JSONObject("{\"id\":" + id + ",\"text\":\"" + text + "\",\"user\":{\"id\":1}}"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static twitter4j.LazyStatusJSONImplTest.assertStatusEquals;
+import static twitter4j.LazyStatusJSONImplTest.assertUserEquals;
+import static twitter4j.LazyStatusJSONImplTest.read;
+
+@Execution(ExecutionMode.CONCURRENT)
+class CompactStatusJSONImplTest {
+
+    @Test
+    void testMatchesStatusJSONImpl() throws Exception {
+        for (String path : new String[]{"/dao/statuses/home_timeline.json", "/dao/statuses/public_timeline.json"}) {
+            JSONArray array = new JSONArray(read(path));
+            for (int i = 0; i < array.length(); i++) {
+                StatusJSONImpl expected = new StatusJSONImpl(array.getJSONObject(i));
+                CompactStatusJSONImpl actual = new CompactStatusJSONImpl(array.getJSONObject(i));
+                assertStatusEquals(expected, actual);
+                assertArrayEquals(expected.getContributors(), actual.getContributors());
+                assertEquals(expected.getDisplayTextRangeStart(), actual.getDisplayTextRangeStart());
+                assertEquals(expected.getDisplayTextRangeEnd(), actual.getDisplayTextRangeEnd());
+                assertEquals(expected.getCurrentUserRetweetId(), actual.getCurrentUserRetweetId());
+                assertEquals(expected.getQuotedStatusId(), actual.getQuotedStatusId());
+                assertCompactUserEquals(expected.getUser(), actual.getUser());
+            }
+        }
+    }
+
+    @Test
+    void testUserMatchesUserJSONImpl() throws Exception {
+        JSONObject json = new JSONObject(read("/dao/user.json"));
+        assertCompactUserEquals(new UserJSONImpl(json), new CompactUserJSONImpl(json));
+    }
+
+    @Test
+    void testSharedMembers() throws Exception {
+        JSONArray array = new JSONArray(read("/dao/statuses/home_timeline.json"));
+        Status first = new CompactStatusJSONImpl(array.getJSONObject(0));
+        Status second = new CompactStatusJSONImpl(array.getJSONObject(1));
+        assertSame(first.getHashtagEntities(), second.getHashtagEntities());
+        assertSame(first.getContributors(), second.getContributors());
+        assertEquals(0, first.getContributors().length);
+        assertSame(first.getSource(), second.getSource());
+        User firstUser = first.getUser();
+        for (int i = 1; i < array.length(); i++) {
+            User user = new CompactStatusJSONImpl(array.getJSONObject(i)).getUser();
+            if (user.getId() == firstUser.getId()) {
+                assertSame(firstUser.getProfileBackgroundColor(), user.getProfileBackgroundColor());
+                assertSame(firstUser.getProfileImageURL(), user.getProfileImageURL());
+                return;
+            }
+        }
+        fail("no other status by the same user");
+    }
+
+    @Test
+    void testCreatedAtRoundTrip() throws Exception {
+        JSONObject json = new JSONObject("{\"id\":1,\"created_at\":\"Sat Dec 19 16:01:35 +0000 2009\",\"text\":\"a\"}");
+        Status status = new CompactStatusJSONImpl(json);
+        assertEquals(new StatusJSONImpl(json).getCreatedAt(), status.getCreatedAt());
+        assertNull(new CompactStatusJSONImpl(new JSONObject("{\"id\":1,\"text\":\"a\"}")).getCreatedAt());
+        assertNull(status.getUser());
+        assertNull(CompactStatusJSONImpl.compact(null));
+        assertSame(status, CompactStatusJSONImpl.compact(status));
+    }
+
+    @Test
+    void testStringPool() {
+        StringPool pool = new StringPool(16);
+        String a = new String("C0DEED".toCharArray());
+        String b = new String("C0DEED".toCharArray());
+        assertSame(a, pool.dedup(a));
+        assertSame(a, pool.dedup(b));
+        assertNull(pool.dedup(null));
+    }
+
+    @Test
+    void testSerialization() throws Exception {
+        JSONArray array = new JSONArray(read("/dao/statuses/home_timeline.json"));
+        Status status = new CompactStatusJSONImpl(array.getJSONObject(0));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(status);
+        }
+        Status deserialized;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            deserialized = (Status) ois.readObject();
+        }
+        assertStatusEquals(status, deserialized);
+    }
+
+    private static void assertCompactUserEquals(User expected, User actual) {
+        assertUserEquals(expected, actual);
+        assertEquals(expected.getBiggerProfileImageURL(), actual.getBiggerProfileImageURL());
+        assertEquals(expected.get400x400ProfileImageURLHttps(), actual.get400x400ProfileImageURLHttps());
+        assertEquals(expected.getProfileBackgroundColor(), actual.getProfileBackgroundColor());
+        assertEquals(expected.getProfileTextColor(), actual.getProfileTextColor());
+        assertEquals(expected.getProfileLinkColor(), actual.getProfileLinkColor());
+        assertEquals(expected.getProfileSidebarFillColor(), actual.getProfileSidebarFillColor());
+        assertEquals(expected.getProfileSidebarBorderColor(), actual.getProfileSidebarBorderColor());
+        assertEquals(expected.getProfileBackgroundImageURL(), actual.getProfileBackgroundImageURL());
+        assertEquals(expected.getProfileBackgroundImageUrlHttps(), actual.getProfileBackgroundImageUrlHttps());
+        assertEquals(expected.getProfileBannerURL(), actual.getProfileBannerURL());
+        assertEquals(expected.getProfileBanner1500x500URL(), actual.getProfileBanner1500x500URL());
+        assertEquals(expected.isContributorsEnabled(), actual.isContributorsEnabled());
+        assertEquals(expected.isDefaultProfileImage(), actual.isDefaultProfileImage());
+        assertEquals(expected.isProfileUseBackgroundImage(), actual.isProfileUseBackgroundImage());
+        assertEquals(expected.isDefaultProfile(), actual.isDefaultProfile());
+        assertEquals(expected.isShowAllInlineMedia(), actual.isShowAllInlineMedia());
+        assertEquals(expected.isProfileBackgroundTiled(), actual.isProfileBackgroundTiled());
+        assertEquals(expected.isGeoEnabled(), actual.isGeoEnabled());
+        assertEquals(expected.isTranslator(), actual.isTranslator());
+        assertEquals(expected.isFollowRequestSent(), actual.isFollowRequestSent());
+        assertEquals(expected.getFavouritesCount(), actual.getFavouritesCount());
+        assertEquals(expected.getUtcOffset(), actual.getUtcOffset());
+        assertEquals(expected.getTimeZone(), actual.getTimeZone());
+        assertEquals(expected.getListedCount(), actual.getListedCount());
+        assertEquals(expected.getURLEntity(), actual.getURLEntity());
+        assertArrayEquals(expected.getDescriptionURLEntities(), actual.getDescriptionURLEntities());
+        assertEquals(expected.getStatus(), actual.getStatus());
+    }
+}
@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Unit test for JSONObjectType
  *
@@ -58,5 +62,37 @@ class JSONObjectTypeTest {
         }
 
     }
-}
 
+    @Test
+    void testDetermineIndexed() throws Exception {
+        String disconnectionNotice = "{\"disconnect\":{\"code\":3,\"stream_name\":\"yusuke-sitestream6139-yusuke\"}}";
+        String event = "{\"event\":\"list_created\",\"source\":{},\"target_object\":{}}";
+        String deleteWithText = "{\"delete\":{\"status\":{\"id\":1,\"user_id\":2}},\"text\":\"x\"}";
+        for (String text : new String[]{statusJsonText, deleteJsonText, scrubGeoJsonText, limitJsonText, randomJsonText,
+                disconnectionNotice, event, deleteWithText, "{\"event\":\"unknown\"}", "{\"event\":1}"}) {
+            assertEquals(JSONObjectType.determine(new JSONObject(text)),
+                    JSONObjectType.determine(JSONByteIndex.of(text.getBytes(StandardCharsets.UTF_8))), text);
+        }
+        for (String path : new String[]{"/streamingapi-testcase.json", "/streamingapi-event-testcase.json", "/stallwarning.json"}) {
+            for (String line : LazyStatusJSONImplTest.read(path).split("\n")) {
+                if (!line.trim().isEmpty()) {
+                    assertEquals(JSONObjectType.determine(new JSONObject(line)),
+                            JSONObjectType.determine(JSONByteIndex.of(line.getBytes(StandardCharsets.UTF_8))), line);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSniff() {
+        assertEquals(JSONObjectType.Type.DELETE, JSONObjectType.sniff(deleteJsonText));
+        assertEquals(JSONObjectType.Type.SCRUB_GEO, JSONObjectType.sniff(scrubGeoJsonText));
+        assertEquals(JSONObjectType.Type.LIMIT, JSONObjectType.sniff(" { \"limit\" :{\"track\":1234}}"));
+        assertEquals(JSONObjectType.Type.STALL_WARNING, JSONObjectType.sniff("{\"warning\":{}}"));
+        assertEquals(JSONObjectType.Type.UNKNOWN, JSONObjectType.sniff(statusJsonText));
+        assertEquals(JSONObjectType.Type.UNKNOWN, JSONObjectType.sniff("{\"limited\":1}"));
+        assertEquals(JSONObjectType.Type.UNKNOWN, JSONObjectType.sniff("{\"text\":\"x\",\"delete\":{}}"));
+        assertEquals(JSONObjectType.Type.UNKNOWN, JSONObjectType.sniff("[\"delete\"]"));
+        assertEquals(JSONObjectType.Type.UNKNOWN, JSONObjectType.sniff(""));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class LazyStatusJSONImplTest {
+
+    @Test
+    void testTimelineMatchesEagerBinding() throws Exception {
+        for (String path : new String[]{"/dao/statuses/home_timeline.json", "/dao/statuses/public_timeline.json"}) {
+            byte[] raw = read(path).getBytes(StandardCharsets.UTF_8);
+            JSONArray array = new JSONArray(new String(raw, StandardCharsets.UTF_8));
+            int[] elements = JSONByteIndex.elements(raw);
+            assertEquals(array.length() * 2, elements.length);
+            for (int i = 0; i < array.length(); i++) {
+                byte[] element = java.util.Arrays.copyOfRange(raw, elements[i * 2], elements[i * 2 + 1]);
+                assertStatusEquals(new StatusJSONImpl(array.getJSONObject(i)),
+                        new LazyStatusJSONImpl(JSONByteIndex.of(element)));
+            }
+        }
+    }
+
+    @Test
+    void testStreamMatchesEagerBinding() throws Exception {
+        ObjectFactory factory = new LazyJSONImplFactory(false);
+        int statuses = 0;
+        for (String line : read("/streamingapi-testcase.json").split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            JSONObject json = new JSONObject(line);
+            Status lazy = factory.createStreamStatus(line);
+            if (JSONObjectType.determine(json) == JSONObjectType.Type.STATUS) {
+                assertNotNull(lazy, line);
+                assertStatusEquals(new StatusJSONImpl(json), lazy);
+                statuses++;
+            } else {
+                assertNull(lazy, line);
+            }
+        }
+        assertTrue(statuses > 0);
+        assertNull(factory.createStreamStatus("{\"delete\":{\"status\":{\"id\":1,\"user_id\":2}}}"));
+        assertNull(factory.createStreamStatus("{\"limit\":{\"track\":10}}"));
+    }
+
+    @Test
+    void testEscapedMembers() throws Exception {
+        String json = "{\"id\":1,\"text\":\"caf\\u00e9 &amp; \\\"quoted\\\"\",\"t\\u0065xt2\":\"x\",\"created_at\":\"Sat Dec 19 16:01:35 +0000 2009\","
+                + "\"lang\":null,\"user\":{\"id\":2,\"screen_name\":\"\\u3042\",\"created_at\":\"Sat Dec 19 16:01:35 +0000 2009\"}}";
+        JSONByteIndex index = JSONByteIndex.of(json.getBytes(StandardCharsets.UTF_8));
+        assertEquals(6, index.length());
+        assertEquals("x", index.opt("text2"));
+        Status status = new LazyStatusJSONImpl(index);
+        assertStatusEquals(new StatusJSONImpl(new JSONObject(json)), status);
+        assertEquals("caf\u00e9 & \"quoted\"", status.getText());
+        assertNull(status.getLang());
+        assertEquals("\u3042", status.getUser().getScreenName());
+    }
+
+    @Test
+    void testMalformedInput() {
+        for (String json : new String[]{"", "[]", "{", "{\"a\"}", "{\"a\":1", "{\"a\":1}x", "{a:1}", "{\"a\":\"b}"}) {
+            assertThrows(JSONException.class, () -> JSONByteIndex.of(json.getBytes(StandardCharsets.UTF_8)), json);
+        }
+        assertThrows(JSONException.class, () -> JSONByteIndex.elements("{}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JSONException.class, () -> JSONByteIndex.elements("[{},".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(TwitterException.class, () -> new LazyJSONImplFactory(false).createStreamStatus("{\"text\":"));
+    }
+
+    @Test
+    void testSerializedAsStatusJSONImpl() throws Exception {
+        String line = null;
+        for (String candidate : read("/streamingapi-testcase.json").split("\n")) {
+            if (candidate.startsWith("{\"text\"")) {
+                line = candidate;
+                break;
+            }
+        }
+        assertNotNull(line);
+        Status lazy = new LazyJSONImplFactory(false).createStreamStatus(line);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(lazy);
+        }
+        Object deserialized;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            deserialized = ois.readObject();
+        }
+        assertInstanceOf(StatusJSONImpl.class, deserialized);
+        assertEquals(lazy, deserialized);
+        assertStatusEquals((Status) deserialized, lazy);
+    }
+
+    static void assertStatusEquals(Status expected, Status actual) {
+        String id = "status " + expected.getId();
+        assertEquals(expected.getId(), actual.getId(), id);
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt(), id);
+        assertEquals(expected.getText(), actual.getText(), id);
+        assertEquals(expected.getSource(), actual.getSource(), id);
+        assertEquals(expected.isTruncated(), actual.isTruncated(), id);
+        assertEquals(expected.getInReplyToStatusId(), actual.getInReplyToStatusId(), id);
+        assertEquals(expected.getInReplyToUserId(), actual.getInReplyToUserId(), id);
+        assertEquals(expected.getInReplyToScreenName(), actual.getInReplyToScreenName(), id);
+        assertEquals(expected.isFavorited(), actual.isFavorited(), id);
+        assertEquals(expected.isRetweeted(), actual.isRetweeted(), id);
+        assertEquals(expected.getFavoriteCount(), actual.getFavoriteCount(), id);
+        assertEquals(expected.getRetweetCount(), actual.getRetweetCount(), id);
+        assertEquals(expected.isPossiblySensitive(), actual.isPossiblySensitive(), id);
+        assertEquals(expected.getLang(), actual.getLang(), id);
+        assertEquals(expected.isRetweet(), actual.isRetweet(), id);
+        assertEquals(expected.getGeoLocation(), actual.getGeoLocation(), id);
+        assertEquals(expected.getPlace(), actual.getPlace(), id);
+        assertArrayEquals(expected.getURLEntities(), actual.getURLEntities(), id);
+        assertArrayEquals(expected.getHashtagEntities(), actual.getHashtagEntities(), id);
+        assertArrayEquals(expected.getUserMentionEntities(), actual.getUserMentionEntities(), id);
+        assertArrayEquals(expected.getMediaEntities(), actual.getMediaEntities(), id);
+        assertEquals(expected, actual, id);
+        assertEquals(expected.hashCode(), actual.hashCode(), id);
+        if (expected.getUser() == null) {
+            assertNull(actual.getUser(), id);
+        } else {
+            assertUserEquals(expected.getUser(), actual.getUser());
+        }
+        if (expected.getRetweetedStatus() == null) {
+            assertNull(actual.getRetweetedStatus(), id);
+        } else {
+            assertStatusEquals(expected.getRetweetedStatus(), actual.getRetweetedStatus());
+        }
+    }
+
+    static void assertUserEquals(User expected, User actual) {
+        String id = "user " + expected.getId();
+        assertEquals(expected.getId(), actual.getId(), id);
+        assertEquals(expected.getName(), actual.getName(), id);
+        assertEquals(expected.getScreenName(), actual.getScreenName(), id);
+        assertEquals(expected.getLocation(), actual.getLocation(), id);
+        assertEquals(expected.getDescription(), actual.getDescription(), id);
+        assertEquals(expected.getProfileImageURL(), actual.getProfileImageURL(), id);
+        assertEquals(expected.getProfileImageURLHttps(), actual.getProfileImageURLHttps(), id);
+        assertEquals(expected.isProtected(), actual.isProtected(), id);
+        assertEquals(expected.isVerified(), actual.isVerified(), id);
+        assertEquals(expected.getFollowersCount(), actual.getFollowersCount(), id);
+        assertEquals(expected.getFriendsCount(), actual.getFriendsCount(), id);
+        assertEquals(expected.getStatusesCount(), actual.getStatusesCount(), id);
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt(), id);
+        assertEquals(expected.getLang(), actual.getLang(), id);
+        assertEquals(expected.getURL(), actual.getURL(), id);
+        assertEquals(expected, actual, id);
+    }
+
+    static String read(String path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                LazyStatusJSONImplTest.class.getResourceAsStream(path), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return String.join("\n", lines);
+    }
+}
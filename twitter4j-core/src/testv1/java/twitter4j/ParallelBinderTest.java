@@ -0,0 +1,107 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.ResponseList;
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static twitter4j.LazyStatusJSONImplTest.assertStatusEquals;
+import static twitter4j.LazyStatusJSONImplTest.assertUserEquals;
+import static twitter4j.LazyStatusJSONImplTest.read;
+
+@Execution(ExecutionMode.CONCURRENT)
+class ParallelBinderTest {
+
+    @Test
+    void testPreservesOrder() throws Exception {
+        JSONArray statuses = timeline(200);
+        List<Status> bound = ParallelBinder.bind(statuses, new ArrayList<>(), StatusJSONImpl::new, 1);
+        assertEquals(statuses.length(), bound.size());
+        for (int i = 0; i < statuses.length(); i++) {
+            assertStatusEquals(new StatusJSONImpl(statuses.getJSONObject(i)), bound.get(i));
+        }
+    }
+
+    @Test
+    void testFactoryBindsListResponses() throws Exception {
+        JSONArray statuses = timeline(200);
+        JSONArray users = new JSONArray();
+        for (int i = 0; i < statuses.length(); i++) {
+            users.put(statuses.getJSONObject(i).getJSONObject("user"));
+        }
+        for (JSONImplFactory factory : new JSONImplFactory[]{new JSONImplFactory(false, null, 50),
+                new CompactJSONImplFactory(false, null, 50)}) {
+            ResponseList<Status> statusList = factory.createStatusList(new MockHttpResponse(statuses.toString()));
+            assertEquals(180, statusList.getRateLimitStatus().getLimit());
+            assertEquals(statuses.length(), statusList.size());
+            for (int i = 0; i < statuses.length(); i++) {
+                assertStatusEquals(factory.createStatus(statuses.getJSONObject(i)), statusList.get(i));
+            }
+
+            ResponseList<User> userList = factory.createUserList(new MockHttpResponse(users.toString()));
+            assertEquals(180, userList.getRateLimitStatus().getLimit());
+            assertEquals(users.length(), userList.size());
+            for (int i = 0; i < users.length(); i++) {
+                assertUserEquals(factory.createUser(users.getJSONObject(i)), userList.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testFailure() throws Exception {
+        JSONArray statuses = timeline(100);
+        statuses.put(60, "not an object");
+        assertThrows(TwitterException.class,
+                () -> ParallelBinder.bind(statuses, new ArrayList<>(), StatusJSONImpl::new, 1));
+
+        JSONArray timeline = timeline(100);
+        TwitterException thrown = assertThrows(TwitterException.class,
+                () -> ParallelBinder.bind(timeline, new ArrayList<Status>(), json -> {
+                    if (json == timeline.getJSONObject(70)) {
+                        throw new TwitterException("failed");
+                    }
+                    return new StatusJSONImpl(json);
+                }, 1));
+        assertEquals("failed", thrown.getMessage());
+    }
+
+    private static JSONArray timeline(int size) throws Exception {
+        JSONArray homeTimeline = new JSONArray(read("/dao/statuses/home_timeline.json"));
+        JSONArray timeline = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            timeline.put(new JSONObject(homeTimeline.getJSONObject(i % homeTimeline.length()).toString()));
+        }
+        return timeline;
+    }
+
+    private static class MockHttpResponse extends RateLimitStatusJSONImplTest.MockHttpResponse {
+        MockHttpResponse(String body) {
+            this.statusCode = 200;
+            this.is = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
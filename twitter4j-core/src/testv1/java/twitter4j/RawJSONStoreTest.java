@@ -0,0 +1,137 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.Status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static twitter4j.LazyStatusJSONImplTest.read;
+
+@Execution(ExecutionMode.CONCURRENT)
+class RawJSONStoreTest {
+
+    @Test
+    void testKeyedByIdentity() throws Exception {
+        String rawJSON = new JSONArray(read("/dao/statuses/home_timeline.json")).getJSONObject(0).toString();
+        Status status = new StatusJSONImpl(new JSONObject(rawJSON));
+        Status equalStatus = new StatusJSONImpl(new JSONObject(rawJSON));
+        assertEquals(status, equalStatus);
+
+        RawJSONStore store = new RawJSONStore(16);
+        store.put(status, rawJSON);
+        assertEquals(rawJSON, store.get(status));
+        assertNull(store.get(equalStatus));
+
+        store.put(equalStatus, new JSONObject(rawJSON));
+        assertEquals(new JSONObject(rawJSON).toString(), store.get(equalStatus));
+        assertEquals(2, store.size());
+
+        store.put(status, "{\"id\":1}");
+        assertEquals("{\"id\":1}", store.get(status));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testVisibleFromOtherThreads() throws Exception {
+        RawJSONStore store = new RawJSONStore(16);
+        Object key = CompletableFuture.supplyAsync(() -> {
+            Object object = new Object();
+            store.put(object, "{\"text\":\"あ\"}");
+            return object;
+        }).get();
+        assertEquals("{\"text\":\"あ\"}", store.get(key));
+    }
+
+    @Test
+    void testEvictsOldest() {
+        RawJSONStore store = new RawJSONStore(3);
+        Object[] keys = new Object[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            store.put(keys[i], "{\"i\":" + i + "}");
+            assertTrue(store.size() <= 3);
+        }
+        assertNull(store.get(keys[0]));
+        assertNull(store.get(keys[1]));
+        for (int i = 2; i < keys.length; i++) {
+            assertEquals("{\"i\":" + i + "}", store.get(keys[i]));
+        }
+    }
+
+    @Test
+    void testReleasedWithObject() throws Exception {
+        RawJSONStore store = new RawJSONStore(16);
+        Object key = new Object();
+        store.put(key, "{}");
+        store.put(new Object(), "{}");
+        for (int i = 0; i < 100 && store.size() != 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, store.size());
+        assertEquals("{}", store.get(key));
+    }
+
+    @Test
+    void testSerializedOnPut() {
+        RawJSONStore store = new RawJSONStore(16);
+        AtomicInteger serialized = new AtomicInteger();
+        Object json = new Object() {
+            @Override
+            public String toString() {
+                serialized.incrementAndGet();
+                return "{}";
+            }
+        };
+        Object key = new Object();
+        store.put(key, json);
+        assertEquals(1, serialized.get());
+        assertEquals("{}", store.get(key));
+        assertEquals("{}", store.get(key));
+        // the parsed form is not retained
+        assertEquals(1, serialized.get());
+    }
+
+    @Test
+    void testResizeKeepsLatest() {
+        RawJSONStore store = new RawJSONStore(4);
+        Object[] keys = new Object[4];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            store.put(keys[i], "{\"i\":" + i + "}");
+        }
+        RawJSONStore shrunk = store.resize(2);
+        assertEquals(2, shrunk.capacity());
+        assertNull(shrunk.get(keys[1]));
+        assertEquals("{\"i\":2}", shrunk.get(keys[2]));
+        assertEquals("{\"i\":3}", shrunk.get(keys[3]));
+
+        RawJSONStore grown = store.resize(8);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals("{\"i\":" + i + "}", grown.get(keys[i]));
+        }
+        Object key = new Object();
+        grown.put(key, "{}");
+        assertEquals(5, grown.size());
+    }
+}
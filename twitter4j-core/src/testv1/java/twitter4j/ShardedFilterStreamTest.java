@@ -0,0 +1,198 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.management.FilterShardStatistics;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.StatusDeletionNotice;
+
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class ShardedFilterStreamTest {
+
+    @Test
+    void testSplit() {
+        String[] track = new String[1000];
+        for (int i = 0; i < track.length; i++) {
+            track[i] = "keyword" + i;
+        }
+        FilterQuery query = FilterQuery.ofTrack(track).follow(1, 2, 3, 4, 5).language("en");
+        assertEquals(3, ShardedFilterStream.shardsFor(query));
+        assertEquals(2, ShardedFilterStream.shardsFor(FilterQuery.ofFollow(new long[5001])));
+        assertEquals(1, ShardedFilterStream.shardsFor(FilterQuery.ofLocations(new double[][]{{1, 2}, {3, 4}})));
+        assertEquals(2, ShardedFilterStream.shardsFor(FilterQuery.ofLocations(new double[52][])));
+
+        List<FilterQuery> queries = ShardedFilterStream.split(query, 3);
+        assertEquals(3, queries.size());
+        Set<String> keywords = new HashSet<>();
+        Set<Long> follow = new HashSet<>();
+        for (FilterQuery shard : queries) {
+            assertTrue(shard.track.length <= ShardedFilterStream.MAX_TRACK);
+            keywords.addAll(Arrays.asList(shard.track));
+            Arrays.stream(shard.follow).forEach(follow::add);
+            assertArrayEquals(new String[]{"en"}, shard.language);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(track)), keywords);
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L, 5L)), follow);
+
+        // shards left without predicates are left out
+        queries = ShardedFilterStream.split(FilterQuery.ofTrack("a", "b"), 4);
+        assertEquals(2, queries.size());
+        assertArrayEquals(new String[]{"a"}, queries.get(0).track);
+        assertArrayEquals(new String[]{"b"}, queries.get(1).track);
+        assertEquals(0, queries.get(1).follow.length);
+
+        // bounding boxes keep both corners
+        double[][] boxes = {{1, 2}, {3, 4}, {5, 6}, {7, 8}, {9, 10}, {11, 12}};
+        queries = ShardedFilterStream.split(FilterQuery.ofLocations(boxes), 2);
+        assertArrayEquals(new double[][]{{1, 2}, {3, 4}, {9, 10}, {11, 12}}, queries.get(0).locations);
+        assertArrayEquals(new double[][]{{5, 6}, {7, 8}}, queries.get(1).locations);
+    }
+
+    @Test
+    void testStatusIdWindow() {
+        StatusIdWindow window = new StatusIdWindow(1000, 3);
+        assertTrue(window.add(1, 0));
+        assertFalse(window.add(1, 10));
+        assertTrue(window.add(-1, 10));
+        assertTrue(window.add(2, 500));
+        // 1 and -1 expire
+        assertTrue(window.add(3, 1010));
+        assertEquals(2, window.size());
+        assertTrue(window.add(1, 1020));
+        assertFalse(window.add(2, 1020));
+        // the oldest id overflows
+        assertTrue(window.add(4, 1030));
+        assertTrue(window.add(2, 1040));
+        assertFalse(window.add(4, 1040));
+
+        // compared with a linked hash map, with ids crowding into few slots
+        Random random = new Random(42);
+        StatusIdWindow ids = new StatusIdWindow(50, 64);
+        Map<Long, Long> expected = new LinkedHashMap<>();
+        for (long now = 0; now < 20000; now++) {
+            long id = 1 + random.nextInt(200) * 1024L;
+            for (Iterator<Long> it = expected.values().iterator(); it.hasNext(); ) {
+                if (it.next() <= now - 50) {
+                    it.remove();
+                } else {
+                    break;
+                }
+            }
+            boolean added = !expected.containsKey(id);
+            if (added) {
+                if (expected.size() == 64) {
+                    expected.remove(expected.keySet().iterator().next());
+                }
+                expected.put(id, now);
+            }
+            assertEquals(added, ids.add(id, now), "at " + now);
+            assertEquals(expected.size(), ids.size());
+        }
+    }
+
+    @Test
+    void testMergesShards() throws Exception {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build();
+        List<String> received = new ArrayList<>();
+        ShardedFilterStream stream = ShardedFilterStream.newBuilder(FilterQuery.ofTrack("a", "b", "c"))
+                .connection(twitter)
+                .shards(2)
+                .listener(new StatusAdapter() {
+                    @Override
+                    public void onStatus(Status status) {
+                        received.add("status " + status.getId());
+                    }
+
+                    @Override
+                    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+                        received.add("delete " + statusDeletionNotice.getStatusId());
+                    }
+
+                    @Override
+                    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+                        received.add("limit " + numberOfLimitedStatuses);
+                    }
+                }).build();
+        assertEquals(2, stream.shards.size());
+        assertArrayEquals(new String[]{"a", "c"}, stream.shards.get(0).query.track);
+        ShardedFilterStream.Shard shard0 = stream.shards.get(0);
+        ShardedFilterStream.Shard shard1 = stream.shards.get(1);
+
+        // created 1 second ago
+        long id = (System.currentTimeMillis() - 1000 - 1288834974657L) << 22;
+        Status status = new StatusJSONImpl(new JSONObject("{\"id\":" + id + ",\"text\":\"a c\",\"user\":{\"id\":1}}"));
+        shard0.onStatus(status);
+        shard1.onStatus(status);
+        shard1.onDeletionNotice(new StatusDeletionNoticeImpl(id, 1));
+        shard0.onDeletionNotice(new StatusDeletionNoticeImpl(id, 1));
+        shard0.onTrackLimitationNotice(10);
+        shard1.onTrackLimitationNotice(20);
+        assertEquals(Arrays.asList("status " + id, "delete " + id, "limit 10", "limit 20"), received);
+
+        List<FilterShardStatistics> statistics = stream.getStatistics();
+        assertEquals(1, statistics.get(0).getStatusCount());
+        assertEquals(0, statistics.get(0).getDuplicateCount());
+        assertEquals(1, statistics.get(1).getStatusCount());
+        assertEquals(1, statistics.get(1).getDuplicateCount());
+        assertTrue(statistics.get(1).getLagMillis() >= 1000);
+        assertTrue(statistics.get(1).getLagMillis() < 60_000);
+        assertEquals(-1, ShardedFilterStream.createdAt(6832057002L));
+    }
+
+    @Test
+    void testFlushForwarded() throws Exception {
+        Twitter twitter = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build();
+        AtomicInteger flushes = new AtomicInteger();
+        class FlushableListener extends StatusAdapter implements Flushable {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        }
+        ShardedFilterStream stream = ShardedFilterStream.newBuilder(FilterQuery.ofTrack("a", "b"))
+                .connection(twitter)
+                .shards(2)
+                .listener(new FlushableListener())
+                .listener(new StatusAdapter())
+                .build();
+        stream.shards.get(0).flush();
+        assertEquals(1, flushes.get());
+    }
+}
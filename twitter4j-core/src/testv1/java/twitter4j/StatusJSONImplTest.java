@@ -8,6 +8,9 @@ import twitter4j.v1.MediaEntity;
 import twitter4j.v1.Status;
 import twitter4j.v1.URLEntity;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -223,4 +226,23 @@ public class StatusJSONImplTest {
         assertEquals(125, status.getDisplayTextRangeEnd());
     }
 
+    @Test
+    void testSkippedJSONFields() throws Exception {
+        String rawJson = "{\"created_at\":\"Sun Apr 07 16:30:26 +0000 2013\",\"id\":320936613498744832,\"text\":\"@Livvy_Scott1 because I am a clever  boy.\",\"lang\":\"en\",\"place\":{\"id\":\"55c6bcd3013a0607\",\"bounding_box\":{\"type\":\"Polygon\",\"coordinates\":[[[0.38178,52.055592],[0.38178,52.400796],[0.967452,52.400796],[0.967452,52.055592]]]},\"place_type\":\"city\",\"name\":\"St. Edmundsbury\",\"country_code\":\"GB\",\"country\":\"United Kingdom\",\"full_name\":\"St. Edmundsbury, Suffolk\"},\"entities\":{\"urls\":[],\"hashtags\":[],\"user_mentions\":[{\"id\":476669159,\"name\":\"livs ?\",\"indices\":[0,13],\"screen_name\":\"Livvy_Scott1\",\"id_str\":\"476669159\"}]},\"user\":{\"id\":448404395,\"screen_name\":\"maxwellDJ18\",\"profile_link_color\":\"009999\",\"profile_background_color\":\"131516\",\"profile_banner_url\":\"https://si0.twimg.com/profile_banners/448404395/1365018601\"}}";
+        Status status = TwitterObjectFactory.createStatus(rawJson,
+                new HashSet<>(Arrays.asList("place", "profile_link_color", "profile_background_color", "profile_banner_url")));
+
+        assertEquals(320936613498744832L, status.getId());
+        assertEquals("en", status.getLang());
+        assertEquals("Livvy_Scott1", status.getUserMentionEntities()[0].getScreenName());
+        assertEquals("maxwellDJ18", status.getUser().getScreenName());
+        assertNull(status.getPlace());
+        assertNull(status.getUser().getProfileLinkColor());
+        assertNull(status.getUser().getProfileBannerURL());
+
+        Status full = TwitterObjectFactory.createStatus(rawJson);
+        assertEquals("St. Edmundsbury", full.getPlace().getName());
+        assertEquals("009999", full.getUser().getProfileLinkColor());
+    }
+
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.StatusDeletionNotice;
+
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StatusRouterTest {
+
+    @Test
+    void testKeywordAutomaton() {
+        List<String> patterns = Arrays.asList("he", "she", "his", "hers");
+        KeywordAutomaton automaton = KeywordAutomaton.of(patterns);
+        List<String> found = new ArrayList<>();
+        char[] text = "ushers".toCharArray();
+        automaton.match(text, text.length, p -> found.add(patterns.get(p)));
+        assertEquals(Arrays.asList("she", "he", "hers"), found);
+
+        // compared with indexOf
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            words.add(randomString(random, 1 + random.nextInt(4)));
+        }
+        KeywordAutomaton wordAutomaton = KeywordAutomaton.of(words);
+        for (int n = 0; n < 100; n++) {
+            String haystack = randomString(random, 200);
+            int[] counts = new int[words.size()];
+            wordAutomaton.match(haystack.toCharArray(), haystack.length(), p -> counts[p]++);
+            for (int p = 0; p < words.size(); p++) {
+                int expected = 0;
+                for (int i = haystack.indexOf(words.get(p)); i != -1; i = haystack.indexOf(words.get(p), i + 1)) {
+                    expected++;
+                }
+                assertEquals(expected, counts[p], words.get(p) + " in " + haystack);
+            }
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    void testLocationGrid() {
+        LocationGrid grid = new LocationGrid(new double[]{
+                -122.75, 36.8, -121.75, 37.8, // San Francisco
+                -74, 40, -73, 41, // New York
+                -180, -90, 180, 90 // everywhere
+        });
+        assertEquals(Arrays.asList(0, 2), query(grid, -122.4, 37.7));
+        assertEquals(Arrays.asList(1, 2), query(grid, -73.5, 40.5));
+        assertEquals(Arrays.asList(2), query(grid, 139.7, 35.7));
+        // edges are inclusive
+        assertEquals(Arrays.asList(1, 2), query(grid, -73, 41));
+
+        List<Integer> found = new ArrayList<>();
+        grid.query(-123, 37.5, -122.5, 38, found::add);
+        assertEquals(Arrays.asList(0, 2), found);
+        found.clear();
+        // spanning many cells
+        grid.query(-125, 30, -70, 45, found::add);
+        assertEquals(Arrays.asList(0, 1, 2), found);
+    }
+
+    private static List<Integer> query(LocationGrid grid, double longitude, double latitude) {
+        List<Integer> found = new ArrayList<>();
+        grid.query(longitude, latitude, found::add);
+        return found;
+    }
+
+    @Test
+    void testTrack() throws Exception {
+        // examples of the statuses/filter documentation
+        assertMatches("Twitter", "TWITTER", "twitter", "\"Twitter\"", "twitter.", "#twitter", "@twitter",
+                "http://twitter.com");
+        assertNotMatches("Twitter", "TwitterTracker", "#newtwitter");
+        assertMatches("Twitter's", "I like Twitter's new design");
+        assertNotMatches("Twitter's", "Someday I'd like to visit @Twitter's office");
+        assertMatches("twitter api", "The Twitter API is awesome", "Twitter has a streaming API");
+        assertNotMatches("twitter api", "I'm new to Twitter");
+        assertMatches("example.com", "Someday I will visit example.com");
+        assertNotMatches("example.com", "There is no example.com/foobarbaz");
+        assertMatches("example.com/foobarbaz", "example.com/foobarbaz", "www.example.com/foobarbaz");
+        assertNotMatches("example.com/foobarbaz", "example.com");
+        assertMatches("www.example.com/foobarbaz", "www.example.com/foobarbaz");
+        assertNotMatches("www.example.com/foobarbaz", "example.com/foobarbaz");
+        assertMatches("example com", "example.com", "example.com/foobarbaz");
+        // case folding beyond ascii
+        assertMatches("straße", "STRAßE wird gebaut");
+        assertMatches("ΣΟΦΙΑ", "σοφια");
+    }
+
+    private static void assertMatches(String track, String... texts) throws Exception {
+        StatusRouter router = StatusRouter.newBuilder()
+                .subscribe(FilterQuery.ofTrack(track), new StatusAdapter()).build();
+        for (String text : texts) {
+            assertEquals(1, router.match(status(text)).length, track + " in " + text);
+        }
+    }
+
+    private static void assertNotMatches(String track, String... texts) throws Exception {
+        StatusRouter router = StatusRouter.newBuilder()
+                .subscribe(FilterQuery.ofTrack(track), new StatusAdapter()).build();
+        for (String text : texts) {
+            assertEquals(0, router.match(status(text)).length, track + " in " + text);
+        }
+    }
+
+    /**
+     * @return status with the text, and the entities Twitter would extract from it
+     */
+    private static Status status(String text) throws Exception {
+        JSONArray hashtags = new JSONArray();
+        JSONArray mentions = new JSONArray();
+        JSONArray urls = new JSONArray();
+        String shortened = text;
+        for (String token : text.split(" ")) {
+            int index = text.indexOf(token);
+            if (token.startsWith("#")) {
+                hashtags.put(new JSONObject().put("text", token.substring(1))
+                        .put("indices", new JSONArray(Arrays.asList(index, index + token.length()))));
+            } else if (token.startsWith("@")) {
+                String screenName = token.substring(1).split("'")[0];
+                mentions.put(new JSONObject().put("screen_name", screenName).put("id", 1).put("name", screenName)
+                        .put("indices", new JSONArray(Arrays.asList(index, index + screenName.length() + 1))));
+            } else if (token.contains(".com")) {
+                shortened = shortened.replace(token, "https://t.co/abc");
+                urls.put(new JSONObject().put("url", "https://t.co/abc")
+                        .put("expanded_url", token.startsWith("http") ? token : "http://" + token)
+                        .put("display_url", token.replaceFirst("^https?://", ""))
+                        .put("indices", new JSONArray(Arrays.asList(index, index + 16))));
+            }
+        }
+        return new StatusJSONImpl(new JSONObject().put("id", 1).put("text", shortened)
+                .put("user", new JSONObject().put("id", 1))
+                .put("entities", new JSONObject().put("hashtags", hashtags)
+                        .put("user_mentions", mentions).put("urls", urls)));
+    }
+
+    @Test
+    void testRouting() throws Exception {
+        List<String> java = new ArrayList<>();
+        List<String> bayArea = new ArrayList<>();
+        StatusAdapter javaListener = new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                java.add(status.getText());
+            }
+
+            @Override
+            public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+                java.add("delete " + statusDeletionNotice.getStatusId());
+            }
+        };
+        StatusAdapter bayAreaListener = new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                bayArea.add(status.getText());
+            }
+        };
+        StatusRouter router = StatusRouter.newBuilder()
+                .subscribe(FilterQuery.ofTrack("java", "jvm"), javaListener)
+                .subscribe(FilterQuery.ofTrack("kotlin").follow(42), javaListener)
+                .subscribe(FilterQuery.ofLocations(new double[][]{{-122.75, 36.8}, {-121.75, 37.8}}), bayAreaListener)
+                .build();
+
+        FilterQuery query = router.getQuery();
+        assertArrayEquals(new String[]{"java", "jvm", "kotlin"}, query.track);
+        assertArrayEquals(new long[]{42}, query.follow);
+        assertEquals(2, query.locations.length);
+
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":1,\"text\":\"Java and Kotlin\",\"user\":{\"id\":1}}")));
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":2,\"text\":\"hello\",\"user\":{\"id\":42}}")));
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":3,\"text\":\"java in sf\",\"user\":{\"id\":1},"
+                + "\"coordinates\":{\"type\":\"Point\",\"coordinates\":[-122.4,37.7]}}")));
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":4,\"text\":\"hello from oakland\",\"user\":{\"id\":1},"
+                + "\"place\":{\"id\":\"1\",\"bounding_box\":{\"type\":\"Polygon\",\"coordinates\":"
+                + "[[[-122.3,37.7],[-122.1,37.7],[-122.1,37.9],[-122.3,37.9]]]}}}")));
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":5,\"text\":\"nothing\",\"user\":{\"id\":1}}")));
+        router.onStatus(new StatusJSONImpl(new JSONObject("{\"id\":6,\"text\":\"RT @a: look\",\"user\":{\"id\":1},"
+                + "\"retweeted_status\":{\"id\":7,\"text\":\"look at the jvm\",\"user\":{\"id\":2}}}")));
+        router.onDeletionNotice(new StatusDeletionNoticeImpl(1, 1));
+
+        assertEquals(Arrays.asList("Java and Kotlin", "hello", "java in sf", "RT @a: look", "delete 1"), java);
+        assertEquals(Arrays.asList("java in sf", "hello from oakland"), bayArea);
+        List<StatusRouter.Route> routes = router.getRoutes();
+        assertEquals(3, routes.get(0).getMatchCount());
+        assertEquals(2, routes.get(1).getMatchCount());
+        assertEquals(2, routes.get(2).getMatchCount());
+    }
+
+    @Test
+    void testFlushForwarded() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        class FlushableListener extends StatusAdapter implements Flushable {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        }
+        FlushableListener flushable = new FlushableListener();
+        StatusRouter router = StatusRouter.newBuilder()
+                .subscribe(FilterQuery.ofTrack("java"), flushable)
+                .subscribe(FilterQuery.ofTrack("kotlin"), flushable)
+                .subscribe(FilterQuery.ofTrack("scala"), new StatusAdapter())
+                .build();
+        router.flush();
+        assertEquals(1, flushes.get());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.Status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StatusSpliteratorTest {
+
+    @Test
+    void testPull() {
+        String messages = status(1) +
+                "{\"delete\":{\"status\":{\"id\":1,\"user_id\":1}}}\n" +
+                "\n" +
+                "{\"limit\":{\"track\":10}}\n" +
+                "{\"id\":\n" +
+                status(2) +
+                status(3);
+        AtomicInteger connections = new AtomicInteger();
+        try (Stream<Status> statuses = StatusSpliterator.stream(() -> {
+            connections.incrementAndGet();
+            return stream(messages);
+        }, BackoffReconnectStrategy.newBuilder().build())) {
+            Iterator<Status> iterator = statuses.iterator();
+            assertEquals(0, connections.get());
+            assertEquals(1L, iterator.next().getId());
+            assertEquals(2L, iterator.next().getId());
+            assertEquals(3L, iterator.next().getId());
+        }
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    void testParallel() {
+        StringBuilder messages = new StringBuilder();
+        for (int i = 1; i <= 5000; i++) {
+            messages.append(status(i));
+        }
+        // the connection drops after the messages, and the stream is closed on reconnecting
+        StatusSpliterator[] spliterator = new StatusSpliterator[1];
+        AtomicInteger connections = new AtomicInteger();
+        spliterator[0] = new StatusSpliterator(() -> {
+            if (connections.incrementAndGet() == 1) {
+                return stream(messages.toString());
+            }
+            spliterator[0].close();
+            throw new TwitterException("closed");
+        });
+        List<Long> ids = StreamSupport.stream(spliterator[0], true)
+                .map(Status::getId)
+                .collect(Collectors.toList());
+        assertEquals(LongStream.rangeClosed(1, 5000).boxed().collect(Collectors.toList()), ids);
+        assertEquals(2, connections.get());
+        assertEquals(0, spliterator[0].estimateSize());
+    }
+
+    @Test
+    void testSplit() {
+        StringBuilder messages = new StringBuilder();
+        for (int i = 1; i <= 200; i++) {
+            messages.append(status(i));
+        }
+        StatusSpliterator spliterator = new StatusSpliterator(() -> stream(messages.toString()));
+        List<Long> first = StreamSupport.stream(spliterator.trySplit(), false)
+                .map(Status::getId).collect(Collectors.toList());
+        assertEquals(StatusSpliterator.INITIAL_BATCH, first.size());
+        assertEquals(1L, (long) first.get(0));
+        // the batch is handed off, and the rest is read in order
+        long[] next = new long[1];
+        assertTrue(spliterator.tryAdvance(status -> next[0] = status.getId()));
+        assertEquals(StatusSpliterator.INITIAL_BATCH + 1L, next[0]);
+        spliterator.close();
+        assertFalse(spliterator.tryAdvance(status -> fail()));
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    void testFatalError() {
+        AtomicInteger connections = new AtomicInteger();
+        StatusSpliterator spliterator = new StatusSpliterator(() -> {
+            connections.incrementAndGet();
+            throw new TwitterException("forbidden", null, HttpResponseCode.FORBIDDEN);
+        });
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> spliterator.tryAdvance(status -> fail()));
+        assertEquals(HttpResponseCode.FORBIDDEN, ((TwitterException) e.getCause()).getStatusCode());
+        // not retried
+        assertFalse(spliterator.tryAdvance(status -> fail()));
+        assertEquals(1, connections.get());
+    }
+
+    private static StatusStreamBase stream(String messages) {
+        return new StatusStreamImpl(new ByteArrayInputStream(messages.getBytes(StandardCharsets.UTF_8)),
+                Collections.emptyList(), Collections.emptyList(), false, false, new JSONImplFactory(false));
+    }
+
+    private static String status(long id) {
+        return "{\"id\":" + id + ",\"text\":\"a\",\"user\":{\"id\":1}}\n";
+    }
+}
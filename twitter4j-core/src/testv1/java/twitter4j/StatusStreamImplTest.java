@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.StallWarning;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.StatusDeletionNotice;
+import twitter4j.v1.StreamListener;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StatusStreamImplTest {
+
+    @Test
+    void testNoticesAreDispatchedWithoutJSONObject() throws Exception {
+        String stallWarning = LazyStatusJSONImplTest.read("/stallwarning.json");
+        String[] lines = {JSONObjectTypeTest.deleteJsonText, JSONObjectTypeTest.limitJsonText,
+                JSONObjectTypeTest.scrubGeoJsonText, stallWarning,
+                "{\"delete\":{\"direct_message\":{\"id\":1,\"user_id\":2}}}",
+                // delivered as a status, like the JSONObject path does
+                "{\"delete\":{\"status\":{\"id\":1,\"user_id\":2}},\"text\":\"x\",\"id\":3,\"user\":{\"id\":4}}",
+                // left to the JSONObject path, which reports it
+                "{\"limit\":1234}",
+                "{\"limit\":{\"track\":5}}"};
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        List<StreamListener> listeners = Collections.singletonList(new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                received.add("status " + status.getId());
+            }
+
+            @Override
+            public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+                received.add(statusDeletionNotice);
+            }
+
+            @Override
+            public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+                received.add("limit " + numberOfLimitedStatuses);
+            }
+
+            @Override
+            public void onScrubGeo(long userId, long upToStatusId) {
+                received.add("scrub_geo " + userId + " " + upToStatusId);
+            }
+
+            @Override
+            public void onStallWarning(StallWarning warning) {
+                received.add(warning);
+            }
+
+            @Override
+            public void onException(Exception ex) {
+                received.add(ex);
+            }
+        });
+        StatusStreamImpl stream = new StatusStreamImpl(new MockHttpResponse(String.join("\n", lines)), listeners,
+                Collections.emptyList(), false, false, new JSONImplFactory(false));
+        for (int i = 0; i < lines.length; i++) {
+            stream.next(listeners, Collections.emptyList());
+        }
+        assertEquals(new StatusDeletionNoticeImpl(new JSONObject(JSONObjectTypeTest.deleteJsonText)
+                .getJSONObject("delete").getJSONObject("status")), poll(received));
+        assertEquals("limit 1234", poll(received));
+        assertEquals("scrub_geo 14090452 23260136625", poll(received));
+        assertEquals(new StallWarningImpl(new JSONObject(stallWarning)), poll(received));
+        assertEquals("status 3", poll(received));
+        assertInstanceOf(JSONException.class, poll(received));
+        assertEquals("limit 5", poll(received));
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRawLineIsRegistered() throws Exception {
+        String line = "{\"text\": \"x\", \"id\": 3, \"user\": {\"id\": 4}}";
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        List<StreamListener> listeners = Collections.singletonList(new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                received.add(status);
+            }
+
+            @Override
+            public void onException(Exception ex) {
+                received.add(ex);
+            }
+        });
+        StatusStreamImpl stream = new StatusStreamImpl(new MockHttpResponse(line), listeners,
+                Collections.emptyList(), true, false, new JSONImplFactory(true));
+        stream.next(listeners, Collections.emptyList());
+        Object status = poll(received);
+        assertInstanceOf(Status.class, status);
+        assertEquals(line, TwitterObjectFactory.getRawJSON(status));
+    }
+
+    private static Object poll(BlockingQueue<Object> received) throws InterruptedException {
+        Object event = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event);
+        return event;
+    }
+
+    private static class MockHttpResponse extends RateLimitStatusJSONImplTest.MockHttpResponse {
+        MockHttpResponse(String body) {
+            this.statusCode = 200;
+            this.is = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
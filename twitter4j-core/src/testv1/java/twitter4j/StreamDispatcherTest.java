@@ -0,0 +1,286 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.management.StreamDispatcherStatistics;
+import twitter4j.v1.ConnectionLifeCycleListener;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.TwitterStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StreamDispatcherTest {
+
+    @Test
+    void testOrderPerStream() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            int streams = 50;
+            int events = 1000;
+            List<StreamDispatcher> dispatchers = new ArrayList<>();
+            List<List<Integer>> delivered = new ArrayList<>();
+            AtomicBoolean concurrent = new AtomicBoolean();
+            for (int i = 0; i < streams; i++) {
+                dispatchers.add(StreamDispatcher.queued(pool));
+                delivered.add(new ArrayList<>());
+            }
+            AtomicInteger[] inFlight = new AtomicInteger[streams];
+            for (int i = 0; i < streams; i++) {
+                inFlight[i] = new AtomicInteger();
+            }
+            for (int event = 0; event < events; event++) {
+                for (int i = 0; i < streams; i++) {
+                    int stream = i;
+                    int value = event;
+                    dispatchers.get(i).execute(() -> {
+                        if (inFlight[stream].incrementAndGet() > 1) {
+                            concurrent.set(true);
+                        }
+                        delivered.get(stream).add(value);
+                        inFlight[stream].decrementAndGet();
+                    });
+                }
+            }
+            for (StreamDispatcher dispatcher : dispatchers) {
+                assertTrue(dispatcher.close(10_000));
+            }
+            assertFalse(concurrent.get());
+            for (List<Integer> values : delivered) {
+                assertEquals(events, values.size());
+                for (int i = 0; i < events; i++) {
+                    assertEquals(i, (int) values.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDrainTimeout() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        try {
+            StreamDispatcher dispatcher = StreamDispatcher.queued(pool);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger delivered = new AtomicInteger();
+            dispatcher.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+                delivered.incrementAndGet();
+            });
+            dispatcher.execute(delivered::incrementAndGet);
+            // the messages read are left undispatched after the timeout
+            assertFalse(dispatcher.close(50));
+            assertTrue(StreamDispatcher.STATISTICS.getPendingEventCount() >= 1);
+            release.countDown();
+            assertTrue(dispatcher.close(10_000));
+            assertEquals(2, delivered.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testHandOff() throws Exception {
+        StreamDispatcherStatistics statistics = StreamDispatcher.STATISTICS;
+        StreamDispatcher dispatcher = StreamDispatcher.handOff(Executors.defaultThreadFactory());
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            taken.countDown();
+            try {
+                // waits for demand
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(taken.await(10, TimeUnit.SECONDS));
+        assertTrue(statistics.getThreadCount() >= 1);
+        // the waiting thread is released rather than leaked
+        assertFalse(dispatcher.close(50));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertEquals(StreamDispatcher.POOL_SIZE, statistics.getMaximumPoolSize());
+        assertSame(statistics, TwitterAPIMonitor.getInstance().getStreamDispatcherStatistics());
+    }
+
+    @Test
+    void testErrorInListener() throws Exception {
+        // drains run by hand
+        BlockingQueue<Runnable> drains = new LinkedBlockingQueue<>();
+        StreamDispatcher dispatcher = StreamDispatcher.queued(drains::add);
+        List<String> delivered = new ArrayList<>();
+        dispatcher.execute(() -> {
+            throw new AssertionError("listener");
+        });
+        dispatcher.execute(() -> delivered.add("a"));
+        assertEquals(1, drains.size());
+        assertThrows(AssertionError.class, () -> drains.take().run());
+
+        // the rest of the queue is drained by another task
+        assertEquals(1, drains.size());
+        drains.take().run();
+        assertEquals(Collections.singletonList("a"), delivered);
+        assertTrue(dispatcher.close(0));
+
+        // and the stream keeps being dispatched
+        dispatcher.execute(() -> {
+            throw new AssertionError("listener");
+        });
+        assertThrows(AssertionError.class, () -> drains.take().run());
+        assertTrue(drains.isEmpty());
+        assertTrue(dispatcher.close(0));
+        dispatcher.execute(() -> delivered.add("b"));
+        drains.take().run();
+        assertEquals(Arrays.asList("a", "b"), delivered);
+    }
+
+    @Test
+    void testHandOffAfterClose() throws Exception {
+        StreamDispatcher dispatcher = StreamDispatcher.handOff(Executors.defaultThreadFactory());
+        CountDownLatch taken = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            taken.countDown();
+            try {
+                // waits for demand
+                Thread.sleep(60_000);
+            } catch (InterruptedException ignore) {
+            }
+        });
+        assertTrue(taken.await(10, TimeUnit.SECONDS));
+        // blocks while the thread waits for demand
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> dispatcher.execute(() -> {
+        }));
+        Thread.sleep(50);
+        assertFalse(blocked.isDone());
+
+        assertFalse(dispatcher.close(50));
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> blocked.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.execute(() -> {
+        }));
+    }
+
+    @Test
+    void testShutdownDrainsBeforeDisconnect() throws Exception {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch closed = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            try {
+                for (int id = 1; id <= 3; id++) {
+                    out.write(("{\"id\":" + id + ",\"text\":\"a\",\"user\":{\"id\":1}}\r\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+                // keep-alive newlines until the client closes the connection
+                while (closed.getCount() > 0) {
+                    out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(10);
+                }
+            } catch (IOException e) {
+                received.add("closed");
+                closed.countDown();
+            } catch (InterruptedException ignore) {
+            }
+            exchange.close();
+        });
+        server.start();
+        CountDownLatch cleanedUp = new CountDownLatch(1);
+        Twitter.TwitterBuilder builder = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy")
+                .streamDrainTimeout(10_000)
+                .listener(new StatusAdapter() {
+                    @Override
+                    public void onStatus(Status status) {
+                        received.add("status " + status.getId());
+                        try {
+                            // a slow listener, leaving the next statuses queued
+                            Thread.sleep(100);
+                        } catch (InterruptedException ignore) {
+                        }
+                    }
+                })
+                .connectionLifeCycleListener(new ConnectionLifeCycleListener() {
+                    @Override
+                    public void onConnect() {
+                    }
+
+                    @Override
+                    public void onDisconnect() {
+                        received.add("disconnect");
+                    }
+
+                    @Override
+                    public void onCleanUp() {
+                        received.add("cleanup");
+                        cleanedUp.countDown();
+                    }
+                });
+        builder.streamBaseURL = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        TwitterStream stream = builder.build().v1().stream();
+        try {
+            stream.sample();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (received.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            stream.shutdown();
+            // the queued statuses are delivered before shutdown closes the connection
+            assertTrue(received.contains("status 3"));
+            assertTrue(cleanedUp.await(10, TimeUnit.SECONDS));
+            assertTrue(closed.await(10, TimeUnit.SECONDS));
+            List<String> events = new ArrayList<>(received);
+            assertEquals(Arrays.asList("status 1", "status 2", "status 3"), events.subList(0, 3));
+            assertTrue(events.indexOf("disconnect") < events.indexOf("cleanup"));
+        } finally {
+            closed.countDown();
+            server.stop(0);
+        }
+    }
+}
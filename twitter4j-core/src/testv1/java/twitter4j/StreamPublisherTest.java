@@ -0,0 +1,186 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.FilterQuery;
+import twitter4j.v1.RawStreamListener;
+import twitter4j.v1.Status;
+import twitter4j.v1.StreamListener;
+import twitter4j.v1.TwitterStream;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StreamPublisherTest {
+
+    @Test
+    void testAdaptsTwitterStream() {
+        TwitterStream stream = Twitter.newBuilder()
+                .oAuthConsumer("dummy", "dummy")
+                .oAuthAccessToken("dummy", "dummy").build().v1().stream();
+        Flow.Publisher<Status> statuses = StreamPublisher.statuses(stream, FilterQuery.ofTrack("java"));
+        assertTrue(statuses.toString().contains("messages=false"));
+        Flow.Publisher<String> messages = StreamPublisher.messages(stream, null);
+        assertTrue(messages.toString().contains("messages=true"));
+
+        // the core interface stays loadable on Java 8
+        for (Method method : TwitterStream.class.getMethods()) {
+            assertNotSame(Flow.Publisher.class, method.getReturnType());
+        }
+    }
+
+    @Test
+    void testBackpressure() throws Exception {
+        StringBuilder messages = new StringBuilder();
+        for (int i = 1; i <= 200; i++) {
+            messages.append("{\"id\":").append(i).append(",\"text\":\"a\",\"user\":{\"id\":1}}\n");
+        }
+        Recorder subscriber = new Recorder();
+        StreamPublisher.StatusSubscription subscription = new StreamPublisher.StatusSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        List<StreamListener> listeners = Collections.singletonList(subscription);
+        List<RawStreamListener> rawListeners = Collections.emptyList();
+        StatusStreamImpl stream = new StatusStreamImpl(
+                new ByteArrayInputStream(messages.toString().getBytes(StandardCharsets.UTF_8)),
+                listeners, rawListeners, false, false, new JSONImplFactory(false));
+
+        AtomicInteger read = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    stream.next(listeners, rawListeners);
+                    read.incrementAndGet();
+                }
+            } catch (TwitterException end) {
+                // the end of the stream
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        // one message waits for demand in the dispatcher, another one to be handed over to it
+        Thread.sleep(200);
+        assertTrue(read.get() <= 2, "read " + read.get());
+        assertEquals(0, subscriber.size());
+
+        subscription.request(5);
+        subscriber.await(5);
+        Thread.sleep(100);
+        assertEquals(5, subscriber.size());
+        assertTrue(read.get() <= 7, "read " + read.get());
+
+        subscription.request(Long.MAX_VALUE);
+        subscriber.await(200);
+        reader.join(10_000);
+        assertFalse(reader.isAlive());
+        synchronized (subscriber.ids) {
+            for (int i = 0; i < 200; i++) {
+                assertEquals(i + 1L, (long) subscriber.ids.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        Recorder subscriber = new Recorder();
+        StreamPublisher.StatusSubscription subscription = new StreamPublisher.StatusSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        Status status = new StatusJSONImpl(new JSONObject("{\"id\":1,\"text\":\"a\",\"user\":{\"id\":1}}"));
+        Thread dispatcher = new Thread(() -> subscription.onStatus(status));
+        dispatcher.start();
+        Thread.sleep(50);
+        assertTrue(dispatcher.isAlive());
+        // releases the waiting dispatcher without delivering
+        subscription.cancel();
+        dispatcher.join(10_000);
+        assertFalse(dispatcher.isAlive());
+        assertEquals(0, subscriber.size());
+        // cancelled subscriptions are not completed
+        subscription.onCleanUp();
+        assertNull(subscriber.terminal);
+
+        // non-positive requests are errors
+        Recorder invalid = new Recorder();
+        StreamPublisher.StatusSubscription invalidSubscription = new StreamPublisher.StatusSubscription(invalid);
+        invalidSubscription.request(0);
+        assertTrue(invalid.terminal instanceof IllegalArgumentException);
+        invalidSubscription.onCleanUp();
+        assertTrue(invalid.terminal instanceof IllegalArgumentException);
+
+        // the connection given up, with the latest error
+        Recorder givenUp = new Recorder();
+        StreamPublisher.StatusSubscription givenUpSubscription = new StreamPublisher.StatusSubscription(givenUp);
+        TwitterException error = new TwitterException("forbidden");
+        givenUpSubscription.onException(error);
+        givenUpSubscription.onCleanUp();
+        assertSame(error, givenUp.terminal);
+    }
+
+    private static final class Recorder implements Flow.Subscriber<Status> {
+        final List<Long> ids = new ArrayList<>();
+        volatile Throwable terminal;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+        }
+
+        @Override
+        public void onNext(Status item) {
+            synchronized (ids) {
+                ids.add(item.getId());
+                ids.notifyAll();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            terminal = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            terminal = new IllegalStateException("completed");
+        }
+
+        int size() {
+            synchronized (ids) {
+                return ids.size();
+            }
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            synchronized (ids) {
+                while (ids.size() < count && System.currentTimeMillis() < deadline) {
+                    ids.wait(100);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.v1.RawStreamListener;
+import twitter4j.v1.Status;
+import twitter4j.v1.StatusAdapter;
+import twitter4j.v1.StatusDeletionNotice;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StreamRecorderTest {
+    private static final long START = 1_500_000_000_000L;
+
+    @Test
+    void testRecordAndReplay() throws Exception {
+        Path dir = Files.createTempDirectory("twitter4j");
+        try {
+            List<String> messages = messages(600);
+            try (StreamRecorder recorder = StreamRecorder.open(dir, 96 * 1024)) {
+                for (int i = 0; i < messages.size(); i++) {
+                    recorder.append(messages.get(i), START + i * 10);
+                }
+            }
+            assertTrue(StreamRecorder.segments(dir).size() > 2);
+
+            List<String> raw = Collections.synchronizedList(new ArrayList<>());
+            List<String> received = Collections.synchronizedList(new ArrayList<>());
+            Twitter twitter = Twitter.newBuilder()
+                    .oAuthConsumer("dummy", "dummy")
+                    .oAuthAccessToken("dummy", "dummy")
+                    .listener(new RawStreamListener() {
+                        @Override
+                        public void onMessage(String rawString) {
+                            raw.add(rawString);
+                        }
+
+                        @Override
+                        public void onException(Exception ex) {
+                        }
+                    })
+                    .listener(new StatusAdapter() {
+                        @Override
+                        public void onStatus(Status status) {
+                            received.add("status " + status.getId() + " " + status.getText());
+                        }
+
+                        @Override
+                        public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+                            received.add("delete " + statusDeletionNotice.getStatusId());
+                        }
+
+                        @Override
+                        public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+                            received.add("limit " + numberOfLimitedStatuses);
+                        }
+                    }).build();
+            assertEquals(messages.size(), StreamReplayer.of(dir).replay(twitter));
+            assertEquals(messages, raw);
+            assertEquals(600, received.size());
+            assertEquals("status 1000 status 0 café 😀", received.get(0));
+            assertEquals("delete 1001", received.get(1));
+            assertEquals("limit 2", received.get(2));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void testSeek() throws Exception {
+        Path dir = Files.createTempDirectory("twitter4j");
+        try {
+            List<String> messages = messages(600);
+            try (StreamRecorder recorder = StreamRecorder.open(dir, 96 * 1024)) {
+                for (int i = 0; i < messages.size(); i++) {
+                    recorder.append(messages.get(i), START + i * 10);
+                }
+            }
+            for (int from : new int[]{0, 1, 299, 300, 301, 599}) {
+                List<String> replayed = new ArrayList<>();
+                StreamReplayer.of(dir).fromTimestamp(START + from * 10).replay(replayed::add);
+                assertEquals(messages.subList(from, messages.size()), replayed, "from " + from);
+
+                replayed.clear();
+                StreamReplayer.of(dir).fromStatusId(1000 + from).replay(replayed::add);
+                // starts from the first status with the id or greater
+                int status = from % 3 == 0 ? from : from + 3 - from % 3;
+                assertEquals(messages.subList(Math.min(status, messages.size()), messages.size()), replayed,
+                        "from id " + (1000 + from));
+            }
+            List<String> replayed = new ArrayList<>();
+            assertEquals(0, StreamReplayer.of(dir).fromTimestamp(START + 6000).replay(replayed::add));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void testSeekWithOutOfOrderIds() throws Exception {
+        Path dir = Files.createTempDirectory("twitter4j");
+        try {
+            char[] padding = new char[1000];
+            Arrays.fill(padding, 'x');
+            // ids of the first half are greater than those of the second half, which spans several index entries
+            List<String> messages = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                messages.add("{\"text\":\"status " + i + "\",\"id\":" + (i < 150 ? 5000 + i : 1000 + i)
+                        + ",\"user\":{\"id\":1},\"padding\":\"" + new String(padding) + "\"}");
+            }
+            try (StreamRecorder recorder = StreamRecorder.open(dir, 1024 * 1024)) {
+                for (int i = 0; i < messages.size(); i++) {
+                    recorder.append(messages.get(i), START + i * 10);
+                }
+            }
+            assertTrue(Files.size(StreamRecorder.indexOf(StreamRecorder.segments(dir).get(0)))
+                    >= 3 * StreamRecorder.INDEX_ENTRY_SIZE);
+
+            List<String> replayed = new ArrayList<>();
+            StreamReplayer.of(dir).fromStatusId(5000).replay(replayed::add);
+            assertEquals(messages, replayed);
+
+            replayed.clear();
+            StreamReplayer.of(dir).fromStatusId(5100).replay(replayed::add);
+            assertEquals(messages.subList(100, messages.size()), replayed);
+
+            replayed.clear();
+            StreamReplayer.of(dir).fromTimestamp(START + 200 * 10).fromStatusId(1250).replay(replayed::add);
+            assertEquals(messages.subList(250, messages.size()), replayed);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void testSegments() throws Exception {
+        Path dir = Files.createTempDirectory("twitter4j");
+        try {
+            char[] large = new char[4096];
+            Arrays.fill(large, 'あ');
+            List<String> messages = Arrays.asList("{\"limit\":{\"track\":1}}",
+                    "{\"text\":\"" + new String(large) + "\",\"id\":1,\"user\":{\"id\":1}}",
+                    "{\"limit\":{\"track\":2}}");
+            try (StreamRecorder recorder = StreamRecorder.open(dir, 1024)) {
+                recorder.onMessage(messages.get(0));
+                // larger than a segment
+                recorder.onMessage(messages.get(1));
+                // keep-alive
+                recorder.onMessage("");
+            }
+            // numbered after the existing segments
+            StreamRecorder reopened = StreamRecorder.open(dir, 1024);
+            reopened.onMessage(messages.get(2));
+            reopened.close();
+            reopened.onMessage("{\"limit\":{\"track\":3}}");
+            List<Path> segments = StreamRecorder.segments(dir);
+            assertEquals(3, segments.size());
+            assertEquals(2, StreamRecorder.sequenceOf(segments.get(2)));
+
+            List<String> replayed = new ArrayList<>();
+            StreamReplayer.of(dir).replay(replayed::add);
+            assertEquals(messages, replayed);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void testSpeed() throws Exception {
+        Path dir = Files.createTempDirectory("twitter4j");
+        try {
+            try (StreamRecorder recorder = StreamRecorder.open(dir, 1024)) {
+                for (int i = 0; i < 5; i++) {
+                    recorder.append("{\"limit\":{\"track\":" + i + "}}", START + i * 100);
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> StreamReplayer.of(dir).speed(0));
+            List<String> replayed = new ArrayList<>();
+            long start = System.nanoTime();
+            assertEquals(5, StreamReplayer.of(dir).speed(10).replay(replayed::add));
+            // 400 milliseconds of traffic at 10x
+            assertTrue(System.nanoTime() - start >= 40_000_000L);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * @return statuses with ids from 1000, each followed by a delete notice and a limit notice
+     */
+    private static List<String> messages(int count) {
+        char[] padding = new char[1000];
+        Arrays.fill(padding, 'x');
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < count; i += 3) {
+            messages.add("{\"text\":\"status " + i + " café 😀\",\"id\":" + (1000 + i)
+                    + ",\"user\":{\"id\":1},\"padding\":\"" + new String(padding) + "\"}");
+            messages.add("{\"delete\":{\"status\":{\"id\":" + (1000 + i + 1) + ",\"user_id\":1}}}");
+            messages.add("{\"limit\":{\"track\":" + (i + 2) + "}}");
+        }
+        return messages;
+    }
+
+    private static void delete(Path dir) {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) {
+                assertTrue(f.delete());
+            }
+        }
+        assertTrue(dir.toFile().delete());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+class StreamThreadsTest {
+
+    @Test
+    void testFactory() throws Exception {
+        boolean java21 = Runtime.version().feature() >= 21;
+        assertEquals(java21, StreamThreads.isVirtualThreadAvailable());
+        assertFalse(isVirtual(run(StreamThreads.factory(false).newThread(() -> {
+        }))));
+        // falls back to platform threads before Java 21
+        assertEquals(java21, isVirtual(run(StreamThreads.factory(true).newThread(() -> {
+        }))));
+    }
+
+    @Test
+    void testConfiguration() {
+        assertFalse(new Configuration<>().streamVirtualThreadsEnabled);
+        System.setProperty("twitter4j.stream.virtualThreadsEnabled", "true");
+        try {
+            assertTrue(new Configuration<>().streamVirtualThreadsEnabled);
+        } finally {
+            System.getProperties().remove("twitter4j.stream.virtualThreadsEnabled");
+        }
+        assertTrue(new Configuration<>().streamVirtualThreadsEnabled(true).streamVirtualThreadsEnabled);
+    }
+
+    private static Thread run(Thread thread) throws InterruptedException {
+        thread.start();
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        return thread;
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
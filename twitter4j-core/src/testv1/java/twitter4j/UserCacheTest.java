@@ -0,0 +1,128 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import twitter4j.management.UserCacheStatistics;
+import twitter4j.v1.Status;
+import twitter4j.v1.User;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static twitter4j.LazyStatusJSONImplTest.assertStatusEquals;
+import static twitter4j.LazyStatusJSONImplTest.read;
+
+@Execution(ExecutionMode.CONCURRENT)
+class UserCacheTest {
+
+    @Test
+    void testSharesUsersAcrossStatuses() throws Exception {
+        JSONArray array = new JSONArray(read("/dao/statuses/home_timeline.json"));
+        UserCache cache = new UserCache(64, false);
+        Map<Long, User> users = new HashMap<>();
+        for (int i = 0; i < array.length(); i++) {
+            Status status = new StatusJSONImpl(array.getJSONObject(i), cache);
+            assertStatusEquals(new StatusJSONImpl(array.getJSONObject(i)), status);
+            User previous = users.putIfAbsent(status.getUser().getId(), status.getUser());
+            if (previous != null && sameJSON(array, previous.getId(), i)) {
+                assertSame(previous, status.getUser());
+            }
+        }
+        assertEquals(array.length(), cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitCount() > 0);
+        assertEquals((double) cache.getHitCount() / array.length(), cache.getHitRatio(), 0.0001);
+        assertTrue(cache.getSize() <= users.size());
+    }
+
+    @Test
+    void testStatisticsAggregatedInOneMBean() throws Exception {
+        UserCache cache1 = new UserCache(64, false);
+        UserCache cache2 = new UserCache(128, false);
+        TwitterAPIMonitor.getInstance().userCacheCreated(cache1);
+        TwitterAPIMonitor.getInstance().userCacheCreated(cache2);
+        cache1.get(new JSONObject("{\"id\":1,\"name\":\"a\"}"));
+        UserCacheStatistics statistics = TwitterAPIMonitor.getInstance().getUserCacheStatistics();
+        assertTrue(statistics.getCapacity() >= 64 + 128);
+        assertTrue(statistics.getMissCount() >= 1);
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(mbs.isRegistered(new ObjectName("twitter4j.mbean:type=UserCache")));
+        assertEquals(1, mbs.queryNames(new ObjectName("twitter4j.mbean:type=UserCache,*"), null).size());
+    }
+
+    private static boolean sameJSON(JSONArray array, long userId, int index) throws JSONException {
+        String user = array.getJSONObject(index).getJSONObject("user").toString();
+        for (int i = 0; i < index; i++) {
+            JSONObject other = array.getJSONObject(i).getJSONObject("user");
+            if (other.getLong("id") == userId) {
+                return user.equals(other.toString());
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void testChangedUserIsRebound() throws Exception {
+        UserCache cache = new UserCache(16, false);
+        String json = "{\"id\":6253282,\"screen_name\":\"twitterapi\",\"followers_count\":%d,\"entities\":{\"url\":{\"urls\":[]}},\"protected\":false}";
+        User first = cache.get(new JSONObject(String.format(json, 1)));
+        assertSame(first, cache.get(new JSONObject(String.format(json, 1))));
+        User second = cache.get(new JSONObject(String.format(json, 2)));
+        assertNotSame(first, second);
+        assertEquals(2, second.getFollowersCount());
+        assertSame(second, cache.get(new JSONObject(String.format(json, 2))));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+
+        // members swapping their values, a number turning into a string or an array into an object are changes
+        User a = cache.get(new JSONObject("{\"id\":1,\"name\":\"ab\",\"location\":\"c\"}"));
+        assertNotSame(a, cache.get(new JSONObject("{\"id\":1,\"name\":\"a\",\"location\":\"bc\"}")));
+        User b = cache.get(new JSONObject("{\"id\":1,\"statuses_count\":1}"));
+        assertNotSame(b, cache.get(new JSONObject("{\"id\":1,\"statuses_count\":\"1\"}")));
+        User c = cache.get(new JSONObject("{\"id\":1,\"withheld_in_countries\":[]}"));
+        assertNotSame(c, cache.get(new JSONObject("{\"id\":1,\"withheld_in_countries\":[\"\"]}")));
+    }
+
+    @Test
+    void testCompactUsers() throws Exception {
+        JSONArray array = new JSONArray(read("/dao/statuses/home_timeline.json"));
+        UserCache cache = new UserCache(64, true);
+        Status first = new CompactStatusJSONImpl(array.getJSONObject(0), cache);
+        Status again = new CompactStatusJSONImpl(array.getJSONObject(0), cache);
+        assertInstanceOf(CompactUserJSONImpl.class, first.getUser());
+        assertSame(first.getUser(), again.getUser());
+    }
+
+    @Test
+    void testCapacity() throws Exception {
+        assertEquals(16, new UserCache(10, false).getCapacity());
+        assertEquals(16, new UserCache(16, false).getCapacity());
+        UserCache cache = new UserCache(2, false);
+        for (int i = 0; i < 100; i++) {
+            cache.get(new JSONObject("{\"id\":" + i + "}"));
+        }
+        assertTrue(cache.getSize() <= 2);
+        assertEquals(0, cache.getHitRatio(), 0);
+    }
+}
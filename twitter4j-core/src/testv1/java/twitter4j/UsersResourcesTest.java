@@ -107,7 +107,7 @@ class UsersResourcesTest extends TwitterTestBase {
 
         user = twitter1.v1().users().showUser(numberId);
         assertEquals(numberIdId, user.getId());
-        assertNull(TwitterObjectFactory.getRawJSON(previousUser));
+        assertNotNull(TwitterObjectFactory.getRawJSON(previousUser));
         assertNotNull(TwitterObjectFactory.getRawJSON(user));
         assertEquals(user, TwitterObjectFactory.createUser(TwitterObjectFactory.getRawJSON(user)));
 
@@ -1,5 +1,6 @@
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.RateLimitStatus;
 
 import java.io.File;
@@ -19,13 +20,15 @@ class APIResourceBase implements HttpResponseListener {
     protected static final HttpParameter includeMyRetweet = new HttpParameter("include_my_retweet", true);
     private final Authorization auth;
     private final boolean mbeanEnabled;
+    @Nullable
+    private final EndpointGuard endpointGuard;
     private final String IMPLICIT_PARAMS_STR;
 
     private final HttpParameter[] IMPLICIT_PARAMS;
     private final List<Consumer<RateLimitStatusEvent>> rateLimitStatusListeners;
     private final List<Consumer<RateLimitStatusEvent>> rateLimitReachedListeners;
 
-    APIResourceBase(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, HttpParameter[] IMPLICIT_PARAMS,
+    APIResourceBase(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, @Nullable EndpointGuard endpointGuard, HttpParameter[] IMPLICIT_PARAMS,
                     String IMPLICIT_PARAMS_STR,
                     List<Consumer<RateLimitStatusEvent>> rateLimitStatusListeners,
                     List<Consumer<RateLimitStatusEvent>> rateLimitReachedListeners) {
@@ -34,6 +37,7 @@ class APIResourceBase implements HttpResponseListener {
         this.restBaseURL = restBaseURL;
         this.auth = auth;
         this.mbeanEnabled = mbeanEnabled;
+        this.endpointGuard = endpointGuard;
         this.IMPLICIT_PARAMS = IMPLICIT_PARAMS;
         this.IMPLICIT_PARAMS_STR = IMPLICIT_PARAMS_STR;
         this.rateLimitStatusListeners = rateLimitStatusListeners;
@@ -41,114 +45,89 @@ class APIResourceBase implements HttpResponseListener {
     }
 
     protected HttpResponse get(String url) throws TwitterException {
-        if (IMPLICIT_PARAMS_STR.length() > 0) {
-            if (url.contains("?")) {
-                url = url + "&" + IMPLICIT_PARAMS_STR;
-            } else {
-                url = url + "?" + IMPLICIT_PARAMS_STR;
-            }
-        }
-        if (!mbeanEnabled) {
-            return http.get(url, null, auth, this);
+        String urlWithParams;
+        if (IMPLICIT_PARAMS_STR.length() == 0) {
+            urlWithParams = url;
+        } else if (url.contains("?")) {
+            urlWithParams = url + "&" + IMPLICIT_PARAMS_STR;
         } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.get(url, null, auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
+            urlWithParams = url + "?" + IMPLICIT_PARAMS_STR;
         }
+        return call(urlWithParams, () -> http.get(urlWithParams, null, auth, this));
     }
 
     protected HttpResponse get(String url, HttpParameter... params) throws TwitterException {
-        if (!mbeanEnabled) {
-            return http.get(url, mergeImplicitParams(params), auth, this);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.get(url, mergeImplicitParams(params), auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return call(url, () -> http.get(url, mergeImplicitParams(params), auth, this));
     }
 
     protected HttpResponse post(String url) throws TwitterException {
-        if (!mbeanEnabled) {
-            return http.post(url, IMPLICIT_PARAMS, auth, this);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.post(url, IMPLICIT_PARAMS, auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return call(url, () -> http.post(url, IMPLICIT_PARAMS, auth, this));
     }
 
     protected HttpResponse post(String url, HttpParameter... params) throws TwitterException {
-        if (!mbeanEnabled) {
-            return http.post(url, mergeImplicitParams(params), auth, this);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.post(url, mergeImplicitParams(params), auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return call(url, () -> http.post(url, mergeImplicitParams(params), auth, this));
     }
 
     protected HttpResponse delete(String url) throws TwitterException {
-        if (!mbeanEnabled) {
-            return http.delete(url, null, auth, this);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.delete(url, null, auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return call(url, () -> http.delete(url, null, auth, this));
     }
 
     protected HttpResponse post(String url, JSONObject json) throws TwitterException {
-        if (!mbeanEnabled) {
-            return http.post(url, new HttpParameter[]{new HttpParameter(json)}, auth, this);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.post(url, new HttpParameter[]{new HttpParameter(json)}, auth, this);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
+        return call(url, () -> http.post(url, new HttpParameter[]{new HttpParameter(json)}, auth, this));
+    }
+
+    private interface HttpCall {
+        HttpResponse execute() throws TwitterException;
+    }
+
+    private HttpResponse call(String url, HttpCall call) throws TwitterException {
+        EndpointGuard.Permit permit = endpointGuard != null ? endpointGuard.acquire(url) : null;
+        if (!mbeanEnabled && permit == null) {
+            return execute(call);
+        }
+        // intercept HTTP call for monitoring and circuit breaking purposes
+        HttpResponse response = null;
+        Throwable failure = null;
+        long start = System.currentTimeMillis();
+        try {
+            response = execute(call);
+            return response;
+        } catch (Throwable e) {
+            // Errors too, so that they are not taken for successes by the circuit breaker
+            failure = e;
+            throw e;
+        } finally {
+            long elapsedTime = System.currentTimeMillis() - start;
+            if (permit != null) {
+                permit.release(elapsedTime, failure);
+            }
+            if (mbeanEnabled) {
                 TwitterAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
             }
-            return response;
         }
     }
 
+    private HttpResponse execute(HttpCall call) throws TwitterException {
+        if (!(auth instanceof OAuth2Authorization) || !auth.isEnabled()) {
+            return call.execute();
+        }
+        OAuth2Authorization oauth2 = (OAuth2Authorization) auth;
+        OAuth2Token used = oauth2.getCurrentOAuth2Token();
+        if (used == null) {
+            // token store is configured but no token has been issued yet
+            used = oauth2.refreshOAuth2Token(null);
+        }
+        try {
+            return call.execute();
+        } catch (TwitterException te) {
+            // 89: Invalid or expired token. retry once with a refreshed token
+            if (te.getStatusCode() != UNAUTHORIZED || te.getErrorCode() != 89) {
+                throw te;
+            }
+            oauth2.refreshOAuth2Token(used);
+            return call.execute();
+        }
+    }
 
     protected HttpParameter[] mergeParameters(HttpParameter[] params1, HttpParameter[] params2) {
         if (params1 != null && params2 != null) {
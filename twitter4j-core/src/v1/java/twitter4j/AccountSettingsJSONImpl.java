@@ -75,7 +75,6 @@ class AccountSettingsJSONImpl extends TwitterResponseImpl implements AccountSett
     /*package*/ AccountSettingsJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         this(res, res.asJSONObject());
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(this, res.asJSONObject());
         }
     }
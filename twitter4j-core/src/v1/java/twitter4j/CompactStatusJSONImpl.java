@@ -0,0 +1,390 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+import twitter4j.v1.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Status keeping a small in-heap footprint, for applications retaining large timelines.<br>
+ * Compared to {@link StatusJSONImpl}, created_at is held as epoch seconds, boolean members are packed into one int,
+ * entity and contributor arrays without any element are shared, and frequently repeated strings such as sources and
+ * language codes are deduplicated through {@link StringPool#SHARED}. The user, retweeted status and quoted status are
+ * compact as well.
+ *
+ * @since Twitter4J 4.1.3
+ */
+/*package*/ final class CompactStatusJSONImpl extends TwitterResponseImpl implements Status, java.io.Serializable {
+    private static final long serialVersionUID = 3281939211843011485L;
+    private static final long[] NO_CONTRIBUTORS = new long[0];
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int TRUNCATED = 1;
+    private static final int FAVORITED = 1 << 1;
+    private static final int RETWEETED = 1 << 2;
+    private static final int POSSIBLY_SENSITIVE = 1 << 3;
+
+    private long id;
+    private long createdAt;
+    private String text;
+    private String source;
+    private int flags;
+    private int displayTextRangeStart;
+    private int displayTextRangeEnd;
+    private long inReplyToStatusId;
+    private long inReplyToUserId;
+    private String inReplyToScreenName;
+    private int favoriteCount;
+    private int retweetCount;
+    private String lang;
+    private GeoLocation geoLocation;
+    private Place place;
+    private long[] contributorsIDs;
+    private User user;
+    private Status retweetedStatus;
+    private UserMentionEntity[] userMentionEntities;
+    private URLEntity[] urlEntities;
+    private HashtagEntity[] hashtagEntities;
+    private MediaEntity[] mediaEntities;
+    private SymbolEntity[] symbolEntities;
+    private long currentUserRetweetId;
+    private Scopes scopes;
+    private String[] withheldInCountries;
+    private Status quotedStatus;
+    private long quotedStatusId;
+    private URLEntity quotedStatusPermalink;
+
+    /*package*/ CompactStatusJSONImpl(JSONObject json) throws TwitterException {
+        this(json, null);
+    }
+
+    /**
+     * @param json  status JSON
+     * @param users cache sharing the users across statuses, or null
+     */
+    /*package*/ CompactStatusJSONImpl(JSONObject json, @Nullable UserCache users) throws TwitterException {
+        super();
+        init(new StatusJSONImpl(json, users));
+    }
+
+    /*package*/ CompactStatusJSONImpl(HttpResponse res, @Nullable UserCache users) throws TwitterException {
+        super(res);
+        init(new StatusJSONImpl(res.asJSONObject(), users));
+    }
+
+    private CompactStatusJSONImpl(Status status) {
+        super();
+        init(status);
+    }
+
+    private void init(Status status) {
+        StringPool strings = StringPool.SHARED;
+        id = status.getId();
+        createdAt = toEpochSecond(status.getCreatedAt());
+        text = status.getText();
+        source = strings.dedup(status.getSource());
+        flags = (status.isTruncated() ? TRUNCATED : 0)
+                | (status.isFavorited() ? FAVORITED : 0)
+                | (status.isRetweeted() ? RETWEETED : 0)
+                | (status.isPossiblySensitive() ? POSSIBLY_SENSITIVE : 0);
+        displayTextRangeStart = status.getDisplayTextRangeStart();
+        displayTextRangeEnd = status.getDisplayTextRangeEnd();
+        inReplyToStatusId = status.getInReplyToStatusId();
+        inReplyToUserId = status.getInReplyToUserId();
+        inReplyToScreenName = strings.dedup(status.getInReplyToScreenName());
+        favoriteCount = status.getFavoriteCount();
+        retweetCount = status.getRetweetCount();
+        lang = strings.dedup(status.getLang());
+        geoLocation = status.getGeoLocation();
+        place = status.getPlace();
+        long[] contributors = status.getContributors();
+        contributorsIDs = contributors == null || contributors.length == 0 ? NO_CONTRIBUTORS : contributors;
+        user = status.getUser() == null || status.getUser() instanceof CompactUserJSONImpl
+                ? status.getUser() : new CompactUserJSONImpl(status.getUser());
+        retweetedStatus = compact(status.getRetweetedStatus());
+        userMentionEntities = status.getUserMentionEntities();
+        urlEntities = status.getURLEntities();
+        hashtagEntities = status.getHashtagEntities();
+        mediaEntities = status.getMediaEntities();
+        symbolEntities = status.getSymbolEntities();
+        currentUserRetweetId = status.getCurrentUserRetweetId();
+        scopes = status.getScopes();
+        withheldInCountries = status.getWithheldInCountries();
+        quotedStatus = compact(status.getQuotedStatus());
+        quotedStatusId = status.getQuotedStatusId();
+        quotedStatusPermalink = status.getQuotedStatusPermalink();
+    }
+
+    /**
+     * @param status status to be compacted, or null
+     * @return compact form of the status
+     */
+    /*package*/
+    @Nullable
+    static Status compact(@Nullable Status status) {
+        return status == null || status instanceof CompactStatusJSONImpl ? status : new CompactStatusJSONImpl(status);
+    }
+
+    /**
+     * @param dateTime date time to be encoded, or null
+     * @return seconds of the local date time as if it were in UTC. second precision is all the API provides
+     */
+    /*package*/
+    static long toEpochSecond(@Nullable LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /*package*/
+    @Nullable
+    static LocalDateTime toLocalDateTime(long epochSecond) {
+        return epochSecond == NO_DATE ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return toLocalDateTime(createdAt);
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public int getDisplayTextRangeStart() {
+        return displayTextRangeStart;
+    }
+
+    @Override
+    public int getDisplayTextRangeEnd() {
+        return displayTextRangeEnd;
+    }
+
+    @Override
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return (flags & TRUNCATED) != 0;
+    }
+
+    @Override
+    public long getInReplyToStatusId() {
+        return inReplyToStatusId;
+    }
+
+    @Override
+    public long getInReplyToUserId() {
+        return inReplyToUserId;
+    }
+
+    @Override
+    public String getInReplyToScreenName() {
+        return inReplyToScreenName;
+    }
+
+    @Override
+    public GeoLocation getGeoLocation() {
+        return geoLocation;
+    }
+
+    @Override
+    public Place getPlace() {
+        return place;
+    }
+
+    @Override
+    public boolean isFavorited() {
+        return (flags & FAVORITED) != 0;
+    }
+
+    @Override
+    public boolean isRetweeted() {
+        return (flags & RETWEETED) != 0;
+    }
+
+    @Override
+    public int getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    @Override
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public boolean isRetweet() {
+        return retweetedStatus != null;
+    }
+
+    @Override
+    public Status getRetweetedStatus() {
+        return retweetedStatus;
+    }
+
+    @Override
+    public long[] getContributors() {
+        return contributorsIDs;
+    }
+
+    @Override
+    public int getRetweetCount() {
+        return retweetCount;
+    }
+
+    @Override
+    public boolean isRetweetedByMe() {
+        return currentUserRetweetId != -1L;
+    }
+
+    @Override
+    public long getCurrentUserRetweetId() {
+        return currentUserRetweetId;
+    }
+
+    @Override
+    public boolean isPossiblySensitive() {
+        return (flags & POSSIBLY_SENSITIVE) != 0;
+    }
+
+    @Override
+    public String getLang() {
+        return lang;
+    }
+
+    @Override
+    public Scopes getScopes() {
+        return scopes;
+    }
+
+    @Override
+    public String[] getWithheldInCountries() {
+        return withheldInCountries;
+    }
+
+    @Override
+    public long getQuotedStatusId() {
+        return quotedStatusId;
+    }
+
+    @Override
+    public Status getQuotedStatus() {
+        return quotedStatus;
+    }
+
+    @Override
+    public URLEntity getQuotedStatusPermalink() {
+        return quotedStatusPermalink;
+    }
+
+    @Override
+    public UserMentionEntity[] getUserMentionEntities() {
+        return userMentionEntities;
+    }
+
+    @Override
+    public URLEntity[] getURLEntities() {
+        return urlEntities;
+    }
+
+    @Override
+    public HashtagEntity[] getHashtagEntities() {
+        return hashtagEntities;
+    }
+
+    @Override
+    public MediaEntity[] getMediaEntities() {
+        return mediaEntities;
+    }
+
+    @Override
+    public SymbolEntity[] getSymbolEntities() {
+        return symbolEntities;
+    }
+
+    @Override
+    public int compareTo(Status that) {
+        long delta = this.id - that.getId();
+        if (delta < Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE;
+        } else if (delta > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) delta;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof Status && ((Status) obj).getId() == this.id;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactStatusJSONImpl{" +
+                "createdAt=" + getCreatedAt() +
+                ", id=" + id +
+                ", text='" + text + '\'' +
+                ", source='" + source + '\'' +
+                ", isTruncated=" + isTruncated() +
+                ", inReplyToStatusId=" + inReplyToStatusId +
+                ", inReplyToUserId=" + inReplyToUserId +
+                ", isFavorited=" + isFavorited() +
+                ", isRetweeted=" + isRetweeted() +
+                ", favoriteCount=" + favoriteCount +
+                ", inReplyToScreenName='" + inReplyToScreenName + '\'' +
+                ", geoLocation=" + geoLocation +
+                ", place=" + place +
+                ", retweetCount=" + retweetCount +
+                ", isPossiblySensitive=" + isPossiblySensitive() +
+                ", lang='" + lang + '\'' +
+                ", contributorsIDs=" + Arrays.toString(contributorsIDs) +
+                ", retweetedStatus=" + retweetedStatus +
+                ", userMentionEntities=" + Arrays.toString(userMentionEntities) +
+                ", urlEntities=" + Arrays.toString(urlEntities) +
+                ", hashtagEntities=" + Arrays.toString(hashtagEntities) +
+                ", mediaEntities=" + Arrays.toString(mediaEntities) +
+                ", symbolEntities=" + Arrays.toString(symbolEntities) +
+                ", currentUserRetweetId=" + currentUserRetweetId +
+                ", user=" + user +
+                ", withHeldInCountries=" + Arrays.toString(withheldInCountries) +
+                ", quotedStatusId=" + quotedStatusId +
+                ", quotedStatus=" + quotedStatus +
+                '}';
+    }
+}
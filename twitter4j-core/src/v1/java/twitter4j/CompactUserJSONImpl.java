@@ -0,0 +1,511 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * User keeping a small in-heap footprint, see {@link CompactStatusJSONImpl}.<br>
+ * Profile colors, image URLs, time zones and other highly repetitive strings are deduplicated through
+ * {@link StringPool#SHARED}, and boolean members are packed into one int.
+ *
+ * @since Twitter4J 4.1.3
+ */
+/*package*/ final class CompactUserJSONImpl extends TwitterResponseImpl implements User, java.io.Serializable {
+    private static final long serialVersionUID = -1207343525740283794L;
+    private static final int CONTRIBUTORS_ENABLED = 1;
+    private static final int DEFAULT_PROFILE_IMAGE = 1 << 1;
+    private static final int PROTECTED = 1 << 2;
+    private static final int PROFILE_USE_BACKGROUND_IMAGE = 1 << 3;
+    private static final int DEFAULT_PROFILE = 1 << 4;
+    private static final int SHOW_ALL_INLINE_MEDIA = 1 << 5;
+    private static final int PROFILE_BACKGROUND_TILED = 1 << 6;
+    private static final int GEO_ENABLED = 1 << 7;
+    private static final int VERIFIED = 1 << 8;
+    private static final int TRANSLATOR = 1 << 9;
+    private static final int FOLLOW_REQUEST_SENT = 1 << 10;
+    private static final URLEntity NO_URL = new URLEntityJSONImpl(0, 0, "", "", "");
+
+    private long id;
+    private String name;
+    private String email;
+    private String screenName;
+    private String location;
+    private String description;
+    private URLEntity[] descriptionURLEntities;
+    private URLEntity urlEntity;
+    private String profileImageUrl;
+    private String profileImageUrlHttps;
+    private String url;
+    private int flags;
+    private int followersCount;
+    private Status status;
+    private String profileBackgroundColor;
+    private String profileTextColor;
+    private String profileLinkColor;
+    private String profileSidebarFillColor;
+    private String profileSidebarBorderColor;
+    private int friendsCount;
+    private long createdAt;
+    private int favouritesCount;
+    private int utcOffset;
+    private String timeZone;
+    private String profileBackgroundImageUrl;
+    private String profileBackgroundImageUrlHttps;
+    private String profileBannerImageUrl;
+    private String lang;
+    private int statusesCount;
+    private int listedCount;
+    private String[] withheldInCountries;
+
+    /*package*/ CompactUserJSONImpl(JSONObject json) throws TwitterException {
+        super();
+        init(new UserJSONImpl(json));
+    }
+
+    /*package*/ CompactUserJSONImpl(HttpResponse res) throws TwitterException {
+        super(res);
+        init(new UserJSONImpl(res.asJSONObject()));
+    }
+
+    /*package*/ CompactUserJSONImpl(User user) {
+        super();
+        init(user);
+    }
+
+    private void init(User user) {
+        StringPool strings = StringPool.SHARED;
+        id = user.getId();
+        name = strings.dedup(user.getName());
+        email = user.getEmail();
+        screenName = strings.dedup(user.getScreenName());
+        location = strings.dedup(user.getLocation());
+        description = user.getDescription();
+        descriptionURLEntities = user.getDescriptionURLEntities();
+        url = strings.dedup(user.getURL());
+        // without url, the entity is the same placeholder for every user
+        urlEntity = url == null ? null : user.getURLEntity();
+        profileImageUrl = strings.dedup(user.getProfileImageURL());
+        profileImageUrlHttps = strings.dedup(user.getProfileImageURLHttps());
+        flags = (user.isContributorsEnabled() ? CONTRIBUTORS_ENABLED : 0)
+                | (user.isDefaultProfileImage() ? DEFAULT_PROFILE_IMAGE : 0)
+                | (user.isProtected() ? PROTECTED : 0)
+                | (user.isProfileUseBackgroundImage() ? PROFILE_USE_BACKGROUND_IMAGE : 0)
+                | (user.isDefaultProfile() ? DEFAULT_PROFILE : 0)
+                | (user.isShowAllInlineMedia() ? SHOW_ALL_INLINE_MEDIA : 0)
+                | (user.isProfileBackgroundTiled() ? PROFILE_BACKGROUND_TILED : 0)
+                | (user.isGeoEnabled() ? GEO_ENABLED : 0)
+                | (user.isVerified() ? VERIFIED : 0)
+                | (user.isTranslator() ? TRANSLATOR : 0)
+                | (user.isFollowRequestSent() ? FOLLOW_REQUEST_SENT : 0);
+        followersCount = user.getFollowersCount();
+        status = CompactStatusJSONImpl.compact(user.getStatus());
+        profileBackgroundColor = strings.dedup(user.getProfileBackgroundColor());
+        profileTextColor = strings.dedup(user.getProfileTextColor());
+        profileLinkColor = strings.dedup(user.getProfileLinkColor());
+        profileSidebarFillColor = strings.dedup(user.getProfileSidebarFillColor());
+        profileSidebarBorderColor = strings.dedup(user.getProfileSidebarBorderColor());
+        friendsCount = user.getFriendsCount();
+        createdAt = CompactStatusJSONImpl.toEpochSecond(user.getCreatedAt());
+        favouritesCount = user.getFavouritesCount();
+        utcOffset = user.getUtcOffset();
+        timeZone = strings.dedup(user.getTimeZone());
+        profileBackgroundImageUrl = strings.dedup(user.getProfileBackgroundImageURL());
+        profileBackgroundImageUrlHttps = strings.dedup(user.getProfileBackgroundImageUrlHttps());
+        String banner = user.getProfileBannerURL();
+        // getProfileBannerURL() appends "/web" to the base URL
+        profileBannerImageUrl = banner == null ? null : strings.dedup(banner.substring(0, banner.length() - "/web".length()));
+        lang = strings.dedup(user.getLang());
+        statusesCount = user.getStatusesCount();
+        listedCount = user.getListedCount();
+        withheldInCountries = user.getWithheldInCountries();
+    }
+
+    @Override
+    public int compareTo(User that) {
+        return (int) (this.id - that.getId());
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getScreenName() {
+        return screenName;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean isContributorsEnabled() {
+        return (flags & CONTRIBUTORS_ENABLED) != 0;
+    }
+
+    @Override
+    public String getProfileImageURL() {
+        return profileImageUrl;
+    }
+
+    @Override
+    public String getBiggerProfileImageURL() {
+        return toResizedURL(profileImageUrl, "_bigger");
+    }
+
+    @Override
+    public String getMiniProfileImageURL() {
+        return toResizedURL(profileImageUrl, "_mini");
+    }
+
+    @Override
+    public String getOriginalProfileImageURL() {
+        return toResizedURL(profileImageUrl, "");
+    }
+
+    @Override
+    public String get400x400ProfileImageURL() {
+        return toResizedURL(profileImageUrl, "_400x400");
+    }
+
+    private String toResizedURL(String originalURL, String sizeSuffix) {
+        if (null != originalURL && originalURL.length() >= 1) {
+            int index = originalURL.lastIndexOf("_");
+            int suffixIndex = originalURL.lastIndexOf(".");
+            int slashIndex = originalURL.lastIndexOf("/");
+            String url = originalURL.substring(0, index) + sizeSuffix;
+            if (suffixIndex > slashIndex) {
+                url += originalURL.substring(suffixIndex);
+            }
+            return url;
+        }
+        return null;
+    }
+
+    @Override
+    public String getProfileImageURLHttps() {
+        return profileImageUrlHttps;
+    }
+
+    @Override
+    public String getBiggerProfileImageURLHttps() {
+        return toResizedURL(profileImageUrlHttps, "_bigger");
+    }
+
+    @Override
+    public String getMiniProfileImageURLHttps() {
+        return toResizedURL(profileImageUrlHttps, "_mini");
+    }
+
+    @Override
+    public String getOriginalProfileImageURLHttps() {
+        return toResizedURL(profileImageUrlHttps, "");
+    }
+
+    @Override
+    public String get400x400ProfileImageURLHttps() {
+        return toResizedURL(profileImageUrlHttps, "_400x400");
+    }
+
+    @Override
+    public boolean isDefaultProfileImage() {
+        return (flags & DEFAULT_PROFILE_IMAGE) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getURL() {
+        return url;
+    }
+
+    @Override
+    public boolean isProtected() {
+        return (flags & PROTECTED) != 0;
+    }
+
+    @Override
+    public int getFollowersCount() {
+        return followersCount;
+    }
+
+    @Override
+    public String getProfileBackgroundColor() {
+        return profileBackgroundColor;
+    }
+
+    @Override
+    public String getProfileTextColor() {
+        return profileTextColor;
+    }
+
+    @Override
+    public String getProfileLinkColor() {
+        return profileLinkColor;
+    }
+
+    @Override
+    public String getProfileSidebarFillColor() {
+        return profileSidebarFillColor;
+    }
+
+    @Override
+    public String getProfileSidebarBorderColor() {
+        return profileSidebarBorderColor;
+    }
+
+    @Override
+    public boolean isProfileUseBackgroundImage() {
+        return (flags & PROFILE_USE_BACKGROUND_IMAGE) != 0;
+    }
+
+    @Override
+    public boolean isDefaultProfile() {
+        return (flags & DEFAULT_PROFILE) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isShowAllInlineMedia() {
+        return (flags & SHOW_ALL_INLINE_MEDIA) != 0;
+    }
+
+    @Override
+    public int getFriendsCount() {
+        return friendsCount;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return CompactStatusJSONImpl.toLocalDateTime(createdAt);
+    }
+
+    @Override
+    public int getFavouritesCount() {
+        return favouritesCount;
+    }
+
+    @Override
+    public int getUtcOffset() {
+        return utcOffset;
+    }
+
+    @Override
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    @Override
+    public String getProfileBackgroundImageURL() {
+        return profileBackgroundImageUrl;
+    }
+
+    @Override
+    public String getProfileBackgroundImageUrlHttps() {
+        return profileBackgroundImageUrlHttps;
+    }
+
+    @Override
+    public String getProfileBannerURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/web" : null;
+    }
+
+    @Override
+    public String getProfileBannerRetinaURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/web_retina" : null;
+    }
+
+    @Override
+    public String getProfileBannerIPadURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/ipad" : null;
+    }
+
+    @Override
+    public String getProfileBannerIPadRetinaURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/ipad_retina" : null;
+    }
+
+    @Override
+    public String getProfileBannerMobileURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/mobile" : null;
+    }
+
+    @Override
+    public String getProfileBannerMobileRetinaURL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/mobile_retina" : null;
+    }
+
+    @Override
+    public String getProfileBanner300x100URL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/300x100" : null;
+    }
+
+    @Override
+    public String getProfileBanner600x200URL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/600x200" : null;
+    }
+
+    @Override
+    public String getProfileBanner1500x500URL() {
+        return profileBannerImageUrl != null ? profileBannerImageUrl + "/1500x500" : null;
+    }
+
+    @Override
+    public boolean isProfileBackgroundTiled() {
+        return (flags & PROFILE_BACKGROUND_TILED) != 0;
+    }
+
+    @Override
+    public String getLang() {
+        return lang;
+    }
+
+    @Override
+    public int getStatusesCount() {
+        return statusesCount;
+    }
+
+    @Override
+    public boolean isGeoEnabled() {
+        return (flags & GEO_ENABLED) != 0;
+    }
+
+    @Override
+    public boolean isVerified() {
+        return (flags & VERIFIED) != 0;
+    }
+
+    @Override
+    public boolean isTranslator() {
+        return (flags & TRANSLATOR) != 0;
+    }
+
+    @Override
+    public int getListedCount() {
+        return listedCount;
+    }
+
+    @Override
+    public boolean isFollowRequestSent() {
+        return (flags & FOLLOW_REQUEST_SENT) != 0;
+    }
+
+    @Override
+    public URLEntity[] getDescriptionURLEntities() {
+        return descriptionURLEntities;
+    }
+
+    @Override
+    public URLEntity getURLEntity() {
+        return urlEntity == null ? NO_URL : urlEntity;
+    }
+
+    @Override
+    public String[] getWithheldInCountries() {
+        return withheldInCountries;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof User && ((User) obj).getId() == this.id;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactUserJSONImpl{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", screenName='" + screenName + '\'' +
+                ", location='" + location + '\'' +
+                ", description='" + description + '\'' +
+                ", isContributorsEnabled=" + isContributorsEnabled() +
+                ", profileImageUrl='" + profileImageUrl + '\'' +
+                ", profileImageUrlHttps='" + profileImageUrlHttps + '\'' +
+                ", isDefaultProfileImage=" + isDefaultProfileImage() +
+                ", url='" + url + '\'' +
+                ", isProtected=" + isProtected() +
+                ", followersCount=" + followersCount +
+                ", status=" + status +
+                ", profileBackgroundColor='" + profileBackgroundColor + '\'' +
+                ", profileTextColor='" + profileTextColor + '\'' +
+                ", profileLinkColor='" + profileLinkColor + '\'' +
+                ", profileSidebarFillColor='" + profileSidebarFillColor + '\'' +
+                ", profileSidebarBorderColor='" + profileSidebarBorderColor + '\'' +
+                ", profileUseBackgroundImage=" + isProfileUseBackgroundImage() +
+                ", isDefaultProfile=" + isDefaultProfile() +
+                ", showAllInlineMedia=" + isShowAllInlineMedia() +
+                ", friendsCount=" + friendsCount +
+                ", createdAt=" + getCreatedAt() +
+                ", favouritesCount=" + favouritesCount +
+                ", utcOffset=" + utcOffset +
+                ", timeZone='" + timeZone + '\'' +
+                ", profileBackgroundImageUrl='" + profileBackgroundImageUrl + '\'' +
+                ", profileBackgroundImageUrlHttps='" + profileBackgroundImageUrlHttps + '\'' +
+                ", profileBackgroundTiled=" + isProfileBackgroundTiled() +
+                ", lang='" + lang + '\'' +
+                ", statusesCount=" + statusesCount +
+                ", isGeoEnabled=" + isGeoEnabled() +
+                ", isVerified=" + isVerified() +
+                ", translator=" + isTranslator() +
+                ", listedCount=" + listedCount +
+                ", isFollowRequestSent=" + isFollowRequestSent() +
+                ", withheldInCountries=" + Arrays.toString(withheldInCountries) +
+                '}';
+    }
+}
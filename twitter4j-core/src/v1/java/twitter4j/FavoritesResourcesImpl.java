@@ -9,11 +9,11 @@ import java.util.List;
 import java.util.function.Consumer;
 
 class FavoritesResourcesImpl extends  APIResourceBase implements FavoritesResources {
-    FavoritesResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, HttpParameter[] IMPLICIT_PARAMS,
+    FavoritesResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, EndpointGuard endpointGuard, HttpParameter[] IMPLICIT_PARAMS,
                        String IMPLICIT_PARAMS_STR,
                        List<Consumer<RateLimitStatusEvent>> rateLimitStatusListeners,
                        List<Consumer<RateLimitStatusEvent>> rateLimitReachedListeners) {
-        super(http, factory, restBaseURL, auth, mbeanEnabled, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
+        super(http, factory, restBaseURL, auth, mbeanEnabled, endpointGuard, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
     }
     @Override
     public ResponseList<Status> getFavorites() throws TwitterException {
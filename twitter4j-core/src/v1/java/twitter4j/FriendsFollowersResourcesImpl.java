@@ -8,11 +8,11 @@ import java.util.function.Consumer;
 import static twitter4j.HttpParameter.getParameterArray;
 
 class FriendsFollowersResourcesImpl extends APIResourceBase implements FriendsFollowersResources {
-    FriendsFollowersResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, HttpParameter[] IMPLICIT_PARAMS,
+    FriendsFollowersResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, EndpointGuard endpointGuard, HttpParameter[] IMPLICIT_PARAMS,
                                   String IMPLICIT_PARAMS_STR,
                                   List<Consumer<RateLimitStatusEvent>> rateLimitStatusListeners,
                                   List<Consumer<RateLimitStatusEvent>> rateLimitReachedListeners) {
-        super(http, factory, restBaseURL, auth, mbeanEnabled, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
+        super(http, factory, restBaseURL, auth, mbeanEnabled, endpointGuard, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
     }
 
     @Override
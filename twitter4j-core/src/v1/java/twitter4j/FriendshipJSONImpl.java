@@ -55,9 +55,6 @@ class FriendshipJSONImpl implements Friendship {
     /*package*/
     static ResponseList<Friendship> createFriendshipList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         try {
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
             JSONArray list = res.asJSONArray();
             int size = list.length();
             ResponseList<Friendship> friendshipList = new ResponseListImpl<>(size, res);
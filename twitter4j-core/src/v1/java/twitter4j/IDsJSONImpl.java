@@ -37,7 +37,6 @@ import java.util.Arrays;
         String json = res.asString();
         init(json);
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(this, json);
         }
     }
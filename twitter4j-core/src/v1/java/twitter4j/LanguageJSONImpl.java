@@ -67,9 +67,6 @@ class LanguageJSONImpl implements HelpResources.Language {
     /*package*/
     static ResponseList<HelpResources.Language> createLanguageList(JSONArray list, HttpResponse res
             , boolean jsonStoreEnabled) throws TwitterException {
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         try {
             int size = list.length();
             ResponseList<HelpResources.Language> languages =
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Status backed by the raw UTF-8 JSON and an index of its members.<br>
+ * Frequently used members are decoded on first access and memoized, with the same rules as {@link StatusJSONImpl}.
+ * Everything else, entities and text of extended tweets included, is served by a StatusJSONImpl bound on first
+ * access. As members are decoded late, a malformed member results in {@link JSONException} from its getter rather
+ * than in TwitterException upon creation.<br>
+ * Serialized as StatusJSONImpl.
+ *
+ * @since Twitter4J 4.1.3
+ */
+/*package*/ final class LazyStatusJSONImpl extends TwitterResponseImpl implements Status, java.io.Serializable {
+    private static final long serialVersionUID = 4519383553328442425L;
+    private static final int ID = 1;
+    private static final int CREATED_AT = 1 << 1;
+    private static final int TEXT = 1 << 2;
+    private static final int SOURCE = 1 << 3;
+    private static final int TRUNCATED = 1 << 4;
+    private static final int IN_REPLY_TO_STATUS_ID = 1 << 5;
+    private static final int IN_REPLY_TO_USER_ID = 1 << 6;
+    private static final int IN_REPLY_TO_SCREEN_NAME = 1 << 7;
+    private static final int FAVORITED = 1 << 8;
+    private static final int RETWEETED = 1 << 9;
+    private static final int FAVORITE_COUNT = 1 << 10;
+    private static final int RETWEET_COUNT = 1 << 11;
+    private static final int POSSIBLY_SENSITIVE = 1 << 12;
+    private static final int LANG = 1 << 13;
+    private static final int USER = 1 << 14;
+    private static final int RETWEETED_STATUS = 1 << 15;
+
+    private final transient JSONByteIndex index;
+    // members are written before the corresponding bit is published. Threads accessing a member for the first time at
+    // once may each decode it, which is harmless as they write the same value, but set bits are never lost
+    private transient volatile int decoded;
+    private static final AtomicIntegerFieldUpdater<LazyStatusJSONImpl> DECODED =
+            AtomicIntegerFieldUpdater.newUpdater(LazyStatusJSONImpl.class, "decoded");
+    private transient volatile StatusJSONImpl status;
+
+    private transient long id;
+    private transient LocalDateTime createdAt;
+    private transient String text;
+    private transient String source;
+    private transient boolean isTruncated;
+    private transient long inReplyToStatusId;
+    private transient long inReplyToUserId;
+    private transient String inReplyToScreenName;
+    private transient boolean isFavorited;
+    private transient boolean isRetweeted;
+    private transient int favoriteCount;
+    private transient int retweetCount;
+    private transient boolean isPossiblySensitive;
+    private transient String lang;
+    private transient User user;
+    private transient Status retweetedStatus;
+
+    /*package*/ LazyStatusJSONImpl(JSONByteIndex index) {
+        super();
+        this.index = index;
+    }
+
+    /*package*/ LazyStatusJSONImpl(HttpResponse res, JSONByteIndex index) {
+        super(res);
+        this.index = index;
+    }
+
+    /**
+     * @return fully bound status
+     */
+    private StatusJSONImpl status() {
+        StatusJSONImpl status = this.status;
+        if (status == null) {
+            try {
+                status = new StatusJSONImpl(index.toJSONObject());
+            } catch (TwitterException te) {
+                throw new JSONException(te.getMessage(), te);
+            }
+            this.status = status;
+        }
+        return status;
+    }
+
+    private boolean isDecoded(int member) {
+        return (decoded & member) != 0;
+    }
+
+    private void setDecoded(int member) {
+        DECODED.accumulateAndGet(this, member, (bits, bit) -> bits | bit);
+    }
+
+    private boolean hasExtendedTweet() {
+        return !index.isNull("extended_tweet");
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        if (!isDecoded(CREATED_AT)) {
+            try {
+                createdAt = ParseUtil.getDate("created_at", index.member("created_at"));
+            } catch (TwitterException te) {
+                throw new JSONException(te.getMessage(), te);
+            }
+            setDecoded(CREATED_AT);
+        }
+        return createdAt;
+    }
+
+    @Override
+    public long getId() {
+        if (!isDecoded(ID)) {
+            id = ParseUtil.getLong("id", index.member("id"));
+            setDecoded(ID);
+        }
+        return id;
+    }
+
+    @Override
+    public String getText() {
+        if (!isDecoded(TEXT)) {
+            if (hasExtendedTweet()) {
+                text = status().getText();
+            } else {
+                String name = index.isNull("full_text") ? "text" : "full_text";
+                String raw = ParseUtil.getRawString(name, index.member(name));
+                // unescaped the same way as the entity indices are slid
+                text = raw == null ? null : HTMLEntity.unescapeAndSlideEntityIncdices(raw, null, null, null, null);
+            }
+            setDecoded(TEXT);
+        }
+        return text;
+    }
+
+    @Override
+    public int getDisplayTextRangeStart() {
+        return status().getDisplayTextRangeStart();
+    }
+
+    @Override
+    public int getDisplayTextRangeEnd() {
+        return status().getDisplayTextRangeEnd();
+    }
+
+    @Override
+    public String getSource() {
+        if (!isDecoded(SOURCE)) {
+            source = ParseUtil.getUnescapedString("source", index.member("source"));
+            setDecoded(SOURCE);
+        }
+        return source;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        if (!isDecoded(TRUNCATED)) {
+            isTruncated = ParseUtil.getBoolean("truncated", index.member("truncated"));
+            setDecoded(TRUNCATED);
+        }
+        return isTruncated;
+    }
+
+    @Override
+    public long getInReplyToStatusId() {
+        if (!isDecoded(IN_REPLY_TO_STATUS_ID)) {
+            inReplyToStatusId = ParseUtil.getLong("in_reply_to_status_id", index.member("in_reply_to_status_id"));
+            setDecoded(IN_REPLY_TO_STATUS_ID);
+        }
+        return inReplyToStatusId;
+    }
+
+    @Override
+    public long getInReplyToUserId() {
+        if (!isDecoded(IN_REPLY_TO_USER_ID)) {
+            inReplyToUserId = ParseUtil.getLong("in_reply_to_user_id", index.member("in_reply_to_user_id"));
+            setDecoded(IN_REPLY_TO_USER_ID);
+        }
+        return inReplyToUserId;
+    }
+
+    @Override
+    public String getInReplyToScreenName() {
+        if (!isDecoded(IN_REPLY_TO_SCREEN_NAME)) {
+            inReplyToScreenName = ParseUtil.getUnescapedString("in_reply_to_screen_name", index.member("in_reply_to_screen_name"));
+            setDecoded(IN_REPLY_TO_SCREEN_NAME);
+        }
+        return inReplyToScreenName;
+    }
+
+    @Override
+    public GeoLocation getGeoLocation() {
+        return status().getGeoLocation();
+    }
+
+    @Override
+    public Place getPlace() {
+        return status().getPlace();
+    }
+
+    @Override
+    public boolean isFavorited() {
+        if (!isDecoded(FAVORITED)) {
+            isFavorited = ParseUtil.getBoolean("favorited", index.member("favorited"));
+            setDecoded(FAVORITED);
+        }
+        return isFavorited;
+    }
+
+    @Override
+    public boolean isRetweeted() {
+        if (!isDecoded(RETWEETED)) {
+            isRetweeted = ParseUtil.getBoolean("retweeted", index.member("retweeted"));
+            setDecoded(RETWEETED);
+        }
+        return isRetweeted;
+    }
+
+    @Override
+    public int getFavoriteCount() {
+        if (!isDecoded(FAVORITE_COUNT)) {
+            favoriteCount = ParseUtil.getInt("favorite_count", index.member("favorite_count"));
+            setDecoded(FAVORITE_COUNT);
+        }
+        return favoriteCount;
+    }
+
+    @Override
+    public User getUser() {
+        if (!isDecoded(USER)) {
+            JSONByteIndex userIndex = index.getObject("user");
+            if (userIndex != null) {
+                user = new LazyUserJSONImpl(userIndex);
+            } else {
+                user = index.isNull("user") ? null : status().getUser();
+            }
+            setDecoded(USER);
+        }
+        return user;
+    }
+
+    @Override
+    public boolean isRetweet() {
+        return !index.isNull("retweeted_status");
+    }
+
+    @Override
+    public Status getRetweetedStatus() {
+        if (!isDecoded(RETWEETED_STATUS)) {
+            JSONByteIndex retweetedIndex = index.getObject("retweeted_status");
+            if (retweetedIndex != null) {
+                retweetedStatus = new LazyStatusJSONImpl(retweetedIndex);
+            } else {
+                retweetedStatus = index.isNull("retweeted_status") ? null : status().getRetweetedStatus();
+            }
+            setDecoded(RETWEETED_STATUS);
+        }
+        return retweetedStatus;
+    }
+
+    @Override
+    public long[] getContributors() {
+        return status().getContributors();
+    }
+
+    @Override
+    public int getRetweetCount() {
+        if (!isDecoded(RETWEET_COUNT)) {
+            retweetCount = (int) ParseUtil.getLong("retweet_count", index.member("retweet_count"));
+            setDecoded(RETWEET_COUNT);
+        }
+        return retweetCount;
+    }
+
+    @Override
+    public boolean isRetweetedByMe() {
+        return status().isRetweetedByMe();
+    }
+
+    @Override
+    public long getCurrentUserRetweetId() {
+        return status().getCurrentUserRetweetId();
+    }
+
+    @Override
+    public boolean isPossiblySensitive() {
+        if (!isDecoded(POSSIBLY_SENSITIVE)) {
+            isPossiblySensitive = ParseUtil.getBoolean("possibly_sensitive", index.member("possibly_sensitive"));
+            setDecoded(POSSIBLY_SENSITIVE);
+        }
+        return isPossiblySensitive;
+    }
+
+    @Override
+    public String getLang() {
+        if (!isDecoded(LANG)) {
+            lang = index.isNull("lang") ? null : ParseUtil.getUnescapedString("lang", index.member("lang"));
+            setDecoded(LANG);
+        }
+        return lang;
+    }
+
+    @Override
+    public Scopes getScopes() {
+        return status().getScopes();
+    }
+
+    @Override
+    public String[] getWithheldInCountries() {
+        return status().getWithheldInCountries();
+    }
+
+    @Override
+    public long getQuotedStatusId() {
+        return status().getQuotedStatusId();
+    }
+
+    @Override
+    public Status getQuotedStatus() {
+        return status().getQuotedStatus();
+    }
+
+    @Override
+    public URLEntity getQuotedStatusPermalink() {
+        return status().getQuotedStatusPermalink();
+    }
+
+    @Override
+    public UserMentionEntity[] getUserMentionEntities() {
+        return status().getUserMentionEntities();
+    }
+
+    @Override
+    public URLEntity[] getURLEntities() {
+        return status().getURLEntities();
+    }
+
+    @Override
+    public HashtagEntity[] getHashtagEntities() {
+        return status().getHashtagEntities();
+    }
+
+    @Override
+    public MediaEntity[] getMediaEntities() {
+        return status().getMediaEntities();
+    }
+
+    @Override
+    public SymbolEntity[] getSymbolEntities() {
+        return status().getSymbolEntities();
+    }
+
+    @Override
+    public int compareTo(Status that) {
+        long delta = getId() - that.getId();
+        if (delta < Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE;
+        } else if (delta > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) delta;
+    }
+
+    private Object writeReplace() {
+        return status();
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) getId();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof Status && ((Status) obj).getId() == getId();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyStatusJSONImpl{" +
+                "json=" + index +
+                '}';
+    }
+}
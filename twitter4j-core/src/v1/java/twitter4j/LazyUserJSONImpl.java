@@ -0,0 +1,481 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.v1.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * User backed by the raw UTF-8 JSON and an index of its members, see {@link LazyStatusJSONImpl}.<br>
+ * Serialized as UserJSONImpl.
+ *
+ * @since Twitter4J 4.1.3
+ */
+/*package*/ final class LazyUserJSONImpl extends TwitterResponseImpl implements User, java.io.Serializable {
+    private static final long serialVersionUID = -2281945337466432085L;
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int SCREEN_NAME = 1 << 2;
+    private static final int LOCATION = 1 << 3;
+    private static final int PROFILE_IMAGE_URL = 1 << 4;
+    private static final int PROFILE_IMAGE_URL_HTTPS = 1 << 5;
+    private static final int PROTECTED = 1 << 6;
+    private static final int VERIFIED = 1 << 7;
+    private static final int FOLLOWERS_COUNT = 1 << 8;
+    private static final int FRIENDS_COUNT = 1 << 9;
+    private static final int STATUSES_COUNT = 1 << 10;
+    private static final int CREATED_AT = 1 << 11;
+    private static final int LANG = 1 << 12;
+
+    private final transient JSONByteIndex index;
+    // members are written before the corresponding bit is published. Threads accessing a member for the first time at
+    // once may each decode it, which is harmless as they write the same value, but set bits are never lost
+    private transient volatile int decoded;
+    private static final AtomicIntegerFieldUpdater<LazyUserJSONImpl> DECODED =
+            AtomicIntegerFieldUpdater.newUpdater(LazyUserJSONImpl.class, "decoded");
+    private transient volatile UserJSONImpl user;
+
+    private transient long id;
+    private transient String name;
+    private transient String screenName;
+    private transient String location;
+    private transient String profileImageUrl;
+    private transient String profileImageUrlHttps;
+    private transient boolean isProtected;
+    private transient boolean isVerified;
+    private transient int followersCount;
+    private transient int friendsCount;
+    private transient int statusesCount;
+    private transient LocalDateTime createdAt;
+    private transient String lang;
+
+    /*package*/ LazyUserJSONImpl(JSONByteIndex index) {
+        super();
+        this.index = index;
+    }
+
+    /**
+     * @return fully bound user
+     */
+    private UserJSONImpl user() {
+        UserJSONImpl user = this.user;
+        if (user == null) {
+            try {
+                user = new UserJSONImpl(index.toJSONObject());
+            } catch (TwitterException te) {
+                throw new JSONException(te.getMessage(), te);
+            }
+            this.user = user;
+        }
+        return user;
+    }
+
+    private boolean isDecoded(int member) {
+        return (decoded & member) != 0;
+    }
+
+    private void setDecoded(int member) {
+        DECODED.accumulateAndGet(this, member, (bits, bit) -> bits | bit);
+    }
+
+    private String rawString(String name) {
+        return ParseUtil.getRawString(name, index.member(name));
+    }
+
+    private int getInt(String name) {
+        return ParseUtil.getInt(name, index.member(name));
+    }
+
+    private boolean getBoolean(String name) {
+        return ParseUtil.getBoolean(name, index.member(name));
+    }
+
+    @Override
+    public long getId() {
+        if (!isDecoded(ID)) {
+            id = ParseUtil.getLong("id", index.member("id"));
+            setDecoded(ID);
+        }
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        if (!isDecoded(NAME)) {
+            name = rawString("name");
+            setDecoded(NAME);
+        }
+        return name;
+    }
+
+    @Override
+    public String getEmail() {
+        return user().getEmail();
+    }
+
+    @Override
+    public String getScreenName() {
+        if (!isDecoded(SCREEN_NAME)) {
+            screenName = rawString("screen_name");
+            setDecoded(SCREEN_NAME);
+        }
+        return screenName;
+    }
+
+    @Override
+    public String getLocation() {
+        if (!isDecoded(LOCATION)) {
+            location = rawString("location");
+            setDecoded(LOCATION);
+        }
+        return location;
+    }
+
+    @Override
+    public String getDescription() {
+        return user().getDescription();
+    }
+
+    @Override
+    public boolean isContributorsEnabled() {
+        return user().isContributorsEnabled();
+    }
+
+    @Override
+    public String getProfileImageURL() {
+        if (!isDecoded(PROFILE_IMAGE_URL)) {
+            profileImageUrl = rawString("profile_image_url");
+            setDecoded(PROFILE_IMAGE_URL);
+        }
+        return profileImageUrl;
+    }
+
+    @Override
+    public String getBiggerProfileImageURL() {
+        return user().getBiggerProfileImageURL();
+    }
+
+    @Override
+    public String getMiniProfileImageURL() {
+        return user().getMiniProfileImageURL();
+    }
+
+    @Override
+    public String getOriginalProfileImageURL() {
+        return user().getOriginalProfileImageURL();
+    }
+
+    @Override
+    public String get400x400ProfileImageURL() {
+        return user().get400x400ProfileImageURL();
+    }
+
+    @Override
+    public String getProfileImageURLHttps() {
+        if (!isDecoded(PROFILE_IMAGE_URL_HTTPS)) {
+            profileImageUrlHttps = rawString("profile_image_url_https");
+            setDecoded(PROFILE_IMAGE_URL_HTTPS);
+        }
+        return profileImageUrlHttps;
+    }
+
+    @Override
+    public String getBiggerProfileImageURLHttps() {
+        return user().getBiggerProfileImageURLHttps();
+    }
+
+    @Override
+    public String getMiniProfileImageURLHttps() {
+        return user().getMiniProfileImageURLHttps();
+    }
+
+    @Override
+    public String getOriginalProfileImageURLHttps() {
+        return user().getOriginalProfileImageURLHttps();
+    }
+
+    @Override
+    public String get400x400ProfileImageURLHttps() {
+        return user().get400x400ProfileImageURLHttps();
+    }
+
+    @Override
+    public boolean isDefaultProfileImage() {
+        return user().isDefaultProfileImage();
+    }
+
+    @Override
+    public String getURL() {
+        return user().getURL();
+    }
+
+    @Override
+    public boolean isProtected() {
+        if (!isDecoded(PROTECTED)) {
+            isProtected = getBoolean("protected");
+            setDecoded(PROTECTED);
+        }
+        return isProtected;
+    }
+
+    @Override
+    public int getFollowersCount() {
+        if (!isDecoded(FOLLOWERS_COUNT)) {
+            followersCount = getInt("followers_count");
+            setDecoded(FOLLOWERS_COUNT);
+        }
+        return followersCount;
+    }
+
+    @Override
+    public Status getStatus() {
+        return user().getStatus();
+    }
+
+    @Override
+    public String getProfileBackgroundColor() {
+        return user().getProfileBackgroundColor();
+    }
+
+    @Override
+    public String getProfileTextColor() {
+        return user().getProfileTextColor();
+    }
+
+    @Override
+    public String getProfileLinkColor() {
+        return user().getProfileLinkColor();
+    }
+
+    @Override
+    public String getProfileSidebarFillColor() {
+        return user().getProfileSidebarFillColor();
+    }
+
+    @Override
+    public String getProfileSidebarBorderColor() {
+        return user().getProfileSidebarBorderColor();
+    }
+
+    @Override
+    public boolean isProfileUseBackgroundImage() {
+        return user().isProfileUseBackgroundImage();
+    }
+
+    @Override
+    public boolean isDefaultProfile() {
+        return user().isDefaultProfile();
+    }
+
+    @Override
+    public boolean isShowAllInlineMedia() {
+        return user().isShowAllInlineMedia();
+    }
+
+    @Override
+    public int getFriendsCount() {
+        if (!isDecoded(FRIENDS_COUNT)) {
+            friendsCount = getInt("friends_count");
+            setDecoded(FRIENDS_COUNT);
+        }
+        return friendsCount;
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        if (!isDecoded(CREATED_AT)) {
+            try {
+                createdAt = ParseUtil.getDate("created_at", index.member("created_at"), "EEE MMM dd HH:mm:ss Z yyyy");
+            } catch (TwitterException te) {
+                throw new JSONException(te.getMessage(), te);
+            }
+            setDecoded(CREATED_AT);
+        }
+        return createdAt;
+    }
+
+    @Override
+    public int getFavouritesCount() {
+        return user().getFavouritesCount();
+    }
+
+    @Override
+    public int getUtcOffset() {
+        return user().getUtcOffset();
+    }
+
+    @Override
+    public String getTimeZone() {
+        return user().getTimeZone();
+    }
+
+    @Override
+    public String getProfileBackgroundImageURL() {
+        return user().getProfileBackgroundImageURL();
+    }
+
+    @Override
+    public String getProfileBackgroundImageUrlHttps() {
+        return user().getProfileBackgroundImageUrlHttps();
+    }
+
+    @Override
+    public String getProfileBannerURL() {
+        return user().getProfileBannerURL();
+    }
+
+    @Override
+    public String getProfileBannerRetinaURL() {
+        return user().getProfileBannerRetinaURL();
+    }
+
+    @Override
+    public String getProfileBannerIPadURL() {
+        return user().getProfileBannerIPadURL();
+    }
+
+    @Override
+    public String getProfileBannerIPadRetinaURL() {
+        return user().getProfileBannerIPadRetinaURL();
+    }
+
+    @Override
+    public String getProfileBannerMobileURL() {
+        return user().getProfileBannerMobileURL();
+    }
+
+    @Override
+    public String getProfileBannerMobileRetinaURL() {
+        return user().getProfileBannerMobileRetinaURL();
+    }
+
+    @Override
+    public String getProfileBanner300x100URL() {
+        return user().getProfileBanner300x100URL();
+    }
+
+    @Override
+    public String getProfileBanner600x200URL() {
+        return user().getProfileBanner600x200URL();
+    }
+
+    @Override
+    public String getProfileBanner1500x500URL() {
+        return user().getProfileBanner1500x500URL();
+    }
+
+    @Override
+    public boolean isProfileBackgroundTiled() {
+        return user().isProfileBackgroundTiled();
+    }
+
+    @Override
+    public String getLang() {
+        if (!isDecoded(LANG)) {
+            lang = rawString("lang");
+            setDecoded(LANG);
+        }
+        return lang;
+    }
+
+    @Override
+    public int getStatusesCount() {
+        if (!isDecoded(STATUSES_COUNT)) {
+            statusesCount = getInt("statuses_count");
+            setDecoded(STATUSES_COUNT);
+        }
+        return statusesCount;
+    }
+
+    @Override
+    public boolean isGeoEnabled() {
+        return user().isGeoEnabled();
+    }
+
+    @Override
+    public boolean isVerified() {
+        if (!isDecoded(VERIFIED)) {
+            isVerified = getBoolean("verified");
+            setDecoded(VERIFIED);
+        }
+        return isVerified;
+    }
+
+    @Override
+    public boolean isTranslator() {
+        return user().isTranslator();
+    }
+
+    @Override
+    public int getListedCount() {
+        return user().getListedCount();
+    }
+
+    @Override
+    public boolean isFollowRequestSent() {
+        return user().isFollowRequestSent();
+    }
+
+    @Override
+    public URLEntity[] getDescriptionURLEntities() {
+        return user().getDescriptionURLEntities();
+    }
+
+    @Override
+    public URLEntity getURLEntity() {
+        return user().getURLEntity();
+    }
+
+    @Override
+    public String[] getWithheldInCountries() {
+        return user().getWithheldInCountries();
+    }
+
+    @Override
+    public int compareTo(User that) {
+        return (int) (getId() - that.getId());
+    }
+
+    private Object writeReplace() {
+        return user();
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) getId();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof User && ((User) obj).getId() == getId();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyUserJSONImpl{" +
+                "json=" + index +
+                '}';
+    }
+}
@@ -56,9 +56,6 @@ import java.util.Objects;
 
     /*package*/
     static ResponseList<Location> createLocationList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         return createLocationList(res.asJSONArray(), jsonStoreEnabled);
     }
 
@@ -47,7 +47,6 @@ final class PlaceJSONImpl extends TwitterResponseImpl implements Place, java.io.
         JSONObject json = res.asJSONObject();
         init(json);
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(this, json);
         }
     }
@@ -138,9 +137,6 @@ final class PlaceJSONImpl extends TwitterResponseImpl implements Place, java.io.
     /*package*/
     static ResponseList<Place> createPlaceList(JSONArray list, HttpResponse res
             , boolean jsonStoreEnabled) throws TwitterException {
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         try {
             int size = list.length();
             ResponseList<Place> places =
@@ -17,6 +17,7 @@
 package twitter4j;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.GeoLocation;
 import twitter4j.v1.Query;
 import twitter4j.v1.QueryResult;
@@ -45,6 +46,10 @@ import java.util.Map;
     private String nextResults;
 
     /*package*/ QueryResultJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
+        this(res, jsonStoreEnabled, null);
+    }
+
+    /*package*/ QueryResultJSONImpl(HttpResponse res, boolean jsonStoreEnabled, @Nullable UserCache users) throws TwitterException {
         super(res);
         JSONObject json = res.asJSONObject();
         try {
@@ -59,12 +64,9 @@ import java.util.Map;
 
             JSONArray array = json.getJSONArray("statuses");
             tweets = new ArrayList<>(array.length());
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
             for (int i = 0; i < array.length(); i++) {
                 JSONObject tweet = array.getJSONObject(i);
-                tweets.add(new StatusJSONImpl(tweet, jsonStoreEnabled));
+                tweets.add(new StatusJSONImpl(tweet, jsonStoreEnabled, users));
             }
         } catch (JSONException jsone) {
             throw new TwitterException(jsone.getMessage() + ":" + json, jsone);
@@ -41,7 +41,6 @@ import java.util.Map;
         JSONObject json = res.asJSONObject();
         Map<String, RateLimitStatus> map = createRateLimitStatuses(json);
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(map, json);
         }
         return map;
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Raw JSON forms of objects, keyed by the identity of the objects.<br>
+ * Objects are weakly referenced so that a form is released together with its object, and no more than the capacity
+ * forms are retained: registering beyond it evicts the oldest form. Forms are held as UTF-8 bytes, so that parsed
+ * graphs such as JSONObject are not retained, and are visible from any thread.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class RawJSONStore {
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    // guarded by this
+    private final Entry[] buckets;
+    // entries in registration order, the next slot holds the oldest one
+    private final Entry[] ring;
+    private int next;
+    private int size;
+
+    /**
+     * @param capacity maximum number of retained forms
+     */
+    RawJSONStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        buckets = new Entry[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+        ring = new Entry[capacity];
+    }
+
+    /**
+     * Associates the raw JSON form with the object, replacing the one already associated.
+     *
+     * @param key  object
+     * @param json raw JSON as String, or JSONObject / JSONArray to be serialized
+     */
+    void put(Object key, Object json) {
+        put(key, (json instanceof String ? (String) json : json.toString()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void put(Object key, byte[] raw) {
+        int hash = System.identityHashCode(key);
+        synchronized (this) {
+            expungeStale();
+            int bucket = hash & (buckets.length - 1);
+            for (Entry entry = buckets[bucket]; entry != null; entry = entry.next) {
+                if (entry.get() == key) {
+                    entry.raw = raw;
+                    return;
+                }
+            }
+            Entry oldest = ring[next];
+            if (oldest != null) {
+                remove(oldest);
+                oldest.clear();
+            }
+            Entry entry = new Entry(key, hash, raw, next, buckets[bucket], queue);
+            buckets[bucket] = entry;
+            ring[next] = entry;
+            next = next + 1 == ring.length ? 0 : next + 1;
+            size++;
+        }
+    }
+
+    /**
+     * @param key object
+     * @return raw JSON form associated with the object, or null
+     */
+    @Nullable
+    String get(Object key) {
+        int hash = System.identityHashCode(key);
+        byte[] raw = null;
+        synchronized (this) {
+            expungeStale();
+            for (Entry entry = buckets[hash & (buckets.length - 1)]; entry != null; entry = entry.next) {
+                if (entry.get() == key) {
+                    raw = entry.raw;
+                    break;
+                }
+            }
+        }
+        return raw == null ? null : new String(raw, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a store with the specified capacity, holding the latest forms of this store.
+     *
+     * @param capacity maximum number of retained forms
+     * @return new store
+     */
+    RawJSONStore resize(int capacity) {
+        RawJSONStore resized = new RawJSONStore(capacity);
+        synchronized (this) {
+            expungeStale();
+            for (int i = 0; i < ring.length; i++) {
+                Entry entry = ring[(next + i) % ring.length];
+                Object key = entry == null ? null : entry.get();
+                if (key != null) {
+                    resized.put(key, entry.raw);
+                }
+            }
+        }
+        return resized;
+    }
+
+    /**
+     * @return maximum number of retained forms
+     */
+    int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * @return number of retained forms
+     */
+    synchronized int size() {
+        expungeStale();
+        return size;
+    }
+
+    private void expungeStale() {
+        Reference<?> stale;
+        while ((stale = queue.poll()) != null) {
+            remove((Entry) stale);
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (ring[entry.slot] != entry) {
+            // already evicted
+            return;
+        }
+        ring[entry.slot] = null;
+        size--;
+        int bucket = entry.hash & (buckets.length - 1);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = entry.next;
+            return;
+        }
+        for (Entry prev = buckets[bucket]; prev != null; prev = prev.next) {
+            if (prev.next == entry) {
+                prev.next = entry.next;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RawJSONStore{" +
+                "size=" + size +
+                ", capacity=" + ring.length +
+                '}';
+    }
+
+    private static final class Entry extends WeakReference<Object> {
+        private final int hash;
+        private final int slot;
+        private byte[] raw;
+        private Entry next;
+
+        private Entry(Object key, int hash, byte[] raw, int slot, Entry next, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = hash;
+            this.raw = raw;
+            this.slot = slot;
+            this.next = next;
+        }
+    }
+}
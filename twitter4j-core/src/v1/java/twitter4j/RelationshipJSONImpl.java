@@ -46,7 +46,6 @@ import java.util.Objects;
     /*package*/ RelationshipJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         this(res, res.asJSONObject());
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(this, res.asJSONObject());
         }
     }
@@ -80,9 +79,6 @@ import java.util.Objects;
     /*package*/
     static ResponseList<Relationship> createRelationshipList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         try {
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
             JSONArray list = res.asJSONArray();
             int size = list.length();
             ResponseList<Relationship> relationships = new ResponseListImpl<>(size, res);
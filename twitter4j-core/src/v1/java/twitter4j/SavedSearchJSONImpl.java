@@ -39,9 +39,6 @@ import java.util.Objects;
 
     /*package*/ SavedSearchJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         super(res);
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         JSONObject json = res.asJSONObject();
         init(json);
         if (jsonStoreEnabled) {
@@ -55,9 +52,6 @@ import java.util.Objects;
 
     /*package*/
     static ResponseList<SavedSearch> createSavedSearchList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         JSONArray json = res.asJSONArray();
         ResponseList<SavedSearch> savedSearches;
         try {
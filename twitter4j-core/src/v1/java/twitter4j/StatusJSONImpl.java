@@ -16,6 +16,7 @@
 
 package twitter4j;
 
+import org.jetbrains.annotations.Nullable;
 import twitter4j.v1.*;
 
 import java.time.LocalDateTime;
@@ -30,6 +31,7 @@ import static twitter4j.ParseUtil.getDate;
  */
 /*package*/ final class StatusJSONImpl extends TwitterResponseImpl implements Status, java.io.Serializable {
     private static final long serialVersionUID = -6461195536943679985L;
+    private static final long[] NO_CONTRIBUTORS = new long[0];
 
     private LocalDateTime createdAt;
     private long id;
@@ -68,18 +70,25 @@ import static twitter4j.ParseUtil.getDate;
     private URLEntity quotedStatusPermalink;
 
     /*package*/StatusJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
+        this(res, jsonStoreEnabled, null);
+    }
+
+    /*package*/StatusJSONImpl(HttpResponse res, boolean jsonStoreEnabled, @Nullable UserCache users) throws TwitterException {
         super(res);
         JSONObject json = res.asJSONObject();
-        init(json);
+        init(json, users);
         if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
             TwitterObjectFactory.registerJSONObject(this, json);
         }
     }
 
     /*package*/StatusJSONImpl(JSONObject json, boolean jsonStoreEnabled) throws TwitterException {
+        this(json, jsonStoreEnabled, null);
+    }
+
+    /*package*/StatusJSONImpl(JSONObject json, boolean jsonStoreEnabled, @Nullable UserCache users) throws TwitterException {
         super();
-        init(json);
+        init(json, users);
         if (jsonStoreEnabled) {
             TwitterObjectFactory.registerJSONObject(this, json);
         }
@@ -87,7 +96,16 @@ import static twitter4j.ParseUtil.getDate;
 
     /*package*/ StatusJSONImpl(JSONObject json) throws TwitterException {
         super();
-        init(json);
+        init(json, null);
+    }
+
+    /**
+     * @param json  status JSON
+     * @param users cache sharing the users across statuses, or null
+     */
+    /*package*/ StatusJSONImpl(JSONObject json, @Nullable UserCache users) throws TwitterException {
+        super();
+        init(json, users);
     }
 
     /* Only for serialization purposes. */
@@ -95,7 +113,7 @@ import static twitter4j.ParseUtil.getDate;
 
     }
 
-    private void init(JSONObject json) throws TwitterException {
+    private void init(JSONObject json, @Nullable UserCache users) throws TwitterException {
         id = ParseUtil.getLong("id", json);
         source = ParseUtil.getUnescapedString("source", json);
         createdAt = getDate("created_at", json);
@@ -110,7 +128,7 @@ import static twitter4j.ParseUtil.getDate;
         isPossiblySensitive = ParseUtil.getBoolean("possibly_sensitive", json);
         try {
             if (!json.isNull("user")) {
-                user = new UserJSONImpl(json.getJSONObject("user"));
+                user = users == null ? new UserJSONImpl(json.getJSONObject("user")) : users.get(json.getJSONObject("user"));
             }
             geoLocation = JSONImplFactory.createGeoLocation(json);
             if (!json.isNull("place")) {
@@ -118,22 +136,22 @@ import static twitter4j.ParseUtil.getDate;
             }
 
             if (!json.isNull("retweeted_status")) {
-                retweetedStatus = new StatusJSONImpl(json.getJSONObject("retweeted_status"));
+                retweetedStatus = new StatusJSONImpl(json.getJSONObject("retweeted_status"), users);
             }
             if (!json.isNull("contributors")) {
                 JSONArray contributorsArray = json.getJSONArray("contributors");
-                contributorsIDs = new long[contributorsArray.length()];
+                contributorsIDs = contributorsArray.length() == 0 ? NO_CONTRIBUTORS : new long[contributorsArray.length()];
                 for (int i = 0; i < contributorsArray.length(); i++) {
                     contributorsIDs[i] = Long.parseLong(contributorsArray.getString(i));
                 }
             } else {
-                contributorsIDs = new long[0];
+                contributorsIDs = NO_CONTRIBUTORS;
             }
 
-            collectEntities(json);
+            collectEntities(json, users);
             mergeExtendedEntities(json);
             if (!json.isNull("quoted_status")) {
-                quotedStatus = new StatusJSONImpl(json.getJSONObject("quoted_status"));
+                quotedStatus = new StatusJSONImpl(json.getJSONObject("quoted_status"), users);
             }
             if (!json.isNull("quoted_status_id")) {
                 quotedStatusId = ParseUtil.getLong("quoted_status_id", json);
@@ -144,11 +162,11 @@ import static twitter4j.ParseUtil.getDate;
                 displayTextRangeEnd = indicesArray.getInt(1);
             }
 
-            userMentionEntities = userMentionEntities == null ? new UserMentionEntity[0] : userMentionEntities;
-            urlEntities = urlEntities == null ? new URLEntity[0] : urlEntities;
-            hashtagEntities = hashtagEntities == null ? new HashtagEntity[0] : hashtagEntities;
-            symbolEntities = symbolEntities == null ? new SymbolEntity[0] : symbolEntities;
-            mediaEntities = mediaEntities == null ? new MediaEntity[0] : mediaEntities;
+            userMentionEntities = userMentionEntities == null ? EntitiesParseUtil.NO_USER_MENTIONS : userMentionEntities;
+            urlEntities = urlEntities == null ? EntitiesParseUtil.NO_URLS : urlEntities;
+            hashtagEntities = hashtagEntities == null ? EntitiesParseUtil.NO_HASHTAGS : hashtagEntities;
+            symbolEntities = symbolEntities == null ? EntitiesParseUtil.NO_SYMBOLS : symbolEntities;
+            mediaEntities = mediaEntities == null ? EntitiesParseUtil.NO_MEDIA : mediaEntities;
             if (!json.isNull("text")) {
                 text = HTMLEntity.unescapeAndSlideEntityIncdices(json.getString("text"), userMentionEntities,
                         urlEntities, hashtagEntities, mediaEntities);
@@ -159,7 +177,7 @@ import static twitter4j.ParseUtil.getDate;
             }
 
             if (!json.isNull("extended_tweet")) {
-                mergeExtendedTweet(json.getJSONObject("extended_tweet"));
+                mergeExtendedTweet(json.getJSONObject("extended_tweet"), users);
             }
 
             if (!json.isNull("current_user_retweet")) {
@@ -194,7 +212,7 @@ import static twitter4j.ParseUtil.getDate;
         }
     }
 
-    private void collectEntities(JSONObject json) throws JSONException, TwitterException {
+    private void collectEntities(JSONObject json, @Nullable UserCache users) throws JSONException, TwitterException {
         if (!json.isNull("entities")) {
             JSONObject entities = json.getJSONObject("entities");
             userMentionEntities = EntitiesParseUtil.getUserMentions(entities);
@@ -204,7 +222,7 @@ import static twitter4j.ParseUtil.getDate;
             mediaEntities = EntitiesParseUtil.getMedia(entities);
         }
         if (!json.isNull("quoted_status")) {
-            quotedStatus = new StatusJSONImpl(json.getJSONObject("quoted_status"));
+            quotedStatus = new StatusJSONImpl(json.getJSONObject("quoted_status"), users);
         }
         if (!json.isNull("quoted_status_id")) {
             quotedStatusId = ParseUtil.getLong("quoted_status_id", json);
@@ -228,19 +246,19 @@ import static twitter4j.ParseUtil.getDate;
         }
     }
 
-    private void mergeExtendedTweet(JSONObject extendedTweet) throws TwitterException {
+    private void mergeExtendedTweet(JSONObject extendedTweet, @Nullable UserCache users) throws TwitterException {
         try {
             JSONArray indicesArray = extendedTweet.getJSONArray("display_text_range");
             displayTextRangeStart = indicesArray.getInt(0);
             displayTextRangeEnd = indicesArray.getInt(1);
 
-            collectEntities(extendedTweet);
+            collectEntities(extendedTweet, users);
 
-            userMentionEntities = userMentionEntities == null ? new UserMentionEntity[0] : userMentionEntities;
-            urlEntities = urlEntities == null ? new URLEntity[0] : urlEntities;
-            hashtagEntities = hashtagEntities == null ? new HashtagEntity[0] : hashtagEntities;
-            symbolEntities = symbolEntities == null ? new SymbolEntity[0] : symbolEntities;
-            mediaEntities = mediaEntities == null ? new MediaEntity[0] : mediaEntities;
+            userMentionEntities = userMentionEntities == null ? EntitiesParseUtil.NO_USER_MENTIONS : userMentionEntities;
+            urlEntities = urlEntities == null ? EntitiesParseUtil.NO_URLS : urlEntities;
+            hashtagEntities = hashtagEntities == null ? EntitiesParseUtil.NO_HASHTAGS : hashtagEntities;
+            symbolEntities = symbolEntities == null ? EntitiesParseUtil.NO_SYMBOLS : symbolEntities;
+            mediaEntities = mediaEntities == null ? EntitiesParseUtil.NO_MEDIA : mediaEntities;
             text = HTMLEntity.unescapeAndSlideEntityIncdices(extendedTweet.getString("full_text"), userMentionEntities,
                     urlEntities, hashtagEntities, mediaEntities);
         } catch (JSONException jsone) {
@@ -433,21 +451,21 @@ import static twitter4j.ParseUtil.getDate;
 
     /*package*/
     static ResponseList<Status> createStatusList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
+        return createStatusList(res, jsonStoreEnabled, null);
+    }
+
+    /*package*/
+    static ResponseList<Status> createStatusList(HttpResponse res, boolean jsonStoreEnabled, @Nullable UserCache users) throws TwitterException {
         try {
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
-            JSONArray list = res.asJSONArray();
-            int size = list.length();
-            ResponseList<Status> statuses = new ResponseListImpl<>(size, res);
-            for (int i = 0; i < size; i++) {
-                JSONObject json = list.getJSONObject(i);
-                Status status = new StatusJSONImpl(json);
+            ResponseList<Status> statuses = new ResponseListImpl<>(res);
+            // bind statuses while the rest of the response is still being received
+            JSONArray list = res.asJSONArray(json -> {
+                Status status = new StatusJSONImpl(json, users);
                 if (jsonStoreEnabled) {
                     TwitterObjectFactory.registerJSONObject(status, json);
                 }
                 statuses.add(status);
-            }
+            });
             if (jsonStoreEnabled) {
                 TwitterObjectFactory.registerJSONObject(statuses, list);
             }
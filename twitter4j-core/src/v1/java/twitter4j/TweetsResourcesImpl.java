@@ -21,12 +21,12 @@ class TweetsResourcesImpl extends APIResourceBase implements TweetsResources {
     private final String uploadBaseURL;
 
 
-    TweetsResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, HttpParameter[] IMPLICIT_PARAMS,
+    TweetsResourcesImpl(HttpClient http, ObjectFactory factory, String restBaseURL, Authorization auth, boolean mbeanEnabled, EndpointGuard endpointGuard, HttpParameter[] IMPLICIT_PARAMS,
                         String IMPLICIT_PARAMS_STR,
                         List<Consumer<RateLimitStatusEvent>> rateLimitStatusListeners,
                         List<Consumer<RateLimitStatusEvent>> rateLimitReachedListeners,
                         String uploadBaseURL) {
-        super(http, factory, restBaseURL, auth, mbeanEnabled, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
+        super(http, factory, restBaseURL, auth, mbeanEnabled, endpointGuard, IMPLICIT_PARAMS, IMPLICIT_PARAMS_STR, rateLimitStatusListeners, rateLimitReachedListeners);
         this.uploadBaseURL = uploadBaseURL;
     }
 
@@ -2,8 +2,8 @@ package twitter4j;
 
 import twitter4j.v1.*;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -14,11 +14,15 @@ public final class TwitterObjectFactory {
         throw new AssertionError("not intended to be instantiated.");
     }
 
-    private static final ThreadLocal<Map> rawJsonMap = ThreadLocal.withInitial(HashMap::new);
+    // default number of raw JSON forms retained at most
+    private static final int DEFAULT_RAW_JSON_STORE_CAPACITY = 1 << 12;
+    private static volatile RawJSONStore rawJSONStore = new RawJSONStore(DEFAULT_RAW_JSON_STORE_CAPACITY);
 
     /**
      * Returns a raw JSON form of the provided object.<br>
-     * Note that raw JSON forms can be retrieved only from the same thread invoked the last method call and will become inaccessible once another method call
+     * Raw JSON forms can be retrieved from any thread as long as the object is reachable. Only the forms of the latest
+     * objects are retained, 4096 at most by default; the store is shared by all Twitter instances and streams, so a busy
+     * stream may evict a form before it is retrieved. Use {@link #setRawJSONStoreCapacity(int)} to retain more.
      *
      * @param obj target object to retrieve JSON
      * @return raw JSON
@@ -28,15 +32,28 @@ public final class TwitterObjectFactory {
         if (!registeredAtleastOnce) {
             throw new IllegalStateException("Apparently jsonStoreEnabled is not set to true.");
         }
-        Object json = rawJsonMap.get().get(obj);
-        if (json instanceof String) {
-            return (String) json;
-        } else if (json != null) {
-            // object must be instance of JSONObject
-            return json.toString();
-        } else {
-            return null;
-        }
+        return rawJSONStore.get(obj);
+    }
+
+    /**
+     * Sets the number of raw JSON forms retained at most.<br>
+     * The latest forms already retained are kept, as many as the new capacity allows. Forms registered by other threads
+     * while the capacity is being changed may be dropped.
+     *
+     * @param capacity maximum number of retained raw JSON forms
+     * @throws IllegalArgumentException when capacity is not positive
+     * @since Twitter4J 4.1.3
+     */
+    public static synchronized void setRawJSONStoreCapacity(int capacity) {
+        rawJSONStore = rawJSONStore.resize(capacity);
+    }
+
+    /**
+     * @return number of raw JSON forms retained at most
+     * @since Twitter4J 4.1.3
+     */
+    public static int getRawJSONStoreCapacity() {
+        return rawJSONStore.capacity();
     }
 
     /**
@@ -55,6 +72,26 @@ public final class TwitterObjectFactory {
         }
     }
 
+    /**
+     * Constructs a Status object from rawJSON string, skipping members with the given names at any depth.<br>
+     * Skipping a member required to bind a nested object, such as "indices" of entities, makes this method
+     * throw TwitterException.
+     *
+     * @param rawJSON      raw JSON form as String
+     * @param skippedNames names of the members not to be parsed, see
+     *                     {@link twitter4j.Twitter.TwitterBuilder#skippedJSONFields(String...)}
+     * @return Status
+     * @throws TwitterException when provided string is not a valid JSON string, or a required member is skipped.
+     * @since Twitter4J 4.1.3
+     */
+    public static Status createStatus(String rawJSON, Set<String> skippedNames) throws TwitterException {
+        try {
+            return new StatusJSONImpl(new JSONObject(new JSONTokener(rawJSON, skippedNames)));
+        } catch (JSONException e) {
+            throw new TwitterException(e);
+        }
+    }
+
     /**
      * Constructs a User object from rawJSON string.
      *
@@ -71,6 +108,26 @@ public final class TwitterObjectFactory {
         }
     }
 
+    /**
+     * Constructs a User object from rawJSON string, skipping members with the given names at any depth.<br>
+     * Skipping a member required to bind a nested object, such as "indices" of entities, makes this method
+     * throw TwitterException.
+     *
+     * @param rawJSON      raw JSON form as String
+     * @param skippedNames names of the members not to be parsed, see
+     *                     {@link twitter4j.Twitter.TwitterBuilder#skippedJSONFields(String...)}
+     * @return User
+     * @throws TwitterException when provided string is not a valid JSON string, or a required member is skipped.
+     * @since Twitter4J 4.1.3
+     */
+    public static User createUser(String rawJSON, Set<String> skippedNames) throws TwitterException {
+        try {
+            return new UserJSONImpl(new JSONObject(new JSONTokener(rawJSON, skippedNames)));
+        } catch (JSONException e) {
+            throw new TwitterException(e);
+        }
+    }
+
     /**
      * Constructs an AccountTotals object from rawJSON string.
      *
@@ -301,25 +358,16 @@ public final class TwitterObjectFactory {
         }
     }
 
-    /**
-     * clear raw JSON forms associated with the current thread.<br>
-     *
-     * @since Twitter4J 2.1.7
-     */
-    static void clearThreadLocalMap() {
-        rawJsonMap.get().clear();
-    }
-
     private static boolean registeredAtleastOnce = false;
 
     /**
-     * associate a raw JSON form to the current thread<br>
+     * associate a raw JSON form to the object<br>
      *
      * @since Twitter4J 2.1.7
      */
     static <T> T registerJSONObject(T key, Object json) {
         registeredAtleastOnce = true;
-        rawJsonMap.get().put(key, json);
+        rawJSONStore.put(key, json);
         return key;
     }
 }
\ No newline at end of file
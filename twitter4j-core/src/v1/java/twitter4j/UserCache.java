@@ -0,0 +1,185 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.management.UserCacheStatistics;
+import twitter4j.v1.User;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache sharing one User instance across the statuses by the same author.<br>
+ * Users are keyed by id and versioned by a 64-bit hash of all their JSON members, so that a cached user is handed out
+ * only while the incoming JSON carries the very same values; any change, such as in followers_count, binds and caches
+ * the new version. Hashing the members is much cheaper than binding them, and repeated authors don't hold their own
+ * copy of the same strings.<br>
+ * The cache is direct mapped: a user replaces whatever occupied its slot, which keeps it lock free and bounded.
+ *
+ * @since Twitter4J 4.1.3
+ */
+final class UserCache implements UserCacheStatistics, java.io.Serializable {
+    private static final long serialVersionUID = 6130867326599604417L;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int capacity;
+    private final boolean compact;
+    private transient AtomicReferenceArray<Entry> entries;
+    private transient LongAdder hitCount = new LongAdder();
+    private transient LongAdder missCount = new LongAdder();
+
+    /**
+     * @param capacity maximum number of users, rounded up to a power of two
+     * @param compact  bind users as {@link CompactUserJSONImpl}
+     */
+    UserCache(int capacity, boolean compact) {
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.compact = compact;
+        entries = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * @param json user JSON
+     * @return cached user if identical to the JSON, or newly bound user
+     * @throws TwitterException when the JSON is not a user
+     */
+    User get(JSONObject json) throws TwitterException {
+        long id = ParseUtil.getLong("id", json);
+        long version = hash(FNV_OFFSET_BASIS, json);
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & (capacity - 1);
+        Entry entry = entries.get(slot);
+        if (entry != null && entry.id == id && entry.version == version) {
+            hitCount.increment();
+            return entry.user;
+        }
+        missCount.increment();
+        User user = compact ? new CompactUserJSONImpl(json) : new UserJSONImpl(json);
+        entries.set(slot, new Entry(id, version, user));
+        return user;
+    }
+
+    private static long hash(long h, Object value) {
+        if (value instanceof String) {
+            String str = (String) value;
+            h = mix(h, 's');
+            for (int i = 0; i < str.length(); i++) {
+                h = mix(h, str.charAt(i));
+            }
+            // terminates the string, so that adjacent strings can't be shifted into each other
+            return mix(h, str.length());
+        } else if (value instanceof JSONObject) {
+            JSONObject json = (JSONObject) value;
+            h = mix(h, '{');
+            for (int i = 0; i < json.length(); i++) {
+                h = hash(hash(h, json.nameAt(i)), json.valueAt(i));
+            }
+            return mix(h, '}');
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            h = mix(h, '[');
+            for (int i = 0; i < array.length(); i++) {
+                h = hash(h, array.opt(i));
+            }
+            return mix(h, ']');
+        } else if (value instanceof Integer || value instanceof Long) {
+            return mixLong(mix(h, 'n'), ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            return mixLong(mix(h, 'd'), Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean) {
+            return mix(h, (Boolean) value ? 't' : 'f');
+        }
+        // JSONObject.NULL
+        return mix(h, '0');
+    }
+
+    private static long mixLong(long h, long value) {
+        for (int i = 0; i < 64; i += 16) {
+            h = mix(h, (int) (value >>> i) & 0xffff);
+        }
+        return h;
+    }
+
+    private static long mix(long h, int value) {
+        return (h ^ value) * FNV_PRIME;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long lookups = hits + getMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (entries.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        entries = new AtomicReferenceArray<>(capacity);
+        hitCount = new LongAdder();
+        missCount = new LongAdder();
+    }
+
+    @Override
+    public String toString() {
+        return "UserCache{" +
+                "capacity=" + capacity +
+                ", compact=" + compact +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final long version;
+        private final User user;
+
+        Entry(long id, long version, User user) {
+            this.id = id;
+            this.version = version;
+            this.user = user;
+        }
+    }
+}
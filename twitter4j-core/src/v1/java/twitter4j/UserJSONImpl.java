@@ -75,9 +75,6 @@ import java.util.Arrays;
 
     /*package*/UserJSONImpl(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         super(res);
-        if (jsonStoreEnabled) {
-            TwitterObjectFactory.clearThreadLocalMap();
-        }
         JSONObject json = res.asJSONObject();
         init(json);
         if (jsonStoreEnabled) {
@@ -185,7 +182,7 @@ import java.util.Arrays;
                 if (!descriptionEntitiesJSON.isNull("urls")) {
                     JSONArray urlsArray = descriptionEntitiesJSON.getJSONArray("urls");
                     int len = urlsArray.length();
-                    URLEntity[] urlEntities = new URLEntity[len];
+                    URLEntity[] urlEntities = len == 0 ? EntitiesParseUtil.NO_URLS : new URLEntity[len];
                     for (int i = 0; i < len; i++) {
                         urlEntities[i] = new URLEntityJSONImpl(urlsArray.getJSONObject(i));
                     }
@@ -193,7 +190,7 @@ import java.util.Arrays;
                 }
             }
         }
-        return new URLEntity[0];
+        return EntitiesParseUtil.NO_URLS;
     }
 
     @Override
@@ -514,9 +511,6 @@ import java.util.Arrays;
     /*package*/
     static PagableResponseList<User> createPagableUserList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         try {
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("users");
             int size = list.length();
@@ -541,15 +535,24 @@ import java.util.Arrays;
 
     /*package*/
     static ResponseList<User> createUserList(HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
-        return createUserList(res.asJSONArray(), res, jsonStoreEnabled);
+        ResponseList<User> users = new ResponseListImpl<>(res);
+        // bind users while the rest of the response is still being received
+        JSONArray list = res.asJSONArray(json -> {
+            User user = new UserJSONImpl(json);
+            users.add(user);
+            if (jsonStoreEnabled) {
+                TwitterObjectFactory.registerJSONObject(user, json);
+            }
+        });
+        if (jsonStoreEnabled) {
+            TwitterObjectFactory.registerJSONObject(users, list);
+        }
+        return users;
     }
 
     /*package*/
     static ResponseList<User> createUserList(JSONArray list, HttpResponse res, boolean jsonStoreEnabled) throws TwitterException {
         try {
-            if (jsonStoreEnabled) {
-                TwitterObjectFactory.clearThreadLocalMap();
-            }
             int size = list.length();
             ResponseList<User> users =
                     new ResponseListImpl<>(size, res);